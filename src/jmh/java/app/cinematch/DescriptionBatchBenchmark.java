@@ -0,0 +1,93 @@
+package app.cinematch;
+
+import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaEndpointPool;
+import app.cinematch.api.ResiliencePolicy;
+import app.cinematch.api.fake.FakeOllamaConfig;
+import app.cinematch.api.fake.FakeOllamaServer;
+import app.cinematch.api.fake.LatencyDistribution;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Descriptions d’une liste de titres : appels regroupés
+ * ({@link MovieRecommenderService#generateDescriptions(List)}) contre un appel
+ * {@link MovieRecommenderService#generateDescription(String)} par titre, sur le
+ * faux serveur Ollama avec une latence de premier token fixe.
+ *
+ * <p>Un service neuf par invocation : le cache de descriptions ne sert jamais.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class DescriptionBatchBenchmark {
+
+    /** Titres à décrire. */
+    @Param({"10", "100"})
+    public int titles;
+
+    /** Latence du premier token par requête (ms). */
+    @Param({"0", "20"})
+    public int latencyMs;
+
+    private FakeOllamaServer server;
+    private OllamaClient client;
+    private List<String> list;
+    private MovieRecommenderService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant()
+                .withFirstToken(LatencyDistribution.fixed(latencyMs)));
+        client = new OllamaClient(OllamaEndpointPool.single(server.baseUrl()), FakeOllamaConfig.DEFAULT_MODEL,
+                ResiliencePolicy.defaults());
+        list = new ArrayList<>(titles);
+        for (int i = 1; i <= titles; i++) {
+            list.add("Film " + i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void freshService() {
+        service = new MovieRecommenderService(client, (title, status) -> { });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Map<String, String> batched() {
+        return service.generateDescriptions(list);
+    }
+
+    @Benchmark
+    public Map<String, String> oneCallPerTitle() {
+        final Map<String, String> out = new LinkedHashMap<>();
+        for (String title : list) {
+            out.put(title, service.generateDescription(title));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,90 @@
+package app.cinematch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût du parsing des réponses LLM de {@link MovieRecommenderService} :
+ * extraction de l’objet JSON, lecture Jackson et repli « première ligne ».
+ *
+ * <p>Trois formes de réponse observées en pratique : JSON seul, JSON noyé
+ * dans du texte (préambule + markdown) et texte libre sans JSON.</p>
+ *
+ * <p>Les méthodes privées du service sont appelées par des {@link MethodHandle}
+ * constants, que le JIT intègre comme un appel direct.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationParsingBenchmark {
+
+    private static final String JSON = "{\"title\":\"Heat\",\"pitch\":\"Un duel Pacino / De Niro "
+            + "dans un Los Angeles nocturne.\",\"year\":\"1995\",\"platform\":\"Netflix\"}";
+
+    private static final MethodHandle PARSE = handle("parse", Object.class);
+    private static final MethodHandle EXTRACT_JSON_OBJECT = handle("extractJsonObject", String.class);
+    private static final MethodHandle EXTRACT_FIRST_LINE = handle("extractFirstMeaningfulLine", String.class);
+
+    @Param({"json", "chatty", "text"})
+    public String shape;
+
+    private MovieRecommenderService service;
+    private String raw;
+
+    @Setup
+    public void setUp() {
+        // Aucun appel réseau : seules les méthodes de parsing sont mesurées.
+        service = new MovieRecommenderService("http://localhost:1", "bench", (t, s) -> { });
+        switch (shape) {
+            case "json" -> raw = JSON;
+            case "chatty" -> raw = "Bien sûr ! Voici ma recommandation :\n\n```json\n" + JSON
+                    + "\n```\n\nBon visionnage, et n’hésite pas si tu veux une autre idée.";
+            default -> raw = "\n  - Heat (1995) : un duel Pacino / De Niro.\n"
+                    + "Disponible sur Netflix.\nUn classique du polar urbain.";
+        }
+    }
+
+    @Benchmark
+    public Object parse() throws Throwable {
+        return (Object) PARSE.invokeExact(service, raw);
+    }
+
+    @Benchmark
+    public String extractJsonObject() throws Throwable {
+        return (String) EXTRACT_JSON_OBJECT.invokeExact(service, raw);
+    }
+
+    @Benchmark
+    public String extractFirstMeaningfulLine() throws Throwable {
+        return (String) EXTRACT_FIRST_LINE.invokeExact(service, raw);
+    }
+
+    /** Méthode privée {@code (String) -> returnType} du service, typée {@code (service, String) -> returnType}. */
+    private static MethodHandle handle(final String name, final Class<?> returnType) {
+        try {
+            final MethodHandles.Lookup lookup =
+                    MethodHandles.privateLookupIn(MovieRecommenderService.class, MethodHandles.lookup());
+            final MethodHandle method = lookup.unreflect(
+                    MovieRecommenderService.class.getDeclaredMethod(name, String.class));
+            return method.asType(MethodType.methodType(returnType, MovieRecommenderService.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package app.cinematch.agent;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût de {@link ConversationMemory#toPromptString()} (appelé à chaque tour de chat)
+ * pour une mémoire pleine, selon sa taille.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversationMemoryBenchmark {
+
+    @Param({"10", "50"})
+    public int maxMessages;
+
+    private ConversationMemory memory;
+
+    @Setup
+    public void setUp() {
+        memory = new ConversationMemory(maxMessages);
+        for (int i = 0; i < maxMessages; i++) {
+            memory.addUserMessage("Propose-moi un thriller des années 90 numéro " + i);
+            memory.addAssistantMessage("Je te conseille Heat (1995), un duel Pacino / De Niro "
+                    + "dans un Los Angeles nocturne. Veux-tu l’ajouter à ta liste d’envie ?");
+        }
+    }
+
+    @Benchmark
+    public String toPromptString() {
+        return memory.toPromptString();
+    }
+}
@@ -0,0 +1,162 @@
+package app.cinematch.agent.langchain;
+
+import app.cinematch.MovieRecommenderService;
+import app.cinematch.agent.Profile;
+import app.cinematch.agent.tools.BulkTools;
+import app.cinematch.agent.tools.LibraryTools;
+import app.cinematch.agent.tools.MaintenanceTools;
+import app.cinematch.agent.tools.MultiActionTools;
+import app.cinematch.agent.tools.ViewingTools;
+import app.cinematch.agent.tools.WishlistTools;
+import app.cinematch.api.OllamaClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.service.tool.ToolExecutor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Surcoût du cadre agent par tour, modèle exclu ({@link ScriptedChatModel}) :
+ * tour complet du bridge, construction du proxy {@code AiServices}, sérialisation
+ * des schémas d’outils, fenêtre {@code MessageWindowChatMemory} et exécution
+ * instrumentée d’un outil.
+ *
+ * <p>Les outils scriptés ne font que lire un stockage absent : leur coût propre
+ * est négligeable devant celui du cadre.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgentTurnBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Appels d’outils par tour. */
+    @Param({"0", "1", "5"})
+    public int toolCalls;
+
+    private Path dir;
+    private ScriptedChatModel model;
+    private MovieRecommenderService service;
+    private LangChain4jAgentBridge bridge;
+    private List<ToolSpecification> specifications;
+    private ToolExecutor getStats;
+    private ToolExecutionRequest getStatsRequest;
+    private MessageWindowChatMemory memory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("cinematch-agent-bench");
+        System.setProperty("cinematch.storage", dir.resolve("absent.json").toString());
+        final List<ScriptedChatModel.ToolCall> script = new ArrayList<>();
+        for (int i = 0; i < toolCalls; i++) {
+            script.add(i % 2 == 0
+                    ? new ScriptedChatModel.ToolCall("getListByStatus", "{\"status\":\"envie\"}")
+                    : new ScriptedChatModel.ToolCall("getStats", "{\"detail\":\"all\"}"));
+        }
+        model = new ScriptedChatModel(script, "C'est fait.");
+        service = new MovieRecommenderService(new OllamaClient("http://127.0.0.1:9", "bench"), (t, s) -> { });
+        bridge = new LangChain4jAgentBridge(model, Profile.defaultCinemaExpert(), service);
+
+        final Map<ToolSpecification, ToolExecutor> tools = InstrumentedTools.of(new WishlistTools(),
+                new LibraryTools(service), new BulkTools(), new MaintenanceTools(), new ViewingTools(service),
+                new MultiActionTools());
+        specifications = new ArrayList<>(tools.keySet());
+        tools.forEach((spec, executor) -> {
+            if (spec.name().equals("getStats")) {
+                getStats = executor;
+            }
+        });
+        getStatsRequest = ToolExecutionRequest.builder().id("call-0").name("getStats")
+                .arguments("{\"detail\":\"all\"}").build();
+        memory = MessageWindowChatMemory.withMaxMessages(6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.clearProperty("cinematch.storage");
+        Files.deleteIfExists(dir);
+    }
+
+    /** Tour complet : pré-parseurs, proxy, mémoire, {@code toolCalls} outils, réponse. */
+    @Benchmark
+    public String turn() {
+        return bridge.ask("Range un peu ma collection s'il te plaît");
+    }
+
+    /** Construction d’un bridge (proxy AiServices + réflexion sur les {@code @Tool}). */
+    @Benchmark
+    public Object buildBridge() {
+        return new LangChain4jAgentBridge(model, Profile.defaultCinemaExpert(), service);
+    }
+
+    /**
+     * Schémas d’outils au format de la requête {@code /api/chat} d’Ollama, envoyés
+     * à chaque génération (une fois par appel d’outil, plus la réponse finale).
+     */
+    @Benchmark
+    public String toolSchemaJson() throws JsonProcessingException {
+        final List<Map<String, Object>> tools = new ArrayList<>(specifications.size());
+        for (ToolSpecification spec : specifications) {
+            final Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("type", "object");
+            parameters.put("properties", spec.parameters() == null ? Map.of() : spec.parameters().properties());
+            parameters.put("required", spec.parameters() == null ? List.of() : spec.parameters().required());
+            final Map<String, Object> function = new LinkedHashMap<>();
+            function.put("name", spec.name());
+            function.put("description", spec.description());
+            function.put("parameters", parameters);
+            tools.add(Map.of("type", "function", "function", function));
+        }
+        return MAPPER.writeValueAsString(tools);
+    }
+
+    /** Messages d’un tour dans la fenêtre de 6 : ajouts et relectures, comme AiServices. */
+    @Benchmark
+    public List<ChatMessage> memoryWindow() {
+        memory.add(UserMessage.from("Range un peu ma collection"));
+        List<ChatMessage> view = memory.messages();
+        for (int i = 0; i < toolCalls; i++) {
+            memory.add(AiMessage.from(getStatsRequest));
+            memory.add(ToolExecutionResultMessage.from(getStatsRequest, "STATS: total=0"));
+            view = memory.messages();
+        }
+        memory.add(AiMessage.from("C'est fait."));
+        return view;
+    }
+
+    /** Un appel d’outil instrumenté (portée, métriques, span, JFR, parsing des arguments). */
+    @Benchmark
+    public String instrumentedToolCall() {
+        return getStats.execute(getStatsRequest, "bench");
+    }
+}
@@ -0,0 +1,71 @@
+package app.cinematch.agent.langchain;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût de l’extraction client des titres d’un ajout multiple
+ * (verbe puis queue de liste, voir {@code CommandText}) selon le nombre de titres,
+ * avec et sans la queue « … à ma liste d’envie ».
+ *
+ * <p>La méthode privée du bridge est appelée par un {@link MethodHandle}
+ * constant, que le JIT intègre comme un appel direct.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkTitleExtractionBenchmark {
+
+    private static final MethodHandle EXTRACT = extractTitlesForBulkHandle();
+
+    @Param({"3", "30", "300"})
+    public int titles;
+
+    @Param({"true", "false"})
+    public boolean withTail;
+
+    private String message;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder sb = new StringBuilder("Peux-tu ajouter ");
+        for (int i = 1; i <= titles; i++) {
+            sb.append(i > 1 ? ", " : "").append("Film ").append(i);
+        }
+        if (withTail) {
+            sb.append(" dans ma liste d'envie !");
+        }
+        message = sb.toString();
+    }
+
+    @Benchmark
+    public String extractTitlesForBulk() throws Throwable {
+        return (String) EXTRACT.invokeExact(message);
+    }
+
+    private static MethodHandle extractTitlesForBulkHandle() {
+        try {
+            return MethodHandles.privateLookupIn(LangChain4jAgentBridge.class, MethodHandles.lookup())
+                    .findStatic(LangChain4jAgentBridge.class, "extractTitlesForBulk",
+                            MethodType.methodType(String.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
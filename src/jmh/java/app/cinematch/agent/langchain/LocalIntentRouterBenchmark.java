@@ -0,0 +1,41 @@
+package app.cinematch.agent.langchain;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût de la décision du routeur local ({@link LocalIntentRouter#route(String)}),
+ * outil exclu : commandes reconnues et message qui retombe sur le LLM
+ * (toutes les grammaires essayées).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalIntentRouterBenchmark {
+
+    @Param({
+            "Affiche ma liste d'envie",
+            "stats",
+            "Marque Portrait de la jeune fille en feu comme déjà vu",
+            "Quel est le prochain film à regarder ?",
+            "Peux-tu me conseiller un thriller coréen des années 2000 ?"})
+    public String message;
+
+    @Benchmark
+    public Optional<LocalIntentRouter.Route> route() {
+        return LocalIntentRouter.route(message);
+    }
+}
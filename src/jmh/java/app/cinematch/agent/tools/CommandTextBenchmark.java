@@ -0,0 +1,82 @@
+package app.cinematch.agent.tools;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût des découpeurs de {@link CommandText} selon la taille et la forme de l’entrée :
+ * commande réaliste répétée, ou formes hostiles (longues suites d’espaces, mots-clés
+ * répétés) qui rendaient les anciennes expressions régulières quadratiques.
+ * Le temps par caractère doit rester stable quand {@code size} est multiplié par 10.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandTextBenchmark {
+
+    private static final Set<String> STOPWORDS = Set.of("ma", "la", "le", "de", "dans", "à", "a", "liste");
+
+    @Param({"realistic", "spaces", "keywords"})
+    public String shape;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder sb = new StringBuilder(size + 64);
+        switch (shape) {
+            case "realistic" -> {
+                sb.append("ajoute ");
+                for (int i = 1; sb.length() < size; i++) {
+                    sb.append(i > 1 ? ", " : "").append("Film numéro ").append(i);
+                }
+                sb.append(" à ma liste d'envie puis marque Heat comme déjà vu");
+            }
+            case "spaces" -> sb.append("ajoute").append(" ".repeat(size)).append("x dans ma");
+            default -> {
+                while (sb.length() < size) {
+                    sb.append("dans ma wish ");
+                }
+                sb.append("liste x");
+            }
+        }
+        text = sb.toString();
+    }
+
+    @Benchmark
+    public Object bulkExtraction() {
+        return CommandText.stripListTail(CommandText.stripLeadingVerb(text));
+    }
+
+    @Benchmark
+    public Object splitClauses() {
+        return CommandText.splitClauses(text);
+    }
+
+    @Benchmark
+    public Object sanitize() {
+        return CommandText.collapseSpaces(CommandText.removeWords(CommandText.stripQuotes(text), STOPWORDS));
+    }
+
+    @Benchmark
+    public Object parse() {
+        return MultiActionTools.Parser.parse(text);
+    }
+}
@@ -0,0 +1,89 @@
+package app.cinematch.agent.tools;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Débit de la détection du vocabulaire des commandes sur des messages multi-actions
+ * de plus en plus longs : un passage de l’automate ({@link CommandKeywords#scan})
+ * contre l’ancienne approche (minuscules puis un {@code contains} par mot-clé).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordMatcherBenchmark {
+
+    /** Tous les mots-clés, comme les relisait l’ancienne détection. */
+    private static final List<String> ALL_WORDS = allWords();
+
+    @Param({"1", "10", "100"})
+    public int actions;
+
+    private String message;
+
+    @Setup
+    public void setUp() {
+        final String[] clauses = {
+            "ajoute \"Heat\", Drive et Alien à ma liste d'envie",
+            "retire Dune de ma liste",
+            "marque Blade Runner 2049 comme déjà vu",
+            "mets Matrix en pas intéressé",
+        };
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < actions; i++) {
+            sb.append(i > 0 ? " puis " : "").append(clauses[i % clauses.length]);
+        }
+        message = sb.toString();
+    }
+
+    @Benchmark
+    public Object automatonScan() {
+        return CommandKeywords.scan(message);
+    }
+
+    @Benchmark
+    public int containsBaseline() {
+        final String lc = message.toLowerCase(Locale.ROOT);
+        int found = 0;
+        for (String word : ALL_WORDS) {
+            if (lc.contains(word)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public boolean shouldForceMulti() {
+        return MultiActionTools.shouldForceMulti(message);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return MultiActionTools.Parser.parse(message);
+    }
+
+    private static List<String> allWords() {
+        return Stream.of(CommandKeywords.ADD_VERBS, CommandKeywords.REMOVE_VERBS, CommandKeywords.MARK_VERBS,
+                        CommandKeywords.LIST_WORDS, CommandKeywords.JOINER_WORDS, CommandKeywords.JOINER_MARKS,
+                        CommandKeywords.STATUS_ALIASES.keySet())
+                .flatMap(c -> c.stream())
+                .toList();
+    }
+}
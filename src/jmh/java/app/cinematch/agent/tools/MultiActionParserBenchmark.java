@@ -0,0 +1,53 @@
+package app.cinematch.agent.tools;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût de {@link MultiActionTools.Parser#parse(String)} (texte libre → plan d’actions)
+ * sur des consignes courtes, mixtes et longues.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiActionParserBenchmark {
+
+    @Param({"short", "mixed", "long"})
+    public String instruction;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        switch (instruction) {
+            case "short" -> text = "ajoute Heat à ma liste";
+            case "mixed" -> text = "ajoute \"Heat\" et \"Drive\" à ma liste, retire Dune, "
+                    + "et marque Alien comme déjà vu";
+            default -> {
+                final StringBuilder sb = new StringBuilder("ajoute ");
+                for (int i = 1; i <= 40; i++) {
+                    sb.append(i > 1 ? ", " : "").append("Film numéro ").append(i);
+                }
+                text = sb.append(" à ma liste d'envie puis supprime Heat et marque Drive comme vu").toString();
+            }
+        }
+    }
+
+    @Benchmark
+    public Object parse() {
+        return MultiActionTools.Parser.parse(text);
+    }
+}
@@ -0,0 +1,56 @@
+package app.cinematch.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Surcoût de l’instrumentation posée sur les chemins chauds (compteur, chrono,
+ * histogramme), à comparer au coût des opérations mesurées. Exécuté à 4 threads
+ * pour faire apparaître la contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MetricsBenchmark {
+
+    private Counter counter;
+    private Timer timer;
+    private Histogram histogram;
+
+    @Setup
+    public void setUp() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        counter = registry.counter("bench.counter");
+        timer = registry.timer("bench.timer");
+        histogram = registry.histogram("bench.histogram");
+    }
+
+    @Benchmark
+    public void counterInc() {
+        counter.inc();
+    }
+
+    @Benchmark
+    public long timerStartStop() {
+        return timer.stop(timer.start());
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        histogram.record(System.nanoTime() & 0xFFFF);
+    }
+}
@@ -0,0 +1,79 @@
+package app.cinematch.util;
+
+import app.cinematch.model.HistoryEntry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût de {@link JsonStorage#addOrUpdate(String, String)} et
+ * {@link JsonStorage#getByStatus(String)} selon la taille de la bibliothèque.
+ *
+ * <p>Chaque essai travaille sur un fichier temporaire ({@code cinematch.storage}) :
+ * le {@code storage.json} du dépôt n’est jamais touché. {@code addOrUpdate} met à
+ * jour des titres existants, la taille reste donc constante pendant la mesure.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dcinematch.storage.silent=true")
+public class JsonStorageBenchmark {
+
+    private static final String[] STATUSES = {"envie", "deja_vu", "pas_interesse"};
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Path dir;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("cinematch-bench");
+        System.setProperty("cinematch.storage", dir.resolve("storage.json").toString());
+        final List<HistoryEntry> all = new ArrayList<>(size);
+        final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < size; i++) {
+            all.add(new HistoryEntry("Film " + i, STATUSES[i % STATUSES.length],
+                    base.plusMinutes(i).toString()));
+        }
+        JsonStorage.saveAll(all);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.clearProperty("cinematch.storage");
+        Files.deleteIfExists(dir.resolve("storage.json"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void addOrUpdate() {
+        final int i = next++ % size;
+        JsonStorage.addOrUpdate("Film " + i, STATUSES[(i + 1) % STATUSES.length]);
+    }
+
+    @Benchmark
+    public List<String> getByStatus() {
+        return JsonStorage.getByStatus("envie");
+    }
+}
@@ -4,38 +4,113 @@ import app.cinematch.MovieRecommenderService;
 import app.cinematch.agent.ChatAgent;
 import app.cinematch.agent.Memory;
 import app.cinematch.agent.Profile;
+import app.cinematch.api.HedgingPolicy;
+import app.cinematch.api.LlmOperation;
+import app.cinematch.api.LlmScheduler;
+import app.cinematch.api.ModelKeepAlive;
+import app.cinematch.api.ModelRouter;
 import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaEndpointPool;
+import app.cinematch.api.ResiliencePolicy;
+import app.cinematch.api.replay.LlmTraffic;
+import app.cinematch.jfr.JfrProfile;
+import app.cinematch.metrics.JmxExporter;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.trace.Tracer;
+import app.cinematch.util.JsonStorage;
 import app.cinematch.agent.langchain.LangChain4jAgentBridge;
+import app.cinematch.ui.swing.EdtWatchdog;
 import app.cinematch.ui.swing.MainFrame;
 import com.formdev.flatlaf.FlatDarkLaf;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Duration;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 public class App {
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(App::startUi);
-    }
+    /**
+     * Intervalle entre deux pings keep-alive : sous les 5 min par défaut du
+     * serveur, que réarment les appels de l’agent (LangChain4j n’envoie pas de
+     * {@code keep_alive}).
+     */
+    private static final Duration KEEP_ALIVE_INTERVAL = Duration.ofMinutes(4);
+    /** Période des contrôles de santé des serveurs Ollama. */
+    private static final Duration HEALTH_CHECK_INTERVAL = Duration.ofSeconds(15);
 
-    private static void startUi() {
-        try { UIManager.setLookAndFeel(new FlatDarkLaf()); } catch (Exception ex) { ex.printStackTrace(); }
+    public static void main(String[] args) {
+        // Enregistrement JFR continu (opt-in) : -Dcinematch.jfr=cinematch.jfr
+        JfrProfile.startIfRequested();
+        // Traces des tours lents (Chrome trace) : -Dcinematch.trace=traces -Dcinematch.trace.slowMs=2000
+        Tracer.configureFromProperties();
 
         // Variables d'environnement
         String ollamaUrl   = System.getenv().getOrDefault("OLLAMA_BASE_URL", "http://localhost:11434");
         String ollamaModel = System.getenv().getOrDefault("OLLAMA_MODEL", "qwen2.5:7b-instruct");
+        String keepAlive   = System.getenv().getOrDefault("OLLAMA_KEEP_ALIVE", "30m");
+        // Petit modèle (choix d'outils, recommandations JSON, repli) : OLLAMA_MODEL_FAST="qwen2.5:1.5b-instruct"
+        String fastModel   = System.getenv().getOrDefault("OLLAMA_MODEL_FAST", ollamaModel);
+        ModelRouter router = ModelRouter.standard(ollamaModel, fastModel);
+        // Plusieurs serveurs : OLLAMA_BASE_URLS="http://gpu-1:11434,http://gpu-2:11434"
+        // Enregistrement / rejeu du trafic : -Dcinematch.llm.record=llm.ndjson | -Dcinematch.llm.replay=llm.ndjson
+        OllamaEndpointPool pool = OllamaEndpointPool.parse(LlmTraffic.routeFromProperties(
+                System.getenv().getOrDefault("OLLAMA_BASE_URLS", ollamaUrl)));
+        pool.startHealthChecks(HEALTH_CHECK_INTERVAL);
+        // Slots par serveur : aligné sur le OLLAMA_NUM_PARALLEL du serveur
+        int slots = Integer.parseInt(System.getenv().getOrDefault("OLLAMA_NUM_PARALLEL", "4"));
+        LlmScheduler scheduler = new LlmScheduler(pool, slots);
+
+        // Métriques consultables en direct (JConsole / VisualVM, domaine app.cinematch)
+        MetricsRegistry.global().gauge("llm.queue.depth", scheduler::queueDepth);
+        JmxExporter.export(MetricsRegistry.global());
+
+        // Client Ollama maison partagé (recommandations, chat classique, keep-alive)
+        OllamaClient ollamaClient = new OllamaClient(pool, ollamaModel, ResiliencePolicy.defaults());
+        ollamaClient.setScheduler(scheduler);
+        ollamaClient.setModelRouter(router);
+        ollamaClient.setKeepAlive(keepAlive);
+        // Couverture des recommandations lentes (opt-in) : OLLAMA_HEDGING=true
+        if (Boolean.parseBoolean(System.getenv().getOrDefault("OLLAMA_HEDGING", "false"))) {
+            ollamaClient.setHedging(HedgingPolicy.forOperations(LlmOperation.RECOMMEND_RANDOM,
+                    LlmOperation.RECOMMEND_FROM_LIKE, LlmOperation.RECOMMEND_BATCH));
+        }
+
+        // Préchauffage du modèle en parallèle de la construction de l'UI
+        ModelKeepAlive modelKeepAlive = new ModelKeepAlive(ollamaClient, keepAlive, KEEP_ALIVE_INTERVAL);
+        modelKeepAlive.start();
+
+        SwingUtilities.invokeLater(() -> startUi(scheduler, ollamaClient, router, modelKeepAlive));
+    }
+
+    private static void startUi(LlmScheduler scheduler, OllamaClient ollamaClient,
+                                ModelRouter router, ModelKeepAlive modelKeepAlive) {
+        try { UIManager.setLookAndFeel(new FlatDarkLaf()); } catch (Exception ex) { ex.printStackTrace(); }
+        // Détection des blocages de l'EDT (50 ms par défaut) : -Dcinematch.edt.watchdog=off|<ms>
+        EdtWatchdog watchdog = EdtWatchdog.installFromProperties();
 
         // Services
-        MovieRecommenderService recommender = new MovieRecommenderService(ollamaUrl, ollamaModel);
+        MovieRecommenderService recommender = new MovieRecommenderService(ollamaClient, JsonStorage::addOrUpdate);
         Profile profile = Profile.defaultCinemaExpert(); // <-- créer AVANT usage
-        LangChain4jAgentBridge bridge = new LangChain4jAgentBridge(ollamaUrl, ollamaModel, profile, recommender);
-
-        // Client Ollama (le client REST maison, utile pour d'autres usages)
-        OllamaClient ollamaClient = new OllamaClient(ollamaUrl, ollamaModel);
+        LangChain4jAgentBridge bridge = new LangChain4jAgentBridge(scheduler, router, profile, recommender);
 
         // ChatAgent qui délègue ses réponses au bridge LangChain4j (tools wishlist)
         ChatAgent agent = new ChatAgent(ollamaClient, profile, new Memory(), bridge::ask);
 
         // UI principale
-        new MainFrame(recommender, agent).setVisible(true);
+        MainFrame frame = new MainFrame(recommender, agent);
+        // Le modèle n'est plus maintenu chargé une fois la fenêtre fermée
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                modelKeepAlive.close();
+                scheduler.pool().close();
+                LlmTraffic.shutdown();
+                if (watchdog != null && !watchdog.offenders().isEmpty()) {
+                    System.err.print(watchdog.report(10));
+                }
+            }
+        });
+        frame.setVisible(true);
     }
 }
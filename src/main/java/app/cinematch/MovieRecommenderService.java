@@ -1,14 +1,33 @@
 package app.cinematch;
 
+import app.cinematch.api.GenerationOptions;
+import app.cinematch.api.LlmOperation;
 import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaException;
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.MetricsRegistry;
 import app.cinematch.model.Recommendation;
 import app.cinematch.util.JsonStorage;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
 
 /**
  * Service de recommandation de films.
@@ -17,14 +36,57 @@ import java.util.function.BiConsumer;
  * <ul>
  *   <li>Dialogue avec {@link OllamaClient} pour générer des propositions ;</li>
  *   <li>Persistance (title, status) via un « sink » injectable
- *       ({@link JsonStorage#addOrUpdate(String, String)} par défaut).</li>
+ *       ({@link JsonStorage#addOrUpdate(String, String)} par défaut) ;</li>
+ *   <li>Variantes « batch » : plusieurs candidats en un seul appel LLM, filtrés
+ *       localement (doublons, titres connus) ;</li>
+ *   <li>Descriptions mises en cache (LRU borné, taux de succès dans
+ *       {@code description.cache.hit} / {@code .miss}), générables par lots via
+ *       {@link #generateDescriptions(List)}.</li>
  * </ul>
+ *
+ * <p>Chaque opération envoie ses propres {@link GenerationOptions} (par défaut : schéma
+ * JSON et longueur bornée pour les recommandations), modifiables via
+ * {@link #setGenerationOptions(GenerationOptions)}.</p>
+ *
+ * <p>Quand Ollama échoue ({@link OllamaException}), le service ne propage pas
+ * l’erreur : il sert les descriptions en cache, sinon un texte hors ligne, et pioche
+ * les recommandations dans un petit catalogue local. Seule exception : une requête
+ * préchargée annulée en file ({@code PREEMPTED}) est propagée, pour que l’appelant
+ * l’abandonne au lieu de mettre en file un contenu hors ligne.</p>
+ *
+ * <p>Les appels LLM sont comptabilisés ({@link #generationStats()}) pour comparer
+ * le coût en tokens par recommandation servie entre appels unitaires et batch, et
+ * suivre le taux d’échec de parsing des réponses.</p>
  */
 public class MovieRecommenderService {
 
     /** Parser JSON (Jackson). */
     private static final ObjectMapper PARSER = new ObjectMapper();
 
+    /** Consigne système des descriptions. */
+    private static final String DESCRIPTION_SYSTEM_PROMPT =
+            "Tu es un critique cinéma. Donne une courte description, sans spoiler.";
+
+    /** Description servie quand Ollama est indisponible et que le cache est vide. */
+    public static final String OFFLINE_DESCRIPTION =
+            "Description indisponible pour le moment : le service de génération ne répond pas.";
+
+    /** Pitch des recommandations servies hors ligne. */
+    private static final String OFFLINE_REASON = "Classique à (re)découvrir — suggestion hors ligne";
+
+    /** Catalogue de repli quand Ollama est indisponible. */
+    private static final List<String> OFFLINE_CATALOGUE = List.of(
+            "Le Fabuleux Destin d'Amélie Poulain", "La Haine", "Les Intouchables", "Le Dîner de cons",
+            "La Cité de la peur", "Le Grand Bleu", "Léon", "Heat", "Le Voyage de Chihiro",
+            "Parasite", "Whiplash", "Drive", "Blade Runner", "Les Demoiselles de Rochefort",
+            "Le Bon, la Brute et le Truand", "Retour vers le futur", "Alien", "Jurassic Park",
+            "La La Land", "Inception");
+
+    /** Guillemets retirés des titres par {@link #titleKey(String)}. */
+    private static final Pattern TITLE_QUOTES = Pattern.compile("[\"“”«»]");
+    /** Suites de blancs ramenées à une espace par {@link #titleKey(String)}. */
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
     /** Client Ollama sous-jacent. */
     private final OllamaClient ollama;
 
@@ -34,6 +96,44 @@ public class MovieRecommenderService {
     /** Point d'injection pour la persistance (title, status) -> void. */
     private final BiConsumer<String, String> storageSink;
 
+    /** Nombre maximal de candidats demandés en un seul appel batch. */
+    public static final int MAX_BATCH_SIZE = 10;
+
+    /** Fenêtre de contexte du modèle (tokens), commune à toutes les opérations. */
+    public static final int DEFAULT_CONTEXT_TOKENS = GenerationOptions.CONTEXT_TOKENS;
+    /** Budget de sortie par description dans un lot (tokens, titre + 2–3 phrases). */
+    private static final int DESCRIPTION_TOKENS = 120;
+    /** Budget réservé aux consignes d’un lot de descriptions (tokens). */
+    private static final int DESCRIPTION_PROMPT_OVERHEAD = 200;
+    /** Taille maximale du cache de descriptions. */
+    private static final int DESCRIPTION_CACHE_SIZE = 512;
+
+    /** Succès et échecs du cache de descriptions (carte de diagnostic). */
+    private static final Counter DESCRIPTION_HITS = MetricsRegistry.global().counter("description.cache.hit");
+    private static final Counter DESCRIPTION_MISSES = MetricsRegistry.global().counter("description.cache.miss");
+
+    /** Cache LRU des descriptions, indexé par {@link #titleKey(String)}. */
+    private final Map<String, String> descriptionCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                    return size() > DESCRIPTION_CACHE_SIZE;
+                }
+            });
+
+    /** Paramètres de génération par opération. */
+    private final Map<LlmOperation, GenerationOptions> generationOptions =
+            Collections.synchronizedMap(new EnumMap<>(LlmOperation.class));
+
+    /** Nombre d’appels LLM de recommandation. */
+    private final AtomicLong recommendationCalls = new AtomicLong();
+    /** Tokens estimés (prompt + complétion) consommés par ces appels. */
+    private final AtomicLong recommendationTokens = new AtomicLong();
+    /** Recommandations effectivement renvoyées aux appelants. */
+    private final AtomicLong recommendationsServed = new AtomicLong();
+    /** Réponses de recommandation dont le JSON n’a pas pu être exploité. */
+    private final AtomicLong parseFailures = new AtomicLong();
+
     // =========================
     // CONSTRUCTEURS
     // =========================
@@ -88,11 +188,6 @@ public class MovieRecommenderService {
      * @return recommandation enrichie (pitch mentionnant le film d’origine)
      */
     public Recommendation recommendFromLike(final String likedTitle) {
-        final String system =
-                "Tu es un assistant cinéma ultra créatif. Tu connais les films existants et tu peux aussi "
-                        + "N’inclus jamais : jeux vidéo, livres ou autres qui ne sont pas des films, séries ou documentaires. "
-                        + "imaginer un faux service de streaming crédible. Réponds toujours en JSON strict, "
-                        + "sans texte supplémentaire.";
         final String user =
                 "Film apprécié : '" + likedTitle + "'. Propose une recommandation nuancée avec ce format "
                         + "Propose EXCLUSIVEMENT un film, série ou documentaire similaire. "
@@ -100,14 +195,37 @@ public class MovieRecommenderService {
                         + "(optionnel)\",\"platform\":\"Plateforme fictive ou réelle\"}. "
                         + "Le pitch doit faire le lien avec le film donné.";
 
-        final Recommendation rec = requestRecommendation(system, user, "Inspiré de " + likedTitle);
+        final Recommendation rec = requestRecommendation(likeSystemPrompt(), user,
+                "Inspiré de " + likedTitle, LlmOperation.RECOMMEND_FROM_LIKE);
+        return inspiredBy(rec, likedTitle);
+    }
 
-        // S'assurer que le pitch mentionne le film aimé
-        String reason = rec.reason();
-        if (!reason.toLowerCase().contains(likedTitle.toLowerCase())) {
-            reason = reason + " — Inspiré de " + likedTitle;
+    /**
+     * Variante batch de {@link #recommendFromLike(String)} : demande un tableau JSON
+     * de {@code count} candidats en un seul appel, puis filtre localement les doublons
+     * et les titres déjà connus.
+     *
+     * @param likedTitle  film apprécié (point de départ)
+     * @param count       nombre de candidats demandés (borné à {@link #MAX_BATCH_SIZE})
+     * @param knownTitles titres à écarter (ex. déjà présents dans le stockage)
+     * @return recommandations inédites, dans l’ordre proposé par le modèle (éventuellement vide)
+     */
+    public List<Recommendation> recommendFromLikeBatch(final String likedTitle,
+                                                       final int count,
+                                                       final Collection<String> knownTitles) {
+        final int k = batchSize(count);
+        final String user =
+                "Film apprécié : '" + likedTitle + "'. Propose " + k + " films, séries ou documentaires "
+                        + "similaires et tous différents. Réponds avec ce JSON : "
+                        + "{\"films\":[{\"title\":\"Titre exact\",\"pitch\":\"Pourquoi ce choix\",\"year\":\"(optionnel)\","
+                        + "\"platform\":\"Plateforme fictive ou réelle\"}, ...]}. "
+                        + "Chaque pitch doit faire le lien avec le film donné.";
+        final List<Recommendation> out = new ArrayList<>();
+        for (Recommendation rec : requestRecommendations(likeSystemPrompt(), user,
+                "Inspiré de " + likedTitle, k, knownTitles)) {
+            out.add(inspiredBy(rec, likedTitle));
         }
-        return new Recommendation(rec.title(), reason, rec.platform(), null);
+        return out;
     }
 
     /**
@@ -116,27 +234,132 @@ public class MovieRecommenderService {
      * @return recommandation générée
      */
     public Recommendation recommendRandom() {
-        final String system =
-                "Tu es un programmateur de ciné-club. Suggère un film ou une pépite à découvrir. "
-                        + "Réponds uniquement avec un JSON strict.";
         final String user =
                 "Génère une idée de film à regarder avec ce format : {\"title\":\"...\",\"pitch\":\"...\","
                         + "\"year\":\"(optionnel)\",\"platform\":\"Plateforme fictive ou réelle\"}. "
                         + "Le pitch doit donner envie.";
-        return requestRecommendation(system, user, "Suggestion IA");
+        return requestRecommendation(randomSystemPrompt(), user, "Suggestion IA",
+                LlmOperation.RECOMMEND_RANDOM);
+    }
+
+    /**
+     * Variante batch de {@link #recommendRandom()} : {@code count} idées en un seul
+     * appel, filtrées localement (doublons et titres connus).
+     *
+     * @param count       nombre de candidats demandés (borné à {@link #MAX_BATCH_SIZE})
+     * @param knownTitles titres à écarter (ex. déjà présents dans le stockage)
+     * @return recommandations inédites (éventuellement vide)
+     */
+    public List<Recommendation> recommendRandomBatch(final int count,
+                                                     final Collection<String> knownTitles) {
+        final int k = batchSize(count);
+        final String user =
+                "Génère " + k + " idées de films variés et tous différents, avec ce format : "
+                        + "{\"films\":[{\"title\":\"...\",\"pitch\":\"...\",\"year\":\"(optionnel)\","
+                        + "\"platform\":\"Plateforme fictive ou réelle\"}, ...]}. "
+                        + "Chaque pitch doit donner envie.";
+        return requestRecommendations(randomSystemPrompt(), user, "Suggestion IA", k, knownTitles);
+    }
+
+    /**
+     * @param rec recommandation (peut être {@code null})
+     * @return {@code true} si elle vient du catalogue hors ligne (Ollama indisponible)
+     */
+    public static boolean isOfflineFallback(final Recommendation rec) {
+        return rec != null && OFFLINE_REASON.equals(rec.reason());
     }
 
     /**
      * Génère une courte description (2–3 phrases) sans spoiler.
      *
      * @param movieTitle titre du film
-     * @return description produite par le LLM
+     * @return description produite par le LLM (ou en cache), sinon {@link #OFFLINE_DESCRIPTION}
      */
     public String generateDescription(final String movieTitle) {
-        final String system = "Tu es un critique cinéma. Donne une courte description, sans spoiler.";
+        final String key = titleKey(movieTitle);
+        final String cached = descriptionCache.get(key);
+        if (cached != null) {
+            DESCRIPTION_HITS.inc();
+            return cached;
+        }
+        DESCRIPTION_MISSES.inc();
         final String user =
                 "Décris le film '" + movieTitle + "' en 2 à 3 phrases maximum avec un style immersif.";
-        return ollama.chat(system, user);
+        final String description;
+        try {
+            description = ollama.chat(DESCRIPTION_SYSTEM_PROMPT, user,
+                    generationOptions(LlmOperation.GENERATE_DESCRIPTION));
+        } catch (OllamaException e) {
+            rethrowIfPreempted(e);
+            return OFFLINE_DESCRIPTION;
+        }
+        cacheDescription(key, description);
+        return description;
+    }
+
+    /**
+     * Génère les descriptions d’une liste de titres en regroupant les demandes :
+     * chaque appel LLM renvoie une map JSON {@code titre → description} pour un lot
+     * dimensionné selon le {@code num_ctx} de {@link LlmOperation#DESCRIBE_BATCH}
+     * ({@link #DEFAULT_CONTEXT_TOKENS} s’il n’est pas renseigné).
+     *
+     * <p>Les titres déjà en cache ne sont pas redemandés ; ceux absents ou illisibles
+     * dans la réponse d’un lot retombent sur {@link #generateDescription(String)}.</p>
+     *
+     * @param titles titres à décrire (les doublons et blancs sont ignorés)
+     * @return descriptions par titre, dans l’ordre de la liste d’entrée
+     */
+    public Map<String, String> generateDescriptions(final List<String> titles) {
+        final Map<String, String> out = new LinkedHashMap<>();
+        final List<String> missing = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        for (String title : titles) {
+            final String key = titleKey(title);
+            if (key.isEmpty() || !seen.add(key)) {
+                continue;
+            }
+            final String cached = descriptionCache.get(key);
+            if (cached != null) {
+                DESCRIPTION_HITS.inc();
+                out.put(title, cached);
+            } else {
+                DESCRIPTION_MISSES.inc();
+                out.put(title, null);
+                missing.add(title);
+            }
+        }
+
+        final Integer numCtx = generationOptions(LlmOperation.DESCRIBE_BATCH).numCtx();
+        final int chunk = descriptionChunkSize(numCtx != null ? numCtx : DEFAULT_CONTEXT_TOKENS);
+        for (int from = 0; from < missing.size(); from += chunk) {
+            final List<String> batch = missing.subList(from, Math.min(missing.size(), from + chunk));
+            final Map<String, String> parsed = requestDescriptions(batch);
+            for (String title : batch) {
+                if (parsed == null) {
+                    // Ollama indisponible : inutile de retenter titre par titre.
+                    out.put(title, OFFLINE_DESCRIPTION);
+                    continue;
+                }
+                String description = parsed.get(titleKey(title));
+                if (description == null || description.isBlank()) {
+                    description = generateDescription(title);
+                } else {
+                    cacheDescription(titleKey(title), description);
+                }
+                out.put(title, description);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Nombre de titres par lot pour tenir dans une fenêtre de contexte donnée.
+     *
+     * @param contextTokens taille de la fenêtre de contexte (tokens)
+     * @return taille de lot (≥ 1)
+     */
+    static int descriptionChunkSize(final int contextTokens) {
+        return Math.max(1, (contextTokens - DESCRIPTION_PROMPT_OVERHEAD) / DESCRIPTION_TOKENS);
     }
 
     /**
@@ -149,6 +372,75 @@ public class MovieRecommenderService {
         storageSink.accept(title, status);
     }
 
+    /**
+     * Remplace les paramètres de génération de l’opération {@code options.operation()}.
+     *
+     * @param options nouveaux paramètres (non {@code null})
+     */
+    public void setGenerationOptions(final GenerationOptions options) {
+        generationOptions.put(options.operation(), options);
+    }
+
+    /**
+     * Paramètres de génération effectifs d’une opération.
+     *
+     * @param operation opération
+     * @return paramètres configurés, sinon {@link GenerationOptions#defaultsFor(LlmOperation)}
+     */
+    public GenerationOptions generationOptions(final LlmOperation operation) {
+        final GenerationOptions configured = generationOptions.get(operation);
+        return configured != null ? configured : GenerationOptions.defaultsFor(operation);
+    }
+
+    /**
+     * Instantané des compteurs de génération de recommandations.
+     *
+     * @return compteurs cumulés depuis la création du service
+     */
+    public GenerationStats generationStats() {
+        return new GenerationStats(recommendationCalls.get(), recommendationTokens.get(),
+                recommendationsServed.get(), parseFailures.get());
+    }
+
+    /**
+     * Coût cumulé des appels de recommandation.
+     *
+     * @param calls           nombre d’appels LLM
+     * @param estimatedTokens tokens estimés (≈ 4 caractères par token, prompt + réponse)
+     * @param served          recommandations renvoyées aux appelants
+     * @param parseFailures   réponses dont le JSON n’a pas fourni de titre exploitable
+     */
+    public record GenerationStats(long calls, long estimatedTokens, long served, long parseFailures) {
+
+        /**
+         * @return tokens estimés par recommandation servie (0 si aucune)
+         */
+        public double tokensPerRecommendation() {
+            return served == 0 ? 0.0 : (double) estimatedTokens / served;
+        }
+
+        /**
+         * @return part des appels dont la réponse n’a pas pu être parsée (0 si aucun appel)
+         */
+        public double parseFailureRate() {
+            return calls == 0 ? 0.0 : (double) parseFailures / calls;
+        }
+    }
+
+    /**
+     * Normalise un titre pour les comparaisons (casse, guillemets, espaces).
+     *
+     * @param title titre brut (peut être {@code null})
+     * @return clé normalisée (jamais {@code null})
+     */
+    public static String titleKey(final String title) {
+        if (title == null) {
+            return "";
+        }
+        final String unquoted = TITLE_QUOTES.matcher(title).replaceAll("").trim();
+        return SPACES.matcher(unquoted).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
     // =========================
     // INTERNE / UTILITAIRES
     // =========================
@@ -159,19 +451,128 @@ public class MovieRecommenderService {
      * @param system        prompt système
      * @param user          prompt utilisateur
      * @param defaultReason raison par défaut si aucun pitch exploitable
+     * @param operation     opération (choix des paramètres de génération)
      * @return recommandation normalisée
      */
     private Recommendation requestRecommendation(
             final String system,
             final String user,
-            final String defaultReason
+            final String defaultReason,
+            final LlmOperation operation
     ) {
-        final String raw = ollama.chat(system, user).trim();
+        final String raw;
+        try {
+            raw = ollama.chat(system, user, generationOptions(operation)).trim();
+        } catch (OllamaException e) {
+            rethrowIfPreempted(e);
+            return offlineRecommendations(1, List.of()).get(0);
+        }
         final ParsedRecommendation parsed = parse(raw);
+        recordCall(system, user, raw, 1, parsed.title == null || parsed.title.isBlank());
+        return toRecommendation(parsed, extractFirstMeaningfulLine(raw), defaultReason);
+    }
+
+    /**
+     * Exécute une requête batch (tableau JSON attendu) et filtre localement.
+     *
+     * @param system        prompt système
+     * @param user          prompt utilisateur
+     * @param defaultReason raison par défaut si aucun pitch exploitable
+     * @param max           nombre maximal de recommandations à conserver
+     * @param knownTitles   titres à écarter (peut être {@code null})
+     * @return recommandations inédites, sans doublon
+     */
+    private List<Recommendation> requestRecommendations(
+            final String system,
+            final String user,
+            final String defaultReason,
+            final int max,
+            final Collection<String> knownTitles
+    ) {
+        final String raw;
+        try {
+            raw = ollama.chat(system, user, generationOptions(LlmOperation.RECOMMEND_BATCH)).trim();
+        } catch (OllamaException e) {
+            rethrowIfPreempted(e);
+            return offlineRecommendations(max, knownTitles);
+        }
+        final List<ParsedRecommendation> candidates = parseAll(raw);
+        final Set<String> seen = new HashSet<>();
+        if (knownTitles != null) {
+            for (String known : knownTitles) {
+                seen.add(titleKey(known));
+            }
+        }
+        final List<Recommendation> out = new ArrayList<>();
+        for (ParsedRecommendation parsed : candidates) {
+            final String key = titleKey(parsed.title);
+            if (key.isEmpty() || !seen.add(key)) {
+                continue;
+            }
+            out.add(toRecommendation(parsed, "", defaultReason));
+            if (out.size() >= max) {
+                break;
+            }
+        }
+        recordCall(system, user, raw, out.size(), candidates.isEmpty());
+        return out;
+    }
+
+    /** Une requête annulée par l’ordonnanceur n’est pas une panne : elle remonte telle quelle. */
+    private static void rethrowIfPreempted(final OllamaException e) {
+        if (e.kind() == OllamaException.Kind.PREEMPTED) {
+            throw e;
+        }
+    }
+
+    /**
+     * Recommandations tirées du catalogue hors ligne, en évitant les titres connus
+     * (le catalogue entier est réutilisé s’il est épuisé).
+     *
+     * @param max         nombre voulu (≥ 1)
+     * @param knownTitles titres à écarter (peut être {@code null})
+     * @return au moins une recommandation, au plus {@code max}
+     */
+    private List<Recommendation> offlineRecommendations(final int max, final Collection<String> knownTitles) {
+        final Set<String> known = new HashSet<>();
+        if (knownTitles != null) {
+            for (String title : knownTitles) {
+                known.add(titleKey(title));
+            }
+        }
+        List<String> pool = new ArrayList<>();
+        for (String title : OFFLINE_CATALOGUE) {
+            if (!known.contains(titleKey(title))) {
+                pool.add(title);
+            }
+        }
+        if (pool.isEmpty()) {
+            pool = new ArrayList<>(OFFLINE_CATALOGUE);
+        }
+        Collections.shuffle(pool, random);
+        final List<Recommendation> out = new ArrayList<>();
+        for (String title : pool.subList(0, Math.min(Math.max(1, max), pool.size()))) {
+            out.add(new Recommendation(title, OFFLINE_REASON, fallbackPlatform(), null));
+        }
+        return out;
+    }
 
+    /**
+     * Construit une recommandation à partir d’un résultat de parsing, avec fallbacks.
+     *
+     * @param parsed        champs extraits du JSON
+     * @param fallbackTitle titre de repli si le JSON n’en fournit pas
+     * @param defaultReason raison par défaut si aucun pitch exploitable
+     * @return recommandation normalisée
+     */
+    private Recommendation toRecommendation(
+            final ParsedRecommendation parsed,
+            final String fallbackTitle,
+            final String defaultReason
+    ) {
         final String title = firstNonBlank(
                 parsed.title,
-                extractFirstMeaningfulLine(raw),
+                fallbackTitle,
                 "Suggestion mystère"
         );
 
@@ -184,6 +585,93 @@ public class MovieRecommenderService {
         return new Recommendation(title, pitch, platform, null);
     }
 
+    /**
+     * Demande les descriptions d’un lot sous forme de map JSON.
+     *
+     * @param batch titres du lot
+     * @return descriptions lisibles, indexées par {@link #titleKey(String)} (éventuellement vide),
+     *         ou {@code null} si Ollama est indisponible
+     */
+    private Map<String, String> requestDescriptions(final List<String> batch) {
+        final StringBuilder user = new StringBuilder(64 + batch.size() * 32)
+                .append("Décris chacun de ces films en 2 à 3 phrases maximum avec un style immersif. ")
+                .append("Réponds uniquement avec un objet JSON {\"Titre exact\":\"description\", ...} :");
+        for (String title : batch) {
+            user.append(System.lineSeparator()).append("- ").append(title);
+        }
+        GenerationOptions options = generationOptions(LlmOperation.DESCRIBE_BATCH);
+        if (options.numPredict() == null) {
+            options = options.withNumPredict(batch.size() * DESCRIPTION_TOKENS + DESCRIPTION_PROMPT_OVERHEAD);
+        }
+        final String raw;
+        try {
+            raw = ollama.chat(DESCRIPTION_SYSTEM_PROMPT + " Réponds en JSON strict.",
+                    user.toString(), options);
+        } catch (OllamaException e) {
+            rethrowIfPreempted(e);
+            return null;
+        }
+
+        final Map<String, String> out = new HashMap<>();
+        final JsonNode root = readTreeQuietly(extractJsonObject(raw == null ? "" : raw));
+        if (root == null || !root.isObject()) {
+            return out;
+        }
+        final Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isTextual()) {
+                out.put(titleKey(field.getKey()), field.getValue().asText().trim());
+            }
+        }
+        return out;
+    }
+
+    /** Met en cache une description exploitable. */
+    private void cacheDescription(final String key, final String description) {
+        if (key.isEmpty() || description == null || description.isBlank()) {
+            return;
+        }
+        descriptionCache.put(key, description);
+    }
+
+    /** S'assure que le pitch mentionne le film aimé. */
+    private static Recommendation inspiredBy(final Recommendation rec, final String likedTitle) {
+        String reason = rec.reason();
+        if (!reason.toLowerCase().contains(likedTitle.toLowerCase())) {
+            reason = reason + " — Inspiré de " + likedTitle;
+        }
+        return new Recommendation(rec.title(), reason, rec.platform(), null);
+    }
+
+    private static String likeSystemPrompt() {
+        return "Tu es un assistant cinéma ultra créatif. Tu connais les films existants et tu peux aussi "
+                + "N’inclus jamais : jeux vidéo, livres ou autres qui ne sont pas des films, séries ou documentaires. "
+                + "imaginer un faux service de streaming crédible. Réponds toujours en JSON strict, "
+                + "sans texte supplémentaire.";
+    }
+
+    private static String randomSystemPrompt() {
+        return "Tu es un programmateur de ciné-club. Suggère un film ou une pépite à découvrir. "
+                + "Réponds uniquement avec un JSON strict.";
+    }
+
+    private static int batchSize(final int count) {
+        return Math.max(1, Math.min(MAX_BATCH_SIZE, count));
+    }
+
+    /** Comptabilise un appel de recommandation (≈ 4 caractères par token). */
+    private void recordCall(final String system, final String user, final String raw,
+                            final int served, final boolean parseFailed) {
+        final long chars = (long) system.length() + user.length() + raw.length();
+        recommendationCalls.incrementAndGet();
+        recommendationTokens.addAndGet((chars + 3) / 4);
+        recommendationsServed.addAndGet(served);
+        if (parseFailed) {
+            parseFailures.incrementAndGet();
+        }
+    }
+
     /**
      * Parse le JSON (éventuel) retourné par le LLM.
      *
@@ -199,26 +687,136 @@ public class MovieRecommenderService {
             return new ParsedRecommendation();
         }
         try {
-            final JsonNode node = PARSER.readTree(json);
-            final ParsedRecommendation parsed = new ParsedRecommendation();
-            parsed.title = Optional.ofNullable(node.get("title"))
-                    .map(JsonNode::asText)
-                    .orElse(null);
-            parsed.pitch = Optional.ofNullable(node.get("pitch"))
-                    .map(JsonNode::asText)
-                    .orElse(null);
-            parsed.year = Optional.ofNullable(node.get("year"))
-                    .map(JsonNode::asText)
-                    .orElse(null);
-            parsed.platform = Optional.ofNullable(node.get("platform"))
-                    .map(JsonNode::asText)
-                    .orElse(null);
-            return parsed;
+            return parseNode(PARSER.readTree(json));
         } catch (IOException e) {
             return new ParsedRecommendation();
         }
     }
 
+    /**
+     * Parse une réponse batch : tableau JSON, ou à défaut suite d’objets {@code {...}}
+     * équilibrés noyés dans du texte (objets titrés ou enveloppant un tableau).
+     *
+     * @param raw texte brut renvoyé par le LLM
+     * @return candidats ayant un titre (éventuellement vide)
+     */
+    private List<ParsedRecommendation> parseAll(final String raw) {
+        final List<ParsedRecommendation> out = new ArrayList<>();
+        if (raw == null || raw.isBlank()) {
+            return out;
+        }
+        final int start = raw.indexOf('[');
+        final int end = raw.lastIndexOf(']');
+        if (start >= 0 && end > start) {
+            final JsonNode array = readTreeQuietly(raw.substring(start, end + 1));
+            if (array != null && array.isArray()) {
+                for (JsonNode node : array) {
+                    addIfTitled(out, node);
+                }
+            }
+        }
+        if (out.isEmpty()) {
+            for (String object : extractBalancedObjects(raw)) {
+                addTitledOrWrapped(out, readTreeQuietly(object));
+            }
+        }
+        return out;
+    }
+
+    /** Ajoute un objet titré, ou les éléments du premier tableau qu’il enveloppe. */
+    private static void addTitledOrWrapped(final List<ParsedRecommendation> out, final JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return;
+        }
+        if (node.has("title")) {
+            addIfTitled(out, node);
+            return;
+        }
+        final Iterator<JsonNode> fields = node.elements();
+        while (fields.hasNext()) {
+            final JsonNode value = fields.next();
+            if (value.isArray()) {
+                for (JsonNode item : value) {
+                    addIfTitled(out, item);
+                }
+                return;
+            }
+        }
+    }
+
+    private static void addIfTitled(final List<ParsedRecommendation> out, final JsonNode node) {
+        if (node != null && node.isObject()) {
+            final ParsedRecommendation parsed = parseNode(node);
+            if (parsed.title != null && !parsed.title.isBlank()) {
+                out.add(parsed);
+            }
+        }
+    }
+
+    private static ParsedRecommendation parseNode(final JsonNode node) {
+        final ParsedRecommendation parsed = new ParsedRecommendation();
+        parsed.title = Optional.ofNullable(node.get("title"))
+                .map(JsonNode::asText)
+                .orElse(null);
+        parsed.pitch = Optional.ofNullable(node.get("pitch"))
+                .map(JsonNode::asText)
+                .orElse(null);
+        parsed.year = Optional.ofNullable(node.get("year"))
+                .map(JsonNode::asText)
+                .orElse(null);
+        parsed.platform = Optional.ofNullable(node.get("platform"))
+                .map(JsonNode::asText)
+                .orElse(null);
+        return parsed;
+    }
+
+    private static JsonNode readTreeQuietly(final String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return PARSER.readTree(json);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Découpe les objets {@code {...}} de premier niveau d’un texte (accolades
+     * équilibrées, en ignorant celles qui figurent dans des chaînes JSON).
+     *
+     * @param raw texte brut
+     * @return objets candidats, dans l’ordre d’apparition
+     */
+    private static List<String> extractBalancedObjects(final String raw) {
+        final List<String> out = new ArrayList<>();
+        int depth = 0;
+        int start = -1;
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < raw.length(); i++) {
+            final char c = raw.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = depth > 0;
+            } else if (c == '{') {
+                if (depth++ == 0) {
+                    start = i;
+                }
+            } else if (c == '}' && depth > 0 && --depth == 0) {
+                out.add(raw.substring(start, i + 1));
+            }
+        }
+        return out;
+    }
+
     /**
      * Extrait le plus grand objet JSON { ... } d’un texte.
      *
@@ -290,8 +888,8 @@ public class MovieRecommenderService {
         return "";
     }
 
-    /** DTO interne pour le parsing JSON. */
-    private static class ParsedRecommendation {
+    /** DTO interne pour le parsing JSON (visible des benchmarks du paquet). */
+    static class ParsedRecommendation {
         String title;
         String pitch;
         String year;
@@ -0,0 +1,368 @@
+package app.cinematch;
+
+import app.cinematch.api.LlmPriority;
+import app.cinematch.model.HistoryEntry;
+import app.cinematch.model.Recommendation;
+import app.cinematch.util.JsonStorage;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * File de « cartes » prêtes à afficher (recommandation + description) alimentée
+ * en arrière-plan, pour que le mode swipe n’attende plus le LLM à chaque clic.
+ *
+ * <p>Fonctionnement :</p>
+ * <ul>
+ *   <li>{@link #poll()} est non bloquant : il retire une carte prête (ou {@code null})
+ *       et relance le remplissage ;</li>
+ *   <li>les candidats sont obtenus par lots via
+ *       {@link MovieRecommenderService#recommendRandomBatch(int, Collection)}
+ *       (un seul appel LLM pour plusieurs titres) et gardés dans un tampon ;</li>
+ *   <li>chaque carte est filtrée contre les titres déjà connus du stockage et contre
+ *       les titres déjà proposés pendant la session ;</li>
+ *   <li>les résultats de repli hors ligne (catalogue, description indisponible) ne
+ *       sont jamais mis en file : ils seraient servis après le retour d’Ollama ;</li>
+ *   <li>la profondeur cible s’adapte au rythme de swipe et à la latence observée du
+ *       modèle : {@code ceil(latence / intervalle) + 1}, bornée par
+ *       {@code [minDepth, maxDepth]}.</li>
+ * </ul>
+ *
+ * <p>Les workers sont des threads démons : ils n’empêchent pas l’arrêt de la JVM.
+ * Leurs appels LLM sont en priorité {@link LlmPriority#PREFETCH} : ils passent
+ * après le swipe et le chat, et peuvent être annulés tant qu’ils attendent.</p>
+ */
+public final class RecommendationPrefetcher implements AutoCloseable {
+
+    /** Profondeur minimale par défaut. */
+    public static final int DEFAULT_MIN_DEPTH = 2;
+    /** Profondeur maximale par défaut. */
+    public static final int DEFAULT_MAX_DEPTH = 6;
+
+    /** Nombre maximal d’appels batch pour trouver un titre inédit. */
+    private static final int MAX_ATTEMPTS = 3;
+    /** Nombre de candidats demandés par appel batch. */
+    private static final int BATCH_SIZE = 5;
+    /** Poids des nouvelles mesures dans les moyennes glissantes. */
+    private static final double ALPHA = 0.3;
+    /** Au-delà, un intervalle entre deux swipes est considéré comme une pause. */
+    private static final long MAX_SWIPE_INTERVAL_MS = 120_000L;
+
+    /**
+     * Carte prête à l’affichage.
+     *
+     * @param recommendation recommandation générée
+     * @param description    description déjà générée pour ce titre
+     */
+    public record Card(Recommendation recommendation, String description) { }
+
+    /** Service de recommandation. */
+    private final MovieRecommenderService service;
+    /** Titres déjà présents dans le stockage (clés normalisées). */
+    private final Supplier<Set<String>> knownTitles;
+    /** Bornes de la profondeur adaptative. */
+    private final int minDepth;
+    private final int maxDepth;
+
+    /** Cartes prêtes, dans l’ordre de production. */
+    private final ConcurrentLinkedDeque<Card> ready = new ConcurrentLinkedDeque<>();
+    /** Candidats déjà générés, en attente de description. */
+    private final Deque<Recommendation> candidates = new ArrayDeque<>();
+    /** Titres déjà mis en file ou affichés durant la session (clés normalisées). */
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+    /** Nombre de générations en cours. */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Exécuteur des générations en arrière-plan. */
+    private final ExecutorService workers;
+
+    /** Moyenne glissante de la latence d’une carte (ms), 0 si inconnue. */
+    private volatile double avgLatencyMs;
+    /** Moyenne glissante de l’intervalle entre deux swipes (ms), 0 si inconnue. */
+    private volatile double avgSwipeMs;
+    /** Instant du dernier {@link #poll()} (nanos), 0 si aucun. */
+    private long lastPollNanos;
+    /** Indique si {@link #close()} a été appelé. */
+    private volatile boolean closed;
+
+    /**
+     * Crée un prefetcher avec les bornes par défaut et les titres connus du
+     * {@link JsonStorage}.
+     *
+     * @param service service de recommandation (non {@code null})
+     */
+    public RecommendationPrefetcher(final MovieRecommenderService service) {
+        this(service, RecommendationPrefetcher::storedTitles, DEFAULT_MIN_DEPTH, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Constructeur complet (utile en tests).
+     *
+     * @param service     service de recommandation (non {@code null})
+     * @param knownTitles fournisseur des titres déjà connus (clés normalisées)
+     * @param minDepth    profondeur minimale (≥ 1)
+     * @param maxDepth    profondeur maximale (≥ {@code minDepth})
+     */
+    public RecommendationPrefetcher(final MovieRecommenderService service,
+                                    final Supplier<Set<String>> knownTitles,
+                                    final int minDepth,
+                                    final int maxDepth) {
+        if (minDepth < 1 || maxDepth < minDepth) {
+            throw new IllegalArgumentException("invalid depth bounds: " + minDepth + ".." + maxDepth);
+        }
+        this.service = Objects.requireNonNull(service, "service must not be null");
+        this.knownTitles = Objects.requireNonNull(knownTitles, "knownTitles must not be null");
+        this.minDepth = minDepth;
+        this.maxDepth = maxDepth;
+        this.workers = Executors.newFixedThreadPool(2, daemonThreads());
+    }
+
+    /**
+     * Retire la prochaine carte prête, sans bloquer, puis relance le remplissage.
+     *
+     * @return carte prête ou {@code null} si la file est vide
+     */
+    public Card poll() {
+        recordSwipe();
+        final Card card = ready.pollFirst();
+        refill();
+        return card;
+    }
+
+    /**
+     * Exclut un titre des futures propositions (ex. titre affiché hors file).
+     *
+     * @param title titre à exclure
+     */
+    public void exclude(final String title) {
+        final String key = key(title);
+        if (!key.isEmpty()) {
+            reserved.add(key);
+        }
+    }
+
+    /**
+     * Titres à écarter d’une génération à la demande : titres du stockage (tous
+     * statuts) et titres déjà mis en file ou affichés pendant la session.
+     *
+     * @return clés normalisées (copie)
+     */
+    public Set<String> exclusions() {
+        final Set<String> out = new HashSet<>(knownTitles.get());
+        out.addAll(reserved);
+        return out;
+    }
+
+    /**
+     * Verse des candidats déjà générés (ex. reste d’un appel batch) dans le tampon.
+     *
+     * @param recommendations candidats à décrire plus tard
+     */
+    public void offerCandidates(final Collection<Recommendation> recommendations) {
+        synchronized (candidates) {
+            for (Recommendation rec : recommendations) {
+                if (rec != null && !key(rec.title()).isEmpty() && !MovieRecommenderService.isOfflineFallback(rec)) {
+                    candidates.addLast(rec);
+                }
+            }
+        }
+        refill();
+    }
+
+    /**
+     * Lance autant de générations que nécessaire pour atteindre la profondeur cible.
+     */
+    public synchronized void refill() {
+        if (closed) {
+            return;
+        }
+        // Manque calculé une fois : un worker qui échoue aussitôt ne doit pas être relancé en boucle
+        final int missing = targetDepth() - ready.size() - inFlight.get();
+        for (int i = 0; i < missing; i++) {
+            inFlight.incrementAndGet();
+            workers.execute(() -> LlmPriority.PREFETCH.run(this::produceOne));
+        }
+    }
+
+    /**
+     * Profondeur cible : nombre de cartes à garder prêtes (ou en préparation)
+     * pour couvrir la latence du modèle au rythme de swipe observé.
+     *
+     * @return profondeur dans {@code [minDepth, maxDepth]}
+     */
+    public int targetDepth() {
+        final double latency = avgLatencyMs;
+        final double swipe = avgSwipeMs;
+        if (latency <= 0 || swipe <= 0) {
+            return minDepth;
+        }
+        final int wanted = (int) Math.ceil(latency / swipe) + 1;
+        return Math.max(minDepth, Math.min(maxDepth, wanted));
+    }
+
+    /**
+     * @return nombre de cartes actuellement prêtes
+     */
+    public int readyCount() {
+        return ready.size();
+    }
+
+    /**
+     * Arrête les workers ; les cartes en file sont abandonnées.
+     *
+     * <p>Même verrou que {@link #refill()} : un remplissage ne peut pas passer le
+     * test {@code closed} puis soumettre à un exécuteur déjà arrêté.</p>
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        workers.shutdownNow();
+        ready.clear();
+    }
+
+    // =========================
+    // INTERNE
+    // =========================
+
+    /** Génère une carte inédite (recommandation + description) et la met en file. */
+    private void produceOne() {
+        boolean produced = false;
+        try {
+            final long start = System.nanoTime();
+            final Recommendation rec = nextUnknownRecommendation();
+            if (rec == null || closed) {
+                return;
+            }
+            final String description = service.generateDescription(rec.title());
+            if (closed) {
+                return;
+            }
+            if (MovieRecommenderService.OFFLINE_DESCRIPTION.equals(description)) {
+                giveBack(rec);
+                return;
+            }
+            ready.addLast(new Card(rec, description));
+            recordLatency((System.nanoTime() - start) / 1_000_000.0);
+            produced = true;
+        } catch (RuntimeException e) {
+            // Tolérance : une génération ratée ne doit pas casser la file.
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        if (produced) {
+            // Un poll() survenu entre la mise en file et la décrémentation a pu
+            // compter ce worker comme « en cours » et ne rien relancer.
+            refill();
+        }
+    }
+
+    /**
+     * Prend le prochain candidat inédit du tampon, en le réapprovisionnant par un
+     * appel batch quand il est vide.
+     *
+     * <p>L’appel batch se fait hors du verrou du tampon : {@link #offerCandidates}
+     * (chemin du swipe) et l’autre worker n’attendent jamais le LLM.</p>
+     */
+    private Recommendation nextUnknownRecommendation() {
+        Set<String> known = null;
+        for (int attempt = 0; attempt <= MAX_ATTEMPTS && !closed; attempt++) {
+            final Recommendation pending = pollCandidate();
+            if (pending != null) {
+                return pending;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                break;
+            }
+            if (known == null) {
+                known = knownTitles.get();
+            }
+            final Set<String> exclusions = new HashSet<>(known);
+            exclusions.addAll(reserved);
+            final List<Recommendation> batch = service.recommendRandomBatch(BATCH_SIZE, exclusions);
+            if (batch == null || batch.stream().anyMatch(MovieRecommenderService::isOfflineFallback)) {
+                // Ollama indisponible : pas de carte de repli en file, elle serait servie après le retour
+                return null;
+            }
+            synchronized (candidates) {
+                for (Recommendation rec : batch) {
+                    if (rec != null && !key(rec.title()).isEmpty()) {
+                        candidates.addLast(rec);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Premier candidat du tampon pas encore réservé, ou {@code null}. */
+    private Recommendation pollCandidate() {
+        synchronized (candidates) {
+            while (!candidates.isEmpty()) {
+                final Recommendation rec = candidates.pollFirst();
+                if (reserved.add(key(rec.title()))) {
+                    return rec;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Rend un candidat au tampon (description indisponible) et libère sa réservation. */
+    private void giveBack(final Recommendation rec) {
+        reserved.remove(key(rec.title()));
+        synchronized (candidates) {
+            candidates.addFirst(rec);
+        }
+    }
+
+    private synchronized void recordSwipe() {
+        final long now = System.nanoTime();
+        if (lastPollNanos != 0) {
+            final double interval = (now - lastPollNanos) / 1_000_000.0;
+            if (interval < MAX_SWIPE_INTERVAL_MS) {
+                avgSwipeMs = ewma(avgSwipeMs, interval);
+            }
+        }
+        lastPollNanos = now;
+    }
+
+    private synchronized void recordLatency(final double latencyMs) {
+        avgLatencyMs = ewma(avgLatencyMs, latencyMs);
+    }
+
+    private static double ewma(final double current, final double sample) {
+        return current <= 0 ? sample : current + ALPHA * (sample - current);
+    }
+
+    private static String key(final String title) {
+        return MovieRecommenderService.titleKey(title);
+    }
+
+    /** Tous les titres du stockage, quel que soit leur statut. */
+    private static Set<String> storedTitles() {
+        return JsonStorage.loadAll().stream()
+                .map(HistoryEntry::title)
+                .map(RecommendationPrefetcher::key)
+                .collect(Collectors.toSet());
+    }
+
+    private static ThreadFactory daemonThreads() {
+        final AtomicInteger n = new AtomicInteger();
+        return r -> {
+            final Thread t = new Thread(r, "cinematch-prefetch-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package app.cinematch.agent;
 
 import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaException;
+import app.cinematch.trace.Span;
+import app.cinematch.trace.Tracer;
 
 import java.util.List;
 import java.util.Objects;
@@ -8,6 +11,10 @@ import java.util.function.Function;
 
 public final class ChatAgent {
 
+    /** Réponse servie quand Ollama ne répond pas. */
+    static final String OFFLINE_ANSWER =
+            "Je n’arrive pas à joindre le modèle pour le moment. Réessaie dans quelques instants.";
+
     private final OllamaClient ollama;
     private Profile profile;
     private final Memory memory;
@@ -37,6 +44,14 @@ public final class ChatAgent {
     public void setProfile(final Profile profile) { this.profile = Objects.requireNonNull(profile); }
 
     public String ask(final String userPrompt) {
+        // Racine de la trace du tour (bridge, outils, LLM et stockage en dessous)
+        try (Span span = Tracer.global().start("ChatAgent.ask", "agent")) {
+            span.tag("delegate", askDelegate != null);
+            return answer(userPrompt);
+        }
+    }
+
+    private String answer(final String userPrompt) {
         // Si un délégué (LangChain4j) est fourni, on lui confie la réponse
         if (askDelegate != null) {
             convMemory.addUserMessage(userPrompt);
@@ -71,7 +86,13 @@ public final class ChatAgent {
                 .append("- Inspire-toi du contexte précédent pour rester cohérent.").append(ls)
                 .append("- Réponds de façon fluide, ≤ 100 mots, sans répétition.").append(ls);
 
-        final String response = ollama.chat(sb.toString(), userPrompt);
+        String response;
+        try {
+            response = ollama.chat(sb.toString(), userPrompt);
+        } catch (OllamaException e) {
+            // Réponse de repli : la conversation continue quand Ollama est indisponible.
+            response = OFFLINE_ANSWER;
+        }
         convMemory.addAssistantMessage(response);
         return response;
     }
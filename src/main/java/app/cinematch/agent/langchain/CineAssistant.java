@@ -18,7 +18,7 @@ public interface CineAssistant {
     - generateDescription(title)
     - addManyToWishlist(titles), removeManyFromWishlist(titles), setManyStatus(titles, status)
     - pruneBlanksInStatus(status), renameTitle(oldTitle,newTitle), getListByStatusSorted(status,order)
-    - getStats(detail), pickNextToWatch(strategy,withDescription)
+    - getStats(detail), pickNextToWatch(strategy,withDescription), describeList(status)
 
     RÈGLES D’ORCHESTRATION (TRÈS IMPORTANT)
     - Si la consigne combine plusieurs actions (mots-clés : " et ", " puis ", ";" ou "."),
@@ -38,6 +38,7 @@ public interface CineAssistant {
     - “affiche ma liste d’envie”                    → getListByStatus("envie")
     - “déjà vu / pas intéressé / change statut”     → markAsSeen / markAsDisliked / setStatus
     - “décris <film>”                               → generateDescription
+    - “décris toute ma liste”                       → describeList("envie")
     - “ajoute plusieurs …”                          → addManyToWishlist("Alien, Heat, Drive")
     - “prochain à regarder”                         → pickNextToWatch("random","true")
 
@@ -0,0 +1,89 @@
+package app.cinematch.agent.langchain;
+
+import app.cinematch.api.ToolCallScope;
+import app.cinematch.jfr.ToolInvocationEvent;
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
+import app.cinematch.trace.Span;
+import app.cinematch.trace.Tracer;
+
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.agent.tool.ToolSpecifications;
+import dev.langchain4j.service.tool.DefaultToolExecutor;
+import dev.langchain4j.service.tool.ToolExecutor;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outils {@code @Tool} de l’agent exposés à {@code AiServices} sous forme
+ * d’exécuteurs explicites, pour encadrer chaque appel d’outil.
+ *
+ * <p>Équivalent à {@code AiServices.tools(Object...)} (même spécification,
+ * même exécution via {@link DefaultToolExecutor}), mais chaque exécution a lieu
+ * dans un {@link ToolCallScope} : les appels LLM faits par l’outil sont
+ * étiquetés avec son nom. Chaque outil a ses métriques : {@code tool.<nom>}
+ * (durée) et {@code tool.<nom>.errors} (exception ou résultat {@code ERROR:…}),
+ * et émet un événement JFR
+ * {@link ToolInvocationEvent} et un span {@code tool.<nom>}.</p>
+ */
+final class InstrumentedTools {
+
+    private InstrumentedTools() { }
+
+    /**
+     * @param tools objets portant des méthodes {@code @Tool}
+     * @return spécification → exécuteur encadré, dans l’ordre de déclaration
+     */
+    static Map<ToolSpecification, ToolExecutor> of(final Object... tools) {
+        final Map<ToolSpecification, ToolExecutor> out = new LinkedHashMap<>();
+        for (Object tool : tools) {
+            for (Method method : tool.getClass().getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Tool.class)) {
+                    continue;
+                }
+                final ToolSpecification spec = ToolSpecifications.toolSpecificationFrom(method);
+                final ToolExecutor delegate = new DefaultToolExecutor(tool, method);
+                final Timer timer = MetricsRegistry.global().timer("tool." + spec.name());
+                final Counter errors = MetricsRegistry.global().counter("tool." + spec.name() + ".errors");
+                out.put(spec, (request, memoryId) -> ToolCallScope.call(spec.name(), () -> {
+                    final ToolInvocationEvent event = new ToolInvocationEvent();
+                    event.begin();
+                    final long start = timer.start();
+                    String result = null;
+                    try (Span span = Tracer.global().start("tool." + spec.name(), "tool")) {
+                        result = delegate.execute(request, memoryId);
+                        final boolean failed = result != null && result.startsWith("ERROR");
+                        if (failed) {
+                            errors.inc();
+                        }
+                        span.tag("error", failed);
+                        return result;
+                    } catch (RuntimeException e) {
+                        errors.inc();
+                        throw e;
+                    } finally {
+                        timer.stop(start);
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.tool = spec.name();
+                            event.argumentsBytes = utf8Length(request.arguments());
+                            event.resultBytes = utf8Length(result);
+                            event.success = result != null;
+                            event.commit();
+                        }
+                    }
+                }));
+            }
+        }
+        return out;
+    }
+
+    private static long utf8Length(final String text) {
+        return text == null ? 0 : text.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
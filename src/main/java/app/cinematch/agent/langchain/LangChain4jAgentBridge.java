@@ -8,14 +8,34 @@ import app.cinematch.agent.tools.ViewingTools;
 import app.cinematch.agent.tools.WishlistTools;
 import app.cinematch.agent.tools.LibraryTools;
 import app.cinematch.agent.tools.MultiActionTools;
-
+import app.cinematch.agent.tools.CommandText;
+import app.cinematch.agent.tools.CommandKeywords;
+import app.cinematch.api.LlmPriority;
+import app.cinematch.api.LlmScheduler;
+import app.cinematch.api.ModelRouter;
+import app.cinematch.api.OllamaEndpointPool;
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.trace.Span;
+import app.cinematch.trace.Tracer;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.memory.ChatMemory;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.ollama.OllamaChatModel;
 import dev.langchain4j.service.AiServices;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import java.util.regex.Pattern;
 
 public final class LangChain4jAgentBridge {
 
@@ -23,57 +43,142 @@ public final class LangChain4jAgentBridge {
     @SuppressWarnings("unused")
     private final Profile profile;
     private final BulkTools bulkTools;
+    private final LocalIntentRouter router;
+    // Partagée avec l'assistant : les tours servis localement y sont consignés aussi
+    private final ChatMemory memory;
 
-    // --- REGEX robustes FR/EN pour le pré-parseur client ---
-    // (?iu) = case-insensitive + unicode (accents)
-    private static final Pattern VERB_PREFIX = Pattern.compile("(?iu)^.*?(ajoute|ajouter|mets|met|add)\\s*");
-    private static final Pattern LIST_TAIL  = Pattern.compile("(?iu)\\s*(?:dans|à|a|to|into|in)\\s*(?:ma|la|my|the)?\\s*(?:wish\\s*list|wishlist|liste d'envie|liste)\\s*[.!?\\s]*$");
+    // Part des tours servis sans LLM (pré-parseur, multi-actions, routeur local) : local / (local + llm)
+    private static final Counter LOCAL_TURNS = MetricsRegistry.global().counter("agent.turns.local");
+    private static final Counter LLM_TURNS = MetricsRegistry.global().counter("agent.turns.llm");
 
     public LangChain4jAgentBridge(String ollamaUrl, String modelName,
                                   Profile profile, MovieRecommenderService service) {
+        this(OllamaEndpointPool.single(ollamaUrl), modelName, profile, service);
+    }
+
+    // Variante multi-serveurs : chaque appel du modèle est routé par le pool
+    public LangChain4jAgentBridge(OllamaEndpointPool pool, String modelName,
+                                  Profile profile, MovieRecommenderService service) {
+        this(PooledChatModel.ollama(pool, modelName), profile, service);
+    }
+
+    // Variante ordonnancée : les appels du modèle attendent leur slot, en priorité interactive
+    public LangChain4jAgentBridge(LlmScheduler scheduler, String modelName,
+                                  Profile profile, MovieRecommenderService service) {
+        this(scheduler, ModelRouter.single(modelName), profile, service);
+    }
+
+    // Variante routée : petit modèle pour le choix d'outils, grand pour la réponse rédigée
+    public LangChain4jAgentBridge(LlmScheduler scheduler, ModelRouter router,
+                                  Profile profile, MovieRecommenderService service) {
+        this(PooledChatModel.ollama(scheduler, router), profile, service);
+    }
+
+    // Variante à modèle fourni (ex. ScriptedChatModel) : mesure du cadre agent sans réseau
+    public LangChain4jAgentBridge(ChatLanguageModel model, Profile profile, MovieRecommenderService service) {
         this.profile = profile;
         this.bulkTools = new BulkTools();
 
-        ChatLanguageModel model = OllamaChatModel.builder()
-                .baseUrl(ollamaUrl)
-                .modelName(modelName)
-                .temperature(0.1)
+        this.memory = MessageWindowChatMemory.builder()
+                .maxMessages(6)
+                .chatMemoryStore(new SystemFirstStore())
                 .build();
-
-        ChatMemory memory = MessageWindowChatMemory.withMaxMessages(6);
+        Map<ToolSpecification, ToolExecutor> tools = InstrumentedTools.of(
+                new WishlistTools(),
+                new LibraryTools(service),
+                bulkTools,
+                new MaintenanceTools(),
+                new ViewingTools(service),
+                new MultiActionTools()
+        );
 
         this.assistant = AiServices.builder(CineAssistant.class)
                 .chatLanguageModel(model)
-                .tools(
-                        new WishlistTools(),
-                        new LibraryTools(service),
-                        bulkTools,
-                        new MaintenanceTools(),
-                        new ViewingTools(service),
-                        new MultiActionTools()
-                )
+                .tools(tools)
                 .chatMemory(memory)
                 .build();
+
+        // Commandes simples servies sans LLM, par les mêmes exécuteurs d'outils
+        Map<String, ToolExecutor> byName = new HashMap<>();
+        tools.forEach((spec, executor) -> byName.put(spec.name(), executor));
+        this.router = new LocalIntentRouter(byName);
     }
 
     public String ask(String userPrompt) {
-        String handled = tryClientSideBulkAdd(userPrompt);
-        if (MultiActionTools.shouldForceMulti(userPrompt)) {
-            return new MultiActionTools().mixedActions(userPrompt);
+        // Tout le tour (modèle + appels LLM des outils) passe en priorité interactive
+        return Tracer.global().call("bridge.ask", "agent",
+                () -> LlmPriority.INTERACTIVE.call(() -> answer(userPrompt)));
+    }
+
+    private String answer(String userPrompt) {
+        Tracer tracer = Tracer.global();
+        // Une seule lecture du message pour tout le vocabulaire (automate partagé avec MultiActionTools)
+        CommandKeywords.Hits hits = CommandKeywords.scan(userPrompt);
+        String handled;
+        try (Span span = tracer.start("bridge.clientBulkAdd", "agent")) {
+            handled = tryClientSideBulkAdd(userPrompt, hits);
+            span.tag("handled", handled != null);
         }
-        if (handled != null) return handled;
-        return assistant.chat(userPrompt);
+        boolean forceMulti;
+        try (Span span = tracer.start("bridge.shouldForceMulti", "agent")) {
+            forceMulti = MultiActionTools.shouldForceMulti(hits);
+            span.tag("result", forceMulti);
+        }
+        if (forceMulti) {
+            return servedLocally(userPrompt,
+                    tracer.call("bridge.mixedActions", "agent", () -> new MultiActionTools().mixedActions(userPrompt)));
+        }
+        if (handled != null) {
+            return servedLocally(userPrompt, handled);
+        }
+        String routed;
+        try (Span span = tracer.start("bridge.localIntent", "agent")) {
+            routed = router.answer(userPrompt);
+            span.tag("handled", routed != null);
+        }
+        if (routed != null) {
+            return servedLocally(userPrompt, routed);
+        }
+        LLM_TURNS.inc();
+        return tracer.call("assistant.chat", "agent", () -> assistant.chat(userPrompt));
     }
 
-    // --- Fallback local “ajout multiple” ---
-    private String tryClientSideBulkAdd(String msg) {
-        String low = msg.toLowerCase(java.util.Locale.ROOT);
+    // Historique en mémoire dont le prompt système reste en tête, même ajouté après des tours locaux
+    private static final class SystemFirstStore implements ChatMemoryStore {
+        private List<ChatMessage> messages = List.of();
+
+        @Override
+        public List<ChatMessage> getMessages(Object memoryId) {
+            return new ArrayList<>(messages);
+        }
 
-        boolean looksLikeAdd =
-                (low.contains("ajoute") || low.contains("ajouter") || low.contains("mets") || low.contains("met") || low.contains("add"))
-                        && (low.contains("wishlist") || low.contains("liste d'envie") || low.contains("liste") || low.contains("wish list"));
+        @Override
+        public void updateMessages(Object memoryId, List<ChatMessage> updated) {
+            List<ChatMessage> ordered = new ArrayList<>(updated.size());
+            updated.stream().filter(m -> m instanceof SystemMessage).forEach(ordered::add);
+            updated.stream().filter(m -> !(m instanceof SystemMessage)).forEach(ordered::add);
+            messages = ordered;
+        }
+
+        @Override
+        public void deleteMessages(Object memoryId) {
+            messages = List.of();
+        }
+    }
+
+    // Tour servi sans LLM : consigné dans la mémoire pour que la question suivante ("le premier"…) ait son contexte
+    private String servedLocally(String userPrompt, String reply) {
+        LOCAL_TURNS.inc();
+        memory.add(UserMessage.from(userPrompt));
+        memory.add(AiMessage.from(reply));
+        return reply;
+    }
+
+    // --- Fallback local “ajout multiple” ---
+    private String tryClientSideBulkAdd(String msg, CommandKeywords.Hits hits) {
+        boolean looksLikeAdd = hits.has(CommandKeywords.Kind.ADD) && hits.has(CommandKeywords.Kind.LIST);
 
-        boolean looksLikeMany = low.contains(",") || low.contains("\n");
+        boolean looksLikeMany = msg.indexOf(',') >= 0 || msg.indexOf('\n') >= 0;
         if (!looksLikeAdd || !looksLikeMany) return null;
 
         // Extraction robuste FR/EN : retire le verbe & la queue “… wishlist / wish list / liste d'envie …”
@@ -91,10 +196,11 @@ public final class LangChain4jAgentBridge {
         return "Ajout effectué : " + titles + ".";
     }
 
-    // Méthode utilitaire: applique les 2 regex en chaîne (verbe puis queue)
+    // Méthode utilitaire: retire le verbe puis la queue « … dans ma liste » en temps linéaire
+    // (les anciennes regex ^.*?… et \s*…$ revenaient en arrière sur les longs messages)
     private static String extractTitlesForBulk(String msg) {
-        String noVerb = VERB_PREFIX.matcher(msg).replaceFirst("");
-        String noTail = LIST_TAIL.matcher(noVerb).replaceFirst("");
+        String noVerb = CommandText.stripLeadingVerb(msg);
+        String noTail = CommandText.stripListTail(noVerb);
         return noTail.trim();
     }
 }
@@ -0,0 +1,452 @@
+package app.cinematch.agent.langchain;
+
+import app.cinematch.agent.tools.CommandKeywords;
+import app.cinematch.agent.tools.CommandText;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecutor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Routeur local et déterministe : les commandes simples (« affiche ma liste d’envie »,
+ * « stats », « marque Heat comme déjà vu », « prochain film à regarder ») sont
+ * résolues par une petite grammaire et envoyées directement à l’outil concerné,
+ * sans aller-retour avec le modèle.
+ *
+ * <p>Une commande n’est servie localement que si la grammaire couvre le message
+ * entier (formules de politesse mises à part) ; au moindre mot inattendu,
+ * {@link #route(String)} ne rend rien et le bridge passe la main au LLM.</p>
+ *
+ * <p>Les outils sont appelés par les mêmes exécuteurs que ceux offerts au modèle
+ * ({@link InstrumentedTools}) : métriques {@code tool.*}, spans et événements JFR
+ * restent identiques quel que soit le chemin.</p>
+ */
+public final class LocalIntentRouter {
+
+    /** Intention reconnue. */
+    public enum Intent {
+        /** Afficher une liste (envie, déjà vu, pas intéressé). */
+        SHOW_LIST,
+        /** Compter les films par statut. */
+        STATS,
+        /** Proposer le prochain film de la liste d’envie. */
+        NEXT_TO_WATCH,
+        /** Changer le statut d’un film. */
+        SET_STATUS
+    }
+
+    /**
+     * Commande résolue localement.
+     *
+     * @param intent    intention
+     * @param tool      outil à appeler
+     * @param arguments arguments de l’outil
+     */
+    public record Route(Intent intent, String tool, Map<String, String> arguments) {
+        /** Constructeur canonique. */
+        public Route {
+            arguments = Map.copyOf(arguments);
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Grammaires à mots fixes : {@code [a|b]} facultatif, {@code a|b} obligatoire. */
+    private static final List<Rule> RULES = List.of(
+            new Rule(Intent.STATS, "getStats", Map.of("detail", "all"),
+                    "[donne|donner|affiche|afficher|montre|montrer|voir|quelles|calcule] [moi|sont] [mes|les] "
+                            + "stats|statistiques"),
+            new Rule(Intent.SHOW_LIST, "getListByStatus", Map.of("status", "envie"),
+                    "[affiche|afficher|montre|montrer|donne|liste|voir|consulte|ouvre] [moi] [ma|la|mes] liste [d] "
+                            + "[envie|envies]"),
+            new Rule(Intent.SHOW_LIST, "getListByStatus", Map.of("status", "envie"),
+                    "[affiche|afficher|montre|montrer|donne|voir|consulte|ouvre] [moi] [ma|la|mes] "
+                            + "wishlist|envies"),
+            new Rule(Intent.SHOW_LIST, "getListByStatus", Map.of("status", "deja_vu"),
+                    "[affiche|montre|donne|liste|voir] [moi] [ma|la] [liste] [des|mes|les] films [deja] vus|vu"),
+            new Rule(Intent.SHOW_LIST, "getListByStatus", Map.of("status", "pas_interesse"),
+                    "[affiche|montre|donne|liste|voir] [moi] [ma|la] [liste] [des|mes|les] films "
+                            + "[pas|non] interesses|ecartes|rejetes"),
+            // Seul le « prochain film » vise la liste d’envie ; « quoi regarder ce soir » attend une
+            // recommandation, y compris liste vide : laissé au LLM.
+            new Rule(Intent.NEXT_TO_WATCH, "pickNextToWatch", Map.of("strategy", "random", "withDescription", "true"),
+                    "[quel|donne|propose|choisis|suggere|trouve] [moi] [est] [le|mon|un] prochain film [a] "
+                            + "[regarder|voir]"));
+
+    /** Titres affichés par liste, le reste résumé en « (+N) » (même règle que le prompt de CineAssistant). */
+    static final int LIST_PREVIEW = 10;
+
+    /** Repli précalculé pour Latin-1 (lettres accentuées françaises comprises) ; avant {@link #STATUS_KEYS}. */
+    private static final char[] LATIN1_FOLD = latin1Fold();
+
+    /** Verbes de « marque X comme STATUT ». */
+    private static final Set<String> STATUS_VERBS = Set.of("marque", "marquer", "passe", "mets", "met", "classe");
+    /** Liaisons entre le titre et le statut. */
+    private static final Set<String> STATUS_PIVOTS = Set.of("comme", "en");
+    /** Renvois à un message précédent (« marque le premier comme vu ») : seul le LLM a le contexte. */
+    private static final Set<String> REFERENCES = Set.of(
+            "le premier", "la premiere", "le dernier", "la derniere", "le deuxieme", "le second", "le suivant",
+            "celui ci", "celui la", "celle ci", "celle la", "ce film", "ce dernier", "le", "la", "les", "tous");
+    /** Mots qui annoncent plusieurs titres : laissé à MultiActionTools ou au LLM. */
+    private static final Set<String> MULTI_MARKERS = Set.of("et", "puis");
+    /** Alias de statut repliés (sans accents, mots séparés par un espace) → statut. */
+    private static final Map<String, String> STATUS_KEYS = statusKeys();
+
+    /** Formules de politesse ignorées en tête et en fin de message. */
+    private static final List<List<String>> POLITE_HEADS = List.of(
+            List.of("peux", "tu"), List.of("tu", "peux"), List.of("pourrais", "tu"), List.of("stp"), List.of("svp"));
+    private static final List<List<String>> POLITE_TAILS = List.of(
+            List.of("stp"), List.of("svp"), List.of("merci"),
+            List.of("s", "il", "te", "plait"), List.of("s", "il", "vous", "plait"));
+
+    /** Exécuteurs d’outils par nom. */
+    private final Map<String, ToolExecutor> tools;
+
+    /**
+     * @param tools exécuteurs d’outils par nom (ceux offerts au modèle)
+     */
+    LocalIntentRouter(final Map<String, ToolExecutor> tools) {
+        this.tools = Map.copyOf(tools);
+    }
+
+    /**
+     * Résout un message sans l’exécuter (aucun effet de bord).
+     *
+     * @param message message de l’utilisateur
+     * @return commande reconnue avec certitude, ou vide si le LLM doit s’en charger
+     */
+    public static Optional<Route> route(final String message) {
+        if (message == null || message.isBlank()) {
+            return Optional.empty();
+        }
+        final List<Token> tokens = withoutPoliteness(tokenize(message));
+        if (tokens.isEmpty()) {
+            return Optional.empty();
+        }
+        final List<String> words = new ArrayList<>(tokens.size());
+        for (Token t : tokens) {
+            words.add(t.word());
+        }
+        for (Rule rule : RULES) {
+            if (rule.matches(words)) {
+                return Optional.of(new Route(rule.intent(), rule.tool(), rule.arguments()));
+            }
+        }
+        return statusChange(message, tokens);
+    }
+
+    /**
+     * Sert le message localement si possible.
+     *
+     * @param message message de l’utilisateur
+     * @return réponse à afficher, ou {@code null} si le LLM doit s’en charger
+     */
+    public String answer(final String message) {
+        final Optional<Route> route = route(message);
+        if (route.isEmpty() || !tools.containsKey(route.get().tool())) {
+            return null;
+        }
+        return reply(route.get(), execute(route.get()));
+    }
+
+    // =========================
+    // EXÉCUTION ET RÉPONSES
+    // =========================
+
+    private String execute(final Route route) {
+        final String arguments;
+        try {
+            arguments = MAPPER.writeValueAsString(new LinkedHashMap<>(route.arguments()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("arguments non sérialisables : " + route, e);
+        }
+        final ToolExecutionRequest request = ToolExecutionRequest.builder()
+                .id("local")
+                .name(route.tool())
+                .arguments(arguments)
+                .build();
+        return tools.get(route.tool()).execute(request, "default");
+    }
+
+    private static String reply(final Route route, final String result) {
+        if (result == null || result.startsWith("ERROR")) {
+            return "Je n’ai pas pu le faire (" + result + ").";
+        }
+        return switch (route.intent()) {
+            case SHOW_LIST -> listReply(route.arguments().get("status"), result);
+            case STATS -> statsReply(result);
+            case NEXT_TO_WATCH -> result.equals("NEXT:EMPTY")
+                    ? "Ta liste d’envie est vide : ajoute des films pour que je puisse t’en proposer un."
+                    : nextReply(result.substring("NEXT:".length()));
+            case SET_STATUS -> "C’est noté : " + route.arguments().get("title") + " → "
+                    + label(route.arguments().getOrDefault("status", "deja_vu")) + ".";
+        };
+    }
+
+    private static String listReply(final String status, final String json) {
+        final List<String> titles;
+        try {
+            titles = MAPPER.readValue(json, new TypeReference<List<String>>() { });
+        } catch (JsonProcessingException e) {
+            return json;
+        }
+        final String name = switch (status) {
+            case "deja_vu" -> "Tes films déjà vus";
+            case "pas_interesse" -> "Tes films écartés";
+            default -> "Ta liste d’envie";
+        };
+        if (titles.isEmpty()) {
+            return name + " : aucun film pour l’instant.";
+        }
+        final String shown = String.join(", ", titles.subList(0, Math.min(titles.size(), LIST_PREVIEW)));
+        final int more = titles.size() - LIST_PREVIEW;
+        return name + " (" + titles.size() + ") : " + shown + (more > 0 ? " (+" + more + ")." : ".");
+    }
+
+    /** {@code TITRE} ou {@code TITRE | DESCRIPTION} → phrase. */
+    private static String nextReply(final String pick) {
+        final int bar = pick.indexOf(" | ");
+        if (bar < 0 || pick.substring(bar + 3).isBlank()) {
+            return "Prochain film à regarder : " + (bar < 0 ? pick : pick.substring(0, bar)) + ".";
+        }
+        return "Prochain film à regarder : " + pick.substring(0, bar) + " — " + pick.substring(bar + 3).trim();
+    }
+
+    /** {@code STATS: total=3 | envie=1 | …} → phrase ; texte brut si le format change. */
+    private static String statsReply(final String result) {
+        final Map<String, String> counts = new HashMap<>();
+        for (String part : result.substring(result.indexOf(':') + 1).split("\\|")) {
+            final int eq = part.indexOf('=');
+            if (eq > 0) {
+                counts.put(part.substring(0, eq).trim(), part.substring(eq + 1).trim());
+            }
+        }
+        if (!counts.keySet().containsAll(List.of("total", "envie", "deja_vu", "pas_interesse"))) {
+            return result;
+        }
+        return "Tes statistiques : " + counts.get("total") + " films — " + counts.get("envie") + " en envie, "
+                + counts.get("deja_vu") + " déjà vus, " + counts.get("pas_interesse") + " écartés.";
+    }
+
+    private static String label(final String status) {
+        return switch (status) {
+            case "deja_vu" -> "déjà vu";
+            case "pas_interesse" -> "pas intéressé";
+            default -> "liste d’envie";
+        };
+    }
+
+    // =========================
+    // GRAMMAIRE
+    // =========================
+
+    /** « marque|passe|mets TITRE comme|en STATUT » : le statut doit finir le message. */
+    private static Optional<Route> statusChange(final String message, final List<Token> tokens) {
+        if (tokens.size() < 4 || !STATUS_VERBS.contains(tokens.get(0).word())) {
+            return Optional.empty();
+        }
+        // Pivot le plus à droite suivi d’un statut complet (le titre peut contenir « en »)
+        for (int k = tokens.size() - 2; k >= 2; k--) {
+            if (!STATUS_PIVOTS.contains(tokens.get(k).word())) {
+                continue;
+            }
+            final String status = STATUS_KEYS.get(join(tokens.subList(k + 1, tokens.size())));
+            if (status == null) {
+                continue;
+            }
+            int first = 1;
+            if (tokens.get(first).word().equals("le") && tokens.get(first + 1).word().equals("film") && k > 3) {
+                first += 2;
+            } else if (tokens.get(first).word().equals("film") && k > 2) {
+                first++;
+            }
+            for (Token t : tokens.subList(first, k)) {
+                if (MULTI_MARKERS.contains(t.word())) {
+                    return Optional.empty();
+                }
+            }
+            if (REFERENCES.contains(join(tokens.subList(first, k)))) {
+                return Optional.empty();
+            }
+            final String raw = message.substring(tokens.get(first - 1).end(), tokens.get(k).start());
+            final String title = CommandText.stripQuotes(raw).trim();
+            if (title.isEmpty() || title.indexOf(',') >= 0 || title.indexOf(';') >= 0) {
+                return Optional.empty();
+            }
+            return Optional.of(status.equals("deja_vu")
+                    ? new Route(Intent.SET_STATUS, "markAsSeen", Map.of("title", title))
+                    : new Route(Intent.SET_STATUS, "setStatus", Map.of("title", title, "status", status)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Grammaire à mots fixes.
+     *
+     * @param intent    intention reconnue
+     * @param tool      outil appelé
+     * @param arguments arguments de l’outil
+     * @param slots     mots attendus, dans l’ordre
+     */
+    private record Rule(Intent intent, String tool, Map<String, String> arguments, List<Slot> slots) {
+
+        Rule(final Intent intent, final String tool, final Map<String, String> arguments, final String grammar) {
+            this(intent, tool, arguments, Slot.parse(grammar));
+        }
+
+        boolean matches(final List<String> words) {
+            return matches(words, 0, 0);
+        }
+
+        /** Retour arrière sur les mots facultatifs : au plus quelques mots, coût négligeable. */
+        private boolean matches(final List<String> words, final int i, final int j) {
+            if (j == slots.size()) {
+                return i == words.size();
+            }
+            final Slot slot = slots.get(j);
+            if (i < words.size() && slot.words().contains(words.get(i)) && matches(words, i + 1, j + 1)) {
+                return true;
+            }
+            return slot.optional() && matches(words, i, j + 1);
+        }
+    }
+
+    /**
+     * Position d’une grammaire.
+     *
+     * @param words    mots acceptés
+     * @param optional {@code true} si la position peut être sautée
+     */
+    private record Slot(Set<String> words, boolean optional) {
+
+        static List<Slot> parse(final String grammar) {
+            final List<Slot> slots = new ArrayList<>();
+            for (String part : grammar.trim().split("\\s+")) {
+                final boolean optional = part.startsWith("[");
+                final String body = optional ? part.substring(1, part.length() - 1) : part;
+                slots.add(new Slot(Set.of(body.split("\\|")), optional));
+            }
+            return slots;
+        }
+    }
+
+    // =========================
+    // NORMALISATION
+    // =========================
+
+    /**
+     * Mot du message, replié (minuscules, sans accents).
+     *
+     * @param word  mot replié
+     * @param start début dans le message d’origine
+     * @param end   fin (exclue) dans le message d’origine
+     */
+    private record Token(String word, int start, int end) { }
+
+    /** Mots du message : suites de caractères de mot, le reste sépare (espaces, tirets, apostrophes…). */
+    private static List<Token> tokenize(final String message) {
+        final List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < message.length()) {
+            if (!CommandText.isWordChar(message.charAt(i))) {
+                i++;
+                continue;
+            }
+            final int start = i;
+            final StringBuilder word = new StringBuilder();
+            while (i < message.length() && CommandText.isWordChar(message.charAt(i))) {
+                final char c = fold(message.charAt(i++));
+                if (c != 0) {
+                    word.append(c);
+                }
+            }
+            tokens.add(new Token(word.toString(), start, i));
+        }
+        return tokens;
+    }
+
+    /** Minuscule sans accent ; 0 pour une marque diacritique isolée. */
+    private static char fold(final char c) {
+        return c < LATIN1_FOLD.length ? LATIN1_FOLD[c] : foldSlow(c);
+    }
+
+    private static char foldSlow(final char c) {
+        final char lower = Character.toLowerCase(c);
+        if (lower < 0x80) {
+            return lower;
+        }
+        if (Character.getType(lower) == Character.NON_SPACING_MARK) {
+            return 0;
+        }
+        return Normalizer.normalize(String.valueOf(lower), Normalizer.Form.NFD).charAt(0);
+    }
+
+    private static char[] latin1Fold() {
+        final char[] table = new char[256];
+        for (char c = 0; c < table.length; c++) {
+            table[c] = foldSlow(c);
+        }
+        return table;
+    }
+
+    private static List<Token> withoutPoliteness(final List<Token> tokens) {
+        int from = 0;
+        int to = tokens.size();
+        boolean changed = true;
+        while (changed && from < to) {
+            changed = false;
+            for (List<String> head : POLITE_HEADS) {
+                if (startsWith(tokens, from, to, head)) {
+                    from += head.size();
+                    changed = true;
+                }
+            }
+            for (List<String> tail : POLITE_TAILS) {
+                if (startsWith(tokens, to - tail.size(), to, tail)) {
+                    to -= tail.size();
+                    changed = true;
+                }
+            }
+        }
+        return tokens.subList(from, Math.max(from, to));
+    }
+
+    private static boolean startsWith(final List<Token> tokens, final int from, final int to,
+                                      final List<String> words) {
+        if (from < 0 || from + words.size() > to) {
+            return false;
+        }
+        for (int k = 0; k < words.size(); k++) {
+            if (!tokens.get(from + k).word().equals(words.get(k))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String join(final List<Token> tokens) {
+        final StringBuilder sb = new StringBuilder();
+        for (Token t : tokens) {
+            sb.append(sb.length() > 0 ? " " : "").append(t.word());
+        }
+        return sb.toString();
+    }
+
+    /** Alias de {@link CommandKeywords#statusAliases()} repliés, plus « vu ». */
+    private static Map<String, String> statusKeys() {
+        final Map<String, String> keys = new HashMap<>();
+        CommandKeywords.statusAliases().forEach((alias, status) -> keys.put(join(tokenize(alias)), status));
+        keys.put("vu", "deja_vu");
+        return Map.copyOf(keys);
+    }
+}
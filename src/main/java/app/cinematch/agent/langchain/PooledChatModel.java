@@ -0,0 +1,250 @@
+package app.cinematch.agent.langchain;
+
+import app.cinematch.api.GenerationOptions;
+import app.cinematch.api.LlmOperation;
+import app.cinematch.api.LlmPriority;
+import app.cinematch.api.LlmScheduler;
+import app.cinematch.api.LlmUsageStats;
+import app.cinematch.api.ModelRouter;
+import app.cinematch.api.OllamaEndpoint;
+import app.cinematch.api.OllamaEndpointPool;
+import app.cinematch.api.OllamaException;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
+import app.cinematch.trace.Span;
+import app.cinematch.trace.Tracer;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ChatLanguageModel} LangChain4j réparti sur un {@link OllamaEndpointPool} :
+ * chaque génération est routée vers le serveur choisi par le pool, et rejouée sur
+ * un autre serveur si le premier échoue (les générations n’ont pas d’effet de bord ;
+ * les outils ne sont exécutés qu’après la réponse du modèle). Seuls les échecs du
+ * serveur (connexion, délai, 5xx) le sortent de la rotation ; une requête refusée
+ * est propagée telle quelle.
+ *
+ * <p>Un {@link OllamaChatModel} est créé paresseusement par serveur et par modèle.
+ * Le modèle est choisi par un {@link ModelRouter} : {@link LlmOperation#TOOL_ROUTING}
+ * pour le choix d’outils, {@link LlmOperation#CHAT} pour la réponse rédigée après
+ * exécution des outils (ou sans outils).</p>
+ *
+ * <p>Les compteurs de tokens renvoyés ({@link TokenUsage}) alimentent
+ * {@link LlmUsageStats#shared()} ; LangChain4j ne transmet pas les durées
+ * d’Ollama, seule la durée totale mesurée côté client est enregistrée.</p>
+ *
+ * <p>Avec un {@link LlmScheduler}, chaque génération attend son slot comme les appels
+ * d’{@code OllamaClient} (priorité {@link LlmPriority#INTERACTIVE} par défaut).</p>
+ *
+ * <p>Chaque génération est un span {@code llm.<opération>} (modèle, serveur, tokens)
+ * et sa durée alimente le timer {@code llm.agent.<opération>}.</p>
+ */
+final class PooledChatModel implements ChatLanguageModel {
+
+    /** Statut HTTP dans les erreurs LangChain4j ({@code "status code: 503; body: ..."}). */
+    private static final Pattern HTTP_STATUS = Pattern.compile("status code: (\\d{3})");
+
+    private final OllamaEndpointPool pool;
+    /** Ordonnanceur partagé ({@code null} : accès direct au pool). */
+    private final LlmScheduler scheduler;
+    /** Modèle par opération. */
+    private final ModelRouter router;
+    /** Fabrique d’un modèle pour une URL de serveur et un nom de modèle. */
+    private final BiFunction<String, String, ChatLanguageModel> factory;
+    /** Agrégation des tokens consommés. */
+    private LlmUsageStats usage = LlmUsageStats.shared();
+    /** Modèles déjà créés, par URL de serveur et nom de modèle. */
+    private final Map<String, ChatLanguageModel> delegates = new ConcurrentHashMap<>();
+
+    /**
+     * @param pool      serveurs disponibles
+     * @param modelName modèle visé (sert au routage)
+     * @param factory   création d’un modèle pour une URL de serveur
+     */
+    PooledChatModel(final OllamaEndpointPool pool, final String modelName,
+                    final Function<String, ChatLanguageModel> factory) {
+        this(pool, null, ModelRouter.single(modelName), (url, model) -> factory.apply(url));
+    }
+
+    /**
+     * @param pool      serveurs disponibles
+     * @param scheduler ordonnanceur (du même pool) ou {@code null}
+     * @param router    modèle par opération
+     * @param factory   création d’un modèle pour une URL de serveur et un nom de modèle
+     */
+    PooledChatModel(final OllamaEndpointPool pool, final LlmScheduler scheduler, final ModelRouter router,
+                    final BiFunction<String, String, ChatLanguageModel> factory) {
+        this.pool = pool;
+        this.scheduler = scheduler;
+        this.router = router;
+        this.factory = factory;
+    }
+
+    /**
+     * Modèle Ollama standard de l’assistant (température basse pour des appels
+     * d’outils stables).
+     *
+     * @param pool      serveurs disponibles
+     * @param modelName modèle visé
+     * @return modèle réparti
+     */
+    static PooledChatModel ollama(final OllamaEndpointPool pool, final String modelName) {
+        return new PooledChatModel(pool, null, ModelRouter.single(modelName), PooledChatModel::ollamaModel);
+    }
+
+    /**
+     * Variante ordonnancée et routée de {@link #ollama(OllamaEndpointPool, String)}.
+     *
+     * @param scheduler ordonnanceur partagé
+     * @param router    modèle par opération
+     * @return modèle réparti
+     */
+    static PooledChatModel ollama(final LlmScheduler scheduler, final ModelRouter router) {
+        return new PooledChatModel(scheduler.pool(), scheduler, router, PooledChatModel::ollamaModel);
+    }
+
+    private static ChatLanguageModel ollamaModel(final String url, final String modelName) {
+        return OllamaChatModel.builder()
+                .baseUrl(url)
+                .modelName(modelName)
+                .temperature(0.1)
+                .numCtx(GenerationOptions.CONTEXT_TOKENS)
+                .build();
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        return route(LlmOperation.CHAT, model -> model.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages,
+                                        final List<ToolSpecification> toolSpecifications) {
+        return route(operationFor(messages), model -> model.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages,
+                                        final ToolSpecification toolSpecification) {
+        return route(operationFor(messages), model -> model.generate(messages, toolSpecification));
+    }
+
+    /** Après un résultat d’outil, le modèle rédige la réponse : c’est de la prose. */
+    private static LlmOperation operationFor(final List<ChatMessage> messages) {
+        return !messages.isEmpty() && messages.get(messages.size() - 1) instanceof ToolExecutionResultMessage
+                ? LlmOperation.CHAT : LlmOperation.TOOL_ROUTING;
+    }
+
+    private void recordUsage(final LlmOperation operation, final Response<AiMessage> response,
+                             final long elapsedNanos) {
+        final TokenUsage tokens = response == null ? null : response.tokenUsage();
+        if (tokens == null) {
+            return;
+        }
+        usage.record(operation, orZero(tokens.inputTokenCount()), orZero(tokens.outputTokenCount()),
+                0, 0, elapsedNanos);
+    }
+
+    private static long orZero(final Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    /** Essaie chaque serveur au plus une fois, dans l’ordre proposé par le pool. */
+    private Response<AiMessage> route(final LlmOperation operation,
+                                      final Function<ChatLanguageModel, Response<AiMessage>> call) {
+        final Timer timer = MetricsRegistry.global().timer("llm.agent." + operation.id());
+        final long start = timer.start();
+        try (Span span = Tracer.global().start("llm." + operation.id(), "llm")) {
+            return route(operation, call, span);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    private Response<AiMessage> route(final LlmOperation operation,
+                                      final Function<ChatLanguageModel, Response<AiMessage>> call,
+                                      final Span span) {
+        final Set<OllamaEndpoint> tried = new HashSet<>();
+        final LlmPriority priority = LlmPriority.current(operation);
+        final String modelName = router.modelFor(operation);
+        span.tag("model", modelName);
+        RuntimeException last = null;
+        while (tried.size() < pool.endpoints().size()) {
+            try (OllamaEndpointPool.Lease lease = scheduler != null
+                    ? scheduler.acquire(priority, modelName, tried)
+                    : pool.acquire(modelName, tried)) {
+                final OllamaEndpoint endpoint = lease.endpoint();
+                tried.add(endpoint);
+                final long start = System.nanoTime();
+                try {
+                    final Response<AiMessage> response = call.apply(delegates.computeIfAbsent(
+                            endpoint.baseUrl() + '|' + modelName, key -> factory.apply(endpoint.baseUrl(), modelName)));
+                    final long now = System.nanoTime();
+                    endpoint.latencies().record((now - start) / 1_000_000);
+                    // Temps de service de cette tentative seulement : ni file d’attente ni serveurs déjà essayés.
+                    router.record(operation, modelName, (now - start) / 1_000_000);
+                    recordUsage(operation, response, now - start);
+                    span.tag("endpoint", endpoint.baseUrl()).tag("attempts", tried.size());
+                    final TokenUsage tokens = response == null ? null : response.tokenUsage();
+                    if (tokens != null) {
+                        span.tag("promptTokens", orZero(tokens.inputTokenCount()))
+                                .tag("evalTokens", orZero(tokens.outputTokenCount()));
+                    }
+                    return response;
+                } catch (RuntimeException e) {
+                    if (!isEndpointFailure(e)) {
+                        // Requête refusée (4xx, schéma d’outil, réponse illisible) : le serveur va bien.
+                        throw e;
+                    }
+                    endpoint.markDown();
+                    last = e;
+                }
+            }
+        }
+        throw last;
+    }
+
+    /**
+     * Échec imputable au serveur : connexion impossible, délai dépassé ou
+     * réponse 5xx. LangChain4j enveloppe les {@link IOException} dans une
+     * {@link RuntimeException} et signale les statuts HTTP par un message
+     * {@code "status code: NNN; body: ..."}.
+     *
+     * @param e exception levée par le modèle délégué
+     * @return {@code true} si le serveur doit sortir de la rotation
+     */
+    static boolean isEndpointFailure(final RuntimeException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof IOException || t instanceof UncheckedIOException) {
+                return true;
+            }
+            if (t instanceof OllamaException oe) {
+                return oe.kind().isTransient();
+            }
+            final Matcher status = t.getMessage() == null ? null : HTTP_STATUS.matcher(t.getMessage());
+            if (status != null && status.lookingAt()) {
+                return Integer.parseInt(status.group(1)) >= 500;
+            }
+        }
+        return false;
+    }
+}
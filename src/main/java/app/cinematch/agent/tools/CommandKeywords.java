@@ -0,0 +1,180 @@
+package app.cinematch.agent.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Vocabulaire des commandes en texte libre (verbes, statuts, listes, liaisons),
+ * compilé une fois dans un {@link KeywordMatcher} partagé par le pré-parseur du
+ * bridge et {@link MultiActionTools}.
+ *
+ * <p>Un message est lu une seule fois par {@link #scan(CharSequence)} ; les
+ * questions « contient un verbe d’ajout ? », « quel statut ? » se posent ensuite
+ * sur les occurrences trouvées au lieu de relancer un {@code contains} par mot.</p>
+ */
+public final class CommandKeywords {
+
+    /** Catégorie d’un mot-clé. */
+    public enum Kind {
+        /** Verbe d’ajout à la liste d’envie. */
+        ADD,
+        /** Verbe de retrait. */
+        REMOVE,
+        /** Verbe de changement de statut (« marque »). */
+        MARK,
+        /** Alias de statut ; la valeur est le statut de stockage. */
+        STATUS,
+        /** Mention d’une liste (« liste », « wishlist »). */
+        LIST,
+        /** Liaison entre deux actions (« et », « puis », {@code ;}, {@code .}). */
+        JOINER
+    }
+
+    /**
+     * Étiquette d’un mot-clé.
+     *
+     * @param kind  catégorie
+     * @param value valeur normalisée (statut pour {@link Kind#STATUS}, sinon le mot)
+     */
+    public record Term(Kind kind, String value) { }
+
+    // --- Vocabulaire (FR + petits alias), mots entiers ---
+    static final List<String> ADD_VERBS = List.of(
+            "ajoute", "ajouter", "ajoutes", "ajoutez", "mets", "met", "mettre", "mettez",
+            "add", "place", "placer", "placez");
+    static final List<String> REMOVE_VERBS = List.of(
+            "retire", "retirer", "retirez", "supprime", "supprimer", "supprimez",
+            "enleve", "enlève", "enlever", "enlevez");
+    static final List<String> MARK_VERBS = List.of("marque", "marquer", "marquez");
+    static final List<String> LIST_WORDS = List.of("liste", "wishlist", "wish list");
+    static final List<String> JOINER_WORDS = List.of("et", "puis");
+    /** Liaisons ponctuelles, reconnues sans frontière de mot. */
+    static final List<String> JOINER_MARKS = List.of(";", ".");
+    static final Map<String, String> STATUS_ALIASES = Map.ofEntries(
+            Map.entry("envie", "envie"),
+            Map.entry("liste d'envie", "envie"),
+            Map.entry("wishlist", "envie"),
+            Map.entry("déjà vu", "deja_vu"),
+            Map.entry("deja vu", "deja_vu"),
+            Map.entry("déjà-vu", "deja_vu"),
+            Map.entry("deja_vu", "deja_vu"),
+            Map.entry("pas interessé", "pas_interesse"),
+            Map.entry("pas intéressé", "pas_interesse"),
+            Map.entry("pas_interesse", "pas_interesse"),
+            Map.entry("pas interesse", "pas_interesse")
+    );
+
+    private static final KeywordMatcher<Term> MATCHER = KeywordMatcher.of(vocabulary());
+
+    private CommandKeywords() {
+        // Classe utilitaire : pas d’instanciation.
+    }
+
+    /**
+     * Occurrences du vocabulaire dans un message.
+     *
+     * @param matches occurrences, dans l’ordre de leur position de fin
+     */
+    public record Hits(List<KeywordMatcher.Match<Term>> matches) {
+
+        /**
+         * @param kind catégorie
+         * @return {@code true} si au moins un mot-clé de cette catégorie est présent
+         */
+        public boolean has(final Kind kind) {
+            return first(kind) != null;
+        }
+
+        /**
+         * @param kinds catégories
+         * @return {@code true} si au moins un mot-clé de l’une d’elles est présent
+         */
+        public boolean hasAny(final Kind... kinds) {
+            for (Kind kind : kinds) {
+                if (has(kind)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param kind catégorie
+         * @return occurrence qui commence le plus tôt (la plus longue à égalité), ou {@code null}
+         */
+        public KeywordMatcher.Match<Term> first(final Kind kind) {
+            KeywordMatcher.Match<Term> best = null;
+            for (KeywordMatcher.Match<Term> m : matches) {
+                if (m.tag().kind() == kind && (best == null || m.start() < best.start()
+                        || m.start() == best.start() && m.end() > best.end())) {
+                    best = m;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * @param kind catégorie
+         * @return occurrence qui finit le plus tard (la plus longue à égalité), ou {@code null}
+         */
+        public KeywordMatcher.Match<Term> last(final Kind kind) {
+            KeywordMatcher.Match<Term> best = null;
+            for (KeywordMatcher.Match<Term> m : matches) {
+                if (m.tag().kind() == kind && (best == null || m.end() > best.end()
+                        || m.end() == best.end() && m.start() < best.start())) {
+                    best = m;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Lit le message une fois et rend toutes les occurrences du vocabulaire.
+     *
+     * @param text message ({@code null} = vide)
+     * @return occurrences trouvées
+     */
+    public static Hits scan(final CharSequence text) {
+        return new Hits(MATCHER.findAll(text));
+    }
+
+    /**
+     * @return alias de statut → statut de stockage (non modifiable)
+     */
+    public static Map<String, String> statusAliases() {
+        return STATUS_ALIASES;
+    }
+
+    /**
+     * @param alias alias de statut (casse et espaces de bord ignorés)
+     * @return statut de stockage, ou {@code null} si l’alias est inconnu
+     */
+    static String statusOf(final String alias) {
+        return STATUS_ALIASES.get(alias.toLowerCase(Locale.ROOT).trim());
+    }
+
+    private static List<KeywordMatcher.Keyword<Term>> vocabulary() {
+        final List<KeywordMatcher.Keyword<Term>> keywords = new ArrayList<>();
+        addWords(keywords, Kind.ADD, ADD_VERBS);
+        addWords(keywords, Kind.REMOVE, REMOVE_VERBS);
+        addWords(keywords, Kind.MARK, MARK_VERBS);
+        addWords(keywords, Kind.LIST, LIST_WORDS);
+        addWords(keywords, Kind.JOINER, JOINER_WORDS);
+        for (String mark : JOINER_MARKS) {
+            keywords.add(new KeywordMatcher.Keyword<>(mark, new Term(Kind.JOINER, mark), false));
+        }
+        STATUS_ALIASES.forEach((alias, status) ->
+                keywords.add(new KeywordMatcher.Keyword<>(alias, new Term(Kind.STATUS, status), true)));
+        return keywords;
+    }
+
+    private static void addWords(final List<KeywordMatcher.Keyword<Term>> keywords,
+                                 final Kind kind, final List<String> words) {
+        for (String word : words) {
+            keywords.add(new KeywordMatcher.Keyword<>(word, new Term(kind, word), true));
+        }
+    }
+}
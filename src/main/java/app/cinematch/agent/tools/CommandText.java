@@ -0,0 +1,388 @@
+package app.cinematch.agent.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Découpage linéaire des commandes en texte libre (pré-parseurs du bridge et de
+ * {@link MultiActionTools}).
+ *
+ * <p>Remplace des expressions régulières à retour arrière ({@code ^.*?(ajoute|…)},
+ * {@code \s*(dans|à|…)…$}, {@code \s+(et|puis)\s+}, {@code \b(ma|la|…)\b}) qui
+ * devenaient quadratiques sur des messages collés de milliers de caractères (longues
+ * suites d’espaces, de lettres isolées…). Chaque méthode parcourt le texte un
+ * nombre borné de fois et compare au plus une poignée de mots-clés par position :
+ * temps en {@code O(n)} quelle que soit l’entrée.</p>
+ *
+ * <p>Les sémantiques des anciennes expressions sont conservées (mêmes espaces
+ * {@code \s} ASCII, même casse, mêmes frontières de mots), ce que vérifient des
+ * tests aléatoires contre les expressions d’origine.</p>
+ */
+public final class CommandText {
+
+    /** Verbes d’ajout reconnus en tête de message (le plus long d’abord). */
+    private static final String[] ADD_VERBS = {"ajouter", "ajoute", "mets", "met", "add"};
+    /** Prépositions d’une queue « … dans ma liste ». */
+    private static final String[] LIST_PREPOSITIONS = {"dans", "à", "a", "to", "into", "in"};
+    /** Articles facultatifs d’une queue « … dans ma liste ». */
+    private static final String[] LIST_ARTICLES = {"ma", "la", "my", "the"};
+    /** Mots qui enchaînent deux actions. */
+    private static final String[] JOINERS = {"et", "puis"};
+
+    private CommandText() {
+        // Classe utilitaire : pas d’instanciation.
+    }
+
+    // =========================
+    // CARACTÈRES
+    // =========================
+
+    /**
+     * @param c caractère
+     * @return {@code true} pour un guillemet droit, typographique ou chevron
+     */
+    public static boolean isQuote(final char c) {
+        return c == '"' || c == '“' || c == '”' || c == '«' || c == '»';
+    }
+
+    /**
+     * @param c caractère
+     * @return {@code true} pour un espace au sens de {@code \s} (ASCII)
+     */
+    public static boolean isSpace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Caractère de mot au sens de {@code \b} : lettre, chiffre, {@code _}, ou marque
+     * diacritique combinante (rattachée au caractère de base).
+     *
+     * @param c caractère
+     * @return {@code true} si {@code c} fait partie d’un mot
+     */
+    public static boolean isWordChar(final char c) {
+        return c == '_' || Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    // =========================
+    // NETTOYAGE
+    // =========================
+
+    /**
+     * @param s texte
+     * @return texte sans guillemets (voir {@link #isQuote(char)})
+     */
+    public static String stripQuotes(final String s) {
+        int i = 0;
+        while (i < s.length() && !isQuote(s.charAt(i))) {
+            i++;
+        }
+        if (i == s.length()) {
+            return s;
+        }
+        final StringBuilder sb = new StringBuilder(s.length()).append(s, 0, i);
+        for (; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (!isQuote(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Réduit chaque suite d’espaces à un seul espace et retire les bords
+     * ({@code replaceAll("\\s+", " ").trim()}).
+     *
+     * @param s texte
+     * @return texte normalisé
+     */
+    public static String collapseSpaces(final String s) {
+        final StringBuilder sb = new StringBuilder(s.length());
+        boolean pending = false;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (isSpace(c)) {
+                pending = true;
+            } else {
+                if (pending) {
+                    sb.append(' ');
+                    pending = false;
+                }
+                sb.append(c);
+            }
+        }
+        if (pending) {
+            sb.append(' ');
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Retire les mots entiers de {@code words} (casse exacte, frontières au sens de
+     * {@code \b}). Les mots peuvent contenir une apostrophe ({@code d'envie}) mais
+     * doivent commencer et finir par un caractère de mot.
+     *
+     * @param s     texte
+     * @param words mots à retirer
+     * @return texte sans ces mots (les espaces autour restent)
+     */
+    public static String removeWords(final String s, final Set<String> words) {
+        final StringBuilder sb = new StringBuilder(s.length());
+        int i = 0;
+        while (i < s.length()) {
+            if (!isWordChar(s.charAt(i))) {
+                sb.append(s.charAt(i++));
+                continue;
+            }
+            // Début de mot : un mot retiré ne peut commencer qu’ici.
+            final int matched = wordAt(s, i, words);
+            if (matched > 0) {
+                i += matched;
+                continue;
+            }
+            final int start = i;
+            while (i < s.length() && isWordChar(s.charAt(i))) {
+                i++;
+            }
+            sb.append(s, start, i);
+        }
+        return sb.toString();
+    }
+
+    // =========================
+    // COMMANDES
+    // =========================
+
+    /**
+     * Retire tout ce qui précède le premier verbe d’ajout de la première ligne, le
+     * verbe et les espaces qui le suivent ({@code ^.*?(ajouter|ajoute|mets|met|add)\s*},
+     * sans tenir compte de la casse).
+     *
+     * @param msg message
+     * @return message à partir des titres, ou {@code msg} sans verbe
+     */
+    public static String stripLeadingVerb(final String msg) {
+        for (int i = 0; i < msg.length() && !isLineTerminator(msg.charAt(i)); i++) {
+            for (String verb : ADD_VERBS) {
+                if (regionEqualsUnicodeCase(msg, i, verb)) {
+                    return msg.substring(skipSpaces(msg, i + verb.length()));
+                }
+            }
+        }
+        return msg;
+    }
+
+    /**
+     * Retire une queue « … dans ma liste d’envie ! » en fin de message
+     * ({@code \s*(dans|à|a|to|into|in)\s*(ma|la|my|the)?\s*(wish\s*list|wishlist|liste d'envie|liste)[.!?\s]*$},
+     * sans tenir compte de la casse) : la plus longue queue possible est retirée.
+     *
+     * @param s texte
+     * @return texte sans la queue, ou {@code s} s’il n’en a pas
+     */
+    public static String stripListTail(final String s) {
+        // « $ » accepte aussi un dernier terminateur de ligne, qui est alors conservé.
+        int limit = s.length();
+        if (limit > 0 && isUnicodeLineTerminator(s.charAt(limit - 1))) {
+            limit--;
+        }
+        int end = limit;
+        while (end > 0 && isTailPunctuation(s.charAt(end - 1))) {
+            end--;
+        }
+        final int list = listWordStart(s, end);
+        if (list < 0) {
+            return s;
+        }
+        final int beforeList = skipSpacesBack(s, list);
+        int start = prepositionStart(s, beforeList);
+        for (String article : LIST_ARTICLES) {
+            if (endsWithUnicodeCase(s, beforeList, article)) {
+                start = earliest(start, prepositionStart(s, skipSpacesBack(s, beforeList - article.length())));
+            }
+        }
+        return start < 0 ? s : s.substring(0, start) + s.substring(limit);
+    }
+
+    /**
+     * Découpe une consigne en propositions sur « et », « puis » (entourés d’espaces,
+     * sans tenir compte de la casse ASCII), {@code .} et {@code ;}
+     * ({@code split("(?i)\\s+(et|puis)\\s+|[.;]")}).
+     *
+     * @param s consigne
+     * @return propositions, sans les vides de fin ({@code [s]} sans séparateur)
+     */
+    public static List<String> splitClauses(final String s) {
+        final List<String> out = new ArrayList<>();
+        int from = 0;
+        int i = 0;
+        while (i < s.length()) {
+            final char c = s.charAt(i);
+            if (c == '.' || c == ';') {
+                out.add(s.substring(from, i));
+                from = ++i;
+            } else if (isSpace(c)) {
+                final int word = skipSpaces(s, i);
+                final int after = joinerEnd(s, word);
+                if (after > 0) {
+                    out.add(s.substring(from, i));
+                    from = i = skipSpaces(s, after);
+                } else {
+                    i = word;
+                }
+            } else {
+                i++;
+            }
+        }
+        if (out.isEmpty()) {
+            return List.of(s);
+        }
+        out.add(s.substring(from));
+        int size = out.size();
+        while (size > 0 && out.get(size - 1).isEmpty()) {
+            out.remove(--size);
+        }
+        return out;
+    }
+
+    /**
+     * Retire un mot de tête parmi {@code words} suivi d’au moins un espace, et ces
+     * espaces ({@code replaceFirst("(?i)^(w1|w2…)\\s+", "")}, casse ASCII).
+     *
+     * @param s     texte
+     * @param words mots possibles, en minuscules
+     * @return texte sans le mot de tête
+     */
+    public static String stripLeadingWord(final String s, final String... words) {
+        for (String word : words) {
+            if (regionEqualsAsciiCase(s, 0, word) && word.length() < s.length()
+                    && isSpace(s.charAt(word.length()))) {
+                return s.substring(skipSpaces(s, word.length()));
+            }
+        }
+        return s;
+    }
+
+    // =========================
+    // INTERNE
+    // =========================
+
+    /** Longueur du mot de {@code words} commençant en {@code i} et finissant sur une frontière, 0 sinon. */
+    private static int wordAt(final String s, final int i, final Set<String> words) {
+        int best = 0;
+        for (String w : words) {
+            final int end = i + w.length();
+            if (w.length() > best && s.startsWith(w, i) && (end == s.length() || !isWordChar(s.charAt(end)))) {
+                best = w.length();
+            }
+        }
+        return best;
+    }
+
+    /** Fin de « et » / « puis » en {@code i} s’il est suivi d’un espace, -1 sinon. */
+    private static int joinerEnd(final String s, final int i) {
+        for (String joiner : JOINERS) {
+            final int end = i + joiner.length();
+            if (regionEqualsAsciiCase(s, i, joiner) && end < s.length() && isSpace(s.charAt(end))) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    /** Début du mot de liste finissant en {@code end}, -1 sinon. */
+    private static int listWordStart(final String s, final int end) {
+        if (endsWithUnicodeCase(s, end, "liste d'envie")) {
+            return end - "liste d'envie".length();
+        }
+        if (endsWithUnicodeCase(s, end, "liste")) {
+            return end - "liste".length();
+        }
+        if (endsWithUnicodeCase(s, end, "list")) {
+            final int wish = skipSpacesBack(s, end - "list".length());
+            if (endsWithUnicodeCase(s, wish, "wish")) {
+                return wish - "wish".length();
+            }
+        }
+        return -1;
+    }
+
+    /** Début (espaces de tête compris) de la préposition finissant en {@code end}, -1 sinon. */
+    private static int prepositionStart(final String s, final int end) {
+        int start = -1;
+        for (String prep : LIST_PREPOSITIONS) {
+            if (endsWithUnicodeCase(s, end, prep)) {
+                start = earliest(start, skipSpacesBack(s, end - prep.length()));
+            }
+        }
+        return start;
+    }
+
+    private static int earliest(final int a, final int b) {
+        return a < 0 ? b : b < 0 ? a : Math.min(a, b);
+    }
+
+    private static int skipSpaces(final String s, final int from) {
+        int i = from;
+        while (i < s.length() && isSpace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSpacesBack(final String s, final int to) {
+        int i = to;
+        while (i > 0 && isSpace(s.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isTailPunctuation(final char c) {
+        return c == '.' || c == '!' || c == '?' || isSpace(c);
+    }
+
+    /** Terminateurs de ligne exclus par {@code .} (hors {@code DOTALL}). */
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || isUnicodeLineTerminator(c);
+    }
+
+    private static boolean isUnicodeLineTerminator(final char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /** {@code s[from..]} commence par {@code word} (minuscules), casse Unicode comme {@code (?iu)}. */
+    private static boolean regionEqualsUnicodeCase(final String s, final int from, final String word) {
+        if (from < 0 || from + word.length() > s.length()) {
+            return false;
+        }
+        for (int k = 0; k < word.length(); k++) {
+            final char c = s.charAt(from + k);
+            if (c != word.charAt(k) && Character.toLowerCase(Character.toUpperCase(c)) != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean endsWithUnicodeCase(final String s, final int end, final String word) {
+        return regionEqualsUnicodeCase(s, end - word.length(), word);
+    }
+
+    /** {@code s[from..]} commence par {@code word} (minuscules ASCII), casse ASCII comme {@code (?i)}. */
+    private static boolean regionEqualsAsciiCase(final String s, final int from, final String word) {
+        if (from < 0 || from + word.length() > s.length()) {
+            return false;
+        }
+        for (int k = 0; k < word.length(); k++) {
+            final char c = s.charAt(from + k);
+            final char w = word.charAt(k);
+            if (c != w && !(w >= 'a' && w <= 'z' && c == w - ('a' - 'A'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,238 @@
+package app.cinematch.agent.tools;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Automate d’Aho–Corasick : trouve toutes les occurrences d’un ensemble de mots-clés
+ * en un seul passage sur le texte, quel que soit le nombre de mots-clés.
+ *
+ * <p>Caractéristiques :</p>
+ * <ul>
+ *   <li>insensible à la casse ({@link Character#toLowerCase(char)} caractère par
+ *       caractère, précalculé pour Latin-1 ; les positions restent donc celles du
+ *       texte d’origine) ;</li>
+ *   <li>chaque mot-clé peut exiger des frontières de mot des deux côtés
+ *       (voir {@link CommandText#isWordChar(char)}) : « add » ne trouve alors pas
+ *       « Addams » ;</li>
+ *   <li>les occurrences qui se chevauchent sont toutes rapportées, dans l’ordre de
+ *       leur position de fin.</li>
+ * </ul>
+ *
+ * <p>L’automate est compilé une fois en table de transitions complète (DFA) :
+ * chaque caractère coûte deux lectures de tableau (symbole puis transition). Les
+ * instances sont immuables et partageables entre threads.</p>
+ *
+ * @param <T> étiquette associée aux mots-clés (catégorie, valeur normalisée…)
+ */
+public final class KeywordMatcher<T> {
+
+    /**
+     * Mot-clé recherché.
+     *
+     * @param text      texte du mot-clé (non vide)
+     * @param tag       étiquette rendue avec chaque occurrence
+     * @param wholeWord {@code true} pour n’accepter que des mots entiers
+     */
+    public record Keyword<T>(String text, T tag, boolean wholeWord) {
+        public Keyword {
+            Objects.requireNonNull(text, "text must not be null");
+            if (text.isEmpty()) {
+                throw new IllegalArgumentException("keyword must not be empty");
+            }
+        }
+    }
+
+    /**
+     * Occurrence d’un mot-clé.
+     *
+     * @param keyword mot-clé trouvé
+     * @param start   position de début (incluse) dans le texte
+     * @param end     position de fin (exclue) dans le texte
+     */
+    public record Match<T>(Keyword<T> keyword, int start, int end) {
+        /** @return étiquette du mot-clé */
+        public T tag() {
+            return keyword.tag();
+        }
+    }
+
+    /** Symboles directs pour Latin-1 (lettres accentuées françaises comprises). */
+    private static final int DIRECT = 256;
+
+    private final List<Keyword<T>> keywords;
+    /** Symbole de chaque caractère Latin-1 (casse repliée), -1 s’il n’apparaît dans aucun mot-clé. */
+    private final int[] directSymbols = new int[DIRECT];
+    /** Symboles des autres caractères en minuscules (apostrophe typographique…). */
+    private final Map<Character, Integer> otherSymbols = new HashMap<>();
+    /** Taille de l’alphabet (largeur d’une ligne de {@link #delta}). */
+    private final int alphabet;
+    /** Transitions à plat : {@code delta[état * alphabet + symbole]}. */
+    private final int[] delta;
+    /** Mots-clés reconnus en entrant dans chaque état (liens de suffixe compris). */
+    private final int[][] outputs;
+
+    private KeywordMatcher(final List<Keyword<T>> keywords) {
+        this.keywords = List.copyOf(keywords);
+        Arrays.fill(directSymbols, -1);
+        final Map<Character, Integer> lowerSymbols = new HashMap<>();
+        for (Keyword<T> k : this.keywords) {
+            for (int i = 0; i < k.text().length(); i++) {
+                lowerSymbols.putIfAbsent(Character.toLowerCase(k.text().charAt(i)), lowerSymbols.size());
+            }
+        }
+        this.alphabet = lowerSymbols.size();
+        // Repli de casse précalculé : un caractère Latin-1 coûte une seule lecture de tableau
+        for (char c = 0; c < DIRECT; c++) {
+            directSymbols[c] = lowerSymbols.getOrDefault(Character.toLowerCase(c), -1);
+        }
+        lowerSymbols.forEach((c, sym) -> {
+            if (c >= DIRECT) {
+                otherSymbols.put(c, sym);
+            }
+        });
+
+        // 1) Trie des mots-clés
+        final List<int[]> gotoRows = new ArrayList<>();
+        final List<List<Integer>> out = new ArrayList<>();
+        gotoRows.add(newRow(alphabet));
+        out.add(new ArrayList<>());
+        for (int k = 0; k < this.keywords.size(); k++) {
+            final String text = this.keywords.get(k).text();
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                final int sym = symbol(text.charAt(i));
+                if (gotoRows.get(state)[sym] < 0) {
+                    gotoRows.get(state)[sym] = gotoRows.size();
+                    gotoRows.add(newRow(alphabet));
+                    out.add(new ArrayList<>());
+                }
+                state = gotoRows.get(state)[sym];
+            }
+            out.get(state).add(k);
+        }
+
+        // 2) Liens d’échec en largeur, repliés dans une table de transitions complète
+        final int states = gotoRows.size();
+        final int[] fail = new int[states];
+        this.delta = new int[states * alphabet];
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int sym = 0; sym < alphabet; sym++) {
+            final int next = gotoRows.get(0)[sym];
+            delta[sym] = Math.max(next, 0);
+            if (next > 0) {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            out.get(state).addAll(out.get(fail[state]));
+            for (int sym = 0; sym < alphabet; sym++) {
+                final int next = gotoRows.get(state)[sym];
+                final int viaFail = delta[fail[state] * alphabet + sym];
+                if (next < 0) {
+                    delta[state * alphabet + sym] = viaFail;
+                } else {
+                    delta[state * alphabet + sym] = next;
+                    fail[next] = viaFail;
+                    queue.add(next);
+                }
+            }
+        }
+        this.outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = out.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Compile un automate.
+     *
+     * @param keywords mots-clés (au moins un)
+     * @param <T>      type des étiquettes
+     * @return automate prêt à l’emploi
+     */
+    public static <T> KeywordMatcher<T> of(final List<Keyword<T>> keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            throw new IllegalArgumentException("at least one keyword is required");
+        }
+        return new KeywordMatcher<>(keywords);
+    }
+
+    /**
+     * @return mots-clés de l’automate
+     */
+    public List<Keyword<T>> keywords() {
+        return keywords;
+    }
+
+    /**
+     * Parcourt le texte une fois et transmet chaque occurrence, sans allocation
+     * intermédiaire autre que les {@link Match} eux-mêmes.
+     *
+     * @param text texte à analyser ({@code null} = vide)
+     * @param sink destinataire des occurrences, dans l’ordre de leur position de fin
+     */
+    public void scan(final CharSequence text, final Consumer<Match<T>> sink) {
+        if (text == null) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final int sym = symbol(text.charAt(i));
+            state = sym < 0 ? 0 : delta[state * alphabet + sym];
+            final int[] found = outputs[state];
+            for (int k : found) {
+                final Keyword<T> keyword = keywords.get(k);
+                final int start = i + 1 - keyword.text().length();
+                if (!keyword.wholeWord() || isWordBoundary(text, start, i + 1)) {
+                    sink.accept(new Match<>(keyword, start, i + 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param text texte à analyser ({@code null} = vide)
+     * @return toutes les occurrences, dans l’ordre de leur position de fin
+     */
+    public List<Match<T>> findAll(final CharSequence text) {
+        final List<Match<T>> matches = new ArrayList<>();
+        scan(text, matches::add);
+        return matches;
+    }
+
+    // =========================
+    // INTERNE
+    // =========================
+
+    /** Symbole d’un caractère du texte (casse ignorée), -1 s’il est hors alphabet. */
+    private int symbol(final char c) {
+        if (c < DIRECT) {
+            return directSymbols[c];
+        }
+        final char lower = Character.toLowerCase(c);
+        if (lower < DIRECT) {
+            return directSymbols[lower];
+        }
+        final Integer sym = otherSymbols.get(lower);
+        return sym == null ? -1 : sym;
+    }
+
+    private static boolean isWordBoundary(final CharSequence text, final int start, final int end) {
+        return (start == 0 || !CommandText.isWordChar(text.charAt(start - 1)))
+                && (end == text.length() || !CommandText.isWordChar(text.charAt(end)));
+    }
+
+    private static int[] newRow(final int alphabet) {
+        final int[] row = new int[alphabet];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -1,10 +1,11 @@
 package app.cinematch.agent.tools;
 
+import app.cinematch.agent.tools.CommandKeywords.Kind;
+import app.cinematch.agent.tools.CommandKeywords.Term;
 import app.cinematch.util.JsonStorage;
 import dev.langchain4j.agent.tool.Tool;
 
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  * Orchestrateur multi-intentions (pattern "Orchestrator/Coordinator").
@@ -27,29 +28,12 @@ public final class MultiActionTools {
     private static final String DEJA_VU = "deja_vu";
     private static final String PAS_INTERESSE = "pas_interesse";
 
-    // --- Vocabulaire (FR + petits alias) ---
-    private static final Set<String> ADD_VERBS = Set.of(
-            "ajoute", "ajouter", "mets", "mettre", "add", "place", "placer"
-    );
-    private static final Set<String> REMOVE_VERBS = Set.of(
-            "retire", "retirer", "supprime", "supprimer", "enleve", "enlève"
-    );
-    private static final Set<String> LIST_HINTS = Set.of("liste", "wishlist", "envie");
-    private static final Map<String, String> STATUS_ALIASES = Map.ofEntries(
-            Map.entry("envie", ENVIE),
-            Map.entry("liste d'envie", ENVIE),
-            Map.entry("wishlist", ENVIE),
-            Map.entry("déjà vu", DEJA_VU),
-            Map.entry("deja vu", DEJA_VU),
-            Map.entry("déjà-vu", DEJA_VU),
-            Map.entry("deja_vu", DEJA_VU),
-            Map.entry("pas interessé", PAS_INTERESSE),
-            Map.entry("pas intéressé", PAS_INTERESSE),
-            Map.entry("pas_interesse", PAS_INTERESSE),
-            Map.entry("pas interesse", PAS_INTERESSE)
-    );
-
-    private static final Pattern QUOTES = Pattern.compile("[\"“”«»]");
+    // --- Vocabulaire (verbes, statuts, liaisons) : voir CommandKeywords ---
+
+    /** Mots vides retirés des titres extraits. */
+    private static final Set<String> STOPWORDS = Set.of(
+            "ma", "mon", "la", "le", "les", "de", "du", "des", "dans", "à", "a", "au", "aux",
+            "liste", "wishlist", "d'envie");
 
     // =============== 1) MODELE D’ACTIONS ===============
 
@@ -73,8 +57,8 @@ public final class MultiActionTools {
             if (instruction == null || instruction.trim().isEmpty()) return List.of();
 
             String raw = instruction.trim();
-            // Segmentation grossière par "et", "puis", ., ;
-            String[] segments = raw.split("(?i)\\s+(et|puis)\\s+|[.;]");
+            // Segmentation grossière par "et", "puis", ., ; (linéaire, voir CommandText)
+            List<String> segments = CommandText.splitClauses(raw);
             List<Action> plan = new ArrayList<>();
 
             for (String seg0 : segments) {
@@ -82,10 +66,12 @@ public final class MultiActionTools {
                 if (seg.isEmpty()) continue;
 
                 String segLc = seg.toLowerCase(Locale.ROOT);
+                // Une seule lecture du segment pour tout le vocabulaire (verbes, statuts)
+                CommandKeywords.Hits hits = CommandKeywords.scan(seg);
 
                 // 2.1 Changement de statut ("marque X comme/en …" ou "mets X en …")
-                if (segLc.contains("marque") || (segLc.startsWith("mets ") && containsStatusToken(segLc))) {
-                    String status = detectStatus(segLc);
+                if (hits.has(Kind.MARK) || (segLc.startsWith("mets ") && hits.has(Kind.STATUS))) {
+                    String status = detectStatus(hits);
                     if (status != null) {
                         for (String t : extractTitlesForStatus(seg, segLc)) {
                             if (!t.isBlank()) plan.add(new SetStatus(t, status));
@@ -95,12 +81,12 @@ public final class MultiActionTools {
                 }
 
                 // 2.2 Ajout à la wishlist (ne PAS exiger "liste/wishlist" : "ajoute Alien, Heat" doit marcher)
-                if (containsAny(segLc, ADD_VERBS)) {
-                    List<String> titles = extractTitlesAroundVerb(seg, segLc, ADD_VERBS,
+                if (hits.has(Kind.ADD)) {
+                    List<String> titles = extractTitlesAroundVerb(seg, segLc, hits, Kind.ADD,
                             Set.of(" à ", " a ", " dans ", " sur "));
                     if (titles.isEmpty()) {
                         // fallback si pas trouvé après le verbe : on tente un split direct du segment
-                        titles = splitAndSanitize(QUOTES.matcher(seg).replaceAll(""));
+                        titles = splitAndSanitize(CommandText.stripQuotes(seg));
                     }
                     for (String t : titles) {
                         if (!t.isBlank()) plan.add(new Add(t));
@@ -110,8 +96,8 @@ public final class MultiActionTools {
 
 
                 // 2.3 Suppression / retrait
-                if (containsAny(segLc, REMOVE_VERBS)) {
-                    for (String t : extractTitlesAroundVerb(seg, segLc, REMOVE_VERBS,
+                if (hits.has(Kind.REMOVE)) {
+                    for (String t : extractTitlesAroundVerb(seg, segLc, hits, Kind.REMOVE,
                             Set.of(" de ", " du ", " de la ", " de ma ", " de mon "))) {
                         if (!t.isBlank()) plan.add(new Remove(t));
                     }
@@ -128,19 +114,10 @@ public final class MultiActionTools {
             return plan;
         }
 
-        private static boolean containsAny(String s, Set<String> needles) {
-            for (String n : needles) if (s.contains(n)) return true;
-            return false;
-        }
-
-        private static boolean containsStatusToken(String sLc) {
-            for (String k : STATUS_ALIASES.keySet()) if (sLc.contains(k)) return true;
-            return false;
-        }
-
-        private static String detectStatus(String segLc) {
-            for (var e : STATUS_ALIASES.entrySet()) if (segLc.contains(e.getKey())) return e.getValue();
-            return null;
+        /** Statut le plus à droite ("marque X comme déjà vu" : le statut suit le titre). */
+        private static String detectStatus(CommandKeywords.Hits hits) {
+            KeywordMatcher.Match<Term> status = hits.last(Kind.STATUS);
+            return status == null ? null : status.tag().value();
         }
 
         private static List<String> extractQuotedTitles(String text) {
@@ -148,7 +125,7 @@ public final class MultiActionTools {
             StringBuilder cur = new StringBuilder();
             boolean in = false;
             for (char c : text.toCharArray()) {
-                if (QUOTES.matcher(Character.toString(c)).find()) {
+                if (CommandText.isQuote(c)) {
                     in = !in;
                     if (!in) {
                         String t = sanitize(cur.toString());
@@ -162,13 +139,15 @@ public final class MultiActionTools {
             return out;
         }
 
-        /** Extraction après un verbe, jusqu’à une préposition d’arrêt. */
-        private static List<String> extractTitlesAroundVerb(String seg, String segLc,
-                                                            Set<String> verbs, Set<String> stops) {
+        /** Extraction après le premier verbe suivi d’un espace, jusqu’à une préposition d’arrêt. */
+        private static List<String> extractTitlesAroundVerb(String seg, String segLc, CommandKeywords.Hits hits,
+                                                            Kind verbs, Set<String> stops) {
             int start = -1;
-            for (String v : verbs) {
-                int i = segLc.indexOf(v + " ");
-                if (i >= 0) { start = i + v.length() + 1; break; }
+            for (KeywordMatcher.Match<Term> m : hits.matches()) {
+                if (m.tag().kind() == verbs && m.end() < seg.length() && seg.charAt(m.end()) == ' ') {
+                    start = m.end() + 1;
+                    break;
+                }
             }
             if (start < 0) return List.of();
 
@@ -188,7 +167,7 @@ public final class MultiActionTools {
             titles.addAll(extractQuotedTitles(slice));
 
             // 2) Puis le reste (CSV / "et"), en supprimant juste les caractères de guillemets
-            titles.addAll(splitAndSanitize(QUOTES.matcher(slice).replaceAll("")));
+            titles.addAll(splitAndSanitize(CommandText.stripQuotes(slice)));
 
             // Certains parseurs peuvent réintroduire du bruit : on filtre les vides
             titles.removeIf(t -> t == null || t.isBlank());
@@ -201,7 +180,7 @@ public final class MultiActionTools {
         private static List<String> extractTitlesForStatus(String seg, String segLc) {
             int pivot = Math.max(segLc.indexOf(" comme "), segLc.indexOf(" en "));
             String slice = pivot > 0 ? seg.substring(0, pivot) : seg;
-            slice = slice.replaceFirst("(?i)^(marque|mets|mettre)\\s+", "");
+            slice = CommandText.stripLeadingWord(slice, "marque", "mets", "mettre");
             List<String> quoted = extractQuotedTitles(slice);
             if (!quoted.isEmpty()) return quoted;
             return splitAndSanitize(slice);
@@ -220,10 +199,7 @@ public final class MultiActionTools {
 
         private static String sanitize(String s) {
             if (s == null) return "";
-            return QUOTES.matcher(s).replaceAll("")
-                    .replaceAll("\\b(ma|mon|la|le|les|de|du|des|dans|à|a|au|aux|liste|wishlist|d'envie)\\b", "")
-                    .replaceAll("\\s+", " ")
-                    .trim();
+            return CommandText.collapseSpaces(CommandText.removeWords(CommandText.stripQuotes(s), STOPWORDS));
         }
     }
 
@@ -275,10 +251,11 @@ public final class MultiActionTools {
         private static String normalizeStatus(String s) {
             if (s == null) return null;
             String key = s.toLowerCase(Locale.ROOT).trim();
-            return STATUS_ALIASES.getOrDefault(key, switch (key) {
+            String alias = CommandKeywords.statusOf(key);
+            return alias != null ? alias : switch (key) {
                 case ENVIE, DEJA_VU, PAS_INTERESSE -> key;
                 default -> null;
-            });
+            };
         }
     }
 
@@ -293,10 +270,13 @@ public final class MultiActionTools {
 
     public static boolean shouldForceMulti(String s) {
         if (s == null) return false;
-        String lc = s.toLowerCase(Locale.ROOT);
-        boolean hasJoin = lc.contains(" et ") || lc.contains(" puis ") || lc.indexOf(';') >= 0 || lc.indexOf('.') >= 0;
-        boolean hasVerb = lc.contains("ajout") || lc.contains("mets ") || lc.contains("met ") ||
-                lc.contains("marque") || lc.contains("supprim") || lc.contains("retir") || lc.contains("enlèv") || lc.contains("enlev");
+        return shouldForceMulti(CommandKeywords.scan(s));
+    }
+
+    /** Variante sur un message déjà lu (le bridge ne parcourt le message qu’une fois). */
+    public static boolean shouldForceMulti(CommandKeywords.Hits hits) {
+        boolean hasJoin = hits.has(Kind.JOINER);
+        boolean hasVerb = hits.hasAny(Kind.ADD, Kind.REMOVE, Kind.MARK);
         return hasJoin && hasVerb;
     }
 }
@@ -5,8 +5,11 @@ import app.cinematch.util.JsonStorage;
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
 
 public class ViewingTools {
@@ -41,4 +44,21 @@ public class ViewingTools {
         }
         return "NEXT:" + pick;
     }
+
+    @Tool("Décrit en une fois tous les films d'une liste ('envie' par défaut, ou 'deja_vu', 'pas_interesse').")
+    public String describeList(@P("status") String status) {
+        String st = (status == null || status.isBlank()) ? "envie" : status.trim().toLowerCase(Locale.ROOT);
+        List<String> titles = new ArrayList<>();
+        for (String t : JsonStorage.getByStatus(st)) {
+            String s = t == null ? "" : CommandText.stripQuotes(t).trim();
+            if (!s.isEmpty()) titles.add(s);
+        }
+        if (titles.isEmpty()) return "DESCRIBED:EMPTY";
+
+        StringBuilder sb = new StringBuilder("DESCRIBED:" + titles.size());
+        for (Map.Entry<String, String> e : service.generateDescriptions(titles).entrySet()) {
+            sb.append(System.lineSeparator()).append("- ").append(e.getKey()).append(" : ").append(e.getValue());
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,113 @@
+package app.cinematch.api;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjoncteur à trois états protégeant les appels à Ollama.
+ *
+ * <ul>
+ *   <li>{@link State#CLOSED} : les appels passent ; après {@code failureThreshold}
+ *       échecs passagers consécutifs, le disjoncteur s’ouvre ;</li>
+ *   <li>{@link State#OPEN} : les appels sont refusés immédiatement pendant
+ *       {@code openDuration} ;</li>
+ *   <li>{@link State#HALF_OPEN} : un seul appel d’essai est autorisé ; son succès
+ *       referme le disjoncteur, son échec le rouvre.</li>
+ * </ul>
+ */
+public final class CircuitBreaker {
+
+    /** États du disjoncteur. */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    /** Horloge (nanos), injectable pour les tests. */
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    /** Vrai tant que l’appel d’essai de l’état semi-ouvert est en cours. */
+    private boolean trialInFlight;
+
+    /**
+     * @param failureThreshold échecs consécutifs avant ouverture (≥ 1)
+     * @param openDuration     durée d’ouverture avant un appel d’essai
+     */
+    public CircuitBreaker(final int failureThreshold, final Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    /**
+     * Constructeur avec horloge explicite (tests).
+     *
+     * @param failureThreshold échecs consécutifs avant ouverture (≥ 1)
+     * @param openDuration     durée d’ouverture avant un appel d’essai
+     * @param clock            horloge en nanosecondes
+     */
+    CircuitBreaker(final int failureThreshold, final Duration openDuration, final LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be >= 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Indique si un appel peut partir ; en état semi-ouvert, réserve l’appel d’essai.
+     *
+     * @return {@code true} si l’appel est autorisé
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    /** Signale un appel réussi : referme le disjoncteur. */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /** Signale un échec passager : ouvre le disjoncteur au-delà du seuil. */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /** Libère l’appel d’essai sans conclure (ex. appel interrompu localement). */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    /**
+     * @return état courant (un disjoncteur ouvert dont le délai est écoulé est
+     *         rapporté {@link State#HALF_OPEN})
+     */
+    public synchronized State state() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
@@ -0,0 +1,171 @@
+package app.cinematch.api;
+
+import app.cinematch.model.LlmOptions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Objects;
+
+/**
+ * Paramètres d’un appel LLM pour une opération donnée : sortie structurée
+ * ({@code format}), bornes de génération ({@code num_predict}, {@code num_ctx}),
+ * température et {@code keep_alive}.
+ *
+ * <p>Les valeurs {@code null} laissent le serveur appliquer ses défauts. Les
+ * méthodes {@code withXxx} renvoient une copie modifiée.</p>
+ *
+ * <p>Exemple d’utilisation :
+ * <pre>{@code
+ * GenerationOptions opts = GenerationOptions.defaultsFor(LlmOperation.RECOMMEND_RANDOM)
+ *         .withTemperature(1.0)
+ *         .withKeepAlive("30m");
+ * String json = client.chat(system, user, opts);
+ * }</pre>
+ *
+ * @param operation   opération appelante (non {@code null})
+ * @param format      {@code "json"}, un schéma JSON ({@link JsonNode}) ou {@code null}
+ * @param numPredict  nombre maximal de tokens générés, ou {@code null}
+ * @param numCtx      taille de la fenêtre de contexte, ou {@code null}
+ * @param temperature température d’échantillonnage, ou {@code null}
+ * @param keepAlive   durée de maintien du modèle en mémoire (ex. {@code "30m"}), ou {@code null}
+ */
+public record GenerationOptions(LlmOperation operation, Object format, Integer numPredict,
+                                Integer numCtx, Double temperature, String keepAlive) {
+
+    /** Format JSON libre (objet JSON valide garanti par le serveur). */
+    public static final String JSON = "json";
+
+    /**
+     * Fenêtre de contexte commune à toutes les opérations (tokens). Ollama
+     * recharge le modèle dès que {@code num_ctx} change d’une requête à l’autre :
+     * une valeur unique évite ces rechargements ; la longueur de sortie est
+     * bornée par {@code num_predict} seulement.
+     */
+    public static final int CONTEXT_TOKENS = 4096;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Schéma JSON d’une recommandation ({@code title}, {@code pitch}, {@code year}, {@code platform}). */
+    private static final JsonNode RECOMMENDATION_SCHEMA = recommendationSchema();
+
+    /** Schéma JSON d’un lot : {@code {"films":[recommandation, ...]}}. */
+    private static final JsonNode RECOMMENDATION_BATCH_SCHEMA = batchSchema();
+
+    /**
+     * Constructeur canonique.
+     *
+     * @throws NullPointerException si {@code operation} est {@code null}
+     */
+    public GenerationOptions {
+        Objects.requireNonNull(operation, "operation must not be null");
+    }
+
+    /**
+     * Options « neutres » : aucun format ni paramètre (comportement historique).
+     *
+     * @param operation opération appelante
+     * @return options sans contrainte
+     */
+    public static GenerationOptions none(final LlmOperation operation) {
+        return new GenerationOptions(operation, null, null, null, null, null);
+    }
+
+    /**
+     * Réglages par défaut d’une opération : les recommandations sont contraintes
+     * par un schéma JSON et bornées en longueur ; les descriptions sont bornées.
+     * Toutes partagent la fenêtre {@link #CONTEXT_TOKENS}.
+     *
+     * @param operation opération appelante
+     * @return options par défaut de l’opération
+     */
+    public static GenerationOptions defaultsFor(final LlmOperation operation) {
+        return switch (operation) {
+            case RECOMMEND_FROM_LIKE -> new GenerationOptions(operation,
+                    RECOMMENDATION_SCHEMA, 200, CONTEXT_TOKENS, 0.7, null);
+            case RECOMMEND_RANDOM -> new GenerationOptions(operation,
+                    RECOMMENDATION_SCHEMA, 200, CONTEXT_TOKENS, 0.9, null);
+            case RECOMMEND_BATCH -> new GenerationOptions(operation,
+                    RECOMMENDATION_BATCH_SCHEMA, 1200, CONTEXT_TOKENS, 0.9, null);
+            case GENERATE_DESCRIPTION -> new GenerationOptions(operation,
+                    null, 160, CONTEXT_TOKENS, 0.7, null);
+            case DESCRIBE_BATCH -> new GenerationOptions(operation,
+                    JSON, null, CONTEXT_TOKENS, 0.7, null);
+            case CHAT, TOOL_ROUTING, WARMUP -> none(operation).withNumCtx(CONTEXT_TOKENS);
+        };
+    }
+
+    /**
+     * @param value format ({@code "json"}, schéma ou {@code null})
+     * @return copie avec ce format
+     */
+    public GenerationOptions withFormat(final Object value) {
+        return new GenerationOptions(operation, value, numPredict, numCtx, temperature, keepAlive);
+    }
+
+    /**
+     * @param value nombre maximal de tokens générés (ou {@code null})
+     * @return copie avec cette borne
+     */
+    public GenerationOptions withNumPredict(final Integer value) {
+        return new GenerationOptions(operation, format, value, numCtx, temperature, keepAlive);
+    }
+
+    /**
+     * @param value taille de la fenêtre de contexte (ou {@code null})
+     * @return copie avec cette fenêtre
+     */
+    public GenerationOptions withNumCtx(final Integer value) {
+        return new GenerationOptions(operation, format, numPredict, value, temperature, keepAlive);
+    }
+
+    /**
+     * @param value température (ou {@code null})
+     * @return copie avec cette température
+     */
+    public GenerationOptions withTemperature(final Double value) {
+        return new GenerationOptions(operation, format, numPredict, numCtx, value, keepAlive);
+    }
+
+    /**
+     * @param value durée {@code keep_alive} (ou {@code null})
+     * @return copie avec cette durée
+     */
+    public GenerationOptions withKeepAlive(final String value) {
+        return new GenerationOptions(operation, format, numPredict, numCtx, temperature, value);
+    }
+
+    /**
+     * Bloc {@code options} correspondant, pour {@link app.cinematch.model.LlmRequest}.
+     *
+     * @return options de génération (éventuellement vides)
+     */
+    public LlmOptions toLlmOptions() {
+        return new LlmOptions(numPredict, numCtx, temperature);
+    }
+
+    /**
+     * Schéma JSON d’une recommandation, utilisable comme {@code format}.
+     *
+     * @return copie du schéma
+     */
+    public static JsonNode recommendationSchema() {
+        final ObjectNode schema = MAPPER.createObjectNode();
+        schema.put("type", "object");
+        final ObjectNode props = schema.putObject("properties");
+        for (String field : new String[] {"title", "pitch", "year", "platform"}) {
+            props.putObject(field).put("type", "string");
+        }
+        schema.putArray("required").add("title").add("pitch");
+        return schema;
+    }
+
+    private static JsonNode batchSchema() {
+        final ObjectNode schema = MAPPER.createObjectNode();
+        schema.put("type", "object");
+        final ObjectNode films = schema.putObject("properties").putObject("films");
+        films.put("type", "array");
+        films.set("items", recommendationSchema());
+        schema.putArray("required").add("films");
+        return schema;
+    }
+}
@@ -0,0 +1,89 @@
+package app.cinematch.api;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Réglages des requêtes « couvertes » (hedging) de {@link OllamaClient}.
+ *
+ * <p>Pour une opération couverte, si aucune réponse n’est arrivée après le
+ * percentile {@code percentile} des latences observées (au moins
+ * {@code minDelay}), un doublon part vers un autre serveur (ou un autre slot du
+ * même serveur s’il est seul) ; la première réponse valide l’emporte et l’autre
+ * requête est annulée. La charge supplémentaire est plafonnée : le nombre de
+ * doublons ne dépasse jamais {@code maxExtraLoad} × le nombre de requêtes
+ * couvertes.</p>
+ *
+ * @param operations   opérations couvertes (les autres ne sont jamais doublées)
+ * @param percentile   percentile déclencheur (ex. {@code 95})
+ * @param minDelay     délai minimal avant doublon
+ * @param maxExtraLoad part maximale de requêtes supplémentaires (ex. {@code 0.1})
+ * @param minSamples   mesures nécessaires avant de couvrir
+ */
+public record HedgingPolicy(
+        Set<LlmOperation> operations,
+        double percentile,
+        Duration minDelay,
+        double maxExtraLoad,
+        int minSamples
+) {
+
+    /** Valide et fige les réglages. */
+    public HedgingPolicy {
+        if (percentile <= 0 || percentile > 100 || maxExtraLoad < 0 || minSamples < 1) {
+            throw new IllegalArgumentException("invalid hedging policy");
+        }
+        operations = operations.isEmpty() ? Set.of() : Set.copyOf(EnumSet.copyOf(operations));
+    }
+
+    /**
+     * Réglages par défaut (p95, au moins 50 ms, 10 % de charge en plus, 20 mesures)
+     * pour les opérations données.
+     *
+     * @param first  première opération couverte
+     * @param others opérations supplémentaires
+     * @return politique correspondante
+     */
+    public static HedgingPolicy forOperations(final LlmOperation first, final LlmOperation... others) {
+        return new HedgingPolicy(EnumSet.of(first, others), 95, Duration.ofMillis(50), 0.1, 20);
+    }
+
+    /**
+     * @param operation opération
+     * @return {@code true} si l’opération est couverte
+     */
+    public boolean covers(final LlmOperation operation) {
+        return operations.contains(operation);
+    }
+
+    /**
+     * Délai avant doublon pour une distribution observée.
+     *
+     * @param latencies latences de l’opération
+     * @return délai en ms, ou {@code -1} s’il n’y a pas assez de mesures
+     */
+    public long delayMillis(final LatencyTracker latencies) {
+        if (latencies.count() < minSamples) {
+            return -1;
+        }
+        return Math.max(minDelay.toMillis(), latencies.percentile(percentile));
+    }
+
+    /**
+     * Compteurs de couverture.
+     *
+     * @param covered requêtes éligibles (opération couverte)
+     * @param hedges  doublons envoyés
+     * @param wins    doublons arrivés avant la requête d’origine
+     */
+    public record Stats(long covered, long hedges, long wins) {
+
+        /**
+         * @return charge supplémentaire effective ({@code hedges / covered})
+         */
+        public double extraLoad() {
+            return covered == 0 ? 0.0 : (double) hedges / covered;
+        }
+    }
+}
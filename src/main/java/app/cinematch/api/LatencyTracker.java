@@ -0,0 +1,83 @@
+package app.cinematch.api;
+
+import java.util.Arrays;
+
+/**
+ * Fenêtre glissante des dernières latences observées, avec calcul de percentiles.
+ *
+ * <p>Les échantillons sont conservés dans un tampon circulaire de taille fixe :
+ * l’enregistrement est en O(1) et le calcul d’un percentile trie une copie de la
+ * fenêtre (quelques centaines de valeurs au plus). Thread-safe.</p>
+ */
+public final class LatencyTracker {
+
+    /** Taille de fenêtre par défaut. */
+    public static final int DEFAULT_WINDOW = 256;
+
+    /** Tampon circulaire des latences (ms). */
+    private final long[] samples;
+    /** Prochain index d’écriture. */
+    private int next;
+    /** Nombre d’échantillons valides (≤ {@code samples.length}). */
+    private int size;
+
+    /** Crée un tracker avec la fenêtre par défaut. */
+    public LatencyTracker() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param window nombre d’échantillons conservés (≥ 1)
+     */
+    public LatencyTracker(final int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be >= 1");
+        }
+        this.samples = new long[window];
+    }
+
+    /**
+     * Enregistre une latence.
+     *
+     * @param millis latence en millisecondes (les valeurs négatives sont ignorées)
+     */
+    public synchronized void record(final long millis) {
+        if (millis < 0) {
+            return;
+        }
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    /**
+     * @return nombre d’échantillons dans la fenêtre
+     */
+    public synchronized int count() {
+        return size;
+    }
+
+    /**
+     * Percentile des latences de la fenêtre (méthode du rang le plus proche).
+     *
+     * @param percentile rang voulu, dans {@code [0, 100]}
+     * @return latence en ms, ou {@code -1} si aucune mesure
+     */
+    public long percentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]");
+        }
+        final long[] copy;
+        synchronized (this) {
+            if (size == 0) {
+                return -1;
+            }
+            copy = Arrays.copyOf(samples, size);
+        }
+        Arrays.sort(copy);
+        final int rank = (int) Math.ceil(percentile / 100.0 * copy.length);
+        return copy[Math.max(0, rank - 1)];
+    }
+}
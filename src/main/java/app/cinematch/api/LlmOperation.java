@@ -0,0 +1,41 @@
+package app.cinematch.api;
+
+/**
+ * Opérations applicatives qui interrogent le modèle de langage.
+ *
+ * <p>Chaque opération a un identifiant stable ({@link #id()}) utilisé pour la
+ * configuration et pour étiqueter les mesures.</p>
+ */
+public enum LlmOperation {
+
+    /** Recommandation à partir d’un film aimé. */
+    RECOMMEND_FROM_LIKE("recommendFromLike"),
+    /** Recommandation aléatoire. */
+    RECOMMEND_RANDOM("recommendRandom"),
+    /** Plusieurs recommandations en un appel. */
+    RECOMMEND_BATCH("recommendBatch"),
+    /** Description d’un film. */
+    GENERATE_DESCRIPTION("generateDescription"),
+    /** Descriptions d’une liste de films en un appel. */
+    DESCRIBE_BATCH("generateDescriptions"),
+    /** Conversation libre. */
+    CHAT("chat"),
+    /** Choix des outils par l’agent LangChain4j (appel court, avec spécifications d’outils). */
+    TOOL_ROUTING("toolRouting"),
+    /** Chargement / maintien du modèle en mémoire (aucune génération). */
+    WARMUP("warmUp");
+
+    /** Identifiant stable (camelCase). */
+    private final String id;
+
+    LlmOperation(final String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return identifiant stable de l’opération (ex. {@code "recommendRandom"})
+     */
+    public String id() {
+        return id;
+    }
+}
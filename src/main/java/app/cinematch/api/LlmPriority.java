@@ -0,0 +1,90 @@
+package app.cinematch.api;
+
+import java.util.function.Supplier;
+
+/**
+ * Classe de priorité d’une requête LLM, utilisée par {@link LlmScheduler}.
+ *
+ * <p>La priorité d’un appel est celle du contexte courant
+ * ({@link #call(Supplier)}), sinon celle de son opération
+ * ({@link #defaultFor(LlmOperation)}). Exemple : le prefetcher exécute ses
+ * générations dans {@code LlmPriority.PREFETCH.call(...)}.</p>
+ */
+public enum LlmPriority {
+
+    /** Tour de conversation attendu par l’utilisateur (chat, outils de l’agent). */
+    INTERACTIVE(false),
+    /** Contenu affiché à l’écran (carte de swipe, description courante). */
+    FOREGROUND(false),
+    /** Travail spéculatif (cartes préchargées) : peut être annulé tant qu’il attend. */
+    PREFETCH(true);
+
+    /** Priorité du contexte courant (héritée par les appels imbriqués du thread). */
+    private static final ThreadLocal<LlmPriority> CURRENT = new ThreadLocal<>();
+
+    private final boolean preemptible;
+
+    LlmPriority(final boolean preemptible) {
+        this.preemptible = preemptible;
+    }
+
+    /**
+     * @return {@code true} si une requête de cette classe peut être annulée en file
+     *         au profit d’une requête plus prioritaire
+     */
+    public boolean isPreemptible() {
+        return preemptible;
+    }
+
+    /**
+     * Exécute {@code work} avec cette priorité pour tous les appels LLM du thread.
+     *
+     * @param work traitement
+     * @param <T>  type du résultat
+     * @return résultat de {@code work}
+     */
+    public <T> T call(final Supplier<T> work) {
+        final LlmPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Variante sans résultat de {@link #call(Supplier)}.
+     *
+     * @param work traitement
+     */
+    public void run(final Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param operation opération de l’appel
+     * @return priorité du contexte courant, sinon celle de l’opération
+     */
+    public static LlmPriority current(final LlmOperation operation) {
+        final LlmPriority priority = CURRENT.get();
+        return priority != null ? priority : defaultFor(operation);
+    }
+
+    /**
+     * @param operation opération
+     * @return {@link #INTERACTIVE} pour la conversation et le choix d’outils,
+     *         {@link #FOREGROUND} sinon
+     */
+    public static LlmPriority defaultFor(final LlmOperation operation) {
+        return operation == LlmOperation.CHAT || operation == LlmOperation.TOOL_ROUTING
+                ? INTERACTIVE : FOREGROUND;
+    }
+}
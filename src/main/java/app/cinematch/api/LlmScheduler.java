@@ -0,0 +1,226 @@
+package app.cinematch.api;
+
+import app.cinematch.trace.Span;
+import app.cinematch.trace.Tracer;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Ordonnanceur des requêtes LLM placé devant {@link OllamaEndpointPool}.
+ *
+ * <ul>
+ *   <li>chaque serveur accepte au plus {@code slotsPerEndpoint} requêtes simultanées
+ *       (aligné sur {@code OLLAMA_NUM_PARALLEL}) ; au-delà, les requêtes attendent ;</li>
+ *   <li>la file est ordonnée par {@link LlmPriority} puis par ordre d’arrivée : un
+ *       slot libéré va toujours à la requête la plus prioritaire ;</li>
+ *   <li>une requête qui doit attendre annule les requêtes {@linkplain
+ *       LlmPriority#isPreemptible() préemptibles} moins prioritaires encore en file
+ *       (elles échouent en {@link OllamaException.Kind#PREEMPTED}) ; les requêtes
+ *       déjà parties ne sont jamais interrompues.</li>
+ * </ul>
+ *
+ * <p>Métriques : profondeur de file et temps d’attente par priorité
+ * ({@link #stats(LlmPriority)}). L’attente est tracée (span {@code llm.queue}).</p>
+ */
+public final class LlmScheduler {
+
+    /** Serveurs gérés. */
+    private final OllamaEndpointPool pool;
+    /** Requêtes simultanées maximales par serveur. */
+    private final int slotsPerEndpoint;
+
+    /** File d’attente (tête = plus prioritaire, puis plus ancienne). */
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>();
+    /** Numéro d’arrivée (départage FIFO). */
+    private long sequence;
+
+    /** Attentes observées par priorité (ms). */
+    private final Map<LlmPriority, LatencyTracker> waits = new EnumMap<>(LlmPriority.class);
+    /** Requêtes admises par priorité. */
+    private final Map<LlmPriority, Long> admitted = new EnumMap<>(LlmPriority.class);
+    /** Requêtes annulées en file par priorité. */
+    private final Map<LlmPriority, Long> preempted = new EnumMap<>(LlmPriority.class);
+
+    /**
+     * @param pool             serveurs
+     * @param slotsPerEndpoint requêtes simultanées par serveur (≥ 1)
+     */
+    public LlmScheduler(final OllamaEndpointPool pool, final int slotsPerEndpoint) {
+        if (slotsPerEndpoint < 1) {
+            throw new IllegalArgumentException("slotsPerEndpoint must be >= 1");
+        }
+        this.pool = pool;
+        this.slotsPerEndpoint = slotsPerEndpoint;
+        for (LlmPriority priority : LlmPriority.values()) {
+            waits.put(priority, new LatencyTracker());
+            admitted.put(priority, 0L);
+            preempted.put(priority, 0L);
+        }
+    }
+
+    /**
+     * @return serveurs gérés
+     */
+    public OllamaEndpointPool pool() {
+        return pool;
+    }
+
+    /**
+     * Attend un slot libre (par ordre de priorité) puis réserve un serveur.
+     *
+     * @param priority priorité de la requête
+     * @param model    modèle visé
+     * @param avoid    serveurs à éviter si possible (déjà essayés)
+     * @return réservation (à fermer : libère le slot)
+     * @throws OllamaException {@code PREEMPTED} si annulée en file,
+     *                         {@code INTERRUPTED} si le thread est interrompu
+     */
+    public OllamaEndpointPool.Lease acquire(final LlmPriority priority, final String model,
+                                            final Set<OllamaEndpoint> avoid) {
+        try (Span span = Tracer.global().start("llm.queue", "llm")) {
+            span.tag("priority", priority.name()).tag("model", model);
+            return admit(priority, model, avoid);
+        }
+    }
+
+    private synchronized OllamaEndpointPool.Lease admit(final LlmPriority priority, final String model,
+                                                        final Set<OllamaEndpoint> avoid) {
+        final Waiter me = new Waiter(priority, sequence++, System.nanoTime());
+        queue.add(me);
+        if (queue.peek() != me || freeEndpoints().isEmpty()) {
+            preemptBelow(priority);
+        }
+        try {
+            while (true) {
+                if (me.preempted) {
+                    throw new OllamaException(OllamaException.Kind.PREEMPTED,
+                            "requête " + priority + " annulée au profit d’une requête plus prioritaire");
+                }
+                if (queue.peek() == me) {
+                    final Set<OllamaEndpoint> free = freeEndpoints();
+                    if (!free.isEmpty()) {
+                        queue.poll();
+                        waits.get(priority).record((System.nanoTime() - me.enqueuedNanos) / 1_000_000);
+                        admitted.merge(priority, 1L, Long::sum);
+                        notifyAll();
+                        return pool.acquire(model, excludedFor(free, avoid), this::released);
+                    }
+                }
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaException(OllamaException.Kind.INTERRUPTED, "attente interrompue", e);
+        } finally {
+            if (queue.remove(me)) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Instantané des métriques d’une classe de priorité.
+     *
+     * @param priority priorité
+     * @return profondeur de file, attentes et compteurs
+     */
+    public synchronized Stats stats(final LlmPriority priority) {
+        int depth = 0;
+        for (Waiter w : queue) {
+            if (w.priority == priority) {
+                depth++;
+            }
+        }
+        final LatencyTracker wait = waits.get(priority);
+        return new Stats(depth, wait.percentile(50), wait.percentile(95),
+                admitted.get(priority), preempted.get(priority));
+    }
+
+    /**
+     * @return nombre total de requêtes en file
+     */
+    public synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Métriques d’une classe de priorité.
+     *
+     * @param queueDepth requêtes en attente
+     * @param waitP50Ms  attente médiane (ms, {@code -1} si aucune mesure)
+     * @param waitP95Ms  attente p95 (ms, {@code -1} si aucune mesure)
+     * @param admitted   requêtes admises
+     * @param preempted  requêtes annulées en file
+     */
+    public record Stats(int queueDepth, long waitP50Ms, long waitP95Ms, long admitted, long preempted) { }
+
+    // =========================
+    // INTERNE
+    // =========================
+
+    private synchronized void released() {
+        notifyAll();
+    }
+
+    /** Serveurs ayant au moins un slot libre. */
+    private Set<OllamaEndpoint> freeEndpoints() {
+        final Set<OllamaEndpoint> free = new HashSet<>();
+        for (OllamaEndpoint endpoint : pool.endpoints()) {
+            if (endpoint.outstanding() < slotsPerEndpoint) {
+                free.add(endpoint);
+            }
+        }
+        return free;
+    }
+
+    /** Exclusions passées au pool : tout sauf les serveurs libres (non essayés si possible). */
+    private Set<OllamaEndpoint> excludedFor(final Set<OllamaEndpoint> free, final Set<OllamaEndpoint> avoid) {
+        final Set<OllamaEndpoint> allowed = new HashSet<>(free);
+        allowed.removeAll(avoid);
+        if (allowed.isEmpty()) {
+            allowed.addAll(free);
+        }
+        final Set<OllamaEndpoint> excluded = new HashSet<>(pool.endpoints());
+        excluded.removeAll(allowed);
+        return excluded;
+    }
+
+    /** Annule les requêtes préemptibles moins prioritaires encore en file. */
+    private void preemptBelow(final LlmPriority priority) {
+        boolean changed = false;
+        for (Waiter w : queue) {
+            if (w.priority.compareTo(priority) > 0 && w.priority.isPreemptible() && !w.preempted) {
+                w.preempted = true;
+                preempted.merge(w.priority, 1L, Long::sum);
+                changed = true;
+            }
+        }
+        if (changed) {
+            notifyAll();
+        }
+    }
+
+    /** Requête en attente d’un slot. */
+    private static final class Waiter implements Comparable<Waiter> {
+        private final LlmPriority priority;
+        private final long seq;
+        private final long enqueuedNanos;
+        private boolean preempted;
+
+        private Waiter(final LlmPriority priority, final long seq, final long enqueuedNanos) {
+            this.priority = priority;
+            this.seq = seq;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        @Override
+        public int compareTo(final Waiter other) {
+            final int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package app.cinematch.api;
+
+import app.cinematch.metrics.Histogram;
+import app.cinematch.model.LlmResponse;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agrégation des mesures renvoyées par Ollama ({@code prompt_eval_count},
+ * {@code eval_count}, {@code eval_duration}, {@code load_duration},
+ * {@code total_duration}) par étiquette.
+ *
+ * <p>Chaque appel est compté sous l’identifiant de son opération
+ * ({@link LlmOperation#id()}) et, s’il a lieu pendant un outil de l’agent
+ * ({@link ToolCallScope}), aussi sous {@code "tool:<nom>"}. Par étiquette :
+ * débit de génération (tokens/s), histogrammes des tokens de prompt et des temps
+ * de chargement, et nombre de rechargements du modèle (chargement ≥
+ * {@link #RELOAD_THRESHOLD_MS}).</p>
+ *
+ * <p>Une instance partagée ({@link #shared()}) sert par défaut à
+ * {@link OllamaClient} et au modèle de l’agent LangChain4j.</p>
+ */
+public final class LlmUsageStats {
+
+    /** Au-delà, un temps de chargement signale un (re)chargement du modèle. */
+    public static final long RELOAD_THRESHOLD_MS = 500;
+
+    private static final LlmUsageStats SHARED = new LlmUsageStats();
+
+    private final Map<String, TagStats> byTag = new ConcurrentHashMap<>();
+
+    /**
+     * @return instance partagée par l’application
+     */
+    public static LlmUsageStats shared() {
+        return SHARED;
+    }
+
+    /**
+     * Enregistre les mesures d’une réponse Ollama (ignorée si elle n’en porte pas).
+     *
+     * @param operation opération appelante
+     * @param response  réponse désérialisée
+     */
+    public void record(final LlmOperation operation, final LlmResponse response) {
+        if (response == null || !response.hasUsage()) {
+            return;
+        }
+        record(operation, orZero(response.promptEvalCount()), orZero(response.evalCount()),
+                orZero(response.evalDuration()), orZero(response.loadDuration()),
+                orZero(response.totalDuration()));
+    }
+
+    /**
+     * Enregistre un appel.
+     *
+     * @param operation     opération appelante
+     * @param promptTokens  tokens du prompt
+     * @param evalTokens    tokens générés
+     * @param evalNanos     durée de génération (ns, {@code 0} si inconnue)
+     * @param loadNanos     durée de chargement du modèle (ns)
+     * @param totalNanos    durée totale (ns)
+     */
+    public void record(final LlmOperation operation, final long promptTokens, final long evalTokens,
+                       final long evalNanos, final long loadNanos, final long totalNanos) {
+        tag(operation.id()).record(promptTokens, evalTokens, evalNanos, loadNanos, totalNanos);
+        final String tool = ToolCallScope.current();
+        if (tool != null) {
+            tag("tool:" + tool).record(promptTokens, evalTokens, evalNanos, loadNanos, totalNanos);
+        }
+    }
+
+    /**
+     * @return résumé par étiquette (ordre alphabétique)
+     */
+    public Map<String, Summary> snapshot() {
+        final Map<String, Summary> out = new TreeMap<>();
+        byTag.forEach((tag, stats) -> out.put(tag, stats.summary()));
+        return out;
+    }
+
+    /**
+     * @param tag étiquette (ex. {@code "generateDescription"}, {@code "tool:describeList"})
+     * @return résumé, ou {@code null} si aucun appel
+     */
+    public Summary summary(final String tag) {
+        final TagStats stats = byTag.get(tag);
+        return stats == null ? null : stats.summary();
+    }
+
+    /** Oublie toutes les mesures. */
+    public void reset() {
+        byTag.clear();
+    }
+
+    /**
+     * Mesures agrégées d’une étiquette.
+     *
+     * @param calls           appels mesurés
+     * @param promptTokens    tokens de prompt cumulés
+     * @param evalTokens      tokens générés cumulés
+     * @param tokensPerSecond débit global de génération (tokens générés / temps de génération)
+     * @param tokensPerSecondP50 débit médian par appel
+     * @param promptTokensP50 tokens de prompt médians
+     * @param promptTokensP95 tokens de prompt au p95
+     * @param loadMsP95       temps de chargement au p95 (ms)
+     * @param loadMsMax       temps de chargement maximal (ms)
+     * @param reloads         appels ayant (re)chargé le modèle
+     * @param totalMsP95      durée totale côté serveur au p95 (ms)
+     */
+    public record Summary(long calls, long promptTokens, long evalTokens,
+                          double tokensPerSecond, long tokensPerSecondP50,
+                          long promptTokensP50, long promptTokensP95,
+                          long loadMsP95, long loadMsMax, long reloads, long totalMsP95) { }
+
+    // =========================
+    // INTERNE
+    // =========================
+
+    private TagStats tag(final String tag) {
+        return byTag.computeIfAbsent(tag, t -> new TagStats());
+    }
+
+    private static long orZero(final Long value) {
+        return value == null ? 0 : value;
+    }
+
+    /** Compteurs et histogrammes d’une étiquette. */
+    private static final class TagStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong evalTokens = new AtomicLong();
+        private final AtomicLong timedEvalTokens = new AtomicLong();
+        private final AtomicLong evalNanos = new AtomicLong();
+        private final AtomicLong reloads = new AtomicLong();
+        private final Histogram promptTokenHistogram = new Histogram();
+        private final Histogram tokensPerSecond = new Histogram();
+        private final Histogram loadMs = new Histogram();
+        private final Histogram totalMs = new Histogram();
+
+        void record(final long prompt, final long eval, final long evalNs, final long loadNs, final long totalNs) {
+            calls.incrementAndGet();
+            promptTokens.addAndGet(prompt);
+            evalTokens.addAndGet(eval);
+            promptTokenHistogram.record(prompt);
+            if (evalNs > 0) {
+                timedEvalTokens.addAndGet(eval);
+                evalNanos.addAndGet(evalNs);
+                tokensPerSecond.record(Math.round(eval * 1e9 / evalNs));
+            }
+            final long load = loadNs / 1_000_000;
+            loadMs.record(load);
+            if (load >= RELOAD_THRESHOLD_MS) {
+                reloads.incrementAndGet();
+            }
+            if (totalNs > 0) {
+                totalMs.record(totalNs / 1_000_000);
+            }
+        }
+
+        Summary summary() {
+            final long ns = evalNanos.get();
+            final double tps = ns == 0 ? 0 : timedEvalTokens.get() * 1e9 / ns;
+            return new Summary(calls.get(), promptTokens.get(), evalTokens.get(),
+                    tps, tokensPerSecond.percentile(50),
+                    promptTokenHistogram.percentile(50), promptTokenHistogram.percentile(95),
+                    loadMs.percentile(95), loadMs.max(), reloads.get(), totalMs.percentile(95));
+        }
+    }
+}
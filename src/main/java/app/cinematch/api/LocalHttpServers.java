@@ -0,0 +1,80 @@
+package app.cinematch.api;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Outils communs aux serveurs HTTP locaux qui se font passer pour Ollama
+ * (faux serveur, rejeu, mandataire d’enregistrement, doublures de test).
+ */
+public final class LocalHttpServers {
+
+    /** Propriété lue par {@code com.sun.net.httpserver} à la création du premier serveur. */
+    static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private LocalHttpServers() {
+    }
+
+    /**
+     * Crée (sans le démarrer) un serveur sur {@code 127.0.0.1}, dont l’exécuteur
+     * est un pool de threads démons nommés {@code threadName}.
+     *
+     * <p>Active au passage {@code TCP_NODELAY} : sans lui, Nagle et l’ACK différé
+     * ajoutent ~40 ms à chaque POST local. Le réglage est global à la JVM et n’est
+     * lu qu’une fois par le JDK ; une valeur déjà fixée par l’utilisateur est
+     * respectée.</p>
+     *
+     * @param port       port d’écoute (0 : port libre)
+     * @param threadName nom des threads de traitement
+     * @return serveur à compléter ({@code createContext}) puis démarrer
+     * @throws IOException écoute impossible
+     */
+    public static HttpServer create(final int port, final String threadName) throws IOException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(daemonExecutor(threadName));
+        return server;
+    }
+
+    /**
+     * Arrête le serveur et son exécuteur.
+     *
+     * @param server serveur créé par {@link #create(int, String)}
+     */
+    public static void stop(final HttpServer server) {
+        server.stop(0);
+        if (server.getExecutor() instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Attente précise (sans l’arrondi à la milliseconde de {@code Thread.sleep}).
+     *
+     * @param nanos durée ; rien si elle est nulle ou négative
+     * @throws InterruptedException thread interrompu pendant l’attente
+     */
+    public static void pause(final long nanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + nanos;
+        for (long left = nanos; left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static ExecutorService daemonExecutor(final String threadName) {
+        return Executors.newCachedThreadPool(r -> {
+            final Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
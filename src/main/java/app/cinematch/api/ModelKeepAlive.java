@@ -0,0 +1,91 @@
+package app.cinematch.api;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Garde le modèle Ollama chargé en mémoire tant que l’application est ouverte.
+ *
+ * <p>{@link #start()} déclenche immédiatement un préchauffage en arrière-plan
+ * (chargement du modèle pendant que l’UI se construit), puis renouvelle le
+ * {@code keep_alive} à intervalle régulier. {@link #close()} arrête les pings ;
+ * le serveur déchargera alors le modèle à l’expiration du dernier délai.</p>
+ *
+ * <p>Exemple d’utilisation :
+ * <pre>{@code
+ * ModelKeepAlive keepAlive = new ModelKeepAlive(client, "30m", Duration.ofMinutes(10));
+ * keepAlive.start();
+ * // ... à la fermeture de la fenêtre
+ * keepAlive.close();
+ * }</pre>
+ */
+public final class ModelKeepAlive implements AutoCloseable {
+
+    /** Client utilisé pour les pings. */
+    private final OllamaClient client;
+    /** Durée {@code keep_alive} demandée à chaque ping (ex. {@code "30m"}). */
+    private final String keepAlive;
+    /** Intervalle entre deux pings (doit rester inférieur à {@code keepAlive}). */
+    private final Duration interval;
+    /** Planificateur des pings (thread démon). */
+    private final ScheduledExecutorService scheduler;
+
+    /** Durée du préchauffage initial (ms), {@code -1} si échec, {@code null} si pas encore fait. */
+    private volatile Long warmUpMillis;
+
+    /**
+     * @param client    client Ollama (non {@code null})
+     * @param keepAlive durée {@code keep_alive} envoyée au serveur
+     * @param interval  période des pings (strictement positive)
+     */
+    public ModelKeepAlive(final OllamaClient client, final String keepAlive, final Duration interval) {
+        this.client = Objects.requireNonNull(client, "client must not be null");
+        this.keepAlive = Objects.requireNonNull(keepAlive, "keepAlive must not be null");
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.interval = interval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "cinematch-keepalive");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Lance le préchauffage immédiat puis les pings périodiques. */
+    public void start() {
+        scheduler.execute(this::warmUp);
+        scheduler.scheduleWithFixedDelay(this::ping,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return durée du préchauffage initial en ms ({@code -1} si échec), ou {@code null} s’il est en cours
+     */
+    public Long warmUpMillis() {
+        return warmUpMillis;
+    }
+
+    /** Arrête les pings. */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void warmUp() {
+        final long ms = client.warmUp(keepAlive);
+        warmUpMillis = ms;
+        if (ms >= 0) {
+            System.out.println("[KeepAlive] Modèle préchargé en " + ms + " ms");
+        } else {
+            System.err.println("[KeepAlive] Préchauffage impossible (Ollama injoignable ?)");
+        }
+    }
+
+    private void ping() {
+        client.warmUp(keepAlive);
+    }
+}
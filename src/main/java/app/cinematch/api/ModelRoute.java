@@ -0,0 +1,38 @@
+package app.cinematch.api;
+
+import java.time.Duration;
+
+/**
+ * Modèle affecté à une opération, avec son objectif de latence.
+ *
+ * @param model         modèle nominal
+ * @param fallbackModel modèle plus rapide utilisé quand le p95 dépasse l’objectif
+ *                      ({@code null} : pas de repli)
+ * @param slo           objectif de latence au p95
+ */
+public record ModelRoute(String model, String fallbackModel, Duration slo) {
+
+    /**
+     * @param model         modèle nominal (non vide)
+     * @param fallbackModel modèle de repli ou {@code null}
+     * @param slo           objectif de latence (&gt; 0)
+     */
+    public ModelRoute {
+        if (model == null || model.isBlank()) {
+            throw new IllegalArgumentException("model must not be blank");
+        }
+        if (slo == null || slo.isNegative() || slo.isZero()) {
+            throw new IllegalArgumentException("slo must be > 0");
+        }
+        if (fallbackModel != null && (fallbackModel.isBlank() || fallbackModel.equals(model))) {
+            fallbackModel = null;
+        }
+    }
+
+    /**
+     * @return {@code true} si un modèle de repli est configuré
+     */
+    public boolean canDowngrade() {
+        return fallbackModel != null;
+    }
+}
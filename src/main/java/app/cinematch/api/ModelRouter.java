@@ -0,0 +1,202 @@
+package app.cinematch.api;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Choix du modèle par opération, avec repli automatique sur un modèle plus rapide
+ * quand la latence dépasse l’objectif.
+ *
+ * <p>Pour chaque opération routée, le p95 glissant des latences du modèle nominal
+ * est comparé à l’objectif ({@link ModelRoute#slo()}) dès {@code minSamples}
+ * mesures. En cas de dépassement, l’opération passe sur le modèle de repli pendant
+ * {@code cooldown}, puis revient au modèle nominal avec une fenêtre de mesures
+ * vierge. Les opérations non routées utilisent le modèle par défaut.</p>
+ *
+ * <p>Utilisé par {@link OllamaClient} (recommandations, descriptions, chat
+ * classique) et par le modèle de l’agent LangChain4j (choix d’outils).</p>
+ */
+public final class ModelRouter {
+
+    /** Mesures minimales avant d’évaluer le p95. */
+    public static final int DEFAULT_MIN_SAMPLES = 10;
+    /** Durée de repli par défaut. */
+    public static final Duration DEFAULT_COOLDOWN = Duration.ofMinutes(2);
+    /** Taille de la fenêtre glissante (réactive : quelques dizaines d’appels). */
+    private static final int WINDOW = 64;
+
+    private final String defaultModel;
+    private final Map<LlmOperation, ModelRoute> routes;
+    private final Map<LlmOperation, RouteState> states = new EnumMap<>(LlmOperation.class);
+    private final int minSamples;
+    private final long cooldownNanos;
+    private final LongSupplier clock;
+
+    /**
+     * @param defaultModel modèle des opérations non routées
+     * @param routes       routes par opération
+     * @param minSamples   mesures minimales avant d’évaluer le p95 (≥ 1)
+     * @param cooldown     durée du repli
+     */
+    public ModelRouter(final String defaultModel, final Map<LlmOperation, ModelRoute> routes,
+                       final int minSamples, final Duration cooldown) {
+        this(defaultModel, routes, minSamples, cooldown, System::nanoTime);
+    }
+
+    /** Constructeur avec horloge injectable (tests). */
+    ModelRouter(final String defaultModel, final Map<LlmOperation, ModelRoute> routes,
+                final int minSamples, final Duration cooldown, final LongSupplier clock) {
+        if (minSamples < 1) {
+            throw new IllegalArgumentException("minSamples must be >= 1");
+        }
+        this.defaultModel = defaultModel;
+        this.routes = routes.isEmpty() ? Map.of() : new EnumMap<>(routes);
+        this.minSamples = minSamples;
+        this.cooldownNanos = cooldown.toNanos();
+        this.clock = clock;
+        for (LlmOperation operation : this.routes.keySet()) {
+            states.put(operation, new RouteState());
+        }
+    }
+
+    /**
+     * Un seul modèle pour tout (comportement historique).
+     *
+     * @param model modèle unique
+     * @return routeur sans route
+     */
+    public static ModelRouter single(final String model) {
+        return new ModelRouter(model, Map.of(), DEFAULT_MIN_SAMPLES, DEFAULT_COOLDOWN);
+    }
+
+    /**
+     * Répartition standard : le petit modèle pour le choix d’outils et les
+     * recommandations JSON, le grand pour les descriptions et la conversation
+     * (avec repli sur le petit).
+     *
+     * @param largeModel modèle de prose
+     * @param smallModel modèle rapide
+     * @return routeur configuré
+     */
+    public static ModelRouter standard(final String largeModel, final String smallModel) {
+        final Map<LlmOperation, ModelRoute> routes = new EnumMap<>(LlmOperation.class);
+        routes.put(LlmOperation.TOOL_ROUTING, new ModelRoute(smallModel, null, Duration.ofSeconds(3)));
+        routes.put(LlmOperation.RECOMMEND_FROM_LIKE, new ModelRoute(smallModel, null, Duration.ofSeconds(5)));
+        routes.put(LlmOperation.RECOMMEND_RANDOM, new ModelRoute(smallModel, null, Duration.ofSeconds(5)));
+        routes.put(LlmOperation.RECOMMEND_BATCH, new ModelRoute(smallModel, null, Duration.ofSeconds(10)));
+        routes.put(LlmOperation.GENERATE_DESCRIPTION, new ModelRoute(largeModel, smallModel, Duration.ofSeconds(8)));
+        routes.put(LlmOperation.DESCRIBE_BATCH, new ModelRoute(largeModel, smallModel, Duration.ofSeconds(20)));
+        routes.put(LlmOperation.CHAT, new ModelRoute(largeModel, smallModel, Duration.ofSeconds(10)));
+        return new ModelRouter(largeModel, routes, DEFAULT_MIN_SAMPLES, DEFAULT_COOLDOWN);
+    }
+
+    /**
+     * @param operation opération
+     * @return modèle à utiliser maintenant pour cette opération
+     */
+    public String modelFor(final LlmOperation operation) {
+        final ModelRoute route = routes.get(operation);
+        if (route == null) {
+            return defaultModel;
+        }
+        return states.get(operation).isDowngraded(clock.getAsLong()) ? route.fallbackModel() : route.model();
+    }
+
+    /**
+     * Enregistre la latence d’un appel ; déclenche le repli si le p95 du modèle
+     * nominal dépasse l’objectif.
+     *
+     * @param operation opération
+     * @param model     modèle effectivement utilisé
+     * @param millis    temps de service HTTP de la tentative (succès ou délai dépassé),
+     *                  hors attente de slot et réessais
+     */
+    public void record(final LlmOperation operation, final String model, final long millis) {
+        final ModelRoute route = routes.get(operation);
+        if (route == null || !route.canDowngrade() || !route.model().equals(model)) {
+            return;
+        }
+        states.get(operation).record(millis, route.slo().toMillis(), clock.getAsLong());
+    }
+
+    /**
+     * @return modèles distincts utilisés par ce routeur (défaut, nominaux et replis)
+     */
+    public Set<String> models() {
+        final Set<String> models = new LinkedHashSet<>();
+        models.add(defaultModel);
+        for (ModelRoute route : routes.values()) {
+            models.add(route.model());
+            if (route.canDowngrade()) {
+                models.add(route.fallbackModel());
+            }
+        }
+        return models;
+    }
+
+    /**
+     * @param operation opération
+     * @return route configurée, ou {@code null} (modèle par défaut)
+     */
+    public ModelRoute route(final LlmOperation operation) {
+        return routes.get(operation);
+    }
+
+    /**
+     * @param operation opération
+     * @return état courant de la route (modèle actif, p95 nominal, replis)
+     */
+    public Status status(final LlmOperation operation) {
+        final ModelRoute route = routes.get(operation);
+        if (route == null) {
+            return new Status(defaultModel, -1, -1, false, 0);
+        }
+        final RouteState state = states.get(operation);
+        return state.status(modelFor(operation), route.slo().toMillis(), clock.getAsLong());
+    }
+
+    /**
+     * État d’une route.
+     *
+     * @param activeModel modèle utilisé maintenant
+     * @param p95Ms       p95 glissant du modèle nominal ({@code -1} si inconnu)
+     * @param sloMs       objectif ({@code -1} si non routée)
+     * @param downgraded  repli en cours
+     * @param downgrades  nombre de replis depuis le démarrage
+     */
+    public record Status(String activeModel, long p95Ms, long sloMs, boolean downgraded, long downgrades) { }
+
+    /** Mesures et repli d’une opération. */
+    private final class RouteState {
+        private LatencyTracker latencies = new LatencyTracker(WINDOW);
+        private long downgradedUntil;
+        private boolean downgradedOnce;
+        private long downgrades;
+
+        synchronized boolean isDowngraded(final long now) {
+            return downgradedOnce && now - downgradedUntil < 0;
+        }
+
+        synchronized void record(final long millis, final long sloMs, final long now) {
+            if (isDowngraded(now)) {
+                return;
+            }
+            latencies.record(millis);
+            if (latencies.count() >= minSamples && latencies.percentile(95) > sloMs) {
+                downgradedUntil = now + cooldownNanos;
+                downgradedOnce = true;
+                downgrades++;
+                // Fenêtre vierge au retour sur le modèle nominal.
+                latencies = new LatencyTracker(WINDOW);
+            }
+        }
+
+        synchronized Status status(final String activeModel, final long sloMs, final long now) {
+            return new Status(activeModel, latencies.percentile(95), sloMs, isDowngraded(now), downgrades);
+        }
+    }
+}
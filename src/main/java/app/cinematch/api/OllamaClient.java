@@ -1,16 +1,43 @@
 package app.cinematch.api;
 
+import app.cinematch.jfr.LlmRequestEvent;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
 import app.cinematch.model.LlmMessage;
 import app.cinematch.model.LlmRequest;
 import app.cinematch.model.LlmResponse;
+import app.cinematch.trace.Span;
+import app.cinematch.trace.Tracer;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Client HTTP permettant de communiquer avec une instance locale ou distante
@@ -18,6 +45,38 @@ import java.time.Duration;
  *
  * <p>Cette classe gère la sérialisation JSON des requêtes et réponses
  * à l’aide de Jackson, et envoie les messages au modèle spécifié.
+ * Chaque appel peut porter des {@link GenerationOptions} (sortie structurée,
+ * bornes de génération, {@code keep_alive}) propres à l’opération appelante.
+ *
+ * <p>Résilience ({@link ResiliencePolicy}) : les appels à {@code /api/chat} n’ont
+ * aucun effet de bord et sont donc réessayés avec gigue sur échec passager ; le
+ * délai de chaque appel suit le p99 observé de son opération ; un
+ * {@link CircuitBreaker} refuse immédiatement les appels quand Ollama est tombé.
+ * Les échecs sont signalés par une {@link OllamaException} typée.</p>
+ *
+ * <p>Les requêtes sont routées sur un {@link OllamaEndpointPool} ; un réessai
+ * évite les serveurs déjà essayés pour la même requête.</p>
+ *
+ * <p>Les mesures jointes par Ollama à chaque réponse (tokens, durées de
+ * chargement et de génération) sont agrégées dans un {@link LlmUsageStats}.</p>
+ *
+ * <p>Métriques ({@link MetricsRegistry#global()}) : {@code llm.chat.<opération>}
+ * (durée de bout en bout), {@code llm.errors.<type>} et {@code llm.inflight}.
+ * Chaque requête HTTP émet aussi un événement JFR {@link LlmRequestEvent}. Dans une
+ * trace ({@link Tracer}), un appel est un span {@code llm.<opération>} et chaque
+ * requête HTTP un span {@code llm.http} enfant.</p>
+ *
+ * <p>Optionnellement ({@link #setModelRouter(ModelRouter)}), le modèle est choisi
+ * par opération, avec repli sur un modèle plus rapide quand l’objectif de latence
+ * n’est plus tenu.</p>
+ *
+ * <p>Optionnellement ({@link #setScheduler(LlmScheduler)}), chaque tentative
+ * attend un slot de serveur auprès d’un {@link LlmScheduler} selon la
+ * {@link LlmPriority} de l’appel (contexte courant, sinon opération).</p>
+ *
+ * <p>Optionnellement ({@link #setHedging(HedgingPolicy)}), les opérations
+ * sensibles à la latence de queue sont « couvertes » : un doublon part quand la
+ * réponse tarde au-delà du p95 observé, la première réponse valide gagne.</p>
  *
  * <p>Exemple d’utilisation :
  * <pre>{@code
@@ -27,8 +86,15 @@ import java.time.Duration;
  */
 public class OllamaClient {
 
-    /** URL de base du serveur Ollama, sans le slash final. */
-    private final String baseUrl;
+    /** Appels {@link #chat} en cours, tous clients confondus. */
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    static {
+        MetricsRegistry.global().gauge("llm.inflight", IN_FLIGHT::get);
+    }
+
+    /** Serveurs Ollama (un seul dans le cas historique). */
+    private final OllamaEndpointPool pool;
 
     /** Nom du modèle à utiliser pour la génération de texte. */
     private final String model;
@@ -39,6 +105,49 @@ public class OllamaClient {
     /** Mapper JSON utilisé pour la (dé)sérialisation. */
     private final ObjectMapper mapper = new ObjectMapper();
 
+    /** Vrai tant que la première génération n’a pas été journalisée. */
+    private final AtomicBoolean firstRequestPending = new AtomicBoolean(true);
+
+    /** Réglages de réessai, délai et disjoncteur. */
+    private final ResiliencePolicy policy;
+
+    /** Disjoncteur partagé par toutes les opérations. */
+    private final CircuitBreaker breaker;
+
+    /** Latences réussies par opération (base des délais adaptatifs). */
+    private final Map<LlmOperation, LatencyTracker> latencies = new EnumMap<>(LlmOperation.class);
+
+    /** Durées de bout en bout par opération (métriques exportées). */
+    private final Map<LlmOperation, Timer> timers = new EnumMap<>(LlmOperation.class);
+
+    /** Agrégation des tokens et durées renvoyés par Ollama. */
+    private volatile LlmUsageStats usage = LlmUsageStats.shared();
+
+    /** Modèle par opération ({@code null} : {@link #model} pour tout). */
+    private volatile ModelRouter router;
+
+    /** Ordonnanceur des slots de serveur ({@code null} : accès direct au pool). */
+    private volatile LlmScheduler scheduler;
+
+    /** Couverture des requêtes lentes ({@code null} : désactivée). */
+    private volatile HedgingPolicy hedging;
+
+    /**
+     * {@code keep_alive} envoyé quand l’opération n’en fixe pas ({@code null} :
+     * défaut du serveur, qui réarme alors l’expiration à 5 min).
+     */
+    private volatile String keepAlive;
+
+    /** Threads des requêtes couvertes (créés à la demande). */
+    private ExecutorService hedgeExecutor;
+
+    /** Requêtes éligibles à la couverture. */
+    private final AtomicLong hedgeCovered = new AtomicLong();
+    /** Doublons envoyés. */
+    private final AtomicLong hedgesSent = new AtomicLong();
+    /** Doublons gagnants. */
+    private final AtomicLong hedgeWins = new AtomicLong();
+
     /**
      * Crée un nouveau client Ollama configuré pour un modèle et une URL donnés.
      *
@@ -46,9 +155,35 @@ public class OllamaClient {
      * @param model le nom du modèle à interroger (ex : {@code mistral}, {@code llama3})
      */
     public OllamaClient(String baseUrl, String model) {
-        this.baseUrl = baseUrl.endsWith("/")
-                ? baseUrl.substring(0, baseUrl.length() - 1)
-                : baseUrl;
+        this(baseUrl, model, ResiliencePolicy.defaults());
+    }
+
+    /**
+     * Crée un client avec des réglages de résilience explicites.
+     *
+     * @param baseUrl l’adresse de l’API Ollama
+     * @param model   le nom du modèle à interroger
+     * @param policy  réessais, délais adaptatifs et disjoncteur
+     */
+    public OllamaClient(String baseUrl, String model, ResiliencePolicy policy) {
+        this(OllamaEndpointPool.single(baseUrl), model, policy);
+    }
+
+    /**
+     * Crée un client réparti sur plusieurs serveurs Ollama.
+     *
+     * @param pool   serveurs disponibles (partageable avec d’autres clients)
+     * @param model  le nom du modèle à interroger
+     * @param policy réessais, délais adaptatifs et disjoncteur
+     */
+    public OllamaClient(OllamaEndpointPool pool, String model, ResiliencePolicy policy) {
+        this.pool = pool;
+        this.policy = policy;
+        this.breaker = new CircuitBreaker(policy.failureThreshold(), policy.openDuration());
+        for (LlmOperation operation : LlmOperation.values()) {
+            latencies.put(operation, new LatencyTracker());
+            timers.put(operation, MetricsRegistry.global().timer("llm.chat." + operation.id()));
+        }
         this.model = model;
     }
 
@@ -58,31 +193,459 @@ public class OllamaClient {
      * <p>Cette méthode crée une requête JSON contenant un message "system"
      * et un message "user", puis interroge le point d’entrée {@code /api/chat}
      * de l’API Ollama. La réponse est convertie en {@link LlmResponse}.
+     * Aucun format n’est imposé (opération {@link LlmOperation#CHAT}, options
+     * {@link GenerationOptions#defaultsFor(LlmOperation)}).
      *
      * @param system le message de configuration du comportement du modèle (rôle system)
      * @param user le message utilisateur auquel le modèle doit répondre
-     * @return le texte généré par le modèle, ou une chaîne d’erreur si un problème survient
+     * @return le texte généré par le modèle
+     * @throws OllamaException si l’appel échoue (après réessais éventuels)
      */
     public String chat(String system, String user) {
+        return chat(system, user, GenerationOptions.defaultsFor(LlmOperation.CHAT));
+    }
+
+    /**
+     * Variante de {@link #chat(String, String)} avec paramètres de génération :
+     * {@code format} (JSON ou schéma), bloc {@code options} et {@code keep_alive}
+     * (à défaut celui de {@link #setKeepAlive(String)}).
+     *
+     * @param system  le message système
+     * @param user    le message utilisateur
+     * @param options paramètres de l’opération (non {@code null})
+     * @return le texte généré par le modèle
+     * @throws OllamaException si l’appel échoue (après réessais éventuels)
+     */
+    public String chat(String system, String user, GenerationOptions options) {
+        final long start = System.nanoTime();
+        final ModelRouter routing = router;
+        final String chosen = routing != null ? routing.modelFor(options.operation()) : model;
+        var req = new LlmRequest(chosen, List.of(
+                new LlmMessage("system", system),
+                new LlmMessage("user", user)
+        ), false, options.format(), options.toLlmOptions(),
+                options.keepAlive() != null ? options.keepAlive() : keepAlive);
+        LlmResponse resp;
+        IN_FLIGHT.incrementAndGet();
+        try (Span span = Tracer.global().start("llm." + options.operation().id(), "llm").tag("model", chosen)) {
+            resp = send(req, options.operation());
+            if (resp.hasUsage()) {
+                span.tag("promptTokens", orZero(resp.promptEvalCount())).tag("evalTokens", orZero(resp.evalCount()));
+            }
+        } catch (OllamaException e) {
+            MetricsRegistry.global().counter("llm.errors." + e.kind().name().toLowerCase(Locale.ROOT)).inc();
+            throw e;
+        } finally {
+            IN_FLIGHT.decrementAndGet();
+            timers.get(options.operation()).stop(start);
+        }
+        usage.record(options.operation(), resp);
+        logFirstRequest(options.operation(), start);
+        if (resp.message() == null) {
+            throw new OllamaException(OllamaException.Kind.EMPTY_RESPONSE, "réponse sans message");
+        }
+        return resp.message().content();
+    }
+
+    /**
+     * Charge le modèle en mémoire sans rien générer (requête sans message) sur
+     * chaque serveur du pool et demande de l’y garder pendant {@code keepAlive}.
+     *
+     * <p>Appelée au démarrage puis périodiquement par {@link ModelKeepAlive} pour
+     * éviter la latence de chargement à froid. Avec un {@link ModelRouter}, tous
+     * ses modèles (y compris de repli) sont chargés, avec la même fenêtre
+     * {@code num_ctx} que les appels qui suivront.</p>
+     *
+     * @param keepAlive durée de maintien (ex. {@code "30m"})
+     * @return durée totale en millisecondes, ou {@code -1} si aucun serveur n’a répondu
+     */
+    public long warmUp(String keepAlive) {
+        final long start = System.nanoTime();
+        final ModelRouter routing = router;
+        boolean loaded = false;
+        for (String name : routing != null ? routing.models() : Set.of(model)) {
+            final LlmRequest req = new LlmRequest(name, List.of(), false, null,
+                    GenerationOptions.defaultsFor(LlmOperation.WARMUP).toLlmOptions(), keepAlive);
+            for (OllamaEndpoint endpoint : pool.endpoints()) {
+                try {
+                    usage.record(LlmOperation.WARMUP, post(endpoint, req, LlmOperation.WARMUP, Duration.ofMinutes(5)));
+                    endpoint.markLoaded(name);
+                    loaded = true;
+                } catch (OllamaException e) {
+                    // Seules les pannes du serveur (injoignable, 5xx, délai) le sortent de la rotation :
+                    // un 400 (modèle de repli absent de cet hôte) ne concerne que ce modèle.
+                    if (e.kind().isTransient()) {
+                        endpoint.markDown();
+                    }
+                }
+            }
+        }
+        if (!loaded) {
+            return -1;
+        }
+        // Sonde de santé : un préchargement réussi referme le disjoncteur.
+        breaker.recordSuccess();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * @return serveurs utilisés par ce client
+     */
+    public OllamaEndpointPool pool() {
+        return pool;
+    }
+
+    /**
+     * @param operation opération
+     * @return latences réussies observées pour cette opération
+     */
+    public LatencyTracker latencies(LlmOperation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * @return agrégation des tokens et durées des réponses de ce client
+     */
+    public LlmUsageStats usageStats() {
+        return usage;
+    }
+
+    /**
+     * Remplace l’agrégation des mesures (par défaut {@link LlmUsageStats#shared()}).
+     *
+     * @param usage agrégation à alimenter (non {@code null})
+     */
+    public void setUsageStats(LlmUsageStats usage) {
+        this.usage = Objects.requireNonNull(usage, "usage must not be null");
+    }
+
+    /**
+     * Choisit le modèle par opération (ou revient au modèle unique avec {@code null}).
+     *
+     * @param router routeur de modèles, ou {@code null}
+     */
+    public void setModelRouter(ModelRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * @return routeur de modèles, ou {@code null}
+     */
+    public ModelRouter modelRouter() {
+        return router;
+    }
+
+    /**
+     * Durée {@code keep_alive} envoyée avec chaque requête qui n’en précise pas.
+     * Sans elle, chaque appel réarme l’expiration au défaut du serveur (5 min)
+     * et annule le délai plus long demandé au préchauffage.
+     *
+     * @param keepAlive durée (ex. {@code "30m"}), ou {@code null} pour le défaut du serveur
+     */
+    public void setKeepAlive(String keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Fait passer (ou non, avec {@code null}) les requêtes par un ordonnanceur à
+     * priorités ; il doit gérer le même pool que ce client.
+     *
+     * @param scheduler ordonnanceur, ou {@code null}
+     */
+    public void setScheduler(LlmScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Active (ou désactive avec {@code null}) la couverture des requêtes lentes.
+     *
+     * @param policy opérations couvertes et budget, ou {@code null}
+     */
+    public synchronized void setHedging(HedgingPolicy policy) {
+        if (policy != null && hedgeExecutor == null) {
+            final AtomicInteger n = new AtomicInteger();
+            hedgeExecutor = Executors.newCachedThreadPool(r -> {
+                final Thread t = new Thread(r, "cinematch-hedge-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        this.hedging = policy;
+    }
+
+    /**
+     * @return compteurs de couverture depuis la création du client
+     */
+    public HedgingPolicy.Stats hedgingStats() {
+        return new HedgingPolicy.Stats(hedgeCovered.get(), hedgesSent.get(), hedgeWins.get());
+    }
+
+    /**
+     * @return état courant du disjoncteur
+     */
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    /**
+     * Envoie une requête à travers le disjoncteur, avec délai adaptatif et
+     * réessais à gigue totale sur échec passager (sauf délai dépassé).
+     *
+     * @param req       requête
+     * @param operation opération (choix de la fenêtre de latences)
+     * @return réponse désérialisée
+     * @throws OllamaException dernier échec rencontré
+     */
+    private LlmResponse send(LlmRequest req, LlmOperation operation) {
+        final LatencyTracker tracker = latencies.get(operation);
+        final LlmPriority priority = LlmPriority.current(operation);
+        final Set<OllamaEndpoint> tried = ConcurrentHashMap.newKeySet();
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                throw new OllamaException(OllamaException.Kind.CIRCUIT_OPEN,
+                        "Ollama indisponible (disjoncteur ouvert)");
+            }
+            final Duration timeout = policy.timeoutFor(tracker);
+            final HedgingPolicy hedge = hedging;
+            final long hedgeDelay = hedge != null && hedge.covers(operation) ? hedge.delayMillis(tracker) : -1;
+            try {
+                LlmResponse resp = hedgeDelay >= 0
+                        ? attemptHedged(req, operation, priority, tracker, timeout, tried, hedge, hedgeDelay)
+                        : attempt(req, operation, priority, tracker, timeout, tried);
+                breaker.recordSuccess();
+                return resp;
+            } catch (OllamaException e) {
+                if (e.kind() == OllamaException.Kind.INTERRUPTED
+                        || e.kind() == OllamaException.Kind.PREEMPTED) {
+                    // Aucun serveur contacté : ni succès ni échec.
+                    breaker.release();
+                    throw e;
+                }
+                if (!e.kind().isTransient()) {
+                    // Le serveur a répondu : il est joignable.
+                    breaker.recordSuccess();
+                    throw e;
+                }
+                if (e.kind() == OllamaException.Kind.TIMEOUT) {
+                    // Mesure censurée : fait remonter le p99 quand le modèle ralentit.
+                    tracker.record(timeout.toMillis());
+                    recordRoute(operation, req.model(), timeout.toMillis());
+                }
+                breaker.recordFailure();
+                // Pas de réessai sur délai dépassé : le serveur est déjà saturé et
+                // chaque tentative coûterait un délai complet de plus.
+                if (e.kind() == OllamaException.Kind.TIMEOUT || attempt >= policy.maxAttempts()) {
+                    throw e;
+                }
+                sleep(policy.backoffMillis(attempt, ThreadLocalRandom.current().nextDouble()));
+            }
+        }
+    }
+
+    /**
+     * Une tentative sur le meilleur serveur non encore essayé.
+     *
+     * @param req      requête
+     * @param operation opération (événement JFR)
+     * @param priority priorité auprès de l’ordonnanceur éventuel
+     * @param tracker latences de l’opération (alimentées en cas de succès, comme le routeur)
+     * @param timeout délai de l’appel
+     * @param tried   serveurs déjà essayés pour cette requête (complété)
+     * @return réponse désérialisée
+     */
+    private LlmResponse attempt(LlmRequest req, LlmOperation operation, LlmPriority priority,
+                                LatencyTracker tracker,
+                                Duration timeout, Set<OllamaEndpoint> tried) {
+        final LlmScheduler sched = scheduler;
+        try (OllamaEndpointPool.Lease lease = sched != null
+                ? sched.acquire(priority, req.model(), tried)
+                : pool.acquire(req.model(), tried)) {
+            // Mesure après obtention du slot : l’attente en file n’est pas de la latence serveur.
+            final long start = System.nanoTime();
+            final OllamaEndpoint endpoint = lease.endpoint();
+            tried.add(endpoint);
+            try {
+                LlmResponse resp = post(endpoint, req, operation, timeout);
+                final long elapsed = (System.nanoTime() - start) / 1_000_000;
+                tracker.record(elapsed);
+                endpoint.latencies().record(elapsed);
+                recordRoute(operation, req.model(), elapsed);
+                return resp;
+            } catch (OllamaException e) {
+                if (e.kind() == OllamaException.Kind.UNAVAILABLE) {
+                    endpoint.markDown();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Tentative couverte : si la requête d’origine n’a pas répondu après
+     * {@code delayMillis}, un doublon part (dans la limite du budget) ; la première
+     * réponse valide gagne et l’autre requête est annulée.
+     */
+    private LlmResponse attemptHedged(LlmRequest req, LlmOperation operation, LlmPriority priority,
+                                      LatencyTracker tracker,
+                                      Duration timeout, Set<OllamaEndpoint> tried,
+                                      HedgingPolicy hedge, long delayMillis) {
+        final long covered = hedgeCovered.incrementAndGet();
+        final CompletionService<LlmResponse> race = new ExecutorCompletionService<>(hedgeExecutor);
+        final Span parent = Tracer.global().current();
+        final Callable<LlmResponse> call = () -> {
+            LlmResponse resp = Tracer.global().callWithin(parent,
+                    () -> attempt(req, operation, priority, tracker, timeout, tried));
+            if (resp.message() == null) {
+                throw new OllamaException(OllamaException.Kind.EMPTY_RESPONSE, "réponse sans message");
+            }
+            return resp;
+        };
+        final Future<LlmResponse> primary = race.submit(call);
+        Future<LlmResponse> duplicate = null;
         try {
-            var req = new LlmRequest(model, java.util.List.of(
-                    new LlmMessage("system", system),
-                    new LlmMessage("user", user)
-            ));
-            String json = mapper.writeValueAsString(req);
+            Future<LlmResponse> done = race.poll(delayMillis, TimeUnit.MILLISECONDS);
+            int pending = 1;
+            if (done == null && hedgesSent.get() + 1 <= hedge.maxExtraLoad() * covered) {
+                hedgesSent.incrementAndGet();
+                duplicate = race.submit(call);
+                pending++;
+            }
+            OllamaException last = null;
+            while (pending > 0) {
+                if (done == null) {
+                    done = race.take();
+                }
+                pending--;
+                try {
+                    LlmResponse resp = done.get();
+                    if (done == duplicate) {
+                        hedgeWins.incrementAndGet();
+                    }
+                    return resp;
+                } catch (ExecutionException e) {
+                    last = e.getCause() instanceof OllamaException oe ? oe
+                            : new OllamaException(OllamaException.Kind.UNAVAILABLE,
+                                    String.valueOf(e.getCause()), e.getCause());
+                }
+                done = null;
+            }
+            throw last;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaException(OllamaException.Kind.INTERRUPTED, "appel interrompu", e);
+        } finally {
+            // Annule la requête perdante (interrompt l’envoi HTTP en cours).
+            primary.cancel(true);
+            if (duplicate != null) {
+                duplicate.cancel(true);
+            }
+        }
+    }
+
+    /** Alimente le routeur éventuel avec le temps de service HTTP d’une tentative. */
+    private void recordRoute(LlmOperation operation, String model, long millis) {
+        final ModelRouter routing = router;
+        if (routing != null) {
+            routing.record(operation, model, millis);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaException(OllamaException.Kind.INTERRUPTED, "réessai interrompu", e);
+        }
+    }
+
+    /**
+     * Sérialise et envoie une requête sur {@code /api/chat} d’un serveur donné.
+     * L’appel est encadré par un événement JFR {@link LlmRequestEvent} (tailles
+     * et tokens calculés seulement si l’événement est enregistré).
+     *
+     * @param endpoint  serveur cible
+     * @param req       requête à envoyer
+     * @param operation opération (événement JFR)
+     * @param timeout   délai maximal de l’appel
+     * @return réponse désérialisée
+     * @throws OllamaException erreur réseau, délai dépassé, statut HTTP d’erreur ou JSON illisible
+     */
+    private LlmResponse post(OllamaEndpoint endpoint, LlmRequest req, LlmOperation operation,
+                             Duration timeout) {
+        final LlmRequestEvent event = new LlmRequestEvent();
+        event.begin();
+        final Span span = Tracer.global().start("llm.http", "llm");
+        String json = null;
+        String body = null;
+        LlmResponse resp = null;
+        String outcome = "ok";
+        try {
+            json = mapper.writeValueAsString(req);
 
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(baseUrl + "/api/chat"))
+                    .uri(URI.create(endpoint.baseUrl() + "/api/chat"))
                     .header("Content-Type", "application/json")
-                    .timeout(Duration.ofSeconds(60))
+                    .timeout(timeout)
                     .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
                     .build();
 
             HttpResponse<String> res = http.send(request, HttpResponse.BodyHandlers.ofString());
-            LlmResponse resp = mapper.readValue(res.body(), LlmResponse.class);
-            return resp.message() != null ? resp.message().content() : "[vide]";
-        } catch (Exception e) {
-            return "[Erreur Ollama] " + e.getMessage();
+            body = res.body();
+            if (res.statusCode() >= 500) {
+                throw new OllamaException(OllamaException.Kind.SERVER_ERROR, "HTTP " + res.statusCode());
+            }
+            if (res.statusCode() >= 400) {
+                throw new OllamaException(OllamaException.Kind.BAD_REQUEST,
+                        "HTTP " + res.statusCode() + " : " + body);
+            }
+            resp = mapper.readValue(body, LlmResponse.class);
+            return resp;
+        } catch (HttpTimeoutException e) {
+            outcome = OllamaException.Kind.TIMEOUT.name();
+            throw new OllamaException(OllamaException.Kind.TIMEOUT,
+                    "délai dépassé (" + timeout.toMillis() + " ms)", e);
+        } catch (JsonProcessingException e) {
+            outcome = OllamaException.Kind.INVALID_RESPONSE.name();
+            throw new OllamaException(OllamaException.Kind.INVALID_RESPONSE, "réponse illisible", e);
+        } catch (IOException e) {
+            outcome = OllamaException.Kind.UNAVAILABLE.name();
+            throw new OllamaException(OllamaException.Kind.UNAVAILABLE, String.valueOf(e.getMessage()), e);
+        } catch (InterruptedException e) {
+            outcome = OllamaException.Kind.INTERRUPTED.name();
+            Thread.currentThread().interrupt();
+            throw new OllamaException(OllamaException.Kind.INTERRUPTED, "appel interrompu", e);
+        } catch (OllamaException e) {
+            outcome = e.kind().name();
+            throw e;
+        } finally {
+            span.tag("endpoint", endpoint.baseUrl()).tag("outcome", outcome).close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint.baseUrl();
+                event.model = req.model();
+                event.operation = operation.id();
+                event.requestBytes = json != null ? json.getBytes(StandardCharsets.UTF_8).length : 0;
+                event.responseBytes = body != null ? body.getBytes(StandardCharsets.UTF_8).length : 0;
+                if (resp != null && resp.hasUsage()) {
+                    event.promptTokens = orZero(resp.promptEvalCount());
+                    event.evalTokens = orZero(resp.evalCount());
+                }
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /** Journalise la latence de la toute première génération (diagnostic du démarrage à froid). */
+    private void logFirstRequest(LlmOperation operation, long startNanos) {
+        if (firstRequestPending.compareAndSet(true, false)) {
+            System.out.println("[OllamaClient] Première requête (" + operation.id() + ") : "
+                    + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
         }
     }
 }
@@ -0,0 +1,119 @@
+package app.cinematch.api;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Un serveur Ollama membre d’un {@link OllamaEndpointPool}, avec son état de routage :
+ * requêtes en cours, santé et modèles actuellement chargés en mémoire.
+ */
+public final class OllamaEndpoint {
+
+    /** URL de base, sans slash final. */
+    private final String baseUrl;
+    /** Requêtes en cours sur ce serveur. */
+    private final AtomicInteger outstanding = new AtomicInteger();
+    /** Latences des réponses réussies de ce serveur. */
+    private final LatencyTracker latencies = new LatencyTracker();
+
+    /** Dernier état de santé connu (sain par défaut, jusqu’à preuve du contraire). */
+    private volatile boolean healthy = true;
+    /** Modèles chargés d’après le dernier contrôle ({@code /api/ps}). */
+    private volatile Set<String> loadedModels = Set.of();
+
+    /**
+     * @param baseUrl URL de base du serveur (ex. {@code http://gpu-1:11434})
+     */
+    public OllamaEndpoint(final String baseUrl) {
+        Objects.requireNonNull(baseUrl, "baseUrl must not be null");
+        final String trimmed = baseUrl.trim();
+        this.baseUrl = trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * @return URL de base, sans slash final
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return nombre de requêtes en cours
+     */
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return {@code true} si le serveur est considéré disponible
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * @return modèles chargés en mémoire lors du dernier contrôle
+     */
+    public Set<String> loadedModels() {
+        return loadedModels;
+    }
+
+    /**
+     * @param model nom du modèle
+     * @return {@code true} si le modèle est déjà chargé sur ce serveur
+     */
+    public boolean hasLoaded(final String model) {
+        return loadedModels.contains(model);
+    }
+
+    /**
+     * @return latences des réponses réussies de ce serveur
+     */
+    public LatencyTracker latencies() {
+        return latencies;
+    }
+
+    /** Marque le serveur indisponible jusqu’au prochain contrôle de santé réussi. */
+    public void markDown() {
+        healthy = false;
+    }
+
+    /**
+     * Résultat d’un contrôle de santé ou d’un préchargement réussi.
+     *
+     * @param models modèles chargés
+     */
+    void markUp(final Set<String> models) {
+        this.loadedModels = Set.copyOf(models);
+        this.healthy = true;
+    }
+
+    /**
+     * Ajoute un modèle à l’ensemble des modèles chargés (ex. après un préchargement).
+     *
+     * @param model nom du modèle
+     */
+    void markLoaded(final String model) {
+        if (!loadedModels.contains(model)) {
+            final Set<String> next = new HashSet<>(loadedModels);
+            next.add(model);
+            loadedModels = Set.copyOf(next);
+        }
+        healthy = true;
+    }
+
+    int acquire() {
+        return outstanding.incrementAndGet();
+    }
+
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl + (healthy ? "" : " (down)") + " inFlight=" + outstanding.get();
+    }
+}
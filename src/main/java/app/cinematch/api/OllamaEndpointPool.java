@@ -0,0 +1,282 @@
+package app.cinematch.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ensemble de serveurs Ollama interchangeables, partagé par {@link OllamaClient}
+ * et le chemin LangChain4j.
+ *
+ * <p>Routage « least outstanding requests » pondéré : pour un modèle donné, on
+ * choisit le serveur sain minimisant {@code (enCours + 1) / poids}, où le poids
+ * vaut {@link #LOADED_WEIGHT} si le modèle y est déjà chargé (pas de temps de
+ * chargement) et {@code 1} sinon. Les égalités sont départagées à tour de rôle.
+ * Si aucun serveur n’est sain, tous redeviennent candidats (mieux vaut tenter que
+ * refuser).</p>
+ *
+ * <p>La santé et les modèles chargés proviennent de {@code GET /api/ps}, interrogé
+ * par {@link #checkHealth()} (manuellement ou périodiquement via
+ * {@link #startHealthChecks(Duration)}). Un échec réseau constaté pendant une
+ * requête marque aussitôt le serveur indisponible.</p>
+ *
+ * <p>Exemple d’utilisation :
+ * <pre>{@code
+ * OllamaEndpointPool pool = OllamaEndpointPool.parse("http://gpu-1:11434, http://gpu-2:11434");
+ * pool.startHealthChecks(Duration.ofSeconds(15));
+ * try (OllamaEndpointPool.Lease lease = pool.acquire("qwen2.5:7b-instruct")) {
+ *     String url = lease.endpoint().baseUrl() + "/api/chat";
+ * }
+ * }</pre>
+ */
+public final class OllamaEndpointPool implements AutoCloseable {
+
+    /** Poids d’un serveur ayant déjà le modèle en mémoire. */
+    public static final double LOADED_WEIGHT = 4.0;
+
+    /** Délai d’un contrôle de santé. */
+    private static final Duration HEALTH_TIMEOUT = Duration.ofSeconds(2);
+
+    /** Serveurs du pool (ordre de déclaration). */
+    private final List<OllamaEndpoint> endpoints;
+    /** Point de départ tournant pour départager les égalités. */
+    private final AtomicInteger cursor = new AtomicInteger();
+    /** Client HTTP des contrôles de santé. */
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(HEALTH_TIMEOUT).build();
+    /** Mapper JSON pour {@code /api/ps}. */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Planificateur des contrôles périodiques (créé à la demande). */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param baseUrls URL des serveurs (au moins une)
+     */
+    public OllamaEndpointPool(final List<String> baseUrls) {
+        if (baseUrls == null || baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("at least one endpoint is required");
+        }
+        final List<OllamaEndpoint> list = new ArrayList<>();
+        for (String url : baseUrls) {
+            list.add(new OllamaEndpoint(url));
+        }
+        this.endpoints = List.copyOf(list);
+    }
+
+    /**
+     * Pool d’un seul serveur (comportement historique).
+     *
+     * @param baseUrl URL du serveur
+     * @return pool à un élément
+     */
+    public static OllamaEndpointPool single(final String baseUrl) {
+        return new OllamaEndpointPool(List.of(baseUrl));
+    }
+
+    /**
+     * Construit un pool depuis une liste séparée par des virgules ou des espaces
+     * (ex. variable {@code OLLAMA_BASE_URLS}).
+     *
+     * @param spec liste d’URL
+     * @return pool correspondant
+     */
+    public static OllamaEndpointPool parse(final String spec) {
+        final List<String> urls = new ArrayList<>();
+        for (String part : spec.split("[,\\s]+")) {
+            if (!part.isBlank()) {
+                urls.add(part);
+            }
+        }
+        return new OllamaEndpointPool(urls);
+    }
+
+    /**
+     * @return serveurs du pool
+     */
+    public List<OllamaEndpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Réserve le meilleur serveur pour {@code model} ; la réservation doit être
+     * fermée à la fin de la requête.
+     *
+     * @param model modèle visé
+     * @return réservation (à fermer)
+     */
+    public Lease acquire(final String model) {
+        return acquire(model, Set.of());
+    }
+
+    /**
+     * Variante excluant des serveurs (ex. ceux déjà essayés pour cette requête),
+     * sauf s’il n’en reste aucun.
+     *
+     * @param model    modèle visé
+     * @param excluded serveurs à éviter
+     * @return réservation (à fermer)
+     */
+    public Lease acquire(final String model, final Set<OllamaEndpoint> excluded) {
+        return acquire(model, excluded, null);
+    }
+
+    /**
+     * Variante notifiant la libération (utilisée par {@link LlmScheduler}).
+     *
+     * @param model     modèle visé
+     * @param excluded  serveurs à éviter
+     * @param onRelease action exécutée à la fermeture (peut être {@code null})
+     * @return réservation (à fermer)
+     */
+    Lease acquire(final String model, final Set<OllamaEndpoint> excluded, final Runnable onRelease) {
+        final OllamaEndpoint chosen = choose(model, excluded);
+        chosen.acquire();
+        return new Lease(chosen, onRelease);
+    }
+
+    /**
+     * Interroge {@code /api/ps} sur chaque serveur pour mettre à jour sa santé et
+     * ses modèles chargés.
+     */
+    public void checkHealth() {
+        for (OllamaEndpoint endpoint : endpoints) {
+            try {
+                final HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create(endpoint.baseUrl() + "/api/ps"))
+                        .timeout(HEALTH_TIMEOUT)
+                        .GET()
+                        .build();
+                final HttpResponse<String> res = http.send(request, HttpResponse.BodyHandlers.ofString());
+                if (res.statusCode() >= 400) {
+                    endpoint.markDown();
+                    continue;
+                }
+                endpoint.markUp(loadedModels(res.body()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                endpoint.markDown();
+            }
+        }
+    }
+
+    /**
+     * Lance les contrôles de santé périodiques (thread démon), le premier immédiatement.
+     *
+     * @param interval période des contrôles
+     */
+    public synchronized void startHealthChecks(final Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "cinematch-ollama-health");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkHealth, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Arrête les contrôles périodiques. */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /** Choix pondéré parmi les serveurs sains non exclus (à défaut, parmi tous). */
+    private OllamaEndpoint choose(final String model, final Set<OllamaEndpoint> excluded) {
+        OllamaEndpoint best = pick(model, excluded, true);
+        if (best == null) {
+            best = pick(model, excluded, false);
+        }
+        if (best == null) {
+            best = pick(model, Set.of(), false);
+        }
+        return best;
+    }
+
+    private OllamaEndpoint pick(final String model, final Set<OllamaEndpoint> excluded,
+                                final boolean healthyOnly) {
+        final int size = endpoints.size();
+        final int start = Math.floorMod(cursor.getAndIncrement(), size);
+        OllamaEndpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            final OllamaEndpoint candidate = endpoints.get((start + i) % size);
+            if (excluded.contains(candidate) || (healthyOnly && !candidate.isHealthy())) {
+                continue;
+            }
+            final double weight = candidate.hasLoaded(model) ? LOADED_WEIGHT : 1.0;
+            final double score = (candidate.outstanding() + 1) / weight;
+            if (score < bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /** Noms des modèles listés par {@code /api/ps}. */
+    private Set<String> loadedModels(final String body) throws java.io.IOException {
+        final Set<String> models = new HashSet<>();
+        final JsonNode list = mapper.readTree(body).path("models");
+        for (JsonNode node : list) {
+            final String name = node.path("name").asText(node.path("model").asText(""));
+            if (!name.isEmpty()) {
+                models.add(name);
+            }
+        }
+        return models;
+    }
+
+    /**
+     * Réservation d’un serveur pour la durée d’une requête.
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final OllamaEndpoint endpoint;
+        private final Runnable onRelease;
+        private boolean released;
+
+        private Lease(final OllamaEndpoint endpoint, final Runnable onRelease) {
+            this.endpoint = endpoint;
+            this.onRelease = onRelease;
+        }
+
+        /**
+         * @return serveur réservé
+         */
+        public OllamaEndpoint endpoint() {
+            return endpoint;
+        }
+
+        /** Libère le serveur (idempotent). */
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                endpoint.release();
+                if (onRelease != null) {
+                    onRelease.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package app.cinematch.api;
+
+/**
+ * Erreur typée d’un appel à Ollama, levée par {@link OllamaClient} à la place
+ * des anciennes chaînes magiques ({@code "[Erreur Ollama] ..."}, {@code "[vide]"}).
+ *
+ * <p>Le {@link Kind} permet aux appelants de choisir un repli (cache, contenu
+ * hors ligne, message utilisateur) sans analyser de texte.</p>
+ */
+public class OllamaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Nature de l’échec. */
+    public enum Kind {
+        /** Délai dépassé (le serveur est lent ou surchargé) ; compte pour le disjoncteur mais n’est pas réessayé. */
+        TIMEOUT(true),
+        /** Serveur injoignable (connexion refusée, réseau). */
+        UNAVAILABLE(true),
+        /** Réponse HTTP 5xx. */
+        SERVER_ERROR(true),
+        /** Réponse HTTP 4xx (modèle inconnu, requête invalide). */
+        BAD_REQUEST(false),
+        /** Corps de réponse illisible. */
+        INVALID_RESPONSE(false),
+        /** Réponse sans message généré. */
+        EMPTY_RESPONSE(false),
+        /** Disjoncteur ouvert : appel refusé sans contacter le serveur. */
+        CIRCUIT_OPEN(false),
+        /** Thread interrompu pendant l’appel. */
+        INTERRUPTED(false),
+        /** Requête annulée en file d’attente au profit d’une requête plus prioritaire. */
+        PREEMPTED(false);
+
+        private final boolean transientFailure;
+
+        Kind(final boolean transientFailure) {
+            this.transientFailure = transientFailure;
+        }
+
+        /**
+         * @return {@code true} si l’échec est passager : l’appel peut être réessayé
+         *         et compte pour le disjoncteur
+         */
+        public boolean isTransient() {
+            return transientFailure;
+        }
+    }
+
+    /** Nature de l’échec. */
+    private final Kind kind;
+
+    /**
+     * @param kind    nature de l’échec
+     * @param message description lisible
+     */
+    public OllamaException(final Kind kind, final String message) {
+        this(kind, message, null);
+    }
+
+    /**
+     * @param kind    nature de l’échec
+     * @param message description lisible
+     * @param cause   cause d’origine (peut être {@code null})
+     */
+    public OllamaException(final Kind kind, final String message, final Throwable cause) {
+        super(message, cause);
+        this.kind = kind;
+    }
+
+    /**
+     * @return nature de l’échec
+     */
+    public Kind kind() {
+        return kind;
+    }
+}
@@ -0,0 +1,85 @@
+package app.cinematch.api;
+
+import java.time.Duration;
+
+/**
+ * Réglages de résilience de {@link OllamaClient} : réessais, délais adaptatifs
+ * et disjoncteur.
+ *
+ * <p>Le délai d’un appel vaut {@code p99 × timeoutMultiplier} de l’opération,
+ * borné par {@code [minTimeout, maxTimeout]}, dès que {@code minSamples} mesures
+ * sont disponibles ; avant cela, {@code maxTimeout} s’applique.</p>
+ *
+ * @param maxAttempts       nombre total de tentatives (≥ 1) pour un échec passager (hors délai dépassé)
+ * @param baseBackoff       attente de base avant le premier réessai
+ * @param maxBackoff        attente maximale entre deux tentatives
+ * @param minTimeout        délai minimal d’un appel
+ * @param maxTimeout        délai maximal d’un appel (et délai initial)
+ * @param timeoutMultiplier marge appliquée au p99 observé
+ * @param minSamples        mesures nécessaires avant d’adapter le délai
+ * @param failureThreshold  échecs consécutifs avant ouverture du disjoncteur
+ * @param openDuration      durée d’ouverture du disjoncteur
+ */
+public record ResiliencePolicy(
+        int maxAttempts,
+        Duration baseBackoff,
+        Duration maxBackoff,
+        Duration minTimeout,
+        Duration maxTimeout,
+        double timeoutMultiplier,
+        int minSamples,
+        int failureThreshold,
+        Duration openDuration
+) {
+
+    /** Valide les bornes. */
+    public ResiliencePolicy {
+        if (maxAttempts < 1 || failureThreshold < 1 || minSamples < 1 || timeoutMultiplier < 1.0) {
+            throw new IllegalArgumentException("invalid resilience policy");
+        }
+        if (minTimeout.compareTo(maxTimeout) > 0 || baseBackoff.compareTo(maxBackoff) > 0) {
+            throw new IllegalArgumentException("invalid resilience bounds");
+        }
+    }
+
+    /**
+     * Réglages par défaut : 3 tentatives (200 ms → 2 s, gigue totale), délai entre
+     * 5 s et 60 s à 2 × p99, disjoncteur ouvert 30 s après 5 échecs.
+     *
+     * @return politique par défaut
+     */
+    public static ResiliencePolicy defaults() {
+        return new ResiliencePolicy(3, Duration.ofMillis(200), Duration.ofSeconds(2),
+                Duration.ofSeconds(5), Duration.ofSeconds(60), 2.0, 20,
+                5, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Délai adapté à la distribution observée.
+     *
+     * @param latencies latences de l’opération
+     * @return délai à appliquer
+     */
+    public Duration timeoutFor(final LatencyTracker latencies) {
+        if (latencies.count() < minSamples) {
+            return maxTimeout;
+        }
+        final long adaptive = (long) Math.ceil(latencies.percentile(99) * timeoutMultiplier);
+        final long bounded = Math.max(minTimeout.toMillis(), Math.min(maxTimeout.toMillis(), adaptive));
+        return Duration.ofMillis(bounded);
+    }
+
+    /**
+     * Attente avant la tentative {@code attempt + 1} (gigue totale :
+     * uniforme dans {@code [0, min(maxBackoff, baseBackoff × 2^(attempt-1))]}).
+     *
+     * @param attempt numéro de la tentative qui vient d’échouer (≥ 1)
+     * @param random  tirage uniforme dans {@code [0, 1)}
+     * @return attente en millisecondes
+     */
+    public long backoffMillis(final int attempt, final double random) {
+        final long cap = Math.min(maxBackoff.toMillis(),
+                baseBackoff.toMillis() << Math.min(20, Math.max(0, attempt - 1)));
+        return (long) (cap * random);
+    }
+}
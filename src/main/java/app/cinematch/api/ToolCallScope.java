@@ -0,0 +1,46 @@
+package app.cinematch.api;
+
+import java.util.function.Supplier;
+
+/**
+ * Outil de l’agent en cours d’exécution sur le thread courant.
+ *
+ * <p>Positionné autour de chaque appel d’outil par l’agent ; les appels LLM
+ * imbriqués (ex. descriptions générées par un outil) sont alors étiquetés avec le
+ * nom de l’outil en plus de leur opération.</p>
+ */
+public final class ToolCallScope {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ToolCallScope() { }
+
+    /**
+     * Exécute {@code work} dans le contexte de l’outil {@code tool}.
+     *
+     * @param tool nom de l’outil (ex. {@code "describeList"})
+     * @param work traitement
+     * @param <T>  type du résultat
+     * @return résultat de {@code work}
+     */
+    public static <T> T call(final String tool, final Supplier<T> work) {
+        final String previous = CURRENT.get();
+        CURRENT.set(tool);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return nom de l’outil en cours, ou {@code null} hors outil
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,140 @@
+package app.cinematch.api.fake;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Réponse préparée du {@link FakeOllamaServer}, choisie quand le dernier message
+ * utilisateur correspond à {@link #match()}.
+ *
+ * <p>Une règle produit soit un texte ({@code content}), soit un appel d’outil
+ * ({@code tool} + {@code arguments}, seulement si la requête déclare des outils),
+ * soit une erreur HTTP ({@code status}). Les groupes de l’expression sont
+ * substituables ({@code $1}, {@code $2}…) dans le texte et les arguments.</p>
+ *
+ * <p>Fichier JSON ({@link #load(Path)}) :</p>
+ * <pre>{@code
+ * [
+ *   {"match": "(?i)ajoute (.+) à ma liste", "tool": "addToWishlist", "arguments": {"title": "$1"}},
+ *   {"match": "(?i)bonjour", "content": "Bonjour ! Que veux-tu regarder ce soir ?"},
+ *   {"match": "(?i)panne", "status": 503}
+ * ]
+ * }</pre>
+ *
+ * @param match     expression cherchée dans le dernier message utilisateur
+ * @param content   texte de réponse, ou {@code null}
+ * @param tool      nom de l’outil à appeler, ou {@code null}
+ * @param arguments arguments de l’outil (valeurs textuelles substituées)
+ * @param status    statut HTTP d’erreur à renvoyer, ou 0
+ */
+public record CannedResponse(Pattern match, String content, String tool,
+                             Map<String, Object> arguments, int status) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Constructeur canonique. */
+    public CannedResponse {
+        Objects.requireNonNull(match, "match must not be null");
+        arguments = arguments == null ? Map.of() : Map.copyOf(arguments);
+    }
+
+    /**
+     * @param regex   expression cherchée
+     * @param content texte renvoyé
+     * @return règle textuelle
+     */
+    public static CannedResponse text(final String regex, final String content) {
+        return new CannedResponse(Pattern.compile(regex), content, null, null, 0);
+    }
+
+    /**
+     * @param regex     expression cherchée
+     * @param tool      outil à appeler
+     * @param arguments arguments (gabarits {@code $n} autorisés)
+     * @return règle d’appel d’outil
+     */
+    public static CannedResponse toolCall(final String regex, final String tool,
+                                          final Map<String, Object> arguments) {
+        return new CannedResponse(Pattern.compile(regex), null, tool, arguments, 0);
+    }
+
+    /**
+     * @param regex  expression cherchée
+     * @param status statut HTTP renvoyé
+     * @return règle d’erreur
+     */
+    public static CannedResponse error(final String regex, final int status) {
+        return new CannedResponse(Pattern.compile(regex), null, null, null, status);
+    }
+
+    /**
+     * Charge une liste de règles depuis un fichier JSON.
+     *
+     * @param file fichier JSON (tableau d’objets)
+     * @return règles, dans l’ordre du fichier
+     * @throws IOException fichier illisible ou JSON invalide
+     */
+    public static List<CannedResponse> load(final Path file) throws IOException {
+        final List<Map<String, Object>> raw = MAPPER.readValue(file.toFile(),
+                new TypeReference<List<Map<String, Object>>>() { });
+        final List<CannedResponse> out = new ArrayList<>();
+        for (Map<String, Object> r : raw) {
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> args = (Map<String, Object>) r.get("arguments");
+            final Object status = r.get("status");
+            out.add(new CannedResponse(Pattern.compile(String.valueOf(r.get("match"))),
+                    (String) r.get("content"), (String) r.get("tool"), args,
+                    status instanceof Number n ? n.intValue() : 0));
+        }
+        return out;
+    }
+
+    /**
+     * @param userMessage dernier message utilisateur
+     * @return correspondance, ou {@code null}
+     */
+    Matcher matcher(final String userMessage) {
+        final Matcher m = match.matcher(userMessage == null ? "" : userMessage);
+        return m.find() ? m : null;
+    }
+
+    /** @return {@code true} si la règle appelle un outil */
+    boolean isToolCall() {
+        return tool != null;
+    }
+
+    /**
+     * @param m correspondance obtenue par {@link #matcher(String)}
+     * @return texte avec groupes substitués
+     */
+    String content(final Matcher m) {
+        return content == null ? "" : substitute(content, m);
+    }
+
+    /**
+     * @param m correspondance obtenue par {@link #matcher(String)}
+     * @return arguments avec groupes substitués
+     */
+    Map<String, Object> arguments(final Matcher m) {
+        final Map<String, Object> out = new LinkedHashMap<>();
+        arguments.forEach((k, v) -> out.put(k, v instanceof String s ? substitute(s, m) : v));
+        return out;
+    }
+
+    private static String substitute(final String template, final Matcher m) {
+        String out = template;
+        for (int g = m.groupCount(); g >= 1; g--) {
+            out = out.replace("$" + g, m.group(g) == null ? "" : m.group(g).trim());
+        }
+        return out;
+    }
+}
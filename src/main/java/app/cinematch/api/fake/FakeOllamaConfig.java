@@ -0,0 +1,202 @@
+package app.cinematch.api.fake;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Réglages du {@link FakeOllamaServer} : modèle annoncé, latences, débit de
+ * génération, injection d’erreurs et réponses préparées.
+ *
+ * <p>La durée d’une réponse vaut {@code firstToken + tokens / tokensPerSecond}
+ * (un débit ≤ 0 signifie génération instantanée). Les méthodes {@code withXxx}
+ * renvoient une copie modifiée.</p>
+ *
+ * @param model               modèle annoncé par {@code /api/ps} et dans les réponses
+ * @param firstToken          délai avant le premier token (évaluation du prompt)
+ * @param tokensPerSecond     débit de génération (≤ 0 : instantané)
+ * @param errorRate           probabilité d’une réponse HTTP 500
+ * @param dropRate            probabilité d’une connexion fermée sans réponse
+ * @param embeddingLatency    latence de {@code /api/embeddings} et {@code /api/embed}
+ * @param embeddingDimensions taille des vecteurs d’embedding
+ * @param seed                graine de l’aléa (latences, erreurs, catalogue)
+ * @param canned              réponses préparées, essayées dans l’ordre
+ */
+public record FakeOllamaConfig(String model, LatencyDistribution firstToken, double tokensPerSecond,
+                               double errorRate, double dropRate, LatencyDistribution embeddingLatency,
+                               int embeddingDimensions, long seed, List<CannedResponse> canned) {
+
+    /** Modèle annoncé par défaut (celui de l’application). */
+    public static final String DEFAULT_MODEL = "qwen2.5:7b-instruct";
+
+    /** Constructeur canonique. */
+    public FakeOllamaConfig {
+        Objects.requireNonNull(model, "model must not be null");
+        Objects.requireNonNull(firstToken, "firstToken must not be null");
+        Objects.requireNonNull(embeddingLatency, "embeddingLatency must not be null");
+        if (errorRate < 0 || dropRate < 0 || errorRate + dropRate > 1 || embeddingDimensions < 1) {
+            throw new IllegalArgumentException("invalid fake server settings");
+        }
+        canned = canned == null ? List.of() : List.copyOf(canned);
+    }
+
+    /**
+     * Profil réaliste d’un modèle 7B sur GPU grand public : premier token
+     * log-normal (médiane 300 ms), 40 tokens/s, aucune erreur.
+     *
+     * @return réglages par défaut
+     */
+    public static FakeOllamaConfig defaults() {
+        return new FakeOllamaConfig(DEFAULT_MODEL, LatencyDistribution.logNormal(300, 0.4), 40,
+                0, 0, LatencyDistribution.fixed(5), 768, 42L, List.of());
+    }
+
+    /**
+     * Réponses immédiates (tests) : aucune latence, génération instantanée.
+     *
+     * @return réglages sans attente
+     */
+    public static FakeOllamaConfig instant() {
+        return defaults().withFirstToken(LatencyDistribution.NONE).withTokensPerSecond(0)
+                .withEmbeddingLatency(LatencyDistribution.NONE);
+    }
+
+    /**
+     * Lit des options de ligne de commande {@code --clé=valeur} à partir de
+     * {@link #defaults()} : {@code --model}, {@code --latency} (voir
+     * {@link LatencyDistribution#parse(String)}), {@code --tps}, {@code --errors},
+     * {@code --drops}, {@code --embed-latency}, {@code --dims}, {@code --seed},
+     * {@code --canned} (fichier JSON, voir {@link CannedResponse#load(Path)}).
+     * {@code --port} est ignoré ici (lu par {@link FakeOllamaServer#main(String[])}).
+     *
+     * @param args options
+     * @return réglages correspondants
+     * @throws IllegalArgumentException option inconnue ou valeur invalide
+     * @throws UncheckedIOException     fichier de réponses illisible
+     */
+    public static FakeOllamaConfig fromArgs(final String... args) {
+        FakeOllamaConfig c = defaults();
+        for (String arg : args) {
+            final int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("expected --key=value: " + arg);
+            }
+            final String value = arg.substring(eq + 1);
+            c = switch (arg.substring(2, eq)) {
+                case "model" -> c.withModel(value);
+                case "latency" -> c.withFirstToken(LatencyDistribution.parse(value));
+                case "tps" -> c.withTokensPerSecond(Double.parseDouble(value));
+                case "errors" -> c.withErrorRate(Double.parseDouble(value));
+                case "drops" -> c.withDropRate(Double.parseDouble(value));
+                case "embed-latency" -> c.withEmbeddingLatency(LatencyDistribution.parse(value));
+                case "dims" -> c.withEmbeddingDimensions(Integer.parseInt(value));
+                case "seed" -> c.withSeed(Long.parseLong(value));
+                case "canned" -> c.withCanned(loadCanned(Path.of(value)));
+                case "port" -> c;
+                default -> throw new IllegalArgumentException("unknown option: " + arg);
+            };
+        }
+        return c;
+    }
+
+    /**
+     * @param value modèle annoncé
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withModel(final String value) {
+        return new FakeOllamaConfig(value, firstToken, tokensPerSecond, errorRate, dropRate,
+                embeddingLatency, embeddingDimensions, seed, canned);
+    }
+
+    /**
+     * @param value délai avant le premier token
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withFirstToken(final LatencyDistribution value) {
+        return new FakeOllamaConfig(model, value, tokensPerSecond, errorRate, dropRate,
+                embeddingLatency, embeddingDimensions, seed, canned);
+    }
+
+    /**
+     * @param value débit de génération (≤ 0 : instantané)
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withTokensPerSecond(final double value) {
+        return new FakeOllamaConfig(model, firstToken, value, errorRate, dropRate,
+                embeddingLatency, embeddingDimensions, seed, canned);
+    }
+
+    /**
+     * @param value probabilité d’une réponse HTTP 500
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withErrorRate(final double value) {
+        return new FakeOllamaConfig(model, firstToken, tokensPerSecond, value, dropRate,
+                embeddingLatency, embeddingDimensions, seed, canned);
+    }
+
+    /**
+     * @param value probabilité d’une connexion fermée sans réponse
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withDropRate(final double value) {
+        return new FakeOllamaConfig(model, firstToken, tokensPerSecond, errorRate, value,
+                embeddingLatency, embeddingDimensions, seed, canned);
+    }
+
+    /**
+     * @param value latence des embeddings
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withEmbeddingLatency(final LatencyDistribution value) {
+        return new FakeOllamaConfig(model, firstToken, tokensPerSecond, errorRate, dropRate,
+                value, embeddingDimensions, seed, canned);
+    }
+
+    /**
+     * @param value taille des vecteurs d’embedding
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withEmbeddingDimensions(final int value) {
+        return new FakeOllamaConfig(model, firstToken, tokensPerSecond, errorRate, dropRate,
+                embeddingLatency, value, seed, canned);
+    }
+
+    /**
+     * @param value graine de l’aléa
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withSeed(final long value) {
+        return new FakeOllamaConfig(model, firstToken, tokensPerSecond, errorRate, dropRate,
+                embeddingLatency, embeddingDimensions, value, canned);
+    }
+
+    /**
+     * @param value réponses préparées
+     * @return copie modifiée
+     */
+    public FakeOllamaConfig withCanned(final List<CannedResponse> value) {
+        return new FakeOllamaConfig(model, firstToken, tokensPerSecond, errorRate, dropRate,
+                embeddingLatency, embeddingDimensions, seed, value);
+    }
+
+    /**
+     * Durée de génération de {@code tokens} tokens au débit configuré.
+     *
+     * @param tokens nombre de tokens
+     * @return durée en nanosecondes
+     */
+    long generationNanos(final int tokens) {
+        return tokensPerSecond <= 0 ? 0L : (long) (tokens * 1_000_000_000L / tokensPerSecond);
+    }
+
+    private static List<CannedResponse> loadCanned(final Path file) {
+        try {
+            return CannedResponse.load(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package app.cinematch.api.fake;
+
+import app.cinematch.api.LocalHttpServers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serveur HTTP local imitant Ollama, pour faire tourner l’application, les
+ * benchmarks et les tests de charge hors ligne, à travers la vraie pile HTTP,
+ * JSON et threads du client (contrairement aux doublures en mémoire).
+ *
+ * <p>Points d’entrée :</p>
+ * <ul>
+ *   <li>{@code POST /api/chat} — réponse complète, ou flux NDJSON si
+ *       {@code "stream"} est absent ou vrai (comme Ollama) ; appels d’outils
+ *       ({@code message.tool_calls}) via les {@link CannedResponse} quand la
+ *       requête déclare des {@code tools} ;</li>
+ *   <li>{@code POST /api/embeddings} ({@code prompt}) et {@code POST /api/embed}
+ *       ({@code input}) — vecteurs déterministes, normés, dérivés du texte ;</li>
+ *   <li>{@code GET /api/ps} et {@code GET /api/tags} — le modèle configuré.</li>
+ * </ul>
+ *
+ * <p>Latence : premier token tiré de {@link FakeOllamaConfig#firstToken()}, puis
+ * génération au débit {@link FakeOllamaConfig#tokensPerSecond()} (un token par
+ * mot ou ponctuation) ; en flux, chaque token part à son rythme. Les compteurs
+ * Ollama ({@code prompt_eval_count}, {@code eval_count}, durées) sont renseignés.
+ * Erreurs injectées : HTTP 500 ({@code errorRate}), connexion coupée sans
+ * réponse ({@code dropRate}), ou statut imposé par une règle préparée.</p>
+ *
+ * <p>En autonome :</p>
+ * <pre>{@code
+ * mvn compile exec:java -Dexec.mainClass=app.cinematch.api.fake.FakeOllamaServer \
+ *     -Dexec.args="--port=11434 --latency=lognormal:800,0.5 --tps=30 --errors=0.02"
+ * }</pre>
+ */
+public final class FakeOllamaServer implements AutoCloseable {
+
+    /** Port par défaut d’Ollama. */
+    public static final int DEFAULT_PORT = 11434;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    /** Découpage approximatif en tokens : mots et ponctuation, espaces attachés. */
+    private static final Pattern TOKEN = Pattern.compile("\\s*[\\p{L}\\p{N}’']+|\\s*[^\\s\\p{L}\\p{N}]|\\s+");
+
+    private final FakeOllamaConfig config;
+    private final Random random;
+    private final HttpServer server;
+    private final AtomicInteger chatRequests = new AtomicInteger();
+    private final AtomicInteger embeddingRequests = new AtomicInteger();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * Démarre le serveur sur {@code 127.0.0.1}.
+     *
+     * @param port   port d’écoute (0 : port libre)
+     * @param config réglages
+     * @throws IOException port indisponible
+     */
+    public FakeOllamaServer(final int port, final FakeOllamaConfig config) throws IOException {
+        this.config = config;
+        this.random = new Random(config.seed());
+        this.server = LocalHttpServers.create(port, "fake-ollama");
+        server.createContext("/api/chat", this::chat);
+        server.createContext("/api/embeddings", exchange -> embeddings(exchange, false));
+        server.createContext("/api/embed", exchange -> embeddings(exchange, true));
+        server.createContext("/api/ps", this::models);
+        server.createContext("/api/tags", this::models);
+        server.start();
+    }
+
+    /**
+     * Lance un serveur autonome jusqu’à l’arrêt de la JVM.
+     *
+     * @param args {@code --port=…} et options de {@link FakeOllamaConfig#fromArgs(String...)}
+     * @throws Exception port indisponible ou options invalides
+     */
+    public static void main(final String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            }
+        }
+        final FakeOllamaServer fake = new FakeOllamaServer(port, FakeOllamaConfig.fromArgs(args));
+        Runtime.getRuntime().addShutdownHook(new Thread(fake::close));
+        System.out.println("[FakeOllama] " + fake.baseUrl() + " (modèle " + fake.config.model() + ")");
+        new CountDownLatch(1).await();
+    }
+
+    /** @return URL de base, à passer à {@code OLLAMA_BASE_URL} */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** @return réglages du serveur */
+    public FakeOllamaConfig config() {
+        return config;
+    }
+
+    /** @return requêtes {@code /api/chat} reçues */
+    public int chatRequests() {
+        return chatRequests.get();
+    }
+
+    /** @return requêtes d’embedding reçues */
+    public int embeddingRequests() {
+        return embeddingRequests.get();
+    }
+
+    /** @return erreurs injectées (HTTP 500, coupures, statuts imposés) */
+    public int injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    /** @return pic de requêtes de chat simultanées */
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        LocalHttpServers.stop(server);
+    }
+
+    // =========================
+    // /api/chat
+    // =========================
+
+    private void chat(final HttpExchange exchange) throws IOException {
+        chatRequests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try (exchange) {
+            final JsonNode req = MAPPER.readTree(exchange.getRequestBody());
+            final double dice = random.nextDouble();
+            if (dice < config.dropRate()) {
+                injectedErrors.incrementAndGet();
+                return; // connexion fermée sans réponse
+            }
+            final long firstTokenNanos = TimeUnit.MILLISECONDS.toNanos(config.firstToken().sampleMs(random));
+            if (dice < config.dropRate() + config.errorRate()) {
+                injectedErrors.incrementAndGet();
+                LocalHttpServers.pause(firstTokenNanos);
+                sendError(exchange, 500, "fake: injected failure");
+                return;
+            }
+            final Reply reply = reply(req);
+            if (reply.status() != 0) {
+                injectedErrors.incrementAndGet();
+                sendError(exchange, reply.status(), "fake: canned failure");
+                return;
+            }
+            final String model = req.path("model").asText(config.model());
+            final int promptTokens = Math.max(1, req.path("messages").toString().length() / 4);
+            if (req.path("stream").asBoolean(true)) {
+                stream(exchange, model, reply, promptTokens, firstTokenNanos);
+            } else {
+                final List<String> tokens = tokens(reply);
+                final long generationNanos = config.generationNanos(tokens.size());
+                LocalHttpServers.pause(firstTokenNanos + generationNanos);
+                final ObjectNode body = chunk(model, reply.content(), reply.toolCalls(), true);
+                stats(body, promptTokens, tokens.size(), firstTokenNanos, generationNanos);
+                send(exchange, 200, body.toString());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void stream(final HttpExchange exchange, final String model, final Reply reply,
+                        final int promptTokens, final long firstTokenNanos)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        final OutputStream out = exchange.getResponseBody();
+        LocalHttpServers.pause(firstTokenNanos);
+        final List<String> tokens = tokens(reply);
+        final long perToken = config.generationNanos(1);
+        if (reply.toolCalls() != null) {
+            writeLine(out, chunk(model, "", reply.toolCalls(), false));
+            LocalHttpServers.pause(config.generationNanos(tokens.size()));
+        } else {
+            for (String token : tokens) {
+                writeLine(out, chunk(model, token, null, false));
+                LocalHttpServers.pause(perToken);
+            }
+        }
+        final ObjectNode last = chunk(model, "", null, true);
+        stats(last, promptTokens, tokens.size(), firstTokenNanos, config.generationNanos(tokens.size()));
+        writeLine(out, last);
+    }
+
+    /** Réponse choisie : règle préparée, suite d’appel d’outil, ou réponse par défaut. */
+    private Reply reply(final JsonNode req) {
+        final JsonNode messages = req.path("messages");
+        String system = "";
+        String user = "";
+        String lastRole = "";
+        String lastContent = "";
+        for (JsonNode msg : messages) {
+            lastRole = msg.path("role").asText();
+            lastContent = msg.path("content").asText("");
+            if ("system".equals(lastRole)) {
+                system = lastContent;
+            } else if ("user".equals(lastRole)) {
+                user = lastContent;
+            }
+        }
+        if ("tool".equals(lastRole)) {
+            return new Reply("C’est fait : " + lastContent, null, 0);
+        }
+        final List<String> tools = new ArrayList<>();
+        for (JsonNode tool : req.path("tools")) {
+            tools.add(tool.path("function").path("name").asText());
+        }
+        for (CannedResponse rule : config.canned()) {
+            final Matcher m = rule.matcher(user);
+            if (m == null || (rule.isToolCall() && !tools.contains(rule.tool()))) {
+                continue;
+            }
+            if (rule.status() != 0) {
+                return new Reply("", null, rule.status());
+            }
+            if (rule.isToolCall()) {
+                final ArrayNode calls = MAPPER.createArrayNode();
+                final ObjectNode function = calls.addObject().putObject("function");
+                function.put("name", rule.tool());
+                function.set("arguments", MAPPER.valueToTree(rule.arguments(m)));
+                return new Reply("", calls, 0);
+            }
+            return new Reply(rule.content(m), null, 0);
+        }
+        return new Reply(FakeReplies.reply(system, user, random), null, 0);
+    }
+
+    private static List<String> tokens(final Reply reply) {
+        final String text = reply.toolCalls() != null ? reply.toolCalls().toString() : reply.content();
+        final List<String> out = new ArrayList<>();
+        final Matcher m = TOKEN.matcher(text);
+        while (m.find()) {
+            out.add(m.group());
+        }
+        return out;
+    }
+
+    private ObjectNode chunk(final String model, final String content, final ArrayNode toolCalls,
+                             final boolean done) {
+        final ObjectNode node = MAPPER.createObjectNode();
+        node.put("model", model);
+        node.put("created_at", Instant.now().toString());
+        final ObjectNode message = node.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        if (toolCalls != null) {
+            message.set("tool_calls", toolCalls);
+        }
+        node.put("done", done);
+        if (done) {
+            node.put("done_reason", "stop");
+        }
+        return node;
+    }
+
+    private static void stats(final ObjectNode node, final int promptTokens, final int evalTokens,
+                              final long promptNanos, final long evalNanos) {
+        node.put("total_duration", promptNanos + evalNanos);
+        node.put("load_duration", 0L);
+        node.put("prompt_eval_count", promptTokens);
+        node.put("prompt_eval_duration", promptNanos);
+        node.put("eval_count", evalTokens);
+        node.put("eval_duration", evalNanos);
+    }
+
+    // =========================
+    // Embeddings et modèles
+    // =========================
+
+    private void embeddings(final HttpExchange exchange, final boolean batch) throws IOException {
+        embeddingRequests.incrementAndGet();
+        try (exchange) {
+            final JsonNode req = MAPPER.readTree(exchange.getRequestBody());
+            LocalHttpServers.pause(TimeUnit.MILLISECONDS.toNanos(config.embeddingLatency().sampleMs(random)));
+            final ObjectNode body = MAPPER.createObjectNode();
+            body.put("model", req.path("model").asText(config.model()));
+            if (batch) {
+                final ArrayNode vectors = body.putArray("embeddings");
+                final JsonNode input = req.path("input");
+                if (input.isArray()) {
+                    input.forEach(text -> vectors.add(vector(text.asText())));
+                } else {
+                    vectors.add(vector(input.asText()));
+                }
+            } else {
+                body.set("embedding", vector(req.path("prompt").asText()));
+            }
+            send(exchange, 200, body.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Vecteur unitaire déterministe : même texte, même vecteur. */
+    private ArrayNode vector(final String text) {
+        final Random r = new Random(text.hashCode() * 31L + config.seed());
+        final double[] v = new double[config.embeddingDimensions()];
+        double norm = 0;
+        for (int i = 0; i < v.length; i++) {
+            v[i] = r.nextGaussian();
+            norm += v[i] * v[i];
+        }
+        final double scale = 1.0 / Math.sqrt(norm);
+        final ArrayNode out = MAPPER.createArrayNode();
+        for (double x : v) {
+            out.add((float) (x * scale));
+        }
+        return out;
+    }
+
+    private void models(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            final ObjectNode body = MAPPER.createObjectNode();
+            body.putArray("models").addObject()
+                    .put("name", config.model())
+                    .put("model", config.model());
+            send(exchange, 200, body.toString());
+        }
+    }
+
+    // =========================
+    // Utilitaires
+    // =========================
+
+    private static void sendError(final HttpExchange exchange, final int status, final String error)
+            throws IOException {
+        send(exchange, status, MAPPER.writeValueAsString(Map.of("error", error)));
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String body)
+            throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void writeLine(final OutputStream out, final ObjectNode node) throws IOException {
+        out.write((node.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * @param content   texte de réponse
+     * @param toolCalls appels d’outils ({@code message.tool_calls}), ou {@code null}
+     * @param status    statut d’erreur imposé, ou 0
+     */
+    private record Reply(String content, ArrayNode toolCalls, int status) { }
+}
@@ -0,0 +1,100 @@
+package app.cinematch.api.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Réponses par défaut du {@link FakeOllamaServer}, déduites des consignes de
+ * l’application : recommandation JSON unitaire ou par lot, description d’un ou
+ * plusieurs films, et réponse libre de chat. Les titres viennent d’un petit
+ * catalogue, tirés avec l’aléa (reproductible) du serveur.
+ */
+final class FakeReplies {
+
+    /** Titre, année, plateforme. */
+    private static final String[][] CATALOG = {
+        {"Heat", "1995", "Netflix"}, {"Drive", "2011", "Prime Video"},
+        {"Zodiac", "2007", "Netflix"}, {"Prisoners", "2013", "Canal+"},
+        {"Le Samouraï", "1967", "Arte"}, {"Memories of Murder", "2003", "Mubi"},
+        {"Sicario", "2015", "Prime Video"}, {"Collateral", "2004", "Paramount+"},
+        {"Le Cercle rouge", "1970", "Arte"}, {"Blade Runner 2049", "2017", "Netflix"},
+        {"Arrival", "2016", "Prime Video"}, {"Incendies", "2010", "Mubi"},
+        {"Parasite", "2019", "Canal+"}, {"Oldboy", "2003", "Mubi"},
+        {"La Haine", "1995", "Netflix"}, {"Mulholland Drive", "2001", "Canal+"},
+        {"No Country for Old Men", "2007", "Paramount+"}, {"The Thing", "1982", "Prime Video"},
+        {"Le Trou", "1960", "Arte"}, {"Dune", "2021", "Max"},
+    };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern COUNT = Pattern.compile("(?:Propose|Génère)\\s+(\\d+)");
+    private static final Pattern DESCRIBE_ONE = Pattern.compile("Décris le film '(.+?)'");
+    private static final Pattern LIST_ITEM = Pattern.compile("(?m)^- (.+)$");
+
+    private FakeReplies() {
+    }
+
+    /**
+     * @param system consigne système (éventuellement vide)
+     * @param user   dernier message utilisateur
+     * @param random aléa du serveur
+     * @return texte de réponse
+     */
+    static String reply(final String system, final String user, final Random random) {
+        if (user.contains("Décris chacun de ces films")) {
+            final ObjectNode out = MAPPER.createObjectNode();
+            final Matcher m = LIST_ITEM.matcher(user);
+            while (m.find()) {
+                out.put(m.group(1).trim(), description(m.group(1).trim()));
+            }
+            return out.toString();
+        }
+        final Matcher one = DESCRIBE_ONE.matcher(user);
+        if (one.find()) {
+            return description(one.group(1));
+        }
+        if (user.contains("\"films\"")) {
+            final Matcher count = COUNT.matcher(user);
+            final int k = count.find() ? Integer.parseInt(count.group(1)) : 3;
+            final ObjectNode out = MAPPER.createObjectNode();
+            final ArrayNode films = out.putArray("films");
+            for (String[] film : pick(random, k)) {
+                films.add(film(film));
+            }
+            return out.toString();
+        }
+        if (user.contains("\"title\"") || system.contains("JSON")) {
+            return film(pick(random, 1).get(0)).toString();
+        }
+        final String[] film = pick(random, 1).get(0);
+        return "Je te conseille " + film[0] + " (" + film[1] + "), disponible sur " + film[2]
+                + ". Une mise en scène tendue et des personnages marquants : "
+                + "veux-tu que je l’ajoute à ta liste d’envie ?";
+    }
+
+    private static List<String[]> pick(final Random random, final int k) {
+        final List<String[]> all = new ArrayList<>(List.of(CATALOG));
+        Collections.shuffle(all, random);
+        return all.subList(0, Math.min(Math.max(k, 1), all.size()));
+    }
+
+    private static ObjectNode film(final String[] film) {
+        final ObjectNode node = MAPPER.createObjectNode();
+        node.put("title", film[0]);
+        node.put("pitch", "Un incontournable pour qui aime les récits sous tension.");
+        node.put("year", film[1]);
+        node.put("platform", film[2]);
+        return node;
+    }
+
+    private static String description(final String title) {
+        return title + " plonge le spectateur dans une atmosphère hypnotique, portée par une "
+                + "mise en scène précise. Un film qui reste longtemps en tête.";
+    }
+}
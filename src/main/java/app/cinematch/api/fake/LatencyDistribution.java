@@ -0,0 +1,119 @@
+package app.cinematch.api.fake;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Distribution de latences (en millisecondes) du {@link FakeOllamaServer}.
+ *
+ * <p>Les latences d’un LLM sont fortement asymétriques : la forme
+ * {@link #logNormal(double, double)} (médiane + dispersion) reproduit bien la
+ * longue traîne observée sur Ollama ; les autres formes servent aux tests.</p>
+ *
+ * <p>Syntaxe textuelle ({@link #parse(String)}) :</p>
+ * <ul>
+ *   <li>{@code fixed:50} — toujours 50 ms ;</li>
+ *   <li>{@code uniform:10-200} — uniforme entre 10 et 200 ms ;</li>
+ *   <li>{@code normal:300,50} — moyenne 300 ms, écart-type 50 ms (tronquée à 0) ;</li>
+ *   <li>{@code lognormal:800,0.5} — médiane 800 ms, sigma 0,5.</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /** Aucune latence. */
+    LatencyDistribution NONE = random -> 0L;
+
+    /**
+     * Tire une latence.
+     *
+     * @param random source d’aléa (partagée par le serveur, graine reproductible)
+     * @return latence en millisecondes (≥ 0)
+     */
+    long sampleMs(Random random);
+
+    /**
+     * @param ms latence constante
+     * @return distribution dégénérée
+     */
+    static LatencyDistribution fixed(final long ms) {
+        requireNonNegative(ms);
+        return random -> ms;
+    }
+
+    /**
+     * @param minMs borne basse incluse
+     * @param maxMs borne haute incluse
+     * @return distribution uniforme
+     */
+    static LatencyDistribution uniform(final long minMs, final long maxMs) {
+        requireNonNegative(minMs);
+        if (maxMs < minMs) {
+            throw new IllegalArgumentException("invalid latency bounds: " + minMs + "-" + maxMs);
+        }
+        return random -> minMs + (long) (random.nextDouble() * (maxMs - minMs + 1));
+    }
+
+    /**
+     * @param meanMs   moyenne
+     * @param stddevMs écart-type
+     * @return distribution normale tronquée à 0
+     */
+    static LatencyDistribution normal(final double meanMs, final double stddevMs) {
+        requireNonNegative(meanMs);
+        requireNonNegative(stddevMs);
+        return random -> Math.max(0L, Math.round(meanMs + stddevMs * random.nextGaussian()));
+    }
+
+    /**
+     * @param medianMs médiane
+     * @param sigma    écart-type du logarithme (0,3 : serré ; 1 : très dispersé)
+     * @return distribution log-normale
+     */
+    static LatencyDistribution logNormal(final double medianMs, final double sigma) {
+        requireNonNegative(medianMs);
+        requireNonNegative(sigma);
+        return random -> Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Lit une distribution au format {@code forme:paramètres} (voir la doc de l’interface).
+     * Un nombre seul vaut {@code fixed}.
+     *
+     * @param spec description textuelle
+     * @return distribution correspondante
+     * @throws IllegalArgumentException si la syntaxe est invalide
+     */
+    static LatencyDistribution parse(final String spec) {
+        final String s = spec == null ? "" : spec.trim().toLowerCase(Locale.ROOT);
+        final int colon = s.indexOf(':');
+        final String kind = colon < 0 ? "fixed" : s.substring(0, colon);
+        final String args = colon < 0 ? s : s.substring(colon + 1);
+        try {
+            return switch (kind) {
+                case "fixed" -> fixed(Long.parseLong(args));
+                case "uniform" -> {
+                    final String[] b = args.split("-", 2);
+                    yield uniform(Long.parseLong(b[0].trim()), Long.parseLong(b[1].trim()));
+                }
+                case "normal" -> {
+                    final String[] p = args.split(",", 2);
+                    yield normal(Double.parseDouble(p[0].trim()), Double.parseDouble(p[1].trim()));
+                }
+                case "lognormal" -> {
+                    final String[] p = args.split(",", 2);
+                    yield logNormal(Double.parseDouble(p[0].trim()), Double.parseDouble(p[1].trim()));
+                }
+                default -> throw new IllegalArgumentException("unknown latency distribution: " + spec);
+            };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("invalid latency distribution: " + spec, e);
+        }
+    }
+
+    private static void requireNonNegative(final double value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("latency parameters must be >= 0: " + value);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package app.cinematch.api.replay;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal du trafic LLM : une entrée JSON par ligne (NDJSON), ajoutée au fil de
+ * l’eau par le {@link RecordingProxy} et relue par le {@link ReplayServer}.
+ *
+ * <p>Chaque entrée conserve la requête (JSON, tel qu’envoyé), la réponse brute,
+ * son statut et ses temps observés : délai jusqu’aux en-têtes et durée totale,
+ * en microsecondes.</p>
+ */
+public final class LlmJournal implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Échange enregistré.
+     *
+     * @param seq             rang dans le journal (à partir de 1)
+     * @param at              instant de la requête
+     * @param endpoint        serveur d’origine
+     * @param method          méthode HTTP
+     * @param path            chemin ({@code /api/chat}…)
+     * @param request         corps de la requête (JSON, ou texte brut)
+     * @param status          statut HTTP de la réponse
+     * @param contentType     type de contenu de la réponse
+     * @param response        corps de la réponse
+     * @param firstByteMicros délai jusqu’aux en-têtes de réponse (µs)
+     * @param totalMicros     durée totale de l’échange (µs)
+     */
+    public record Entry(long seq, String at, String endpoint, String method, String path,
+                        JsonNode request, int status, String contentType, String response,
+                        long firstByteMicros, long totalMicros) {
+
+        /** @return clé de correspondance (méthode, chemin, corps canonique) */
+        public String key() {
+            return LlmJournal.key(method, path, request);
+        }
+    }
+
+    private final BufferedWriter writer;
+    private final AtomicLong seq = new AtomicLong();
+
+    private LlmJournal(final BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Ouvre (ou crée) un journal en ajout.
+     *
+     * @param file fichier NDJSON
+     * @return journal prêt à l’écriture
+     * @throws IOException fichier non inscriptible
+     */
+    public static LlmJournal append(final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final LlmJournal journal = new LlmJournal(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        if (Files.size(file) > 0) {
+            journal.seq.set(read(file).size());
+        }
+        return journal;
+    }
+
+    /**
+     * Relit toutes les entrées d’un journal.
+     *
+     * @param file fichier NDJSON
+     * @return entrées dans l’ordre d’enregistrement
+     * @throws IOException fichier illisible ou ligne invalide
+     */
+    public static List<Entry> read(final Path file) throws IOException {
+        final List<Entry> out = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                out.add(MAPPER.readValue(line, Entry.class));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Ajoute un échange (thread-safe, écrit immédiatement).
+     *
+     * @return entrée écrite
+     * @throws IOException écriture impossible
+     */
+    Entry write(final String endpoint, final String method, final String path, final byte[] request,
+                final int status, final String contentType, final String response,
+                final long firstByteMicros, final long totalMicros) throws IOException {
+        synchronized (writer) {
+            final Entry entry = new Entry(seq.incrementAndGet(), Instant.now().toString(), endpoint,
+                    method, path, body(request), status, contentType, response, firstByteMicros, totalMicros);
+            writer.write(MAPPER.writeValueAsString(entry));
+            writer.newLine();
+            writer.flush();
+            return entry;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Clé de correspondance : l’ordre des champs JSON n’y joue pas.
+     *
+     * @param method  méthode HTTP
+     * @param path    chemin
+     * @param request corps de requête
+     * @return clé stable
+     */
+    static String key(final String method, final String path, final JsonNode request) {
+        return method + " " + path + " " + canonical(request);
+    }
+
+    /**
+     * @param request corps brut
+     * @return corps en JSON si possible, sinon texte
+     */
+    static JsonNode body(final byte[] request) {
+        final String text = new String(request, StandardCharsets.UTF_8);
+        if (text.isBlank()) {
+            return TextNode.valueOf("");
+        }
+        try {
+            return MAPPER.readTree(text);
+        } catch (JsonProcessingException e) {
+            return TextNode.valueOf(text);
+        }
+    }
+
+    private static JsonNode canonical(final JsonNode node) {
+        if (node == null) {
+            return TextNode.valueOf("");
+        }
+        if (node.isObject()) {
+            final Map<String, JsonNode> sorted = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                final Map.Entry<String, JsonNode> field = it.next();
+                sorted.put(field.getKey(), canonical(field.getValue()));
+            }
+            final ObjectNode out = MAPPER.createObjectNode();
+            sorted.forEach(out::set);
+            return out;
+        }
+        if (node.isArray()) {
+            final ArrayNode out = MAPPER.createArrayNode();
+            node.forEach(child -> out.add(canonical(child)));
+            return out;
+        }
+        return node;
+    }
+}
@@ -0,0 +1,97 @@
+package app.cinematch.api.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Branche l’enregistrement ou le rejeu du trafic LLM selon les propriétés
+ * système, en réécrivant les URL de serveurs Ollama passées au pool :
+ *
+ * <ul>
+ *   <li>{@code -Dcinematch.llm.record=llm.ndjson} : un {@link RecordingProxy}
+ *       devant chaque serveur, journal commun ;</li>
+ *   <li>{@code -Dcinematch.llm.replay=llm.ndjson} : un {@link ReplayServer} à la
+ *       place des serveurs ; {@code -Dcinematch.llm.replay.scale=0.5} (latences
+ *       × 0,5, défaut 1) et {@code -Dcinematch.llm.replay.strict=true}
+ *       (correspondance exacte obligatoire).</li>
+ * </ul>
+ */
+public final class LlmTraffic {
+
+    /** Journal à écrire. */
+    public static final String PROP_RECORD = "cinematch.llm.record";
+    /** Journal à rejouer. */
+    public static final String PROP_REPLAY = "cinematch.llm.replay";
+    /** Facteur appliqué aux latences rejouées. */
+    public static final String PROP_REPLAY_SCALE = "cinematch.llm.replay.scale";
+    /** Correspondance exacte obligatoire au rejeu. */
+    public static final String PROP_REPLAY_STRICT = "cinematch.llm.replay.strict";
+
+    /** Mandataires, serveurs de rejeu et journaux ouverts. */
+    private static final List<AutoCloseable> STARTED = new ArrayList<>();
+
+    private LlmTraffic() {
+    }
+
+    /**
+     * Démarre l’enregistrement ou le rejeu demandé et renvoie les URL à utiliser.
+     *
+     * @param baseUrls URL des serveurs Ollama, séparées par des virgules
+     * @return URL des mandataires, du serveur de rejeu, ou {@code baseUrls} inchangé
+     * @throws IllegalArgumentException enregistrement et rejeu demandés ensemble
+     * @throws UncheckedIOException     journal inaccessible
+     */
+    public static synchronized String routeFromProperties(final String baseUrls) {
+        final String record = System.getProperty(PROP_RECORD);
+        final String replay = System.getProperty(PROP_REPLAY);
+        if (isSet(record) && isSet(replay)) {
+            throw new IllegalArgumentException(PROP_RECORD + " and " + PROP_REPLAY + " are exclusive");
+        }
+        try {
+            if (isSet(record)) {
+                final LlmJournal journal = LlmJournal.append(Path.of(record));
+                STARTED.add(journal);
+                final List<String> proxies = new ArrayList<>();
+                for (String url : baseUrls.split(",")) {
+                    if (!url.isBlank()) {
+                        final RecordingProxy proxy = new RecordingProxy(url.trim(), journal);
+                        STARTED.add(proxy);
+                        proxies.add(proxy.baseUrl());
+                    }
+                }
+                System.out.println("[LlmTraffic] Enregistrement du trafic LLM -> " + record);
+                return String.join(",", proxies);
+            }
+            if (isSet(replay)) {
+                final double scale = Double.parseDouble(System.getProperty(PROP_REPLAY_SCALE, "1"));
+                final ReplayServer server = ReplayServer.fromJournal(Path.of(replay), scale,
+                        Boolean.getBoolean(PROP_REPLAY_STRICT));
+                STARTED.add(server);
+                System.out.println("[LlmTraffic] Rejeu de " + replay + " (latences x" + scale + ")");
+                return server.baseUrl();
+            }
+            return baseUrls;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Arrête mandataires et serveurs de rejeu, ferme les journaux. */
+    public static synchronized void shutdown() {
+        for (int i = STARTED.size() - 1; i >= 0; i--) {
+            try {
+                STARTED.get(i).close();
+            } catch (Exception e) {
+                // Arrêt au mieux.
+            }
+        }
+        STARTED.clear();
+    }
+
+    private static boolean isSet(final String value) {
+        return value != null && !value.isBlank();
+    }
+}
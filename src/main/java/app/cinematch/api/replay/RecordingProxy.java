@@ -0,0 +1,129 @@
+package app.cinematch.api.replay;
+
+import app.cinematch.api.LocalHttpServers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mandataire HTTP local placé devant un serveur Ollama : relaie chaque requête,
+ * renvoie la réponse au fil de l’eau (flux compris) et consigne les échanges
+ * {@code POST} dans un {@link LlmJournal} avec leurs temps observés.
+ *
+ * <p>Enregistrer au niveau HTTP couvre d’un coup {@code OllamaClient} et les
+ * modèles LangChain4j ({@code OllamaChatModel}), qui visent tous deux les URL du
+ * pool. Les {@code GET} ({@code /api/ps} des contrôles de santé) sont relayés
+ * sans être journalisés. Un serveur injoignable donne un HTTP 502, journalisé
+ * lui aussi pour être rejoué.</p>
+ */
+public final class RecordingProxy implements AutoCloseable {
+
+    private final String target;
+    private final LlmJournal journal;
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final HttpServer server;
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    /**
+     * Démarre le mandataire sur un port libre de {@code 127.0.0.1}.
+     *
+     * @param target  URL de base du vrai serveur (ex. {@code http://localhost:11434})
+     * @param journal journal de destination
+     * @throws IOException écoute impossible
+     */
+    public RecordingProxy(final String target, final LlmJournal journal) throws IOException {
+        this.target = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        this.journal = journal;
+        this.server = LocalHttpServers.create(0, "cinematch-llm-recorder");
+        server.createContext("/", this::relay);
+        server.start();
+    }
+
+    /** @return URL de base du mandataire, à utiliser à la place de la cible */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** @return échanges journalisés */
+    public int recorded() {
+        return recorded.get();
+    }
+
+    @Override
+    public void close() {
+        LocalHttpServers.stop(server);
+    }
+
+    private void relay(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String method = exchange.getRequestMethod();
+            final byte[] request = exchange.getRequestBody().readAllBytes();
+            final String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            final HttpRequest.Builder builder = HttpRequest.newBuilder(
+                            URI.create(target + exchange.getRequestURI()))
+                    .method(method, request.length == 0 ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(request));
+            if (contentType != null) {
+                builder.header("Content-Type", contentType);
+            }
+
+            final long start = System.nanoTime();
+            final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            int status;
+            String responseType;
+            long firstByte;
+            try {
+                final HttpResponse<InputStream> res = http.send(builder.build(),
+                        HttpResponse.BodyHandlers.ofInputStream());
+                firstByte = System.nanoTime();
+                status = res.statusCode();
+                responseType = res.headers().firstValue("Content-Type").orElse("application/json");
+                exchange.getResponseHeaders().add("Content-Type", responseType);
+                exchange.sendResponseHeaders(status, 0);
+                try (InputStream in = res.body()) {
+                    pipe(in, exchange.getResponseBody(), copy);
+                }
+            } catch (IOException e) {
+                firstByte = System.nanoTime();
+                status = 502;
+                responseType = "application/json";
+                final byte[] error = ("{\"error\":\"upstream unavailable: "
+                        + String.valueOf(e.getMessage()).replace("\"", "'") + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                copy.write(error);
+                exchange.getResponseHeaders().add("Content-Type", responseType);
+                exchange.sendResponseHeaders(status, error.length);
+                exchange.getResponseBody().write(error);
+            }
+            final long end = System.nanoTime();
+
+            if ("POST".equals(method)) {
+                journal.write(target, method, exchange.getRequestURI().getPath(), request, status,
+                        responseType, copy.toString(StandardCharsets.UTF_8),
+                        (firstByte - start) / 1_000, (end - start) / 1_000);
+                recorded.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void pipe(final InputStream in, final OutputStream out, final ByteArrayOutputStream copy)
+            throws IOException {
+        final byte[] buffer = new byte[8192];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            out.write(buffer, 0, n);
+            out.flush();
+            copy.write(buffer, 0, n);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package app.cinematch.api.replay;
+
+import app.cinematch.api.LocalHttpServers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serveur HTTP local qui rejoue un {@link LlmJournal} : chaque requête reçoit la
+ * réponse enregistrée pour la même requête, avec la latence enregistrée
+ * multipliée par {@code latencyScale} (1 : temps réels, 0 : immédiat).
+ *
+ * <p>Correspondance :</p>
+ * <ul>
+ *   <li>exacte (méthode, chemin, corps JSON à l’ordre des champs près) ; des
+ *       requêtes identiques reçoivent les réponses enregistrées dans l’ordre, la
+ *       dernière étant resservie ensuite ;</li>
+ *   <li>sinon, hors mode strict, la prochaine entrée non encore servie du même
+ *       chemin (tolère un prompt qui a légèrement changé) ;</li>
+ *   <li>sinon HTTP 404 {@code {"error":"replay: …"}}, compté dans {@link #misses()}.</li>
+ * </ul>
+ *
+ * <p>{@code GET /api/ps} et {@code /api/tags} listent les modèles du journal.</p>
+ */
+public final class ReplayServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<LlmJournal.Entry> entries;
+    private final double latencyScale;
+    private final boolean strict;
+    private final Map<String, Deque<LlmJournal.Entry>> byKey = new HashMap<>();
+    private final Set<Long> served = new HashSet<>();
+    private final Set<String> models = new LinkedHashSet<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final HttpServer server;
+
+    /**
+     * Démarre le rejeu sur {@code 127.0.0.1}.
+     *
+     * @param port         port d’écoute (0 : port libre)
+     * @param entries      entrées du journal
+     * @param latencyScale facteur appliqué aux latences enregistrées (≥ 0)
+     * @param strict       {@code true} : correspondance exacte obligatoire
+     * @throws IOException écoute impossible
+     */
+    public ReplayServer(final int port, final List<LlmJournal.Entry> entries, final double latencyScale,
+                        final boolean strict) throws IOException {
+        if (latencyScale < 0) {
+            throw new IllegalArgumentException("latencyScale must be >= 0: " + latencyScale);
+        }
+        this.entries = List.copyOf(entries);
+        this.latencyScale = latencyScale;
+        this.strict = strict;
+        for (LlmJournal.Entry e : this.entries) {
+            byKey.computeIfAbsent(e.key(), k -> new ArrayDeque<>()).addLast(e);
+            final String model = e.request() == null ? "" : e.request().path("model").asText("");
+            if (!model.isEmpty()) {
+                models.add(model);
+            }
+        }
+        this.server = LocalHttpServers.create(port, "cinematch-llm-replay");
+        server.createContext("/", this::serve);
+        server.start();
+    }
+
+    /**
+     * @param journal      fichier NDJSON
+     * @param latencyScale facteur appliqué aux latences enregistrées
+     * @param strict       correspondance exacte obligatoire
+     * @return serveur démarré sur un port libre
+     * @throws IOException journal illisible ou écoute impossible
+     */
+    public static ReplayServer fromJournal(final Path journal, final double latencyScale, final boolean strict)
+            throws IOException {
+        return new ReplayServer(0, LlmJournal.read(journal), latencyScale, strict);
+    }
+
+    /** @return URL de base, à utiliser à la place du serveur Ollama */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** @return requêtes servies depuis le journal */
+    public int hits() {
+        return hits.get();
+    }
+
+    /** @return requêtes sans réponse enregistrée */
+    public int misses() {
+        return misses.get();
+    }
+
+    @Override
+    public void close() {
+        LocalHttpServers.stop(server);
+    }
+
+    private void serve(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String method = exchange.getRequestMethod();
+            final String path = exchange.getRequestURI().getPath();
+            final byte[] body = exchange.getRequestBody().readAllBytes();
+            if ("GET".equals(method) && ("/api/ps".equals(path) || "/api/tags".equals(path))) {
+                send(exchange, 200, "application/json", models());
+                return;
+            }
+            final LlmJournal.Entry entry = lookup(method, path, LlmJournal.body(body));
+            if (entry == null) {
+                misses.incrementAndGet();
+                send(exchange, 404, "application/json",
+                        "{\"error\":\"replay: no recorded response for " + method + " " + path + "\"}");
+                return;
+            }
+            hits.incrementAndGet();
+            pause(entry.firstByteMicros());
+            exchange.getResponseHeaders().add("Content-Type", entry.contentType());
+            final byte[] bytes = entry.response().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(entry.status(), bytes.length);
+            pause(entry.totalMicros() - entry.firstByteMicros());
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized LlmJournal.Entry lookup(final String method, final String path, final JsonNode request) {
+        final Deque<LlmJournal.Entry> exact = byKey.get(LlmJournal.key(method, path, request));
+        if (exact != null) {
+            final LlmJournal.Entry e = exact.size() > 1 ? exact.pollFirst() : exact.peekFirst();
+            served.add(e.seq());
+            return e;
+        }
+        if (strict) {
+            return null;
+        }
+        for (LlmJournal.Entry e : entries) {
+            if (e.method().equals(method) && e.path().equals(path) && served.add(e.seq())) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private String models() {
+        final ObjectNode out = MAPPER.createObjectNode();
+        final ArrayNode list = out.putArray("models");
+        models.forEach(m -> list.addObject().put("name", m).put("model", m));
+        return out.toString();
+    }
+
+    private void pause(final long recordedMicros) throws InterruptedException {
+        LocalHttpServers.pause((long) (TimeUnit.MICROSECONDS.toNanos(Math.max(0, recordedMicros)) * latencyScale));
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String type,
+                             final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", type);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,29 @@
+package app.cinematch.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Téléchargement d’une affiche par {@code ImageLoader} (hors cache). La pile est
+ * capturée : un téléchargement sur l’EDT fige l’interface.
+ */
+@Name("app.cinematch.ImageFetch")
+@Label("Image Fetch")
+@Category({"CineMatch", "UI"})
+@Description("Téléchargement et décodage d’une affiche")
+public final class ImageFetchEvent extends jdk.jfr.Event {
+
+    @Label("URL")
+    public String url;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,106 @@
+package app.cinematch.jfr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Profil JFR de CineMatch : réglages JDK {@code default} complétés par ceux des
+ * événements de l’application ({@code /jfr/cinematch.jfc}).
+ *
+ * <p>Permet un enregistrement continu sans chemin vers le fichier {@code .jfc} :
+ * {@code -Dcinematch.jfr=cinematch.jfr} démarre un enregistrement glissant
+ * ({@link #MAX_AGE}), écrit dans ce fichier à l’arrêt de la JVM ; à tout moment,
+ * {@code jcmd <pid> JFR.dump name=cinematch} en fait une copie.</p>
+ */
+public final class JfrProfile {
+
+    /** Propriété système : fichier de destination de l’enregistrement continu. */
+    public static final String PROP_RECORDING = "cinematch.jfr";
+    /** Nom de l’enregistrement (pour {@code jcmd JFR.dump}). */
+    public static final String RECORDING_NAME = "cinematch";
+    /** Historique gardé par l’enregistrement continu. */
+    public static final Duration MAX_AGE = Duration.ofMinutes(30);
+    /** Ressource des réglages propres à CineMatch. */
+    private static final String RESOURCE = "/jfr/cinematch.jfc";
+
+    private JfrProfile() { }
+
+    /**
+     * @return réglages {@code default} du JDK surchargés par ceux de CineMatch
+     */
+    public static Map<String, String> settings() {
+        final Map<String, String> settings = new HashMap<>();
+        try {
+            settings.putAll(Configuration.getConfiguration("default").getSettings());
+        } catch (IOException | ParseException e) {
+            // JDK sans default.jfc : on garde au moins les événements CineMatch.
+        }
+        settings.putAll(cinematch().getSettings());
+        return settings;
+    }
+
+    /**
+     * @return configuration des seuls événements CineMatch
+     */
+    public static Configuration cinematch() {
+        try (InputStream in = JfrProfile.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("ressource absente : " + RESOURCE);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("profil JFR invalide : " + RESOURCE, e);
+        }
+    }
+
+    /**
+     * Démarre l’enregistrement continu si {@value #PROP_RECORDING} est définie.
+     *
+     * @return enregistrement démarré, ou {@code null} si non demandé
+     */
+    public static Recording startIfRequested() {
+        final String destination = System.getProperty(PROP_RECORDING);
+        if (destination == null || destination.isBlank()) {
+            return null;
+        }
+        return startContinuous(Path.of(destination));
+    }
+
+    /**
+     * Démarre un enregistrement glissant sur disque, écrit dans
+     * {@code destination} à l’arrêt de la JVM.
+     *
+     * @param destination fichier {@code .jfr} de sortie
+     * @return enregistrement démarré
+     */
+    public static Recording startContinuous(final Path destination) {
+        final Recording recording = new Recording(settings());
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(MAX_AGE);
+        recording.setDumpOnExit(true);
+        try {
+            recording.setDestination(destination);
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        return recording;
+    }
+}
@@ -0,0 +1,47 @@
+package app.cinematch.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Requête HTTP vers {@code /api/chat} d’un serveur Ollama (une par tentative :
+ * réessais et doublons couverts produisent chacun leur événement).
+ */
+@Name("app.cinematch.LlmRequest")
+@Label("LLM Request")
+@Category({"CineMatch", "LLM"})
+@Description("Appel /api/chat d’OllamaClient")
+@StackTrace(false)
+public final class LlmRequestEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Prompt Tokens")
+    public long promptTokens;
+
+    @Label("Eval Tokens")
+    public long evalTokens;
+
+    @Label("Outcome")
+    @Description("ok, ou type d’OllamaException")
+    public String outcome;
+}
@@ -0,0 +1,35 @@
+package app.cinematch.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Lecture ou écriture complète du fichier {@code JsonStorage}. La pile est
+ * capturée : elle désigne l’appelant (ex. un clic traité sur l’EDT).
+ */
+@Name("app.cinematch.StorageIo")
+@Label("Storage I/O")
+@Category({"CineMatch", "Storage"})
+@Description("loadAll / saveAll de JsonStorage")
+public final class StorageIoEvent extends jdk.jfr.Event {
+
+    @Label("Action")
+    @Description("load ou save")
+    public String action;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Entries")
+    public int entries;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
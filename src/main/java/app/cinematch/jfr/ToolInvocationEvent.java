@@ -0,0 +1,34 @@
+package app.cinematch.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Exécution d’une méthode {@code @Tool} de l’agent LangChain4j. Les appels LLM
+ * et accès au stockage de l’outil sont des événements imbriqués sur le même thread.
+ */
+@Name("app.cinematch.ToolInvocation")
+@Label("Tool Invocation")
+@Category({"CineMatch", "Agent"})
+@Description("Appel d’outil décidé par le modèle")
+@StackTrace(false)
+public final class ToolInvocationEvent extends jdk.jfr.Event {
+
+    @Label("Tool")
+    public String tool;
+
+    @Label("Arguments Size")
+    @DataAmount
+    public long argumentsBytes;
+
+    @Label("Result Size")
+    @DataAmount
+    public long resultBytes;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,135 @@
+package app.cinematch.load;
+
+import app.cinematch.api.fake.FakeOllamaConfig;
+import app.cinematch.api.fake.LatencyDistribution;
+import java.util.Objects;
+
+/**
+ * Réglages du {@link LoadGenerator}. Les méthodes {@code withXxx} renvoient une
+ * copie modifiée.
+ *
+ * @param sessions    nombre de sessions simultanées (≥ 1)
+ * @param turns       tours joués par session (≥ 1)
+ * @param ollamaUrl   serveur Ollama réel, ou {@code null} pour le faux serveur intégré
+ * @param model       modèle utilisé
+ * @param stub        réglages du faux serveur (latences, débit, erreurs injectées)
+ * @param think       temps de réflexion de l’utilisateur entre deux tours
+ * @param seed        graine (titres, temps de réflexion, faux serveur)
+ */
+public record LoadConfig(int sessions, int turns, String ollamaUrl, String model,
+                         FakeOllamaConfig stub, LatencyDistribution think, long seed) {
+
+    /** Constructeur canonique. */
+    public LoadConfig {
+        Objects.requireNonNull(model, "model must not be null");
+        Objects.requireNonNull(stub, "stub must not be null");
+        Objects.requireNonNull(think, "think must not be null");
+        if (sessions < 1 || turns < 1) {
+            throw new IllegalArgumentException("sessions and turns must be >= 1");
+        }
+    }
+
+    /**
+     * 8 sessions de 12 tours sur faux serveur ({@link FakeOllamaConfig#defaults()},
+     * profil réaliste d’un 7B), 1 à 3 s de réflexion entre les tours.
+     *
+     * @return réglages par défaut
+     */
+    public static LoadConfig defaults() {
+        return new LoadConfig(8, 12, null, FakeOllamaConfig.DEFAULT_MODEL,
+                FakeOllamaConfig.defaults(), LatencyDistribution.uniform(1_000, 3_000), 42L);
+    }
+
+    /**
+     * Lit des options {@code --clé=valeur} à partir de {@link #defaults()} :
+     * {@code --sessions}, {@code --turns}, {@code --url} (serveur réel),
+     * {@code --model}, {@code --think} (voir {@link LatencyDistribution#parse(String)}),
+     * {@code --seed} et, pour le faux serveur, {@code --stub-latency}, {@code --stub-tps},
+     * {@code --stub-errors}.
+     * {@code --storage} est ignoré ici (lu par {@link LoadGenerator#main(String[])}).
+     *
+     * @param args options
+     * @return réglages correspondants
+     * @throws IllegalArgumentException option inconnue ou valeur invalide
+     */
+    public static LoadConfig fromArgs(final String... args) {
+        LoadConfig c = defaults();
+        for (String arg : args) {
+            final int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("expected --key=value: " + arg);
+            }
+            final String value = arg.substring(eq + 1);
+            c = switch (arg.substring(2, eq)) {
+                case "sessions" -> c.withSessions(Integer.parseInt(value));
+                case "turns" -> c.withTurns(Integer.parseInt(value));
+                case "url" -> c.withOllamaUrl(value);
+                case "model" -> c.withModel(value);
+                case "stub-latency" -> c.withStub(c.stub().withFirstToken(LatencyDistribution.parse(value)));
+                case "stub-tps" -> c.withStub(c.stub().withTokensPerSecond(Double.parseDouble(value)));
+                case "stub-errors" -> c.withStub(c.stub().withErrorRate(Double.parseDouble(value)));
+                case "think" -> c.withThink(LatencyDistribution.parse(value));
+                case "seed" -> c.withSeed(Long.parseLong(value));
+                case "storage" -> c;
+                default -> throw new IllegalArgumentException("unknown option: " + arg);
+            };
+        }
+        return c;
+    }
+
+    /**
+     * @param value nombre de sessions
+     * @return copie modifiée
+     */
+    public LoadConfig withSessions(final int value) {
+        return new LoadConfig(value, turns, ollamaUrl, model, stub, think, seed);
+    }
+
+    /**
+     * @param value tours par session
+     * @return copie modifiée
+     */
+    public LoadConfig withTurns(final int value) {
+        return new LoadConfig(sessions, value, ollamaUrl, model, stub, think, seed);
+    }
+
+    /**
+     * @param value serveur Ollama réel, ou {@code null} pour le faux serveur
+     * @return copie modifiée
+     */
+    public LoadConfig withOllamaUrl(final String value) {
+        return new LoadConfig(sessions, turns, value, model, stub, think, seed);
+    }
+
+    /**
+     * @param value modèle
+     * @return copie modifiée
+     */
+    public LoadConfig withModel(final String value) {
+        return new LoadConfig(sessions, turns, ollamaUrl, value, stub, think, seed);
+    }
+
+    /**
+     * @param value réglages du faux serveur
+     * @return copie modifiée
+     */
+    public LoadConfig withStub(final FakeOllamaConfig value) {
+        return new LoadConfig(sessions, turns, ollamaUrl, model, value, think, seed);
+    }
+
+    /**
+     * @param value temps de réflexion entre deux tours
+     * @return copie modifiée
+     */
+    public LoadConfig withThink(final LatencyDistribution value) {
+        return new LoadConfig(sessions, turns, ollamaUrl, model, stub, value, seed);
+    }
+
+    /**
+     * @param value graine
+     * @return copie modifiée
+     */
+    public LoadConfig withSeed(final long value) {
+        return new LoadConfig(sessions, turns, ollamaUrl, model, stub, think, value);
+    }
+}
@@ -0,0 +1,247 @@
+package app.cinematch.load;
+
+import app.cinematch.MovieRecommenderService;
+import app.cinematch.agent.ChatAgent;
+import app.cinematch.agent.Memory;
+import app.cinematch.agent.Profile;
+import app.cinematch.agent.langchain.LangChain4jAgentBridge;
+import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaEndpointPool;
+import app.cinematch.api.ResiliencePolicy;
+import app.cinematch.api.fake.CannedResponse;
+import app.cinematch.api.fake.FakeOllamaConfig;
+import app.cinematch.api.fake.FakeOllamaServer;
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.Histogram;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
+import app.cinematch.util.JsonStorage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Générateur de charge sans interface : {@code N} sessions indépendantes
+ * ({@link ChatAgent} + {@link LangChain4jAgentBridge}, comme dans {@code App})
+ * jouent en parallèle les conversations de {@link LoadScript} contre le même
+ * serveur Ollama et le même {@link JsonStorage}.
+ *
+ * <p>Sans {@link LoadConfig#ollamaUrl()}, un {@link FakeOllamaServer} est démarré
+ * avec les règles de {@link LoadScript#stubRules()}. Le rapport donne le débit,
+ * les percentiles de latence et les taux d’erreur par type de tour et par outil
+ * exécuté.</p>
+ *
+ * <p>Les timers {@code tool.*} du registre global sont remis à zéro au début du
+ * tir : à lancer dans sa propre JVM.</p>
+ *
+ * <pre>{@code
+ * mvn -q compile exec:java -Dexec.mainClass=app.cinematch.load.LoadGenerator \
+ *     -Dexec.args="--sessions=16 --turns=24 --think=uniform:500-1500"
+ * }</pre>
+ */
+public final class LoadGenerator {
+
+    private final LoadConfig config;
+
+    /**
+     * @param config réglages du tir
+     */
+    public LoadGenerator(final LoadConfig config) {
+        this.config = Objects.requireNonNull(config, "config must not be null");
+    }
+
+    /**
+     * Lance un tir et affiche le rapport.
+     *
+     * @param args options de {@link LoadConfig#fromArgs(String...)} et {@code --storage=…}
+     *             (fichier temporaire par défaut : les données de l’utilisateur ne sont pas touchées)
+     * @throws Exception options invalides ou faux serveur indisponible
+     */
+    public static void main(final String[] args) throws Exception {
+        String storage = null;
+        for (String arg : args) {
+            if (arg.startsWith("--storage=")) {
+                storage = arg.substring("--storage=".length());
+            }
+        }
+        if (storage == null) {
+            final Path tmp = Files.createTempFile("cinematch-load", ".json");
+            Files.delete(tmp);
+            tmp.toFile().deleteOnExit();
+            storage = tmp.toString();
+        }
+        System.setProperty("cinematch.storage", storage);
+        final LoadReport report = new LoadGenerator(LoadConfig.fromArgs(args)).run();
+        System.out.print(report.format());
+        System.exit(0);
+    }
+
+    /**
+     * Joue toutes les sessions jusqu’au bout.
+     *
+     * @return rapport du tir
+     * @throws IOException          faux serveur impossible à démarrer
+     * @throws InterruptedException attente interrompue
+     */
+    public LoadReport run() throws IOException, InterruptedException {
+        final FakeOllamaServer fake = config.ollamaUrl() == null ? new FakeOllamaServer(0, stubConfig()) : null;
+        try {
+            final String url = fake == null ? config.ollamaUrl() : fake.baseUrl();
+            return run(url);
+        } finally {
+            if (fake != null) {
+                fake.close();
+            }
+        }
+    }
+
+    // =========================
+    // INTERNE
+    // =========================
+
+    private LoadReport run(final String url) throws InterruptedException {
+        final List<ChatAgent> agents = new ArrayList<>(config.sessions());
+        for (int i = 0; i < config.sessions(); i++) {
+            agents.add(newSession(url));
+        }
+        final Map<String, Long> toolErrorsBefore = resetToolMetrics();
+        final long storageErrorsBefore = storageErrors();
+        final long localTurnsBefore = localTurns();
+        final Map<String, Histogram> latency = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        final ExecutorService pool = Executors.newFixedThreadPool(config.sessions(), sessionThreads());
+        final long start = System.nanoTime();
+        try {
+            final List<Future<?>> sessions = new ArrayList<>();
+            for (int i = 0; i < agents.size(); i++) {
+                final ChatAgent agent = agents.get(i);
+                final Random random = new Random(config.seed() + i);
+                sessions.add(pool.submit(() -> play(agent, random, latency, failures)));
+            }
+            for (Future<?> session : sessions) {
+                try {
+                    session.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("session aborted", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        final long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        final List<LoadReport.Stats> byTurn = new ArrayList<>();
+        long turns = 0;
+        long errors = 0;
+        for (String kind : new TreeSet<>(latency.keySet())) {
+            final long failed = failures.getOrDefault(kind, new LongAdder()).sum();
+            final LoadReport.Stats stats = LoadReport.Stats.of(kind, latency.get(kind), failed);
+            byTurn.add(stats);
+            turns += stats.calls();
+            errors += failed;
+        }
+        return new LoadReport(config.sessions(), turns, errors, elapsedMs, byTurn,
+                toolStats(toolErrorsBefore), storageErrors() - storageErrorsBefore,
+                localTurns() - localTurnsBefore);
+    }
+
+    /** Une session : conversation scriptée, latence mesurée par type de tour. */
+    private void play(final ChatAgent agent, final Random random,
+                      final Map<String, Histogram> latency, final Map<String, LongAdder> failures) {
+        for (LoadScript.Turn turn : LoadScript.conversation(config.turns(), random)) {
+            final long t0 = System.nanoTime();
+            try {
+                agent.ask(turn.prompt());
+            } catch (RuntimeException e) {
+                failures.computeIfAbsent(turn.tool(), k -> new LongAdder()).increment();
+            }
+            latency.computeIfAbsent(turn.tool(), k -> new Histogram()).record((System.nanoTime() - t0) / 1_000);
+            final long thinkMs = config.think().sampleMs(random);
+            if (thinkMs > 0) {
+                try {
+                    Thread.sleep(thinkMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Session assemblée comme dans {@code App} : client, service, bridge et agent propres. */
+    private ChatAgent newSession(final String url) {
+        final Profile profile = Profile.defaultCinemaExpert();
+        final OllamaClient client = new OllamaClient(OllamaEndpointPool.single(url), config.model(),
+                ResiliencePolicy.defaults());
+        final MovieRecommenderService service = new MovieRecommenderService(client, JsonStorage::addOrUpdate);
+        final LangChain4jAgentBridge bridge = new LangChain4jAgentBridge(url, config.model(), profile, service);
+        return new ChatAgent(client, profile, new Memory(), bridge::ask);
+    }
+
+    private FakeOllamaConfig stubConfig() {
+        final List<CannedResponse> rules = new ArrayList<>(config.stub().canned());
+        rules.addAll(LoadScript.stubRules());
+        return config.stub().withModel(config.model()).withSeed(config.seed()).withCanned(rules);
+    }
+
+    /** Remet à zéro les durées {@code tool.*} et relève les compteurs d’erreurs. */
+    private static Map<String, Long> resetToolMetrics() {
+        final Map<String, Long> errors = new HashMap<>();
+        MetricsRegistry.global().snapshot().forEach((name, metric) -> {
+            if (name.startsWith("tool.") && metric instanceof Timer timer) {
+                timer.histogram().reset();
+            } else if (name.startsWith("tool.") && metric instanceof Counter counter) {
+                errors.put(name, counter.count());
+            }
+        });
+        return errors;
+    }
+
+    private static List<LoadReport.Stats> toolStats(final Map<String, Long> errorsBefore) {
+        final MetricsRegistry registry = MetricsRegistry.global();
+        final List<LoadReport.Stats> out = new ArrayList<>();
+        registry.snapshot().forEach((name, metric) -> {
+            if (name.startsWith("tool.") && metric instanceof Timer timer && timer.histogram().count() > 0) {
+                final String errorsName = name + ".errors";
+                final long errors = registry.counter(errorsName).count() - errorsBefore.getOrDefault(errorsName, 0L);
+                out.add(LoadReport.Stats.of(name.substring("tool.".length()), timer.histogram(), errors));
+            }
+        });
+        return out;
+    }
+
+    private static long storageErrors() {
+        final MetricsRegistry registry = MetricsRegistry.global();
+        return registry.counter("storage.load.errors").count() + registry.counter("storage.save.errors").count();
+    }
+
+    /** Tours servis par le bridge sans le modèle (pré-parseur, multi-actions, routeur local). */
+    private static long localTurns() {
+        return MetricsRegistry.global().counter("agent.turns.local").count();
+    }
+
+    private static ThreadFactory sessionThreads() {
+        final AtomicInteger n = new AtomicInteger();
+        return r -> {
+            final Thread t = new Thread(r, "cinematch-load-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
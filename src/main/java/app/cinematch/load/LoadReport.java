@@ -0,0 +1,97 @@
+package app.cinematch.load;
+
+import app.cinematch.metrics.Histogram;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Résultat d’un tir du {@link LoadGenerator}.
+ *
+ * @param sessions      sessions simultanées
+ * @param turns         tours joués (toutes sessions)
+ * @param errors        tours en échec (exception remontée à l’appelant)
+ * @param elapsedMs     durée du tir
+ * @param byTurn        latence et erreurs par type de tour (outil visé par le script)
+ * @param byTool        latence et erreurs par outil réellement exécuté
+ *                      (métriques {@code tool.<nom>}, erreurs = exceptions et résultats {@code ERROR:})
+ * @param storageErrors erreurs de lecture/écriture du stockage pendant le tir
+ * @param localTurns    tours servis par le bridge sans appel au modèle
+ *                      (compteur {@code agent.turns.local})
+ */
+public record LoadReport(int sessions, long turns, long errors, long elapsedMs,
+                         List<Stats> byTurn, List<Stats> byTool, long storageErrors, long localTurns) {
+
+    /**
+     * Statistiques d’une catégorie.
+     *
+     * @param name   outil ou type de tour
+     * @param calls  nombre d’appels
+     * @param errors nombre d’échecs
+     * @param p50Ms  médiane (ms)
+     * @param p95Ms  95e percentile (ms)
+     * @param p99Ms  99e percentile (ms)
+     */
+    public record Stats(String name, long calls, long errors, double p50Ms, double p95Ms, double p99Ms) {
+
+        /**
+         * @param name   nom
+         * @param micros durées en microsecondes
+         * @param errors nombre d’échecs
+         * @return statistiques de l’histogramme
+         */
+        static Stats of(final String name, final Histogram micros, final long errors) {
+            return new Stats(name, micros.count(), errors, micros.percentile(50) / 1_000.0,
+                    micros.percentile(95) / 1_000.0, micros.percentile(99) / 1_000.0);
+        }
+
+        /** @return part des appels en échec, dans {@code [0, 1]} */
+        public double errorRate() {
+            return calls == 0 ? 0 : (double) errors / calls;
+        }
+    }
+
+    /** Constructeur canonique. */
+    public LoadReport {
+        byTurn = List.copyOf(byTurn);
+        byTool = List.copyOf(byTool);
+    }
+
+    /** @return tours par seconde sur la durée du tir */
+    public double throughput() {
+        return elapsedMs == 0 ? 0 : turns * 1_000.0 / elapsedMs;
+    }
+
+    /** @return part des tours en échec, dans {@code [0, 1]} */
+    public double errorRate() {
+        return turns == 0 ? 0 : (double) errors / turns;
+    }
+
+    /** @return part des tours servis sans LLM, dans {@code [0, 1]} */
+    public double localShare() {
+        return turns == 0 ? 0 : (double) localTurns / turns;
+    }
+
+    /**
+     * @return rapport texte (résumé puis tableaux par tour et par outil)
+     */
+    public String format() {
+        final StringBuilder sb = new StringBuilder(1024);
+        sb.append(String.format(Locale.ROOT,
+                "%d sessions, %d tours en %.1f s : %.2f tours/s, %.1f %% d’erreurs, %d erreurs de stockage%n"
+                        + "%.1f %% des tours servis sans LLM%n",
+                sessions, turns, elapsedMs / 1_000.0, throughput(), errorRate() * 100, storageErrors,
+                localShare() * 100));
+        table(sb, "Par type de tour", byTurn);
+        table(sb, "Par outil exécuté", byTool);
+        return sb.toString();
+    }
+
+    private static void table(final StringBuilder sb, final String title, final List<Stats> rows) {
+        sb.append(String.format(Locale.ROOT, "%n%s%n%-22s %7s %8s %10s %10s %10s%n",
+                title, "", "appels", "erreurs", "p50 ms", "p95 ms", "p99 ms"));
+        for (Stats s : rows) {
+            sb.append(String.format(Locale.ROOT, "%-22s %7d %7.1f%% %10.1f %10.1f %10.1f%n",
+                    s.name(), s.calls(), s.errorRate() * 100, s.p50Ms(), s.p95Ms(), s.p99Ms()));
+        }
+    }
+}
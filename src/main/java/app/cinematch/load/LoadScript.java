@@ -0,0 +1,84 @@
+package app.cinematch.load;
+
+import app.cinematch.api.fake.CannedResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Conversations françaises scriptées jouées par le {@link LoadGenerator}.
+ *
+ * <p>Chaque tour vise un outil de l’agent : ajout groupé (pré-parseur local du
+ * bridge), actions mixtes (local aussi), changements de statut, description et
+ * statistiques (un aller-retour de modèle + l’outil). Les titres sont tirés d’un
+ * petit catalogue, sans point ni « et », pour ne pas changer de chemin.</p>
+ *
+ * <p>{@link #stubRules()} fournit au faux serveur les appels d’outils qu’un vrai
+ * modèle choisirait pour ces phrases.</p>
+ */
+public final class LoadScript {
+
+    /**
+     * Tour de conversation.
+     *
+     * @param tool   outil visé (clé des statistiques par type de tour)
+     * @param prompt message envoyé à l’agent
+     */
+    public record Turn(String tool, String prompt) { }
+
+    private static final List<String> TITLES = List.of(
+            "Heat", "Drive", "Alien", "Amélie", "La Haine", "Intouchables", "Le Samouraï",
+            "Parasite", "Whiplash", "Inception", "Arrival", "Her", "Zodiac", "Prisoners",
+            "Le Dîner de cons", "La Grande Vadrouille", "Oldboy", "Memento", "Fargo", "Sicario",
+            "Portrait de la jeune fille en feu", "Les Intouchables", "Les Choristes",
+            "Mad Max Fury Road", "Blade Runner", "Jules", "Le Prénom", "Ratatouille", "Coco", "Gravity");
+
+    private LoadScript() {
+        // Classe utilitaire : pas d’instanciation.
+    }
+
+    /**
+     * Conversation d’une session : les types de tours tournent dans un ordre fixe,
+     * les titres sont tirés au hasard.
+     *
+     * @param turns  nombre de tours
+     * @param random aléa de la session
+     * @return tours, dans l’ordre
+     */
+    public static List<Turn> conversation(final int turns, final Random random) {
+        final List<Turn> out = new ArrayList<>(turns);
+        for (int i = 0; i < turns; i++) {
+            out.add(switch (i % 6) {
+                case 0 -> new Turn("addManyToWishlist", "Ajoute " + pick(random) + ", " + pick(random)
+                        + ", " + pick(random) + " à ma liste d'envie");
+                case 1 -> new Turn("markAsSeen", "Marque " + pick(random) + " comme déjà vu");
+                case 2 -> new Turn("generateDescription", "Décris-moi le film " + pick(random));
+                case 3 -> new Turn("setStatus", "Passe " + pick(random) + " en pas intéressé");
+                case 4 -> new Turn("mixedActions", "Ajoute " + pick(random) + " et marque "
+                        + pick(random) + " comme déjà vu");
+                default -> new Turn("getStats", "Donne-moi mes stats");
+            });
+        }
+        return out;
+    }
+
+    /**
+     * Règles du faux serveur : un appel d’outil par phrase scriptée passant par le modèle.
+     *
+     * @return règles pour {@code FakeOllamaConfig.withCanned}
+     */
+    public static List<CannedResponse> stubRules() {
+        return List.of(
+                CannedResponse.toolCall("(?i)^marque (.+) comme déjà vu$", "markAsSeen", Map.of("title", "$1")),
+                CannedResponse.toolCall("(?i)^décris-moi le film (.+)$", "generateDescription",
+                        Map.of("title", "$1")),
+                CannedResponse.toolCall("(?i)^passe (.+) en pas intéressé$", "setStatus",
+                        Map.of("title", "$1", "status", "pas_interesse")),
+                CannedResponse.toolCall("(?i)mes stats", "getStats", Map.of("detail", "all")));
+    }
+
+    private static String pick(final Random random) {
+        return TITLES.get(random.nextInt(TITLES.size()));
+    }
+}
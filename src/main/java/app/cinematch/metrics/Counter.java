@@ -0,0 +1,33 @@
+package app.cinematch.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteur monotone (appels, erreurs, hits de cache).
+ *
+ * <p>Basé sur {@link LongAdder} : l’incrément ne se dispute pas de ligne de cache
+ * entre threads.</p>
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    /** Incrémente de 1. */
+    public void inc() {
+        value.increment();
+    }
+
+    /**
+     * @param n valeur à ajouter
+     */
+    public void add(final long n) {
+        value.add(n);
+    }
+
+    /**
+     * @return valeur courante
+     */
+    public long count() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,13 @@
+package app.cinematch.metrics;
+
+/**
+ * Valeur instantanée lue à la demande (taille de file, entrées en stockage…).
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    /**
+     * @return valeur courante
+     */
+    long value();
+}
@@ -0,0 +1,145 @@
+package app.cinematch.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de valeurs entières positives à buckets log-linéaires (à la
+ * HdrHistogram) : chaque puissance de deux est découpée en 16 sous-buckets, soit
+ * une erreur relative d’au plus ~6 % sur toute la plage de {@code long}.
+ *
+ * <p>L’enregistrement est sans verrou (quelques opérations atomiques) : il peut
+ * être appelé sur les chemins chauds. Les lectures sont approximatives pendant des
+ * écritures concurrentes, ce qui suffit à un affichage de métriques.</p>
+ */
+public final class Histogram {
+
+    /** Valeurs enregistrées exactement (un bucket par valeur). */
+    private static final int EXACT = 32;
+    /** Sous-buckets par puissance de deux au-delà de {@link #EXACT}. */
+    private static final int SUB = 16;
+    /** Nombre total de buckets (jusqu’à {@link Long#MAX_VALUE}). */
+    private static final int BUCKETS = EXACT + (62 - 4) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * Enregistre une valeur.
+     *
+     * @param value valeur (les valeurs négatives sont ignorées)
+     */
+    public void record(final long value) {
+        if (value < 0) {
+            return;
+        }
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        // Lecture d’abord : pas d’écriture atomique quand l’extrême ne change pas.
+        long m = max.get();
+        while (value > m && !max.compareAndSet(m, value)) {
+            m = max.get();
+        }
+        m = min.get();
+        while (value < m && !min.compareAndSet(m, value)) {
+            m = min.get();
+        }
+    }
+
+    /**
+     * @return nombre de valeurs enregistrées
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @return somme des valeurs enregistrées
+     */
+    public long sum() {
+        return sum.get();
+    }
+
+    /**
+     * @return moyenne, ou {@code 0} si vide
+     */
+    public double mean() {
+        final long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @return plus grande valeur, ou {@code -1} si vide
+     */
+    public long max() {
+        return count.get() == 0 ? -1 : max.get();
+    }
+
+    /**
+     * @return plus petite valeur, ou {@code -1} si vide
+     */
+    public long min() {
+        return count.get() == 0 ? -1 : min.get();
+    }
+
+    /**
+     * Percentile approché : borne haute du bucket contenant le rang demandé
+     * (bornée par le maximum observé).
+     *
+     * @param p percentile dans {@code [0, 100]}
+     * @return valeur, ou {@code -1} si vide
+     */
+    public long percentile(final double p) {
+        if (p < 0 || p > 100) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]");
+        }
+        final long n = count.get();
+        if (n == 0) {
+            return -1;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /** Remet l’histogramme à zéro. */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(Long.MIN_VALUE);
+        min.set(Long.MAX_VALUE);
+    }
+
+    static int indexOf(final long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        final int msb = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = msb - 4;
+        final int mantissa = (int) (value >>> shift);
+        return EXACT + (shift - 1) * SUB + (mantissa - SUB);
+    }
+
+    static long highestEquivalent(final int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        final int shift = (index - EXACT) / SUB + 1;
+        final long mantissa = (index - EXACT) % SUB + SUB;
+        final long next = (mantissa + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
@@ -0,0 +1,124 @@
+package app.cinematch.metrics;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Export JMX d’un {@link MetricsRegistry} : une MBean par métrique, sous
+ * {@code app.cinematch:type=<Counter|Gauge|Timer|Histogram>,name=<nom>},
+ * visible en direct dans JConsole ou VisualVM.
+ *
+ * <p>Les métriques créées après l’export sont enregistrées au fil de l’eau. Les
+ * timers exposent leurs percentiles en microsecondes.</p>
+ */
+public final class JmxExporter {
+
+    /** Domaine JMX des métriques. */
+    public static final String DOMAIN = "app.cinematch";
+
+    private JmxExporter() { }
+
+    /** Vue JMX d’un compteur. */
+    public interface CounterView {
+        /** @return valeur */
+        long getCount();
+    }
+
+    /** Vue JMX d’une jauge. */
+    public interface GaugeView {
+        /** @return valeur */
+        long getValue();
+    }
+
+    /** Vue JMX d’un histogramme (unités de la métrique ; µs pour un timer). */
+    public interface HistogramView {
+        /** @return nombre de valeurs */
+        long getCount();
+        /** @return moyenne */
+        double getMean();
+        /** @return maximum */
+        long getMax();
+        /** @return médiane */
+        long getP50();
+        /** @return p95 */
+        long getP95();
+        /** @return p99 */
+        long getP99();
+    }
+
+    /**
+     * Exporte le registre dans le serveur MBean de la plateforme.
+     *
+     * @param registry registre à exporter
+     */
+    public static void export(final MetricsRegistry registry) {
+        export(registry, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Exporte le registre dans un serveur MBean donné.
+     *
+     * @param registry registre à exporter
+     * @param server   serveur MBean
+     */
+    public static void export(final MetricsRegistry registry, final MBeanServer server) {
+        registry.onRegistration((name, metric) -> register(server, name, metric));
+    }
+
+    /**
+     * @param type type de métrique ({@code Counter}, {@code Timer}…)
+     * @param name nom de la métrique
+     * @return nom JMX correspondant
+     * @throws JMException nom invalide
+     */
+    public static ObjectName objectName(final String type, final String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    private static void register(final MBeanServer server, final String name, final Object metric) {
+        try {
+            final StandardMBean bean;
+            final String type;
+            if (metric instanceof Counter counter) {
+                type = "Counter";
+                bean = new StandardMBean((CounterView) counter::count, CounterView.class);
+            } else if (metric instanceof Gauge gauge) {
+                type = "Gauge";
+                bean = new StandardMBean((GaugeView) gauge::value, GaugeView.class);
+            } else if (metric instanceof Timer timer) {
+                type = "Timer";
+                bean = new StandardMBean(view(timer.histogram()), HistogramView.class);
+            } else if (metric instanceof Histogram histogram) {
+                type = "Histogram";
+                bean = new StandardMBean(view(histogram), HistogramView.class);
+            } else {
+                return;
+            }
+            final ObjectName objectName = objectName(type, name);
+            if (server.isRegistered(objectName)) {
+                if (!(metric instanceof Gauge)) {
+                    return;
+                }
+                // Jauge redéclarée : la nouvelle source remplace l’ancienne.
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bean, objectName);
+        } catch (JMException e) {
+            System.err.println("[JmxExporter] Export impossible de " + name + " : " + e.getMessage());
+        }
+    }
+
+    private static HistogramView view(final Histogram histogram) {
+        return new HistogramView() {
+            @Override public long getCount() { return histogram.count(); }
+            @Override public double getMean() { return histogram.mean(); }
+            @Override public long getMax() { return histogram.max(); }
+            @Override public long getP50() { return histogram.percentile(50); }
+            @Override public long getP95() { return histogram.percentile(95); }
+            @Override public long getP99() { return histogram.percentile(99); }
+        };
+    }
+}
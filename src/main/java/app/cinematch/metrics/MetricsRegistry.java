@@ -0,0 +1,115 @@
+package app.cinematch.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Registre de métriques nommées : compteurs, jauges, histogrammes et timers.
+ *
+ * <p>Les métriques sont créées au premier accès et réutilisées ensuite ; les
+ * chemins chauds gardent leur référence dans un champ pour n’en payer la
+ * recherche qu’une fois. Noms en minuscules séparés par des points
+ * (ex. {@code storage.load}, {@code llm.chat.recommendRandom}).</p>
+ *
+ * <p>Le registre global ({@link #global()}) est exporté en JMX par
+ * {@link JmxExporter}.</p>
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, Object>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return registre de l’application
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @param name nom
+     * @return compteur (créé si besoin)
+     */
+    public Counter counter(final String name) {
+        return get(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * @param name nom
+     * @return timer (créé si besoin)
+     */
+    public Timer timer(final String name) {
+        return get(name, Timer.class, Timer::new);
+    }
+
+    /**
+     * @param name nom
+     * @return histogramme de valeurs (créé si besoin)
+     */
+    public Histogram histogram(final String name) {
+        return get(name, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Déclare (ou remplace) une jauge lue à la demande.
+     *
+     * @param name  nom
+     * @param value source de la valeur
+     * @return jauge enregistrée
+     */
+    public Gauge gauge(final String name, final LongSupplier value) {
+        final Gauge gauge = value::getAsLong;
+        final Object previous = metrics.put(name, gauge);
+        if (previous != null && !(previous instanceof Gauge)) {
+            metrics.put(name, previous);
+            throw new IllegalArgumentException(name + " is already a " + previous.getClass().getSimpleName());
+        }
+        listeners.forEach(l -> l.accept(name, gauge));
+        return gauge;
+    }
+
+    /**
+     * @return toutes les métriques par nom (ordre alphabétique)
+     */
+    public Map<String, Object> snapshot() {
+        return new TreeMap<>(metrics);
+    }
+
+    /**
+     * Observe les métriques existantes puis chaque nouvelle métrique.
+     *
+     * @param listener appelé avec le nom et la métrique
+     */
+    public void onRegistration(final BiConsumer<String, Object> listener) {
+        listeners.add(listener);
+        metrics.forEach(listener);
+    }
+
+    private <M> M get(final String name, final Class<M> type, final java.util.function.Supplier<M> factory) {
+        final Object existing = metrics.get(name);
+        if (existing != null) {
+            return cast(name, existing, type);
+        }
+        final M created = factory.get();
+        final Object raced = metrics.putIfAbsent(name, created);
+        if (raced != null) {
+            return cast(name, raced, type);
+        }
+        listeners.forEach(l -> l.accept(name, created));
+        return created;
+    }
+
+    private static <M> M cast(final String name, final Object metric, final Class<M> type) {
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(name + " is already a " + metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+}
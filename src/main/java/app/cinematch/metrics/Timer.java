@@ -0,0 +1,58 @@
+package app.cinematch.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Mesure de durées, en microsecondes, dans un {@link Histogram}.
+ *
+ * <pre>{@code
+ * long start = timer.start();
+ * try { ... } finally { timer.stop(start); }
+ * }</pre>
+ */
+public final class Timer {
+
+    private final Histogram micros = new Histogram();
+
+    /**
+     * @return instant de départ à passer à {@link #stop(long)}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis {@code startNanos}.
+     *
+     * @param startNanos valeur renvoyée par {@link #start()}
+     * @return durée en microsecondes
+     */
+    public long stop(final long startNanos) {
+        final long elapsed = (System.nanoTime() - startNanos) / 1_000;
+        micros.record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Chronomètre {@code work}.
+     *
+     * @param work traitement
+     * @param <T>  type du résultat
+     * @return résultat de {@code work}
+     */
+    public <T> T time(final Supplier<T> work) {
+        final long start = start();
+        try {
+            return work.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    /**
+     * @return histogramme des durées (µs)
+     */
+    public Histogram histogram() {
+        return micros;
+    }
+}
@@ -0,0 +1,38 @@
+package app.cinematch.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Bloc {@code options} d’une requête Ollama : paramètres de génération.
+ *
+ * <p>Seuls les champs renseignés sont sérialisés ({@link JsonInclude.Include#NON_NULL}) ;
+ * les autres gardent la valeur par défaut du modèle côté serveur.</p>
+ *
+ * <p>Exemple d’utilisation :
+ * <pre>{@code
+ * LlmOptions opts = new LlmOptions(200, 2048, 0.8);
+ * // sérialisé en {"num_predict":200,"num_ctx":2048,"temperature":0.8}
+ * }</pre>
+ *
+ * @param numPredict  nombre maximal de tokens générés ({@code num_predict}), ou {@code null}
+ * @param numCtx      taille de la fenêtre de contexte ({@code num_ctx}), ou {@code null}
+ * @param temperature température d’échantillonnage, ou {@code null}
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LlmOptions(
+        @JsonProperty("num_predict") Integer numPredict,
+        @JsonProperty("num_ctx") Integer numCtx,
+        @JsonProperty("temperature") Double temperature) {
+
+    /**
+     * Indique si aucun paramètre n’est renseigné.
+     *
+     * @return {@code true} si le bloc serait vide une fois sérialisé
+     */
+    public boolean isEmpty() {
+        return numPredict == null && numCtx == null && temperature == null;
+    }
+}
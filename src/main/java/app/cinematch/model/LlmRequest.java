@@ -1,6 +1,8 @@
 package app.cinematch.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
 /**
@@ -11,8 +13,14 @@ import java.util.List;
  *   <li><b>model</b> — le nom du modèle utilisé (ex. : {@code "mistral"}, {@code "llama3"})</li>
  *   <li><b>messages</b> — la liste des messages constituant le contexte de la conversation</li>
  *   <li><b>stream</b> — indique si la réponse doit être envoyée en flux continu (streaming)</li>
+ *   <li><b>format</b> — sortie structurée : {@code "json"} ou un schéma JSON (optionnel)</li>
+ *   <li><b>options</b> — paramètres de génération {@link LlmOptions} (optionnel)</li>
+ *   <li><b>keep_alive</b> — durée de maintien du modèle en mémoire, ex. {@code "30m"} (optionnel)</li>
  * </ul>
  *
+ * <p>Les champs optionnels à {@code null} ne sont pas sérialisés : une requête sans
+ * options produit exactement le même JSON qu’avant leur introduction.</p>
+ *
  * <p>L’annotation {@link JsonIgnoreProperties} avec {@code ignoreUnknown = true}
  * permet d’ignorer les champs non reconnus lors de la désérialisation JSON,
  * rendant cette classe plus tolérante aux changements d’API.</p>
@@ -31,22 +39,46 @@ import java.util.List;
  *
  * @param model    le nom du modèle LLM à interroger
  * @param messages la liste des messages constituant le contexte de la requête
- * @param stream   {@code true} si la réponse doit être transmise en streaming, {@code false} sinon
+ * @param stream    {@code true} si la réponse doit être transmise en streaming, {@code false} sinon
+ * @param format    {@code "json"}, un schéma JSON, ou {@code null} pour du texte libre
+ * @param options   paramètres de génération, ou {@code null}
+ * @param keepAlive durée de maintien du modèle en mémoire, ou {@code null}
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record LlmRequest(String model, List<LlmMessage> messages, boolean stream) {
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LlmRequest(String model, List<LlmMessage> messages, boolean stream,
+                         Object format, LlmOptions options,
+                         @JsonProperty("keep_alive") String keepAlive) {
 
     /**
      * Constructeur canonique avec copie défensive pour garantir l’immuabilité.
      *
-     * @param model    le nom du modèle à utiliser
-     * @param messages la liste des messages d’entrée (copiée de manière immuable)
-     * @param stream   indicateur d’utilisation du mode streaming
+     * @param model     le nom du modèle à utiliser
+     * @param messages  la liste des messages d’entrée (copiée de manière immuable)
+     * @param stream    indicateur d’utilisation du mode streaming
+     * @param format    format de sortie structurée (peut être {@code null})
+     * @param options   paramètres de génération (un bloc vide est traité comme {@code null})
+     * @param keepAlive durée de maintien du modèle en mémoire (peut être {@code null})
      */
-    public LlmRequest(String model, List<LlmMessage> messages, boolean stream) {
+    public LlmRequest(String model, List<LlmMessage> messages, boolean stream,
+                      Object format, LlmOptions options, String keepAlive) {
         this.model = model;
         this.messages = List.copyOf(messages != null ? messages : List.of());
         this.stream = stream;
+        this.format = format;
+        this.options = (options == null || options.isEmpty()) ? null : options;
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Constructeur sans sortie structurée ni options.
+     *
+     * @param model    le nom du modèle à utiliser
+     * @param messages la liste des messages d’entrée
+     * @param stream   indicateur d’utilisation du mode streaming
+     */
+    public LlmRequest(String model, List<LlmMessage> messages, boolean stream) {
+        this(model, messages, stream, null, null, null);
     }
 
     /**
@@ -1,6 +1,7 @@
 package app.cinematch.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Représente la réponse renvoyée par un modèle de langage (LLM),
@@ -10,6 +11,10 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
  * du modèle de langage. Ce message inclut le rôle (souvent {@code "assistant"})
  * et le contenu textuel généré.</p>
  *
+ * <p>Ollama y joint ses mesures : nombre de tokens du prompt et de la sortie, et
+ * durées (en nanosecondes) de chargement du modèle, d’évaluation du prompt, de
+ * génération et totale. Elles valent {@code null} si le serveur ne les envoie pas.</p>
+ *
  * <p>L’annotation {@link JsonIgnoreProperties} avec {@code ignoreUnknown = true}
  * permet d’ignorer les champs inconnus lors de la désérialisation JSON,
  * afin d’assurer la compatibilité avec différentes versions d’API Ollama.</p>
@@ -20,9 +25,38 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
  * System.out.println(resp.message().content());
  * }</pre>
  *
- * @param message le message généré par le modèle (rôle et contenu)
+ * @param message            le message généré par le modèle (rôle et contenu)
+ * @param promptEvalCount    tokens du prompt évalués
+ * @param promptEvalDuration durée d’évaluation du prompt (ns)
+ * @param evalCount          tokens générés
+ * @param evalDuration       durée de génération (ns)
+ * @param loadDuration       durée de chargement du modèle (ns)
+ * @param totalDuration      durée totale côté serveur (ns)
  * @see LlmMessage
  * @see LlmRequest
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record LlmResponse(LlmMessage message) { }
+public record LlmResponse(LlmMessage message,
+                          @JsonProperty("prompt_eval_count") Long promptEvalCount,
+                          @JsonProperty("prompt_eval_duration") Long promptEvalDuration,
+                          @JsonProperty("eval_count") Long evalCount,
+                          @JsonProperty("eval_duration") Long evalDuration,
+                          @JsonProperty("load_duration") Long loadDuration,
+                          @JsonProperty("total_duration") Long totalDuration) {
+
+    /**
+     * Réponse sans mesures.
+     *
+     * @param message le message généré par le modèle
+     */
+    public LlmResponse(LlmMessage message) {
+        this(message, null, null, null, null, null, null);
+    }
+
+    /**
+     * @return {@code true} si Ollama a fourni ses compteurs de tokens
+     */
+    public boolean hasUsage() {
+        return evalCount != null || promptEvalCount != null;
+    }
+}
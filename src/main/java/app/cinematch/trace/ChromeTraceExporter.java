@@ -0,0 +1,75 @@
+package app.cinematch.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Export de spans au format JSON « Trace Event » de Chrome, lisible par
+ * {@code chrome://tracing}, Perfetto ou Speedscope.
+ *
+ * <p>Chaque span devient un événement complet ({@code "ph":"X"}) sur la ligne de
+ * son thread ; les spans imbriqués s’empilent visuellement. Les identifiants de
+ * trace, de span et de parent sont gardés dans {@code args}, avec les attributs.</p>
+ */
+public final class ChromeTraceExporter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ChromeTraceExporter() { }
+
+    /**
+     * @param spans  spans terminés
+     * @param tracer traceur d’origine (horloge)
+     * @return document {@code {"traceEvents":[...]}}
+     */
+    public static ObjectNode toJson(final List<Span> spans, final Tracer tracer) {
+        final ObjectNode root = MAPPER.createObjectNode();
+        root.put("displayTimeUnit", "ms");
+        final ArrayNode events = root.putArray("traceEvents");
+        final Set<Long> threads = new HashSet<>();
+        for (Span span : spans) {
+            if (threads.add(span.threadId())) {
+                final ObjectNode meta = events.addObject();
+                meta.put("name", "thread_name");
+                meta.put("ph", "M");
+                meta.put("pid", 1);
+                meta.put("tid", span.threadId());
+                meta.putObject("args").put("name", span.threadName());
+            }
+            final ObjectNode event = events.addObject();
+            event.put("name", span.name());
+            event.put("cat", span.category());
+            event.put("ph", "X");
+            event.put("ts", tracer.toEpochMicros(span.startNanos()));
+            event.put("dur", Math.max(1L, span.durationNanos() / 1000L));
+            event.put("pid", 1);
+            event.put("tid", span.threadId());
+            final ObjectNode args = event.putObject("args");
+            args.put("traceId", span.traceId());
+            args.put("spanId", span.spanId());
+            args.put("parentId", span.parentId());
+            for (Map.Entry<String, Object> tag : span.tags().entrySet()) {
+                args.putPOJO(tag.getKey(), tag.getValue());
+            }
+        }
+        return root;
+    }
+
+    /**
+     * @param spans  spans terminés
+     * @param tracer traceur d’origine (horloge)
+     * @param file   fichier de sortie
+     * @throws IOException erreur d’écriture
+     */
+    public static void write(final List<Span> spans, final Tracer tracer, final Path file) throws IOException {
+        MAPPER.writeValue(file.toFile(), toJson(spans, tracer));
+    }
+}
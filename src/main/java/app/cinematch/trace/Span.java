@@ -0,0 +1,136 @@
+package app.cinematch.trace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Intervalle de temps nommé d’une trace (un tour de chat, un appel LLM, une
+ * lecture du stockage…), rattaché à son span parent.
+ *
+ * <p>Ouvert par {@link Tracer#start(String, String)} et fermé par
+ * {@link #close()}, idéalement dans un {@code try-with-resources}. Quand le
+ * traçage est désactivé, {@link #NOOP} est renvoyé : ses méthodes ne font rien.</p>
+ */
+public final class Span implements AutoCloseable {
+
+    /** Span inerte renvoyé quand le traçage est désactivé. */
+    public static final Span NOOP = new Span(null, 0, 0, null, "", "", 0L);
+
+    private final Tracer tracer;
+    private final long traceId;
+    private final long spanId;
+    private final Span parent;
+    private final String name;
+    private final String category;
+    private final long startNanos;
+    private final long threadId;
+    private final String threadName;
+    private final Map<String, Object> tags = new LinkedHashMap<>();
+    private volatile long endNanos;
+
+    Span(final Tracer tracer, final long traceId, final long spanId, final Span parent,
+         final String name, final String category, final long startNanos) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parent = parent;
+        this.name = name;
+        this.category = category;
+        this.startNanos = startNanos;
+        final Thread thread = Thread.currentThread();
+        this.threadId = thread.getId();
+        this.threadName = thread.getName();
+    }
+
+    /**
+     * Ajoute un attribut (modèle, nombre d’entrées, outil…).
+     *
+     * @param key   nom
+     * @param value valeur (chaîne, nombre ou booléen)
+     * @return ce span
+     */
+    public Span tag(final String key, final Object value) {
+        if (tracer != null) {
+            synchronized (tags) {
+                tags.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /** Termine le span (sans effet s’il l’est déjà). */
+    @Override
+    public void close() {
+        if (tracer != null && endNanos == 0) {
+            endNanos = Math.max(tracer.nanoTime(), startNanos + 1);
+            tracer.finish(this);
+        }
+    }
+
+    /** @return identifiant de la trace (celui du span racine) */
+    public long traceId() {
+        return traceId;
+    }
+
+    /** @return identifiant du span */
+    public long spanId() {
+        return spanId;
+    }
+
+    /** @return identifiant du parent, ou 0 pour une racine */
+    public long parentId() {
+        return parent == null ? 0 : parent.spanId;
+    }
+
+    Span parent() {
+        return parent;
+    }
+
+    /** @return nom (ex. {@code llm.chat}) */
+    public String name() {
+        return name;
+    }
+
+    /** @return catégorie (ex. {@code agent}, {@code llm}, {@code storage}) */
+    public String category() {
+        return category;
+    }
+
+    /** @return début, en nanos de l’horloge du traceur */
+    public long startNanos() {
+        return startNanos;
+    }
+
+    /** @return fin, en nanos de l’horloge du traceur, ou 0 si en cours */
+    public long endNanos() {
+        return endNanos;
+    }
+
+    /** @return durée en nanos, ou 0 si en cours */
+    public long durationNanos() {
+        return endNanos == 0 ? 0 : endNanos - startNanos;
+    }
+
+    /** @return identifiant du thread d’ouverture */
+    public long threadId() {
+        return threadId;
+    }
+
+    /** @return nom du thread d’ouverture */
+    public String threadName() {
+        return threadName;
+    }
+
+    /** @return copie des attributs */
+    public Map<String, Object> tags() {
+        synchronized (tags) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        }
+    }
+
+    /** @return {@code true} pour un span d’une trace réelle */
+    public boolean isRecording() {
+        return tracer != null;
+    }
+}
@@ -0,0 +1,277 @@
+package app.cinematch.trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Traçage par spans d’un tour de chat, de l’agent jusqu’aux appels LLM, aux outils
+ * et au stockage.
+ *
+ * <p>Le span courant est porté par le thread : un span ouvert pendant un autre en
+ * devient l’enfant. Pour suivre un traitement délégué à un autre thread, capturer
+ * {@link #current()} et exécuter le travail via {@link #callWithin(Span, Supplier)}.</p>
+ *
+ * <p>Désactivé par défaut : {@link #start(String, String)} renvoie alors
+ * {@link Span#NOOP} (une lecture volatile). Activé, les derniers spans terminés
+ * ({@link #DEFAULT_CAPACITY}) sont gardés en mémoire ; une trace racine plus lente
+ * que le seuil peut être écrite au format Chrome trace
+ * ({@link #dumpSlowTraces(Path, Duration)}, ou
+ * {@code -Dcinematch.trace=<dossier>} et {@code -Dcinematch.trace.slowMs=<ms>}),
+ * à ouvrir dans {@code chrome://tracing} ou Perfetto.</p>
+ */
+public final class Tracer {
+
+    /** Propriété système : dossier des traces lentes (active le traçage). */
+    public static final String PROP_DIR = "cinematch.trace";
+    /** Propriété système : seuil des traces lentes, en millisecondes. */
+    public static final String PROP_SLOW_MS = "cinematch.trace.slowMs";
+    /** Seuil par défaut d’une trace lente. */
+    public static final Duration DEFAULT_SLOW = Duration.ofSeconds(2);
+    /** Nombre de spans terminés gardés par défaut. */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final Tracer GLOBAL = new Tracer(DEFAULT_CAPACITY, System::nanoTime);
+
+    private final int capacity;
+    private final LongSupplier clock;
+    private final long epochNanos;
+    private final long epochMicros;
+    private final AtomicLong ids = new AtomicLong();
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final Deque<Span> finished = new ArrayDeque<>();
+    private volatile boolean enabled;
+    private volatile Duration slowThreshold;
+    private volatile Consumer<List<Span>> slowSink;
+
+    /**
+     * @param capacity nombre de spans terminés gardés (≥ 1)
+     */
+    public Tracer(final int capacity) {
+        this(capacity, System::nanoTime);
+    }
+
+    Tracer(final int capacity, final LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.clock = clock;
+        this.epochNanos = clock.getAsLong();
+        this.epochMicros = System.currentTimeMillis() * 1000L;
+    }
+
+    /**
+     * @return traceur de l’application
+     */
+    public static Tracer global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Active le traceur global si {@value #PROP_DIR} est définie.
+     *
+     * @return {@code true} si le traçage a été activé
+     */
+    public static boolean configureFromProperties() {
+        final String dir = System.getProperty(PROP_DIR);
+        if (dir == null || dir.isBlank()) {
+            return false;
+        }
+        final long slowMs = Long.getLong(PROP_SLOW_MS, DEFAULT_SLOW.toMillis());
+        GLOBAL.dumpSlowTraces(Path.of(dir), Duration.ofMillis(slowMs));
+        GLOBAL.setEnabled(true);
+        return true;
+    }
+
+    /**
+     * @param enabled active ou désactive l’enregistrement des spans
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return {@code true} si les spans sont enregistrés
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ouvre un span, enfant du span courant du thread, et en fait le span courant.
+     *
+     * @param name     nom (ex. {@code bridge.ask})
+     * @param category catégorie (ex. {@code agent})
+     * @return span à fermer, ou {@link Span#NOOP} si le traçage est désactivé
+     */
+    public Span start(final String name, final String category) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        final Span parent = current.get();
+        final long id = ids.incrementAndGet();
+        final Span span = new Span(this, parent == null ? id : parent.traceId(), id, parent,
+                name, category, clock.getAsLong());
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Exécute {@code work} dans un span {@code name}, fermé à la fin (même en
+     * cas d’exception) : pour les blocs qui n’ont rien à ajouter au span.
+     *
+     * @param name     nom du span
+     * @param category catégorie du span
+     * @param work     traitement
+     * @param <T>      type du résultat
+     * @return résultat de {@code work}
+     */
+    public <T> T call(final String name, final String category, final Supplier<T> work) {
+        final Span span = start(name, category);
+        try {
+            return work.get();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * @return span courant du thread, ou {@link Span#NOOP}
+     */
+    public Span current() {
+        final Span span = current.get();
+        return span == null ? Span.NOOP : span;
+    }
+
+    /**
+     * Exécute {@code work} avec {@code parent} comme span courant (travail délégué
+     * à un autre thread).
+     *
+     * @param parent span capturé sur le thread d’origine
+     * @param work   traitement
+     * @param <T>    type du résultat
+     * @return résultat de {@code work}
+     */
+    public <T> T callWithin(final Span parent, final Supplier<T> work) {
+        if (parent == null || !parent.isRecording()) {
+            return work.get();
+        }
+        final Span previous = current.get();
+        current.set(parent);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Écrit chaque trace racine plus lente que {@code threshold} dans {@code dir}
+     * ({@code trace-<horodatage>-<id>.json}, format Chrome trace).
+     *
+     * @param dir       dossier de sortie (créé si besoin)
+     * @param threshold durée minimale d’une trace écrite
+     */
+    public void dumpSlowTraces(final Path dir, final Duration threshold) {
+        Objects.requireNonNull(dir, "dir must not be null");
+        onSlowTrace(threshold, spans -> {
+            final Span root = spans.get(spans.size() - 1);
+            try {
+                Files.createDirectories(dir);
+                ChromeTraceExporter.write(spans, this,
+                        dir.resolve("trace-" + System.currentTimeMillis() + "-" + root.traceId() + ".json"));
+            } catch (IOException e) {
+                System.err.println("[Tracer] Écriture de la trace impossible : " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @param threshold durée minimale d’une trace transmise
+     * @param sink      reçoit les spans de chaque trace lente (racine en dernier)
+     */
+    public void onSlowTrace(final Duration threshold, final Consumer<List<Span>> sink) {
+        this.slowThreshold = Objects.requireNonNull(threshold, "threshold must not be null");
+        this.slowSink = sink;
+    }
+
+    /**
+     * @return copie des spans terminés, dans l’ordre de fin
+     */
+    public List<Span> spans() {
+        synchronized (finished) {
+            return new ArrayList<>(finished);
+        }
+    }
+
+    /**
+     * @param traceId identifiant de trace
+     * @return spans terminés de cette trace, dans l’ordre de fin
+     */
+    public List<Span> trace(final long traceId) {
+        final List<Span> out = new ArrayList<>();
+        synchronized (finished) {
+            for (Span span : finished) {
+                if (span.traceId() == traceId) {
+                    out.add(span);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Oublie les spans terminés. */
+    public void reset() {
+        synchronized (finished) {
+            finished.clear();
+        }
+    }
+
+    /**
+     * @param nanos instant de l’horloge du traceur
+     * @return instant correspondant en microsecondes depuis l’époque Unix
+     */
+    long toEpochMicros(final long nanos) {
+        return epochMicros + (nanos - epochNanos) / 1000L;
+    }
+
+    long nanoTime() {
+        return clock.getAsLong();
+    }
+
+    void finish(final Span span) {
+        synchronized (finished) {
+            if (finished.size() == capacity) {
+                finished.pollFirst();
+            }
+            finished.addLast(span);
+        }
+        if (current.get() == span) {
+            restore(span.parent());
+        }
+        final Consumer<List<Span>> sink = slowSink;
+        if (span.parent() == null && sink != null
+                && span.durationNanos() >= slowThreshold.toNanos()) {
+            sink.accept(trace(span.traceId()));
+        }
+    }
+
+    private void restore(final Span span) {
+        if (span == null) {
+            current.remove();
+        } else {
+            current.set(span);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package app.cinematch.ui.swing;
+
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.Gauge;
+import app.cinematch.metrics.Histogram;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.event.HierarchyEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Carte de diagnostic (cachée) : état de l’application en direct, sans profileur.
+ *
+ * <p>Affiche, à partir de {@link MetricsRegistry#global()} :</p>
+ * <ul>
+ *   <li>les latences LLM par opération (p50 / p95 / p99, en ms) ;</li>
+ *   <li>les requêtes LLM en cours et en file ;</li>
+ *   <li>les taux de succès des caches (descriptions, affiches) ;</li>
+ *   <li>les durées de lecture / écriture du stockage et le nombre d’entrées ;</li>
+ *   <li>le tas Java, le nombre de blocages de l’EDT et, si {@link EdtWatchdog} est
+ *       installé, les trois cadres les plus coûteux.</li>
+ * </ul>
+ *
+ * <p>Ouverte par {@code Ctrl+Maj+D} depuis {@link MainFrame}. Un {@link javax.swing.Timer}
+ * Swing rafraîchit le tableau chaque seconde, uniquement quand la carte est
+ * visible : cachée, elle ne coûte rien.</p>
+ */
+public class DiagnosticsPanel extends JPanel {
+
+    /** Période de rafraîchissement (ms). */
+    static final int REFRESH_MS = 1000;
+
+    /** Registre lu par le panneau. */
+    private final MetricsRegistry registry;
+
+    /** Modèle du tableau (indicateur, valeur). */
+    private final DefaultTableModel model = new DefaultTableModel(new Object[]{"Indicateur", "Valeur"}, 0) {
+        @Override
+        public boolean isCellEditable(final int row, final int column) {
+            return false;
+        }
+    };
+
+    /** Minuterie de rafraîchissement (active seulement quand le panneau est affiché). */
+    private final javax.swing.Timer refresher = new javax.swing.Timer(REFRESH_MS, e -> refresh());
+
+    /** Bouton permettant de revenir au menu principal. */
+    private final JButton backBtn = new JButton("⬅ Retour au menu");
+
+    /**
+     * @param parent fenêtre principale (navigation)
+     */
+    public DiagnosticsPanel(final MainFrame parent) {
+        this(MetricsRegistry.global(), parent::showCard);
+    }
+
+    /**
+     * @param registry  registre de métriques à afficher
+     * @param navigator navigation entre cartes
+     */
+    DiagnosticsPanel(final MetricsRegistry registry, final java.util.function.Consumer<String> navigator) {
+        this.registry = registry;
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel topBar = new JPanel(new BorderLayout());
+        topBar.add(backBtn, BorderLayout.WEST);
+        JLabel title = new JLabel("Diagnostic", SwingConstants.CENTER);
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 20f));
+        topBar.add(title, BorderLayout.CENTER);
+        add(topBar, BorderLayout.NORTH);
+
+        JTable table = new JTable(model);
+        table.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        backBtn.addActionListener(e -> navigator.accept("home"));
+        refresher.setCoalesce(true);
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                if (isShowing()) {
+                    refresh();
+                    refresher.start();
+                } else {
+                    refresher.stop();
+                }
+            }
+        });
+        refresh();
+    }
+
+    /** Relit les métriques et met le tableau à jour (sur l’EDT). */
+    void refresh() {
+        final List<String[]> rows = rows(registry);
+        if (model.getRowCount() != rows.size()) {
+            model.setRowCount(0);
+            for (String[] row : rows) {
+                model.addRow(row);
+            }
+            return;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            for (int col = 0; col < 2; col++) {
+                if (!rows.get(i)[col].equals(model.getValueAt(i, col))) {
+                    model.setValueAt(rows.get(i)[col], i, col);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} si le rafraîchissement périodique est actif
+     */
+    boolean isRefreshing() {
+        return refresher.isRunning();
+    }
+
+    /**
+     * Construit les lignes du tableau.
+     *
+     * @param registry registre de métriques
+     * @return lignes (indicateur, valeur), dans l’ordre d’affichage
+     */
+    static List<String[]> rows(final MetricsRegistry registry) {
+        final Map<String, Object> metrics = registry.snapshot();
+        final List<String[]> rows = new ArrayList<>();
+
+        for (Map.Entry<String, Object> e : metrics.entrySet()) {
+            if ((e.getKey().startsWith("llm.chat.") || e.getKey().startsWith("llm.agent."))
+                    && e.getValue() instanceof Timer timer && timer.histogram().count() > 0) {
+                rows.add(new String[]{"Latence " + e.getKey().substring("llm.".length()), latency(timer.histogram())});
+            }
+        }
+        rows.add(new String[]{"LLM en cours / en file",
+                gauge(metrics, "llm.inflight") + " / " + gauge(metrics, "llm.queue.depth")});
+        rows.add(new String[]{"Erreurs LLM", Long.toString(sumCounters(metrics, "llm.errors."))});
+
+        rows.add(new String[]{"Cache descriptions", ratio(metrics, "description.cache")});
+        rows.add(new String[]{"Cache affiches", ratio(metrics, "image.cache")});
+
+        rows.add(new String[]{"Stockage lecture", storage(metrics, "storage.load")});
+        rows.add(new String[]{"Stockage écriture", storage(metrics, "storage.save")});
+        rows.add(new String[]{"Entrées en stockage", gauge(metrics, "storage.entries")});
+
+        final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        rows.add(new String[]{"Tas utilisé / max", mb(heap.getUsed()) + " / "
+                + (heap.getMax() < 0 ? "?" : mb(heap.getMax()))});
+        rows.add(new String[]{"Blocages EDT", metrics.get("ui.edt.stalls") instanceof Counter c
+                ? Long.toString(c.count()) : "—"});
+        final EdtWatchdog watchdog = EdtWatchdog.installed();
+        if (watchdog != null) {
+            for (EdtWatchdog.Offender o : watchdog.offenders().subList(0, Math.min(3, watchdog.offenders().size()))) {
+                rows.add(new String[]{"  " + o.stalls() + "× / " + o.totalMs() + " ms", o.frame()});
+            }
+        }
+        return rows;
+    }
+
+    // -------- formatage
+
+    private static String latency(final Histogram micros) {
+        return String.format(Locale.ROOT, "p50 %s  p95 %s  p99 %s ms  (n=%d)",
+                ms(micros.percentile(50)), ms(micros.percentile(95)), ms(micros.percentile(99)), micros.count());
+    }
+
+    private static String storage(final Map<String, Object> metrics, final String name) {
+        if (!(metrics.get(name) instanceof Timer timer) || timer.histogram().count() == 0) {
+            return "—";
+        }
+        final Histogram micros = timer.histogram();
+        return String.format(Locale.ROOT, "p50 %s  p95 %s  max %s ms  (n=%d)",
+                ms(micros.percentile(50)), ms(micros.percentile(95)), ms(micros.max()), micros.count());
+    }
+
+    private static String ratio(final Map<String, Object> metrics, final String prefix) {
+        final long hits = metrics.get(prefix + ".hit") instanceof Counter c ? c.count() : 0;
+        final long misses = metrics.get(prefix + ".miss") instanceof Counter c ? c.count() : 0;
+        if (hits + misses == 0) {
+            return "—";
+        }
+        return String.format(Locale.ROOT, "%.0f %%  (%d / %d)", 100.0 * hits / (hits + misses), hits, hits + misses);
+    }
+
+    private static String gauge(final Map<String, Object> metrics, final String name) {
+        return metrics.get(name) instanceof Gauge g ? Long.toString(g.value()) : "—";
+    }
+
+    private static long sumCounters(final Map<String, Object> metrics, final String prefix) {
+        long sum = 0;
+        for (Map.Entry<String, Object> e : metrics.entrySet()) {
+            if (e.getKey().startsWith(prefix) && e.getValue() instanceof Counter c) {
+                sum += c.count();
+            }
+        }
+        return sum;
+    }
+
+    private static String ms(final long micros) {
+        return String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+
+    private static String mb(final long bytes) {
+        return (bytes >> 20) + " Mo";
+    }
+}
@@ -0,0 +1,293 @@
+package app.cinematch.ui.swing;
+
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Détecteur de blocages de l’Event Dispatch Thread.
+ *
+ * <p>Une {@link EventQueue} intercalée chronomètre chaque événement Swing. Un thread
+ * démon vérifie l’événement en cours toutes les {@code seuil / 2} : au-delà du
+ * seuil, il échantillonne la pile de l’EDT. Chaque blocage est attribué au premier
+ * cadre de l’application ({@code app.cinematch.*}) de la pile échantillonnée, à
+ * défaut au sommet de pile ; les blocages sont agrégés par cadre
+ * ({@link #offenders()}, {@link #report(int)}).</p>
+ *
+ * <p>Métriques : {@code ui.edt.stalls} (nombre) et {@code ui.edt.stall} (durées).
+ * Les événements qui ouvrent une boucle secondaire (dialogue modal) ne sont pas
+ * comptés : l’attente de l’utilisateur n’est pas un blocage.</p>
+ *
+ * <p>Activé au démarrage avec un seuil de {@value #DEFAULT_THRESHOLD_MS} ms ;
+ * {@code -Dcinematch.edt.watchdog=off} le désactive, {@code =<ms>} change le seuil.</p>
+ */
+public final class EdtWatchdog {
+
+    /** Propriété système : {@code off} ou seuil en millisecondes. */
+    public static final String PROP = "cinematch.edt.watchdog";
+    /** Seuil par défaut (ms). */
+    public static final long DEFAULT_THRESHOLD_MS = 50;
+    /** Préfixe des classes de l’application (attribution des blocages). */
+    private static final String APP_PREFIX = "app.cinematch.";
+    /** Classe du détecteur (ses propres cadres ne sont jamais fautifs). */
+    private static final String SELF = EdtWatchdog.class.getName();
+    /** Cadres gardés dans la pile d’exemple d’un fautif. */
+    private static final int SAMPLE_DEPTH = 12;
+    /** Cadre attribué quand aucun échantillon n’a été pris à temps. */
+    static final String UNSAMPLED = "(non échantillonné)";
+
+    private static volatile EdtWatchdog installed;
+
+    /**
+     * Blocages attribués à un même cadre.
+     *
+     * @param frame   cadre fautif ({@code classe.méthode(Fichier.java:ligne)})
+     * @param stalls  nombre de blocages
+     * @param totalMs durée cumulée (ms)
+     * @param maxMs   pire blocage (ms)
+     * @param sample  pile d’exemple (premiers cadres)
+     */
+    public record Offender(String frame, long stalls, long totalMs, long maxMs, List<String> sample) { }
+
+    private final long thresholdNanos;
+    private final Counter stalls = MetricsRegistry.global().counter("ui.edt.stalls");
+    private final Timer stallTimer = MetricsRegistry.global().timer("ui.edt.stall");
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+    private final WatchedQueue queue = new WatchedQueue();
+    private final Thread sampler;
+
+    /** Début (nanos) de l’événement surveillé en cours, 0 si aucun. */
+    private volatile long dispatchStart;
+    /** Numéro de l’événement en cours. */
+    private volatile long dispatchSeq;
+    /** Thread de l’EDT (pris au premier événement). */
+    private volatile Thread edt;
+    /** Pile échantillonnée pour l’événement {@link #sampledSeq}. */
+    private volatile StackTraceElement[] sampled;
+    private volatile long sampledSeq = -1;
+    private volatile boolean running = true;
+
+    private EdtWatchdog(final long thresholdMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.sampler = new Thread(this::sampleLoop, "cinematch-edt-watchdog");
+        sampler.setDaemon(true);
+    }
+
+    /**
+     * Installe le détecteur selon {@value #PROP} (actif par défaut).
+     *
+     * @return détecteur installé, ou {@code null} si désactivé
+     */
+    public static EdtWatchdog installFromProperties() {
+        final String value = System.getProperty(PROP, Long.toString(DEFAULT_THRESHOLD_MS)).trim();
+        if (value.equalsIgnoreCase("off") || value.equalsIgnoreCase("false")) {
+            return null;
+        }
+        return install(Long.parseLong(value));
+    }
+
+    /**
+     * Installe le détecteur (remplace un détecteur déjà installé).
+     *
+     * @param thresholdMs durée à partir de laquelle un événement est un blocage (≥ 1)
+     * @return détecteur installé
+     */
+    public static synchronized EdtWatchdog install(final long thresholdMs) {
+        if (thresholdMs < 1) {
+            throw new IllegalArgumentException("threshold must be >= 1 ms: " + thresholdMs);
+        }
+        uninstall();
+        final EdtWatchdog watchdog = new EdtWatchdog(thresholdMs);
+        // Sur l’EDT, après le retrait éventuel du précédent (même file, ordre FIFO).
+        EventQueue.invokeLater(() -> Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog.queue));
+        watchdog.sampler.start();
+        installed = watchdog;
+        return watchdog;
+    }
+
+    /**
+     * Retire le détecteur installé (sans effet s’il n’y en a pas).
+     *
+     * <p>Le comptage s’arrête immédiatement ; la file intercalée est retirée sur l’EDT,
+     * et seulement si elle est encore au sommet : une file poussée après elle par un
+     * tiers n’est jamais dépilée à sa place (la nôtre reste alors, inerte).</p>
+     */
+    public static synchronized void uninstall() {
+        final EdtWatchdog current = installed;
+        if (current != null) {
+            installed = null;
+            current.running = false;
+            current.sampler.interrupt();
+            current.queue.detach();
+        }
+    }
+
+    /**
+     * @return détecteur installé, ou {@code null}
+     */
+    public static EdtWatchdog installed() {
+        return installed;
+    }
+
+    /**
+     * @return blocages par cadre, du plus coûteux (durée cumulée) au moins coûteux
+     */
+    public List<Offender> offenders() {
+        final List<Offender> out = new ArrayList<>(offenders.values());
+        out.sort(Comparator.comparingLong(Offender::totalMs).reversed());
+        return out;
+    }
+
+    /**
+     * @param limit nombre maximal de cadres listés
+     * @return rapport lisible des pires cadres
+     */
+    public String report(final int limit) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Blocages EDT > %d ms : %d%n",
+                TimeUnit.NANOSECONDS.toMillis(thresholdNanos), stalls.count()));
+        for (Offender o : offenders().subList(0, Math.min(limit, offenders.size()))) {
+            sb.append(String.format(Locale.ROOT, "  %5d ms cumulés, %3d× (max %d ms)  %s%n",
+                    o.totalMs(), o.stalls(), o.maxMs(), o.frame()));
+        }
+        return sb.toString();
+    }
+
+    /** Oublie les fautifs agrégés. */
+    public void reset() {
+        offenders.clear();
+    }
+
+    // =========================
+    // INTERNE
+    // =========================
+
+    /** Appelé sur l’EDT au début d’un événement. */
+    private long beginDispatch() {
+        edt = Thread.currentThread();
+        final long start = System.nanoTime();
+        dispatchSeq++;
+        dispatchStart = start;
+        return start;
+    }
+
+    /** Appelé sur l’EDT à la fin d’un événement (non modal). */
+    private void endDispatch(final long start, final long seq) {
+        dispatchStart = 0;
+        final long elapsed = System.nanoTime() - start;
+        if (elapsed < thresholdNanos) {
+            return;
+        }
+        stalls.inc();
+        stallTimer.histogram().record(elapsed / 1_000);
+        final StackTraceElement[] stack = sampledSeq == seq ? sampled : null;
+        final String frame = stack == null ? UNSAMPLED : offendingFrame(stack);
+        final List<String> sample = stack == null ? List.of()
+                : Arrays.stream(stack).limit(SAMPLE_DEPTH).map(EdtWatchdog::format).toList();
+        final long ms = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        offenders.merge(frame, new Offender(frame, 1, ms, ms, sample), (a, b) ->
+                new Offender(frame, a.stalls() + 1, a.totalMs() + ms, Math.max(a.maxMs(), ms),
+                        a.sample().isEmpty() ? b.sample() : a.sample()));
+    }
+
+    /** Boucle du thread d’échantillonnage. */
+    private void sampleLoop() {
+        final long period = Math.max(1, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 2);
+        while (running) {
+            try {
+                Thread.sleep(period);
+            } catch (InterruptedException e) {
+                return;
+            }
+            final long start = dispatchStart;
+            final long seq = dispatchSeq;
+            final Thread thread = edt;
+            if (start != 0 && thread != null && sampledSeq != seq
+                    && System.nanoTime() - start >= thresholdNanos) {
+                final StackTraceElement[] stack = thread.getStackTrace();
+                if (dispatchSeq == seq) {
+                    sampled = stack;
+                    sampledSeq = seq;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param stack pile de l’EDT
+     * @return premier cadre de l’application, sinon sommet de pile
+     */
+    static String offendingFrame(final StackTraceElement[] stack) {
+        for (StackTraceElement e : stack) {
+            final String cls = e.getClassName();
+            if (cls.startsWith(APP_PREFIX) && !cls.equals(SELF) && !cls.startsWith(SELF + '$')) {
+                return format(e);
+            }
+        }
+        return stack.length == 0 ? UNSAMPLED : format(stack[0]);
+    }
+
+    /** Cadre sans préfixe de module ni de chargeur : {@code classe.méthode(Fichier.java:ligne)}. */
+    private static String format(final StackTraceElement e) {
+        return e.getClassName() + '.' + e.getMethodName() + '(' + e.getFileName() + ':' + e.getLineNumber() + ')';
+    }
+
+    /** File d’événements intercalée qui chronomètre chaque événement. */
+    private final class WatchedQueue extends EventQueue {
+
+        /** Profondeur de dispatch (boucles secondaires des dialogues modaux). */
+        private int depth;
+        /** Vrai si l’événement externe a ouvert une boucle secondaire. */
+        private boolean nested;
+
+        @Override
+        protected void dispatchEvent(final AWTEvent event) {
+            if (!running) {
+                super.dispatchEvent(event);
+                return;
+            }
+            if (depth > 0) {
+                nested = true;
+            }
+            depth++;
+            final long start = beginDispatch();
+            final long seq = dispatchSeq;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                depth--;
+                if (depth == 0 && nested) {
+                    // Boucle modale : l’attente de l’utilisateur n’est pas un blocage.
+                    nested = false;
+                    dispatchStart = 0;
+                } else {
+                    endDispatch(start, seq);
+                    if (depth > 0) {
+                        // Reprise de l’événement externe, désormais modal : plus surveillé.
+                        dispatchStart = 0;
+                    }
+                }
+            }
+        }
+
+        void detach() {
+            EventQueue.invokeLater(() -> {
+                if (Toolkit.getDefaultToolkit().getSystemEventQueue() == this) {
+                    pop();
+                }
+            });
+        }
+    }
+}
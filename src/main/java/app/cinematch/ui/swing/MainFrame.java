@@ -5,6 +5,8 @@ import app.cinematch.agent.ChatAgent;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.util.function.Consumer;
 
 /**
@@ -19,6 +21,8 @@ import java.util.function.Consumer;
  *   <li>{@code "t3"} — outil « Ma liste » ({@link Tool3Panel})</li>
  *   <li>{@code "chat"} — chat IA ({@link Tool4Panel})</li>
  *   <li>{@code "hist"} — historique ({@link HistoryPanel})</li>
+ *   <li>{@code "diag"} — diagnostic, caché ({@link DiagnosticsPanel}), ouvert et
+ *       refermé par {@code Ctrl+Maj+D}</li>
  * </ul>
  *
  * <p>Le constructeur principal accepte un {@link ChatAgent} optionnel ; si
@@ -48,6 +52,13 @@ public class MainFrame extends JFrame {
     /** Conteneur principal qui héberge les différentes vues (cartes). */
     private final JPanel container = new JPanel(cards);
 
+    /** Raccourci d’ouverture de la carte de diagnostic. */
+    static final KeyStroke DIAGNOSTICS_KEY =
+            KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK);
+
+    /** Carte de diagnostic (cachée). */
+    private final DiagnosticsPanel diag;
+
     /** Service principal de recommandation de films, partagé entre les panneaux. */
     private final MovieRecommenderService service;
 
@@ -86,6 +97,9 @@ public class MainFrame extends JFrame {
         // Historique
         HistoryPanel hist = new HistoryPanel(service, this);
 
+        // Diagnostic : absent du menu, accessible au clavier
+        diag = new DiagnosticsPanel(this);
+
         // Ajouter les vues
         container.add(home, "home");
         container.add(t1, "t1");
@@ -93,11 +107,20 @@ public class MainFrame extends JFrame {
         container.add(t3, "t3");
         container.add(chat, "chat");
         container.add(hist, "hist");
+        container.add(diag, "diag");
 
         setContentPane(container);
 
         // Navigation depuis HomePanel
         home.onNavigate(id -> cards.show(container, id));
+
+        container.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(DIAGNOSTICS_KEY, "diag");
+        container.getActionMap().put("diag", new AbstractAction() {
+            @Override
+            public void actionPerformed(final java.awt.event.ActionEvent e) {
+                showCard(diag.isShowing() ? "home" : "diag");
+            }
+        });
     }
 
     /**
@@ -114,7 +137,8 @@ public class MainFrame extends JFrame {
      * Affiche la carte identifiée par {@code id}.
      *
      * @param id identifiant logique de la vue à afficher
-     *           (ex. {@code "home"}, {@code "t1"}, {@code "t2"}, {@code "t3"}, {@code "chat"}, {@code "hist"})
+     *           (ex. {@code "home"}, {@code "t1"}, {@code "t2"}, {@code "t3"}, {@code "chat"}, {@code "hist"},
+     *           {@code "diag"})
      */
     public void showCard(final String id) {
         ((CardLayout) getContentPane().getLayout()).show(getContentPane(), id);
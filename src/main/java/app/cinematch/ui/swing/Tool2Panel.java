@@ -1,8 +1,8 @@
 package app.cinematch.ui.swing;
 
 import app.cinematch.MovieRecommenderService;
+import app.cinematch.RecommendationPrefetcher;
 import app.cinematch.model.Recommendation;
-import app.cinematch.util.JsonStorage;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -11,7 +11,10 @@ import java.awt.GradientPaint;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GridLayout;
+import java.awt.event.HierarchyEvent;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 import javax.swing.JButton;
 import javax.swing.JEditorPane;
@@ -34,6 +37,9 @@ import javax.swing.border.LineBorder;
  *   <li>Proposition aléatoire d’un film via {@link MovieRecommenderService#recommendRandom()}</li>
  *   <li>Marquage « envie », « pas intéressé » ou « déjà vu »</li>
  *   <li>Génération asynchrone d’une description via {@link SwingWorker}</li>
+ *   <li>Cartes pré-générées en arrière-plan via {@link RecommendationPrefetcher} :
+ *       le swipe suivant s’affiche immédiatement quand une carte est prête ; la file
+ *       démarre au premier affichage du panneau et s’arrête avec lui</li>
  * </ul>
  *
  * <p>Conçu pour ne pas bloquer l’EDT, avec annulation des workers si nécessaire.</p>
@@ -42,6 +48,8 @@ public final class Tool2Panel extends JPanel {
 
     /** Service de recommandation. */
     private final MovieRecommenderService service;
+    /** File de cartes pré-générées, créée au premier affichage ({@code null} avant). */
+    private RecommendationPrefetcher prefetcher;
     /** Callback de navigation (ex. {@code "home"}). */
     private final Consumer<String> navigator;
 
@@ -87,7 +95,6 @@ public final class Tool2Panel extends JPanel {
                       final Consumer<String> navigator) {
         this.service = Objects.requireNonNull(service, "service must not be null");
         this.navigator = Objects.requireNonNull(navigator, "navigator must not be null");
-
         setLayout(new BorderLayout(10, 10));
         setOpaque(false);
         setBorder(new EmptyBorder(16, 20, 20, 20));
@@ -154,12 +161,44 @@ public final class Tool2Panel extends JPanel {
         nopeBtn.addActionListener(e -> onNope());
         seenBtn.addActionListener(e -> onSeen());
 
-        // Première proposition
-        proposeNext();
+        // Première proposition au premier affichage : aucun appel LLM tant que le swipe n’est pas ouvert
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing() && current == null
+                    && prefetcher == null) {
+                proposeNext();
+            }
+        });
+    }
+
+    /** Arrête le prefetcher quand le panneau quitte la fenêtre (ex. {@code dispose()}). */
+    @Override
+    public void removeNotify() {
+        if (prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        }
+        super.removeNotify();
+    }
+
+    /** Prefetcher, démarré à la première demande. */
+    private RecommendationPrefetcher prefetcher() {
+        if (prefetcher == null) {
+            prefetcher = new RecommendationPrefetcher(service);
+        }
+        return prefetcher;
     }
 
-    /** Propose la prochaine recommandation et lance la génération de description. */
+    /**
+     * Propose la prochaine recommandation : carte pré-générée si disponible,
+     * sinon génération à la demande (recommandation puis description).
+     */
     private void proposeNext() {
+        final RecommendationPrefetcher prefetcher = prefetcher();
+        final RecommendationPrefetcher.Card card = prefetcher.poll();
+        if (card != null) {
+            showCard(card);
+            return;
+        }
         title.setText("...");
         reason.setText("...");
         platform.setText("L'ia travaille...");
@@ -171,12 +210,19 @@ public final class Tool2Panel extends JPanel {
         new SwingWorker<Recommendation, Void>() {
             @Override
             protected Recommendation doInBackground() {
+                // Titres du stockage (tous statuts) et déjà réservés par la file
+                final Set<String> exclusions = prefetcher.exclusions();
+                final List<Recommendation> batch = service.recommendRandomBatch(4, exclusions);
+                if (batch != null && !batch.isEmpty()) {
+                    prefetcher.offerCandidates(batch.subList(1, batch.size()));
+                    return batch.get(0);
+                }
                 Recommendation rec;
                 int guard = 0;
                 do {
                     rec = service.recommendRandom();
                     guard++;
-                } while (JsonStorage.getByStatus("envie").contains(rec.title()) && guard < 6);
+                } while (exclusions.contains(MovieRecommenderService.titleKey(rec.title())) && guard < 6);
                 return rec;
             }
 
@@ -184,6 +230,7 @@ public final class Tool2Panel extends JPanel {
             protected void done() {
                 try {
                     current = get();
+                    prefetcher.exclude(current.title());
                     title.setText(current.title());
                     reason.setText(current.reason());
                     platform.setText(current.platform());
@@ -198,6 +245,19 @@ public final class Tool2Panel extends JPanel {
         }.execute();
     }
 
+    /** Affiche une carte pré-générée sans aucun appel au LLM. */
+    private void showCard(final RecommendationPrefetcher.Card card) {
+        if (descWorker != null && !descWorker.isDone()) {
+            descWorker.cancel(true);
+        }
+        current = card.recommendation();
+        title.setText(current.title());
+        reason.setText(current.reason());
+        platform.setText(current.platform());
+        setDescHtml(htmlCenterBig(htmlEscape(card.description())));
+        setBusy(false);
+    }
+
     /** Lance la génération asynchrone de la description pour la reco courante. */
     private void startDescriptionForCurrent() {
         if (current == null) {
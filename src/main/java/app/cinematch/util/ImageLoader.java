@@ -1,5 +1,10 @@
 package app.cinematch.util;
 
+import app.cinematch.jfr.ImageFetchEvent;
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
+
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
@@ -19,6 +24,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p><b>Thread-safety :</b> le cache est un {@link ConcurrentHashMap} pour
  * permettre des accès concurrents. Les valeurs stockées sont des {@link ImageIcon}
  * prêts à l’emploi côté Swing.</p>
+ *
+ * <p>Métriques ({@link MetricsRegistry#global()}) : {@code image.cache.hit},
+ * {@code image.cache.miss}, {@code image.errors} et {@code image.fetch} (durée des
+ * téléchargements). Chaque téléchargement émet un événement JFR
+ * {@link ImageFetchEvent}.</p>
  */
 public class ImageLoader {
 
@@ -27,6 +37,11 @@ public class ImageLoader {
      */
     private static final Map<String, ImageIcon> cache = new ConcurrentHashMap<>();
 
+    private static final Counter HITS = MetricsRegistry.global().counter("image.cache.hit");
+    private static final Counter MISSES = MetricsRegistry.global().counter("image.cache.miss");
+    private static final Counter ERRORS = MetricsRegistry.global().counter("image.errors");
+    private static final Timer FETCH = MetricsRegistry.global().timer("image.fetch");
+
     /**
      * Charge une image distante (affiche) depuis {@code url}, la redimensionne
      * si nécessaire pour tenir dans {@code maxW}×{@code maxH} en conservant le
@@ -48,10 +63,34 @@ public class ImageLoader {
      */
     public static ImageIcon loadPoster(String url, int maxW, int maxH) {
         if (url == null || url.isBlank()) return null;
-        if (cache.containsKey(url)) return cache.get(url);
+        ImageIcon cached = cache.get(url);
+        if (cached != null) {
+            HITS.inc();
+            return cached;
+        }
+        MISSES.inc();
+        final ImageFetchEvent event = new ImageFetchEvent();
+        event.begin();
         try {
-            BufferedImage img = ImageIO.read(new URL(url));
-            if (img == null) return null;
+            final long start = FETCH.start();
+            BufferedImage img = null;
+            try {
+                img = ImageIO.read(new URL(url));
+            } finally {
+                FETCH.stop(start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.url = url;
+                    event.success = img != null;
+                    event.width = img != null ? img.getWidth() : 0;
+                    event.height = img != null ? img.getHeight() : 0;
+                    event.commit();
+                }
+            }
+            if (img == null) {
+                ERRORS.inc();
+                return null;
+            }
 
             int w = img.getWidth(), h = img.getHeight();
             double scale = Math.min((double) maxW / w, (double) maxH / h);
@@ -69,6 +108,7 @@ public class ImageLoader {
             cache.put(url, icon);
             return icon;
         } catch (IOException e) {
+            ERRORS.inc();
             System.err.println("[ImageLoader] Erreur de chargement : " + e.getMessage());
             return null;
         }
@@ -1,6 +1,12 @@
 package app.cinematch.util;
 
+import app.cinematch.jfr.StorageIoEvent;
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.MetricsRegistry;
+import app.cinematch.metrics.Timer;
 import app.cinematch.model.HistoryEntry;
+import app.cinematch.trace.Span;
+import app.cinematch.trace.Tracer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -8,6 +14,7 @@ import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +28,15 @@ import java.util.stream.Collectors;
  *
  * <p>Les méthodes sont synchronisées (accès concurrents sûrs). En cas d’erreur d’E/S,
  * le comportement reste tolérant et journalise (sauf mode silencieux).</p>
+ *
+ * <p>Métriques ({@link MetricsRegistry#global()}) : {@code storage.load} et
+ * {@code storage.save} (durées), {@code storage.load.errors},
+ * {@code storage.save.errors} et {@code storage.entries} (dernière taille lue ou
+ * écrite).</p>
+ *
+ * <p>Chaque lecture ou écriture émet aussi un événement JFR {@link StorageIoEvent}
+ * (entrées, taille du fichier, appelant) et un span {@code storage.load} /
+ * {@code storage.save} dans la trace en cours.</p>
  */
 public final class JsonStorage {
 
@@ -42,17 +58,30 @@ public final class JsonStorage {
      */
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    private static final Timer LOAD_TIMER = MetricsRegistry.global().timer("storage.load");
+    private static final Timer SAVE_TIMER = MetricsRegistry.global().timer("storage.save");
+    private static final Counter LOAD_ERRORS = MetricsRegistry.global().counter("storage.load.errors");
+    private static final Counter SAVE_ERRORS = MetricsRegistry.global().counter("storage.save.errors");
+    /** Dernier nombre d’entrées lues ou écrites. */
+    private static final AtomicInteger ENTRIES = new AtomicInteger();
+
+    static {
+        MetricsRegistry.global().gauge("storage.entries", ENTRIES::get);
+    }
+
     private JsonStorage() {
         // Classe utilitaire : pas d’instanciation.
     }
 
     /**
      * Ajoute ou met à jour une entrée d’historique identifiée par son titre (case-insensitive).
+     * Lecture, modification et écriture se font sous le même verrou : deux appels
+     * concurrents ne s’écrasent pas.
      *
      * @param title  titre du film
      * @param status statut (ex. "envie", "deja_vu", "pas_interesse")
      */
-    public static void addOrUpdate(final String title, final String status) {
+    public static synchronized void addOrUpdate(final String title, final String status) {
         final List<HistoryEntry> all = loadAll();
         all.removeIf(e -> e.title().equalsIgnoreCase(title));
         all.add(new HistoryEntry(title, status, LocalDateTime.now().toString()));
@@ -64,17 +93,29 @@ public final class JsonStorage {
      *
      * @return liste d’entrées, ou liste vide si absent/illisible
      */
-    public static List<HistoryEntry> loadAll() {
+    public static synchronized List<HistoryEntry> loadAll() {
         final File file = storageFile();
         if (!file.exists()) {
             return new ArrayList<>();
         }
-        try {
-            return MAPPER.readValue(file, new TypeReference<List<HistoryEntry>>() {
+        final StorageIoEvent event = new StorageIoEvent();
+        event.begin();
+        final long start = LOAD_TIMER.start();
+        try (Span span = Tracer.global().start("storage.load", "storage")) {
+            final List<HistoryEntry> all = MAPPER.readValue(file, new TypeReference<List<HistoryEntry>>() {
             });
+            ENTRIES.set(all.size());
+            span.tag("entries", all.size());
+            event.entries = all.size();
+            event.success = true;
+            return all;
         } catch (IOException e) {
             // Tolérance : retourne liste vide si JSON corrompu (tests inclus)
+            LOAD_ERRORS.inc();
             return new ArrayList<>();
+        } finally {
+            LOAD_TIMER.stop(start);
+            commit(event, "load", file);
         }
     }
 
@@ -98,7 +139,7 @@ public final class JsonStorage {
      *
      * @param all liste à sauvegarder
      */
-    public static void saveAll(final List<HistoryEntry> all) {
+    public static synchronized void saveAll(final List<HistoryEntry> all) {
         final File file = storageFile();
         final File parentDir = file.getParentFile();
         if (parentDir != null && !parentDir.exists()) {
@@ -109,11 +150,22 @@ public final class JsonStorage {
             }
         }
 
-        try {
+        final StorageIoEvent event = new StorageIoEvent();
+        event.begin();
+        event.entries = all.size();
+        final long start = SAVE_TIMER.start();
+        try (Span span = Tracer.global().start("storage.save", "storage")) {
+            span.tag("entries", all.size());
             MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, all);
+            ENTRIES.set(all.size());
+            event.success = true;
         } catch (IOException e) {
+            SAVE_ERRORS.inc();
             logErr("[JsonStorage] Erreur lors de l’écriture du fichier %s : %s%n",
                     file.getAbsolutePath(), e.getMessage());
+        } finally {
+            SAVE_TIMER.stop(start);
+            commit(event, "save", file);
         }
     }
 
@@ -127,6 +179,19 @@ public final class JsonStorage {
         return new File(p);
     }
 
+    /**
+     * Termine et émet l’événement JFR s’il est enregistré (taille lue seulement alors).
+     */
+    private static void commit(final StorageIoEvent event, final String action, final File file) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.path = file.getPath();
+            event.bytes = file.length();
+            event.commit();
+        }
+    }
+
     /**
      * Log sur stderr sauf si le mode silencieux est activé.
      */
@@ -1,11 +1,17 @@
 package app.cinematch;
 
+import app.cinematch.api.GenerationOptions;
+import app.cinematch.api.LlmOperation;
 import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaException;
 import app.cinematch.model.Recommendation;
 import app.cinematch.util.JsonStorageMock;
 import java.lang.reflect.Method;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import org.junit.jupiter.api.AfterEach;
@@ -26,18 +32,21 @@ public class MovieRecommenderServiceTest {
      */
     private static final class FakeOllamaClient extends OllamaClient {
         static final Deque<String> RESPONSES = new ArrayDeque<>();
+        static final Deque<GenerationOptions> LAST_OPTIONS = new ArrayDeque<>();
 
         FakeOllamaClient() {
             super("http://fake", "test-model");
         }
 
         @Override
-        public String chat(final String system, final String user) {
+        public String chat(final String system, final String user, final GenerationOptions options) {
+            LAST_OPTIONS.add(options);
             return RESPONSES.isEmpty() ? "" : RESPONSES.removeFirst();
         }
 
         static void reset() {
             RESPONSES.clear();
+            LAST_OPTIONS.clear();
         }
     }
 
@@ -275,7 +284,7 @@ public class MovieRecommenderServiceTest {
         // GIVEN : un faux OllamaClient dont la méthode chat() renvoie toujours une chaîne
         OllamaClient fakeClient = new OllamaClient("http://fake", "fake-model") {
             @Override
-            public String chat(String system, String user) {
+            public String chat(String system, String user, GenerationOptions options) {
                 return "Une réponse simulée";
             }
         };
@@ -287,4 +296,297 @@ public class MovieRecommenderServiceTest {
         String desc = service.generateDescription("Avatar");
         assertEquals("Une réponse simulée", desc);
     }
+
+    @Test
+    void givenJsonArrayWithDuplicatesAndKnownTitles_whenRecommendRandomBatch_thenFiltersLocally() {
+        // GIVEN : un tableau JSON noyé dans du texte, avec un doublon et un titre connu.
+        FakeOllamaClient.RESPONSES.add("""
+        Voici mes idées :
+        [
+          {"title":"Heat","pitch":"Duel au sommet","platform":"Netflix"},
+          {"title":"heat","pitch":"Doublon"},
+          {"title":"Alien","pitch":"Déjà connu"},
+          {"title":"Drive","pitch":"Néon et silence","year":"2011","platform":"Prime"}
+        ]
+        """);
+        final MovieRecommenderService service = newService();
+
+        // WHEN : on demande 5 candidats en excluant « Alien ».
+        final java.util.List<Recommendation> recs =
+                service.recommendRandomBatch(5, java.util.List.of("ALIEN"));
+
+        // THEN : seuls Heat et Drive restent, dans l’ordre, enrichis comme en unitaire.
+        assertEquals(2, recs.size());
+        assertEquals("Heat", recs.get(0).title());
+        assertEquals("Netflix", recs.get(0).platform());
+        assertEquals("Drive", recs.get(1).title());
+        assertEquals("Néon et silence — année suggérée : 2011", recs.get(1).reason());
+    }
+
+    @Test
+    void givenWrappedArray_whenRecommendFromLikeBatch_thenPitchesMentionLikedTitle() {
+        // GIVEN : un objet enveloppant le tableau (forme fréquente des modèles).
+        FakeOllamaClient.RESPONSES.add(
+                "{\"films\":[{\"title\":\"Blade Runner\",\"pitch\":\"Même mélancolie\"},"
+                        + "{\"title\":\"Solaris\",\"pitch\":\"Comme Interstellar, l’espace intime\"}]}");
+        final MovieRecommenderService service = newService();
+
+        // WHEN
+        final java.util.List<Recommendation> recs =
+                service.recommendFromLikeBatch("Interstellar", 2, null);
+
+        // THEN : le suffixe n’est ajouté que si le pitch ne cite pas déjà le film.
+        assertEquals(2, recs.size());
+        assertEquals("Même mélancolie — Inspiré de Interstellar", recs.get(0).reason());
+        assertEquals("Comme Interstellar, l’espace intime", recs.get(1).reason());
+    }
+
+    @Test
+    void givenLooseObjectsInProse_whenBatch_thenBalancedObjectsAreRecovered() {
+        // GIVEN : pas de tableau, mais des objets successifs (dont une accolade dans une chaîne).
+        FakeOllamaClient.RESPONSES.add(
+                "1) {\"title\":\"Heat\",\"pitch\":\"Braquage {culte}\"} 2) {\"title\":\"Ronin\"} fin");
+        final MovieRecommenderService service = newService();
+
+        // WHEN
+        final java.util.List<Recommendation> recs = service.recommendRandomBatch(3, Set.of());
+
+        // THEN
+        assertEquals(2, recs.size());
+        assertEquals("Braquage {culte}", recs.get(0).reason());
+        assertEquals("Ronin", recs.get(1).title());
+    }
+
+    @Test
+    void givenBatchAndSingleCalls_whenGenerationStats_thenTokensPerRecommendationDrop() {
+        // GIVEN : 3 appels unitaires puis 1 appel batch servant 3 titres.
+        final MovieRecommenderService single = newService();
+        for (int i = 0; i < 3; i++) {
+            FakeOllamaClient.RESPONSES.add("{\"title\":\"Film " + i + "\",\"pitch\":\"p\"}");
+            single.recommendRandom();
+        }
+        final MovieRecommenderService batch = newService();
+        FakeOllamaClient.RESPONSES.add("[{\"title\":\"A\",\"pitch\":\"p\"},"
+                + "{\"title\":\"B\",\"pitch\":\"p\"},{\"title\":\"C\",\"pitch\":\"p\"}]");
+        batch.recommendRandomBatch(3, Set.of());
+
+        // WHEN
+        final MovieRecommenderService.GenerationStats s1 = single.generationStats();
+        final MovieRecommenderService.GenerationStats s2 = batch.generationStats();
+
+        // THEN : même nombre de titres servis, un seul appel, moins de tokens par titre.
+        assertEquals(3, s1.calls());
+        assertEquals(1, s2.calls());
+        assertEquals(3, s2.served());
+        assertTrue(s2.tokensPerRecommendation() < s1.tokensPerRecommendation());
+    }
+
+    @Test
+    void givenJsonMapWithMissingTitle_whenGenerateDescriptions_thenFallsBackPerItemAndCaches() {
+        // GIVEN : le lot ne décrit que Heat ; Drive est redemandé seul.
+        FakeOllamaClient.RESPONSES.add("Voici : {\"heat\":\"Duel à Los Angeles.\"}");
+        FakeOllamaClient.RESPONSES.add("Néon et silence.");
+        final MovieRecommenderService service = newService();
+
+        // WHEN
+        final java.util.Map<String, String> out =
+                service.generateDescriptions(java.util.List.of("Heat", "Drive", "HEAT"));
+
+        // THEN : ordre d’entrée, doublon ignoré, fallback unitaire pour Drive
+        assertEquals(java.util.List.of("Heat", "Drive"), new java.util.ArrayList<>(out.keySet()));
+        assertEquals("Duel à Los Angeles.", out.get("Heat"));
+        assertEquals("Néon et silence.", out.get("Drive"));
+
+        // AND : les deux descriptions sont servies depuis le cache, sans appel LLM
+        assertTrue(FakeOllamaClient.RESPONSES.isEmpty());
+        final app.cinematch.metrics.Counter hits =
+                app.cinematch.metrics.MetricsRegistry.global().counter("description.cache.hit");
+        final long hitsBefore = hits.count();
+        assertEquals("Duel à Los Angeles.", service.generateDescription("heat"));
+        assertEquals("Néon et silence.", service.generateDescription("Drive"));
+        assertEquals(hitsBefore + 2, hits.count());
+    }
+
+    @Test
+    void givenHundredTitles_whenGenerateDescriptions_thenFarFewerCallsThanSingleCalls() {
+        // GIVEN : un client qui répond à chaque lot avec une map complète
+        final int[] calls = {0};
+        final OllamaClient batchClient = new OllamaClient("http://fake", "fake-model") {
+            @Override
+            public String chat(final String system, final String user, final GenerationOptions options) {
+                calls[0]++;
+                final StringBuilder json = new StringBuilder("{");
+                for (String line : user.split("\\R")) {
+                    if (line.startsWith("- ")) {
+                        if (json.length() > 1) {
+                            json.append(',');
+                        }
+                        json.append('"').append(line.substring(2)).append("\":\"desc\"");
+                    }
+                }
+                return json.append('}').toString();
+            }
+        };
+        final MovieRecommenderService service = new MovieRecommenderService(batchClient, null);
+        final java.util.List<String> titles = new java.util.ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            titles.add("Film " + i);
+        }
+
+        // WHEN
+        final long start = System.nanoTime();
+        final java.util.Map<String, String> out = service.generateDescriptions(titles);
+        final long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // THEN : 100 descriptions en ceil(100 / taille de lot) appels au lieu de 100
+        final int chunk = MovieRecommenderService.descriptionChunkSize(
+                MovieRecommenderService.DEFAULT_CONTEXT_TOKENS);
+        assertEquals(100, out.size());
+        assertEquals((100 + chunk - 1) / chunk, calls[0]);
+        assertTrue(calls[0] < 10, "appels LLM : " + calls[0] + " (" + elapsedMs + " ms)");
+    }
+
+    @Test
+    void givenDefaults_whenRecommendRandom_thenSendsSchemaAndBoundedOptions() {
+        // GIVEN : aucune configuration explicite
+        FakeOllamaClient.RESPONSES.add("{\"title\":\"Heat\",\"pitch\":\"p\"}");
+        final MovieRecommenderService service = newService();
+
+        // WHEN
+        service.recommendRandom();
+
+        // THEN : schéma JSON de recommandation et longueur bornée
+        final GenerationOptions sent = FakeOllamaClient.LAST_OPTIONS.getLast();
+        assertEquals(LlmOperation.RECOMMEND_RANDOM, sent.operation());
+        assertTrue(sent.format() instanceof com.fasterxml.jackson.databind.JsonNode);
+        assertEquals(200, sent.numPredict());
+    }
+
+    @Test
+    void givenCustomOptions_whenGenerateDescription_thenOperationOptionsAreUsed() {
+        // GIVEN : options spécifiques à la description
+        FakeOllamaClient.RESPONSES.add("Desc");
+        final MovieRecommenderService service = newService();
+        service.setGenerationOptions(GenerationOptions.none(LlmOperation.GENERATE_DESCRIPTION)
+                .withNumPredict(64).withKeepAlive("30m"));
+
+        // WHEN
+        service.generateDescription("Heat");
+
+        // THEN
+        final GenerationOptions sent = FakeOllamaClient.LAST_OPTIONS.getLast();
+        assertEquals(64, sent.numPredict());
+        assertEquals("30m", sent.keepAlive());
+        assertEquals(sent, service.generationOptions(LlmOperation.GENERATE_DESCRIPTION));
+    }
+
+    @Test
+    void givenProseAndJsonAnswers_whenGenerationStats_thenParseFailureRateIsReported() {
+        // GIVEN : une réponse JSON valide puis une réponse en prose
+        FakeOllamaClient.RESPONSES.add("{\"title\":\"Heat\",\"pitch\":\"p\"}");
+        FakeOllamaClient.RESPONSES.add("Je vous conseille Heat, un grand film.");
+        final MovieRecommenderService service = newService();
+
+        // WHEN
+        service.recommendRandom();
+        service.recommendRandom();
+
+        // THEN : 1 échec sur 2 appels
+        assertEquals(1, service.generationStats().parseFailures());
+        assertEquals(0.5, service.generationStats().parseFailureRate(), 1e-9);
+    }
+
+    // -------- Ollama indisponible --------
+
+    private static MovieRecommenderService downService() {
+        final OllamaClient down = new OllamaClient("http://fake", "test-model") {
+            @Override
+            public String chat(final String system, final String user, final GenerationOptions options) {
+                throw new OllamaException(OllamaException.Kind.CIRCUIT_OPEN, "down");
+            }
+        };
+        return new MovieRecommenderService(down, JsonStorageMock::addOrUpdate);
+    }
+
+    @Test
+    void givenOllamaDown_whenRecommendRandom_thenOfflineTitleIsServedInsteadOfErrorText() {
+        // GIVEN
+        final MovieRecommenderService service = downService();
+
+        // WHEN
+        final Recommendation rec = service.recommendRandom();
+
+        // THEN : un vrai titre, jamais le message d’erreur
+        assertFalse(rec.title().contains("Erreur"));
+        assertFalse(rec.title().isBlank());
+        assertTrue(rec.reason().contains("hors ligne"));
+    }
+
+    @Test
+    void givenOllamaDown_whenRecommendRandomBatch_thenKnownTitlesAreAvoided() {
+        // GIVEN
+        final MovieRecommenderService service = downService();
+
+        // WHEN
+        final List<Recommendation> recs = service.recommendRandomBatch(3, List.of("Heat", "Alien"));
+
+        // THEN
+        assertEquals(3, recs.size());
+        assertTrue(recs.stream().noneMatch(r -> r.title().equals("Heat") || r.title().equals("Alien")));
+    }
+
+    @Test
+    void givenOllamaDownAfterCaching_whenGenerateDescription_thenCachedThenOfflineTextIsServed() {
+        // GIVEN : « Heat » décrit une première fois quand Ollama répondait
+        final List<String> answers = new ArrayList<>(List.of("Desc Heat"));
+        final OllamaClient flaky = new OllamaClient("http://fake", "test-model") {
+            @Override
+            public String chat(final String system, final String user, final GenerationOptions options) {
+                if (answers.isEmpty()) {
+                    throw new OllamaException(OllamaException.Kind.TIMEOUT, "lent");
+                }
+                return answers.remove(0);
+            }
+        };
+        final MovieRecommenderService service = new MovieRecommenderService(flaky, JsonStorageMock::addOrUpdate);
+        service.generateDescription("Heat");
+
+        // WHEN : Ollama ne répond plus
+        final String cached = service.generateDescription("Heat");
+        final String offline = service.generateDescription("Drive");
+        final Map<String, String> batch = service.generateDescriptions(List.of("Heat", "Dune"));
+
+        // THEN
+        assertEquals("Desc Heat", cached);
+        assertEquals(MovieRecommenderService.OFFLINE_DESCRIPTION, offline);
+        assertEquals("Desc Heat", batch.get("Heat"));
+        assertEquals(MovieRecommenderService.OFFLINE_DESCRIPTION, batch.get("Dune"));
+        // le texte hors ligne n’est pas mis en cache
+        answers.add("Desc Drive");
+        assertEquals("Desc Drive", service.generateDescription("Drive"));
+    }
+
+    @Test
+    void givenPrefetchPreempted_whenGenerating_thenErrorIsPropagatedInsteadOfOfflineContent() {
+        // GIVEN : l’ordonnanceur annule la requête en file
+        final OllamaClient preempted = new OllamaClient("http://fake", "test-model") {
+            @Override
+            public String chat(final String system, final String user, final GenerationOptions options) {
+                throw new OllamaException(OllamaException.Kind.PREEMPTED, "annulée");
+            }
+        };
+        final MovieRecommenderService service = new MovieRecommenderService(preempted, JsonStorageMock::addOrUpdate);
+
+        // WHEN / THEN : le prefetcher doit pouvoir abandonner la carte
+        assertThrows(OllamaException.class, () -> service.generateDescription("Heat"));
+        assertThrows(OllamaException.class, () -> service.recommendRandomBatch(3, List.of()));
+    }
+
+    @Test
+    void titleKey_ignoresQuotesCaseAndSpacing() {
+        // WHEN / THEN : mêmes clés malgré guillemets, casse et blancs
+        assertEquals("le grand bleu", MovieRecommenderService.titleKey("  « Le   Grand\tBleu » "));
+        assertEquals("le grand bleu", MovieRecommenderService.titleKey("\"le grand bleu\""));
+        assertEquals("", MovieRecommenderService.titleKey(null));
+    }
 }
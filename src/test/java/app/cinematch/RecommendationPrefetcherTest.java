@@ -0,0 +1,241 @@
+package app.cinematch;
+
+import app.cinematch.model.Recommendation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests de RecommendationPrefetcher.
+ * Style BDD (Given / When / Then), service mocké (aucun appel réseau).
+ */
+final class RecommendationPrefetcherTest {
+
+    @Test
+    @DisplayName("poll(): une carte prête est servie en moins de 50 ms avec sa description")
+    void poll_servesReadyCardInstantly() throws Exception {
+        // GIVEN : un service qui produit des titres distincts
+        final MovieRecommenderService service = numberedService();
+        try (RecommendationPrefetcher prefetcher =
+                     new RecommendationPrefetcher(service, Set::of, 2, 4)) {
+            prefetcher.refill();
+            awaitTrue(() -> prefetcher.readyCount() >= 2);
+
+            // WHEN : on retire une carte
+            final long start = System.nanoTime();
+            final RecommendationPrefetcher.Card card = prefetcher.poll();
+            final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // THEN : carte complète, servie sans attente
+            assertNotNull(card);
+            assertTrue(elapsedMs < 50, "poll() trop lent : " + elapsedMs + " ms");
+            assertEquals("Desc " + card.recommendation().title(), card.description());
+        }
+    }
+
+    @Test
+    @DisplayName("Titres connus du stockage et doublons de session sont filtrés")
+    void knownAndDuplicateTitles_areSkipped() throws Exception {
+        // GIVEN : des lots qui reproposent « Heat » et un titre déjà servi
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+        when(service.recommendRandomBatch(anyInt(), anyCollection())).thenReturn(
+                List.of(rec("Heat"), rec("“Heat”")), List.of(rec("Drive"), rec("heat")), List.of(rec("Dune")));
+        when(service.generateDescription(anyString())).thenReturn("desc");
+
+        try (RecommendationPrefetcher prefetcher =
+                     new RecommendationPrefetcher(service, () -> Set.of("alien"), 1, 1)) {
+            // WHEN : on vide la file trois fois
+            final List<String> titles = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                prefetcher.refill();
+                awaitTrue(() -> prefetcher.readyCount() >= 1);
+                titles.add(prefetcher.poll().recommendation().title());
+            }
+
+            // THEN : aucun second « Heat »
+            assertEquals(List.of("Heat", "Drive", "Dune"), titles);
+        }
+    }
+
+    @Test
+    @DisplayName("Les titres connus et réservés sont transmis au service pour filtrage local")
+    void knownTitles_arePassedAsExclusions() throws Exception {
+        // GIVEN : un stockage contenant « alien »
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+        when(service.recommendRandomBatch(anyInt(), anyCollection())).thenReturn(List.of(rec("Heat")));
+        when(service.generateDescription(anyString())).thenReturn("desc");
+
+        try (RecommendationPrefetcher prefetcher =
+                     new RecommendationPrefetcher(service, () -> Set.of("alien"), 1, 1)) {
+            // WHEN
+            prefetcher.refill();
+            awaitTrue(() -> prefetcher.readyCount() >= 1);
+
+            // THEN : un seul appel batch, avec « alien » dans les exclusions
+            verify(service).recommendRandomBatch(anyInt(), argThat(c -> c.contains("alien")));
+        }
+    }
+
+    @Test
+    @DisplayName("targetDepth(): s’adapte au ratio latence / rythme de swipe, dans les bornes")
+    void targetDepth_adaptsToLatencyAndSwipeRate() throws Exception {
+        // GIVEN : un prefetcher borné à [2, 6]
+        try (RecommendationPrefetcher prefetcher =
+                     new RecommendationPrefetcher(mock(MovieRecommenderService.class), Set::of, 2, 6)) {
+            // THEN : sans mesure, profondeur minimale
+            assertEquals(2, prefetcher.targetDepth());
+
+            // WHEN : 3 s de latence pour un swipe toutes les secondes
+            setField(prefetcher, "avgLatencyMs", 3000.0);
+            setField(prefetcher, "avgSwipeMs", 1000.0);
+            // THEN : 3 + 1 cartes
+            assertEquals(4, prefetcher.targetDepth());
+
+            // WHEN : swipes très rapides
+            setField(prefetcher, "avgSwipeMs", 100.0);
+            // THEN : plafonné à maxDepth
+            assertEquals(6, prefetcher.targetDepth());
+        }
+    }
+
+    @Test
+    @DisplayName("Échecs du service : la file reste vide sans exception")
+    void serviceFailures_leaveQueueEmpty() throws Exception {
+        // GIVEN : un service qui jette systématiquement
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+        when(service.recommendRandomBatch(anyInt(), anyCollection())).thenThrow(new RuntimeException("Boom"));
+
+        try (RecommendationPrefetcher prefetcher =
+                     new RecommendationPrefetcher(service, Set::of, 2, 2)) {
+            // WHEN
+            prefetcher.refill();
+            Thread.sleep(100);
+
+            // THEN
+            assertNull(prefetcher.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("Description hors ligne : la carte n’est pas mise en file, le titre revient après le retour")
+    void offlineDescription_isNotQueued() throws Exception {
+        // GIVEN : Ollama indisponible pour la description de « Heat »
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+        when(service.recommendRandomBatch(anyInt(), anyCollection())).thenReturn(List.of(rec("Heat")), List.of());
+        when(service.generateDescription("Heat"))
+                .thenReturn(MovieRecommenderService.OFFLINE_DESCRIPTION, "Desc Heat");
+
+        try (RecommendationPrefetcher prefetcher =
+                     new RecommendationPrefetcher(service, Set::of, 1, 1)) {
+            // WHEN : une première génération échoue en repli
+            prefetcher.refill();
+            verify(service, timeout(3_000)).generateDescription("Heat");
+
+            // THEN : « Heat » est rendu au tampon (plus réservé), rien en file
+            awaitTrue(() -> !prefetcher.exclusions().contains("heat"));
+            assertEquals(0, prefetcher.readyCount());
+
+            // WHEN : Ollama répond de nouveau
+            prefetcher.refill();
+            awaitTrue(() -> prefetcher.readyCount() >= 1);
+
+            // THEN : la carte servie porte la vraie description
+            assertEquals("Desc Heat", prefetcher.poll().description());
+        }
+    }
+
+    @Test
+    @DisplayName("offerCandidates() n’attend pas un appel batch en cours")
+    void offerCandidates_doesNotWaitForBatchCall() throws Exception {
+        // GIVEN : un appel batch bloqué côté LLM
+        final CountDownLatch inBatch = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+        when(service.recommendRandomBatch(anyInt(), anyCollection())).thenAnswer(inv -> {
+            inBatch.countDown();
+            release.await(3, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(service.generateDescription(anyString())).thenReturn("desc");
+
+        try (RecommendationPrefetcher prefetcher =
+                     new RecommendationPrefetcher(service, Set::of, 1, 1)) {
+            prefetcher.refill();
+            assertTrue(inBatch.await(3, TimeUnit.SECONDS));
+
+            // WHEN : le swipe verse des candidats pendant l’appel
+            final long start = System.nanoTime();
+            prefetcher.offerCandidates(List.of(rec("Drive")));
+            final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // THEN : retour immédiat
+            assertTrue(elapsedMs < 500, "offerCandidates() bloqué : " + elapsedMs + " ms");
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Bornes invalides -> IllegalArgumentException")
+    void invalidBounds_throw() {
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecommendationPrefetcher(service, Set::of, 0, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecommendationPrefetcher(service, Set::of, 3, 2));
+    }
+
+    // -------- Helpers --------
+
+    private static MovieRecommenderService numberedService() {
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+        final AtomicInteger n = new AtomicInteger();
+        when(service.recommendRandomBatch(anyInt(), anyCollection())).thenAnswer(inv -> List.of(
+                rec("Film " + n.incrementAndGet()), rec("Film " + n.incrementAndGet())));
+        when(service.generateDescription(anyString()))
+                .thenAnswer(inv -> "Desc " + inv.getArgument(0));
+        return service;
+    }
+
+    private static Recommendation rec(final String title) {
+        return new Recommendation(title, "pitch", "Netflix", null);
+    }
+
+    private static void setField(final Object target, final String name, final Object value)
+            throws Exception {
+        final Field f = target.getClass().getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+
+    private static void awaitTrue(final Check cond) throws Exception {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (System.nanoTime() < deadline) {
+            if (cond.ok()) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Condition jamais vraie avant timeout");
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean ok() throws Exception;
+    }
+}
@@ -1,6 +1,7 @@
 package app.cinematch.agent;
 
 import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -96,6 +97,22 @@ final class ChatAgentTest {
         }
     }
 
+    @Test
+    @DisplayName("ask() – Ollama indisponible -> réponse de repli au lieu d'une exception")
+    void ask_returnsOfflineAnswer_whenOllamaFails() {
+        // Given: OllamaClient qui lève une erreur typée
+        final OllamaClient ollama = mock(OllamaClient.class);
+        when(ollama.chat(org.mockito.Mockito.anyString(), org.mockito.Mockito.anyString()))
+                .thenThrow(new OllamaException(OllamaException.Kind.CIRCUIT_OPEN, "down"));
+        final ChatAgent agent = new ChatAgent(ollama, mock(Profile.class), new Memory());
+
+        // When
+        final String result = agent.ask("Un film ?");
+
+        // Then
+        assertEquals(ChatAgent.OFFLINE_ANSWER, result);
+    }
+
     @Test
     @DisplayName("getMemory() – renvoie une nouvelle instance (pas de fuite d'état)")
     void getMemory_returnsNewInstanceEachTime() {
@@ -0,0 +1,103 @@
+package app.cinematch.agent.langchain;
+
+import app.cinematch.api.ToolCallScope;
+import app.cinematch.metrics.Counter;
+import app.cinematch.metrics.MetricsRegistry;
+import dev.langchain4j.agent.tool.P;
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.service.tool.ToolExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests InstrumentedTools en style GIVEN / WHEN / THEN : outil factice, aucun LLM.
+ */
+class InstrumentedToolsTest {
+
+    /** Outil factice qui renvoie le nom de l'outil vu par ToolCallScope. */
+    public static final class EchoTools {
+        @Tool("Renvoie l'outil courant")
+        public String whoAmI(@P("x") String x) {
+            return ToolCallScope.current() + ":" + x;
+        }
+
+        @Tool("Échoue toujours")
+        public String failing() {
+            return "ERROR:EMPTY_TITLE";
+        }
+
+        public String notATool() {
+            return "no";
+        }
+    }
+
+    @Test
+    @DisplayName("of - une entrée par méthode @Tool, exécutée dans le contexte de l'outil")
+    void givenToolObject_whenExecute_thenRunsInsideToolScope() {
+        // GIVEN                                                                       // GIVEN
+        Map<ToolSpecification, ToolExecutor> tools = InstrumentedTools.of(new EchoTools());
+
+        // WHEN                                                                        // WHEN
+        Map.Entry<ToolSpecification, ToolExecutor> entry = tools.entrySet().stream()
+                .filter(e -> e.getKey().name().equals("whoAmI")).findFirst().orElseThrow();
+        String out = entry.getValue().execute(ToolExecutionRequest.builder()
+                .name("whoAmI").arguments("{\"x\":\"Heat\"}").build(), "mem");
+
+        // THEN                                                                        // THEN
+        assertEquals(List.of("failing", "whoAmI"), tools.keySet().stream().map(ToolSpecification::name).sorted().toList());
+        assertEquals("whoAmI:Heat", out);
+        assertNull(ToolCallScope.current());
+    }
+
+    @Test
+    @DisplayName("of - chaque appel d'outil émet un événement JFR ToolInvocation")
+    void givenToolObject_whenExecute_thenEmitsJfrEvent() throws Exception {
+        // GIVEN                                                                       // GIVEN
+        ToolExecutor executor = whoAmI(InstrumentedTools.of(new EchoTools()));
+
+        try (app.cinematch.jfr.JfrCapture jfr = new app.cinematch.jfr.JfrCapture("app.cinematch.ToolInvocation")) {
+            // WHEN                                                                    // WHEN
+            executor.execute(ToolExecutionRequest.builder()
+                    .name("whoAmI").arguments("{\"x\":\"Heat\"}").build(), "mem");
+
+            // THEN                                                                    // THEN
+            List<jdk.jfr.consumer.RecordedEvent> events = jfr.events("app.cinematch.ToolInvocation");
+            assertEquals(1, events.size());
+            assertEquals("whoAmI", events.get(0).getString("tool"));
+            assertEquals("{\"x\":\"Heat\"}".length(), events.get(0).getLong("argumentsBytes"));
+            assertEquals("whoAmI:Heat".length(), events.get(0).getLong("resultBytes"));
+            assertTrue(events.get(0).getBoolean("success"));
+        }
+    }
+
+    @Test
+    @DisplayName("of - un résultat ERROR:… compte comme une erreur de l'outil")
+    void givenErrorResult_whenExecute_thenCountsToolError() {
+        // GIVEN                                                                       // GIVEN
+        Map<ToolSpecification, ToolExecutor> tools = InstrumentedTools.of(new EchoTools());
+        ToolExecutor failing = tools.entrySet().stream()
+                .filter(e -> e.getKey().name().equals("failing")).findFirst().orElseThrow().getValue();
+        Counter errors = MetricsRegistry.global().counter("tool.failing.errors");
+        long before = errors.count();
+
+        // WHEN                                                                        // WHEN
+        failing.execute(ToolExecutionRequest.builder().name("failing").arguments("{}").build(), "mem");
+        whoAmI(tools).execute(ToolExecutionRequest.builder()
+                .name("whoAmI").arguments("{\"x\":\"Heat\"}").build(), "mem");
+
+        // THEN                                                                        // THEN
+        assertEquals(before + 1, errors.count());
+    }
+
+    private static ToolExecutor whoAmI(Map<ToolSpecification, ToolExecutor> tools) {
+        return tools.entrySet().stream()
+                .filter(e -> e.getKey().name().equals("whoAmI")).findFirst().orElseThrow().getValue();
+    }
+}
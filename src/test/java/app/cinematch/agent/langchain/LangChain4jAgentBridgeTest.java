@@ -3,11 +3,23 @@ package app.cinematch.agent.langchain;
 import app.cinematch.MovieRecommenderService;
 import app.cinematch.agent.Profile;
 import app.cinematch.agent.tools.BulkTools;
+import app.cinematch.agent.tools.CommandKeywords;
+import app.cinematch.util.JsonStorage;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -96,11 +108,13 @@ class LangChain4jAgentBridgeTest {
         LangChain4jAgentBridge bridge =
                 new LangChain4jAgentBridge(url, model, Profile.defaultCinemaExpert(), svc);
 
-        var m = LangChain4jAgentBridge.class.getDeclaredMethod("tryClientSideBulkAdd", String.class);
+        var m = LangChain4jAgentBridge.class.getDeclaredMethod("tryClientSideBulkAdd", String.class,
+                CommandKeywords.Hits.class);
         m.setAccessible(true);
 
         // WHEN: phrase qui ressemble à un ajout mais sans séparateurs                // WHEN
-        Object res = m.invoke(bridge, "Ajoute Alien à ma wishlist");
+        String msg = "Ajoute Alien à ma wishlist";
+        Object res = m.invoke(bridge, msg, CommandKeywords.scan(msg));
 
         // THEN: pas de traitement client -> null                                     // THEN
         assertNull(res);
@@ -120,11 +134,13 @@ class LangChain4jAgentBridgeTest {
         LangChain4jAgentBridge bridge =
                 new LangChain4jAgentBridge(url, model, Profile.defaultCinemaExpert(), svc);
 
-        var m = LangChain4jAgentBridge.class.getDeclaredMethod("tryClientSideBulkAdd", String.class);
+        var m = LangChain4jAgentBridge.class.getDeclaredMethod("tryClientSideBulkAdd", String.class,
+                CommandKeywords.Hits.class);
         m.setAccessible(true);
 
         // WHEN: rien entre 'ajoute' et 'à ma wishlist'                                // WHEN
-        Object res = m.invoke(bridge, "Ajoute   à ma wishlist");
+        String msg = "Ajoute   à ma wishlist";
+        Object res = m.invoke(bridge, msg, CommandKeywords.scan(msg));
 
         // THEN: extraction vide -> null                                              // THEN
         assertNull(res);
@@ -147,14 +163,122 @@ class LangChain4jAgentBridgeTest {
         BulkTools spyBulk = spy(new BulkTools());
         setPrivateField(bridge, "bulkTools", spyBulk);
 
-        var m = LangChain4jAgentBridge.class.getDeclaredMethod("tryClientSideBulkAdd", String.class);
+        var m = LangChain4jAgentBridge.class.getDeclaredMethod("tryClientSideBulkAdd", String.class,
+                CommandKeywords.Hits.class);
         m.setAccessible(true);
 
         // WHEN: message en anglais                                                   // WHEN
-        String out = (String) m.invoke(bridge, "Add Alien, Heat to wishlist");
+        String msg = "Add Alien, Heat to wishlist";
+        String out = (String) m.invoke(bridge, msg, CommandKeywords.scan(msg));
 
         // THEN: addManyToWishlist appelé avec la bonne chaîne & message '(2).'       // THEN
         verify(spyBulk, times(1)).addManyToWishlist("Alien, Heat");
         assertTrue(out.endsWith("(2)."), "La réponse doit indiquer (2).");
     }
+
+    // ---------------------------------------------------------------------
+    // ask(...) — modèle injecté (ScriptedChatModel) : outils joués dans l'ordre
+    // ---------------------------------------------------------------------
+
+    @Test
+    @DisplayName("ask - modèle scripté: appels d'outils dans l'ordre puis réponse finale, sans réseau")
+    void givenScriptedModel_whenAsk_thenToolsRunInOrderAndFinalAnswerIsReturned(@TempDir Path dir) {
+        // GIVEN: stockage temporaire, modèle qui ajoute puis marque deux films       // GIVEN
+        System.setProperty("cinematch.storage", dir.resolve("storage.json").toString());
+        try {
+            ScriptedChatModel model = new ScriptedChatModel(List.of(
+                    new ScriptedChatModel.ToolCall("addToWishlist", "{\"title\":\"Heat\"}"),
+                    new ScriptedChatModel.ToolCall("markAsSeen", "{\"title\":\"Alien\"}")), "C'est noté !");
+            LangChain4jAgentBridge bridge = new LangChain4jAgentBridge(model, Profile.defaultCinemaExpert(),
+                    mock(MovieRecommenderService.class));
+
+            // WHEN: deux tours                                                       // WHEN
+            String first = bridge.ask("Range un peu ma collection");
+            String second = bridge.ask("Encore une fois");
+
+            // THEN: 3 générations par tour, tous les outils déclarés au modèle       // THEN
+            assertEquals("C'est noté !", first);
+            assertEquals("C'est noté !", second);
+            assertEquals(6, model.requests());
+            assertTrue(model.toolsOffered() > 10, "tous les @Tool doivent être déclarés");
+            assertEquals(List.of("Heat"), JsonStorage.getByStatus("envie"));
+            assertEquals(List.of("Alien"), JsonStorage.getByStatus("deja_vu"));
+        } finally {
+            System.clearProperty("cinematch.storage");
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // ask(...) — routeur local : commandes simples servies sans le modèle
+    // ---------------------------------------------------------------------
+
+    @Test
+    @DisplayName("ask - routeur local: statut, liste, stats et prochain film sans aucune requête au modèle")
+    void givenSimpleCommands_whenAsk_thenServedLocallyWithoutModel(@TempDir Path dir) {
+        // GIVEN: stockage temporaire, modèle scripté qui ne doit jamais être sollicité   // GIVEN
+        System.setProperty("cinematch.storage", dir.resolve("storage.json").toString());
+        try {
+            JsonStorage.addOrUpdate("Heat", "envie");
+            ScriptedChatModel model = new ScriptedChatModel(List.of(), "LLM");
+            MovieRecommenderService svc = mock(MovieRecommenderService.class);
+            when(svc.generateDescription("Heat")).thenReturn("Polar de Michael Mann.");
+            LangChain4jAgentBridge bridge = new LangChain4jAgentBridge(model, Profile.defaultCinemaExpert(), svc);
+
+            // WHEN                                                                       // WHEN
+            String next = bridge.ask("Quel est le prochain film à regarder ?");
+            String list = bridge.ask("Affiche ma liste d'envie");
+            String seen = bridge.ask("Marque Heat comme déjà vu");
+            String stats = bridge.ask("stats");
+
+            // THEN: réponses locales, stockage à jour, zéro aller-retour LLM             // THEN
+            assertEquals("Prochain film à regarder : Heat — Polar de Michael Mann.", next);
+            assertEquals("Ta liste d’envie (1) : Heat.", list);
+            assertEquals("C’est noté : Heat → déjà vu.", seen);
+            assertEquals("Tes statistiques : 1 films — 0 en envie, 1 déjà vus, 0 écartés.", stats);
+            assertEquals(List.of("Heat"), JsonStorage.getByStatus("deja_vu"));
+            assertEquals(0, model.requests());
+
+            // WHEN: demande hors grammaire -> repli sur le modèle                          // WHEN
+            assertEquals("LLM", bridge.ask("Décris-moi le film Heat"));
+            assertEquals(1, model.requests());                                          // THEN
+        } finally {
+            System.clearProperty("cinematch.storage");
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // ask(...) — tours locaux consignés dans la mémoire du modèle
+    // ---------------------------------------------------------------------
+
+    @Test
+    @DisplayName("ask - tour servi localement puis relance: le modèle reçoit la liste affichée")
+    void givenLocalTurn_whenFollowUpReachesModel_thenLocalTurnIsInMemory(@TempDir Path dir) {
+        // GIVEN: stockage temporaire, modèle qui capture l'historique reçu              // GIVEN
+        System.setProperty("cinematch.storage", dir.resolve("storage.json").toString());
+        try {
+            JsonStorage.addOrUpdate("Heat", "envie");
+            JsonStorage.addOrUpdate("Drive", "envie");
+            ChatLanguageModel model = mock(ChatLanguageModel.class);
+            when(model.generate(anyList(), anyList())).thenReturn(Response.from(AiMessage.from("LLM")));
+            LangChain4jAgentBridge bridge = new LangChain4jAgentBridge(model, Profile.defaultCinemaExpert(),
+                    mock(MovieRecommenderService.class));
+
+            // WHEN: liste servie localement, puis question qui renvoie à cette liste     // WHEN
+            String list = bridge.ask("Affiche ma liste d'envie");
+            String followUp = bridge.ask("marque le premier comme vu");
+
+            // THEN: la relance part au modèle avec le tour local dans l'historique       // THEN
+            assertEquals("LLM", followUp);
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<ChatMessage>> messages = ArgumentCaptor.forClass(List.class);
+            verify(model).generate(messages.capture(), anyList());
+            List<ChatMessage> history = messages.getValue();
+            assertInstanceOf(SystemMessage.class, history.get(0), "prompt système en tête");
+            assertTrue(history.contains(UserMessage.from("Affiche ma liste d'envie")), history::toString);
+            assertTrue(history.contains(AiMessage.from(list)), history::toString);
+            assertEquals(UserMessage.from("marque le premier comme vu"), history.get(history.size() - 1));
+        } finally {
+            System.clearProperty("cinematch.storage");
+        }
+    }
 }
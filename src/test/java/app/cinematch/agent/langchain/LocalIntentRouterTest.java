@@ -0,0 +1,132 @@
+package app.cinematch.agent.langchain;
+
+import app.cinematch.agent.langchain.LocalIntentRouter.Intent;
+import app.cinematch.agent.langchain.LocalIntentRouter.Route;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests LocalIntentRouter en style GIVEN / WHEN / THEN :
+ * grammaire (route) puis exécution via les exécuteurs d’outils (answer).
+ */
+class LocalIntentRouterTest {
+
+    @Test
+    @DisplayName("route - listes, stats et prochain film, casse/accents/politesse ignorés")
+    void givenFixedCommands_whenRoute_thenIntentAndArguments() {
+        // GIVEN / WHEN / THEN
+        assertRoute("Affiche ma liste d'envie", Intent.SHOW_LIST, "getListByStatus", Map.of("status", "envie"));
+        assertRoute("montre-moi ma wishlist stp", Intent.SHOW_LIST, "getListByStatus", Map.of("status", "envie"));
+        assertRoute("Mes films déjà vus", Intent.SHOW_LIST, "getListByStatus", Map.of("status", "deja_vu"));
+        assertRoute("liste des films pas intéressés", Intent.SHOW_LIST, "getListByStatus",
+                Map.of("status", "pas_interesse"));
+        assertRoute("stats", Intent.STATS, "getStats", Map.of("detail", "all"));
+        assertRoute("Peux-tu me donner... non : Donne-moi mes STATISTIQUES !", null, null, null);
+        assertRoute("Donne-moi mes stats", Intent.STATS, "getStats", Map.of("detail", "all"));
+        assertRoute("prochain film à regarder", Intent.NEXT_TO_WATCH, "pickNextToWatch",
+                Map.of("strategy", "random", "withDescription", "true"));
+    }
+
+    @Test
+    @DisplayName("route - changement de statut : titre d’origine conservé, « en » dans le titre toléré")
+    void givenStatusCommands_whenRoute_thenTitleAndStatus() {
+        // GIVEN / WHEN / THEN
+        assertRoute("marque Heat comme déjà vu", Intent.SET_STATUS, "markAsSeen", Map.of("title", "Heat"));
+        assertRoute("Marque le film « Le Dîner de cons » comme vu", Intent.SET_STATUS, "markAsSeen",
+                Map.of("title", "Le Dîner de cons"));
+        assertRoute("Passe Portrait de la jeune fille en feu en pas intéressé", Intent.SET_STATUS, "setStatus",
+                Map.of("title", "Portrait de la jeune fille en feu", "status", "pas_interesse"));
+        assertRoute("mets Amélie en envie", Intent.SET_STATUS, "setStatus",
+                Map.of("title", "Amélie", "status", "envie"));
+    }
+
+    @Test
+    @DisplayName("route - au moindre doute : vide (le LLM prend la main)")
+    void givenUncertainMessages_whenRoute_thenEmpty() {
+        // GIVEN / WHEN / THEN
+        for (String message : new String[] {
+                "Décris-moi le film Heat",
+                "Affiche ma liste d'envie triée par année",
+                "marque Heat et Drive comme déjà vu",
+                "marque Heat, Drive comme déjà vu",
+                "marque Heat comme chef-d'œuvre",
+                "marque comme déjà vu",
+                "Quel est le prochain film de Nolan ?",
+                "Quoi regarder ce soir ?",
+                "Qu'est-ce que je pourrais regarder ce soir ?",
+                "Quel film regarder ce soir ?",
+                "marque le premier comme vu",
+                "mets celui-ci en pas intéressé",
+                "   ",
+                null}) {
+            assertTrue(LocalIntentRouter.route(message).isEmpty(), () -> "inattendu : " + message);
+        }
+    }
+
+    @Test
+    @DisplayName("answer - exécute l’outil avec des arguments JSON et met la réponse en forme")
+    void givenExecutors_whenAnswer_thenToolCalledAndReplyFormatted() {
+        // GIVEN
+        ToolExecutor stats = mock(ToolExecutor.class);
+        when(stats.execute(any(), anyString())).thenReturn("STATS: total=3 | envie=1 | pas_interesse=0 | deja_vu=2");
+        ToolExecutor list = mock(ToolExecutor.class);
+        when(list.execute(any(), anyString())).thenReturn("[\"Heat\",\"Drive\"]");
+        ToolExecutor seen = mock(ToolExecutor.class);
+        when(seen.execute(any(), anyString())).thenReturn("ERROR:EMPTY_TITLE");
+        LocalIntentRouter router = new LocalIntentRouter(Map.of(
+                "getStats", stats, "getListByStatus", list, "markAsSeen", seen));
+
+        // WHEN / THEN
+        assertEquals("Tes statistiques : 3 films — 1 en envie, 2 déjà vus, 0 écartés.", router.answer("stats"));
+        assertEquals("Ta liste d’envie (2) : Heat, Drive.", router.answer("ma liste d'envie"));
+        assertEquals("Je n’ai pas pu le faire (ERROR:EMPTY_TITLE).", router.answer("marque Heat comme vu"));
+        ArgumentCaptor<ToolExecutionRequest> request = ArgumentCaptor.forClass(ToolExecutionRequest.class);
+        verify(list).execute(request.capture(), anyString());
+        assertEquals("getListByStatus", request.getValue().name());
+        assertEquals("{\"status\":\"envie\"}", request.getValue().arguments());
+
+        // outil absent ou message hors grammaire -> null
+        assertNull(router.answer("prochain film"));
+        assertNull(router.answer("Décris-moi le film Heat"));
+    }
+
+    @Test
+    @DisplayName("answer - liste longue : 10 titres puis « (+N) » ; prochain film avec sa description")
+    void givenLongListAndDescribedPick_whenAnswer_thenPreviewAndDescription() {
+        // GIVEN
+        ToolExecutor list = mock(ToolExecutor.class);
+        when(list.execute(any(), anyString()))
+                .thenReturn("[\"F1\",\"F2\",\"F3\",\"F4\",\"F5\",\"F6\",\"F7\",\"F8\",\"F9\",\"F10\",\"F11\",\"F12\"]");
+        ToolExecutor next = mock(ToolExecutor.class);
+        when(next.execute(any(), anyString())).thenReturn("NEXT:Heat | Polar de Michael Mann.");
+        LocalIntentRouter router = new LocalIntentRouter(Map.of("getListByStatus", list, "pickNextToWatch", next));
+
+        // WHEN / THEN
+        assertEquals("Ta liste d’envie (12) : F1, F2, F3, F4, F5, F6, F7, F8, F9, F10 (+2).",
+                router.answer("affiche ma liste d'envie"));
+        assertEquals("Prochain film à regarder : Heat — Polar de Michael Mann.",
+                router.answer("prochain film à regarder"));
+    }
+
+    // -------- Helpers --------
+
+    private static void assertRoute(String message, Intent intent, String tool, Map<String, String> arguments) {
+        Optional<Route> route = LocalIntentRouter.route(message);
+        if (intent == null) {
+            assertTrue(route.isEmpty(), message);
+            return;
+        }
+        assertEquals(Optional.of(new Route(intent, tool, arguments)), route, message);
+    }
+}
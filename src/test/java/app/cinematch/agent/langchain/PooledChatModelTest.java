@@ -0,0 +1,137 @@
+package app.cinematch.agent.langchain;
+
+import app.cinematch.api.ModelRouter;
+import app.cinematch.api.OllamaEndpoint;
+import app.cinematch.api.OllamaEndpointPool;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests PooledChatModel en style GIVEN / WHEN / THEN : modèles délégués mockés
+ * (un par serveur), aucun appel réseau.
+ */
+class PooledChatModelTest {
+
+    private static final List<ChatMessage> MESSAGES = List.of(UserMessage.from("Salut"));
+
+    @Test
+    @DisplayName("generate - un serveur en échec -> rejoué sur l'autre, marqué indisponible")
+    void givenFailingEndpoint_whenGenerate_thenOtherEndpointAnswers() {
+        // GIVEN: deux serveurs, « a » lève une exception                              // GIVEN
+        OllamaEndpointPool pool = OllamaEndpointPool.parse("http://a:1,http://b:2");
+        Map<String, ChatLanguageModel> models = new HashMap<>();
+        ChatLanguageModel a = mock(ChatLanguageModel.class);
+        ChatLanguageModel b = mock(ChatLanguageModel.class);
+        when(a.generate(anyList())).thenThrow(new RuntimeException(new ConnectException("connection refused")));
+        when(b.generate(anyList())).thenReturn(Response.from(AiMessage.from("b")));
+        models.put("http://a:1", a);
+        models.put("http://b:2", b);
+        PooledChatModel pooled = new PooledChatModel(pool, "m", models::get);
+
+        // WHEN: plusieurs générations                                                 // WHEN
+        for (int i = 0; i < 3; i++) {
+            // THEN: toujours servi par « b »                                         // THEN
+            assertEquals("b", pooled.generate(MESSAGES).content().text());
+        }
+        assertFalse(pool.endpoints().get(0).isHealthy());
+        verify(a, times(1)).generate(anyList());
+    }
+
+    @Test
+    @DisplayName("generate - tous les serveurs en échec -> dernière exception propagée")
+    void givenAllEndpointsFailing_whenGenerate_thenLastErrorIsThrown() {
+        // GIVEN                                                                       // GIVEN
+        OllamaEndpointPool pool = OllamaEndpointPool.parse("http://a:1,http://b:2");
+        ChatLanguageModel broken = mock(ChatLanguageModel.class);
+        when(broken.generate(anyList())).thenThrow(new RuntimeException("status code: 503; body: "));
+        PooledChatModel pooled = new PooledChatModel(pool, "m", url -> broken);
+
+        // WHEN / THEN: chaque serveur essayé une fois                                 // WHEN / THEN
+        assertThrows(RuntimeException.class, () -> pooled.generate(MESSAGES));
+        verify(broken, times(2)).generate(anyList());
+        assertTrue(pool.endpoints().stream().allMatch(e -> e.outstanding() == 0));
+    }
+
+    @Test
+    @DisplayName("generate - requête refusée (4xx) -> propagée, serveur gardé en rotation")
+    void givenRejectedRequest_whenGenerate_thenErrorPropagatedAndEndpointKept() {
+        // GIVEN: les serveurs refusent la requête (schéma d’outil invalide)          // GIVEN
+        OllamaEndpointPool pool = OllamaEndpointPool.parse("http://a:1,http://b:2");
+        ChatLanguageModel rejecting = mock(ChatLanguageModel.class);
+        when(rejecting.generate(anyList())).thenThrow(new RuntimeException("status code: 400; body: invalid tool"));
+        PooledChatModel pooled = new PooledChatModel(pool, "m", url -> rejecting);
+
+        // WHEN                                                                        // WHEN
+        RuntimeException e = assertThrows(RuntimeException.class, () -> pooled.generate(MESSAGES));
+
+        // THEN: pas de rejeu ailleurs, aucun serveur écarté                          // THEN
+        assertTrue(e.getMessage().contains("400"));
+        verify(rejecting, times(1)).generate(anyList());
+        assertTrue(pool.endpoints().stream().allMatch(OllamaEndpoint::isHealthy));
+        assertFalse(PooledChatModel.isEndpointFailure(new IllegalArgumentException("bad tool schema")));
+        assertTrue(PooledChatModel.isEndpointFailure(
+                new RuntimeException(new java.net.SocketTimeoutException("timeout"))));
+    }
+
+    @Test
+    @DisplayName("generate - délégués créés une seule fois par serveur")
+    void givenSeveralCalls_whenGenerate_thenDelegatesAreReused() {
+        // GIVEN                                                                       // GIVEN
+        OllamaEndpointPool pool = OllamaEndpointPool.single("http://a:1");
+        ChatLanguageModel model = mock(ChatLanguageModel.class);
+        when(model.generate(anyList(), anyList())).thenReturn(Response.from(AiMessage.from("ok")));
+        int[] created = {0};
+        PooledChatModel pooled = new PooledChatModel(pool, "m", url -> {
+            created[0]++;
+            return model;
+        });
+
+        // WHEN                                                                        // WHEN
+        pooled.generate(MESSAGES, List.of());
+        pooled.generate(MESSAGES, List.of());
+
+        // THEN                                                                        // THEN
+        assertEquals(1, created[0]);
+        assertEquals(2, pool.endpoints().get(0).latencies().count());
+    }
+
+    @Test
+    @DisplayName("generate - choix d'outils sur le petit modèle, réponse rédigée sur le grand")
+    void givenRouter_whenGenerate_thenModelDependsOnTurnStep() {
+        // GIVEN: un délégué par modèle                                                 // GIVEN
+        OllamaEndpointPool pool = OllamaEndpointPool.single("http://a:1");
+        Map<String, ChatLanguageModel> models = new HashMap<>();
+        for (String name : List.of("big", "small")) {
+            ChatLanguageModel model = mock(ChatLanguageModel.class);
+            when(model.generate(anyList(), anyList())).thenReturn(Response.from(AiMessage.from(name)));
+            models.put(name, model);
+        }
+        PooledChatModel pooled = new PooledChatModel(pool, null, ModelRouter.standard("big", "small"),
+                (url, name) -> models.get(name));
+
+        // WHEN: un premier appel, puis un appel après exécution d'un outil             // WHEN
+        String routing = pooled.generate(MESSAGES, List.of()).content().text();
+        String answer = pooled.generate(List.of(UserMessage.from("Salut"),
+                ToolExecutionResultMessage.from("id", "addToWishlist", "ADDED:Heat")), List.of())
+                .content().text();
+
+        // THEN                                                                        // THEN
+        assertEquals("small", routing);
+        assertEquals("big", answer);
+    }
+}
@@ -0,0 +1,105 @@
+package app.cinematch.agent.langchain;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ChatLanguageModel} déterministe, sans réseau : à chaque tour, demande
+ * les appels d’outils prévus un par un, puis renvoie la réponse finale.
+ *
+ * <p>Injecté dans {@link LangChain4jAgentBridge}, il isole le coût du cadre
+ * agent (proxy {@code AiServices}, mémoire, exécution des outils) de celui du
+ * modèle : tests de bout en bout, palier de performance et benchmarks.</p>
+ *
+ * <p>La progression est lue dans le dernier message reçu (message utilisateur :
+ * premier appel ; résultat d’outil {@code call-n} : appel {@code n + 1}) et non
+ * dans l’historique, que la fenêtre de mémoire tronque en cours de tour. Sans
+ * état par conversation, une instance peut servir plusieurs bridges et threads.</p>
+ */
+public final class ScriptedChatModel implements ChatLanguageModel {
+
+    /**
+     * Appel d’outil prévu.
+     *
+     * @param name      nom de l’outil ({@code @Tool})
+     * @param arguments arguments JSON
+     */
+    public record ToolCall(String name, String arguments) {
+
+        /** Constructeur canonique. */
+        public ToolCall {
+            Objects.requireNonNull(name, "name must not be null");
+            arguments = arguments == null ? "{}" : arguments;
+        }
+    }
+
+    private static final String ID_PREFIX = "call-";
+
+    private final List<ToolCall> script;
+    private final String finalAnswer;
+    private final AtomicLong requests = new AtomicLong();
+    private volatile int toolsOffered;
+
+    /**
+     * @param script      appels d’outils joués à chaque tour, dans l’ordre
+     * @param finalAnswer réponse renvoyée une fois tous les résultats reçus
+     */
+    public ScriptedChatModel(final List<ToolCall> script, final String finalAnswer) {
+        this.script = List.copyOf(script);
+        this.finalAnswer = Objects.requireNonNull(finalAnswer, "finalAnswer must not be null");
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        return generate(messages, List.of());
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages,
+                                        final List<ToolSpecification> toolSpecifications) {
+        requests.incrementAndGet();
+        toolsOffered = toolSpecifications.size();
+        final int next = nextStep(messages.isEmpty() ? null : messages.get(messages.size() - 1));
+        if (next < script.size()) {
+            final ToolCall call = script.get(next);
+            return Response.from(AiMessage.from(ToolExecutionRequest.builder()
+                    .id(ID_PREFIX + next).name(call.name()).arguments(call.arguments()).build()));
+        }
+        return Response.from(AiMessage.from(finalAnswer));
+    }
+
+    /**
+     * @return nombre de générations demandées depuis la création
+     */
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * @return nombre d’outils déclarés lors de la dernière génération
+     */
+    public int toolsOffered() {
+        return toolsOffered;
+    }
+
+    private int nextStep(final ChatMessage last) {
+        if (last instanceof UserMessage) {
+            return 0;
+        }
+        if (last instanceof ToolExecutionResultMessage result
+                && result.id() != null && result.id().startsWith(ID_PREFIX)) {
+            return Integer.parseInt(result.id().substring(ID_PREFIX.length())) + 1;
+        }
+        return script.size();
+    }
+}
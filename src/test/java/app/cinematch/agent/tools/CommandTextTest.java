@@ -0,0 +1,140 @@
+package app.cinematch.agent.tools;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de CommandText : équivalence avec les anciennes expressions régulières
+ * (fuzz sur un alphabet de commandes) et temps borné sur entrées hostiles.
+ */
+class CommandTextTest {
+
+    // Anciennes expressions, gardées comme oracles (verbe le plus long d’abord).
+    private static final Pattern VERB_PREFIX = Pattern.compile("(?iu)^.*?(ajouter|ajoute|mets|met|add)\\s*");
+    private static final Pattern LIST_TAIL = Pattern.compile("(?iu)\\s*(?:dans|à|a|to|into|in)\\s*(?:ma|la|my|the)?"
+            + "\\s*(?:wish\\s*list|wishlist|liste d'envie|liste)\\s*[.!?\\s]*$");
+    private static final Pattern STOPWORDS = Pattern.compile(
+            "\\b(ma|mon|la|le|les|de|du|des|dans|à|a|au|aux|liste|wishlist|d'envie)\\b");
+    private static final Set<String> STOPWORD_SET = Set.of(
+            "ma", "mon", "la", "le", "les", "de", "du", "des", "dans", "à", "a", "au", "aux",
+            "liste", "wishlist", "d'envie");
+
+    /** Fragments dont sont composées les entrées aléatoires. */
+    private static final String[] TOKENS = {
+        " ", "  ", "\t", "\n", "\r", "\u2028", ",", ".", ";", "!", "?", "'", "\"", "«", "»", "“",
+        "ajoute", "AJOUTER", "Mets", "met", "add", "marque", "mettre", "et", "ET", "puis", "Puis",
+        "dans", "à", "À", "a", "to", "into", "in", "ma", "MA", "la", "my", "the", "mon", "le", "les",
+        "de", "du", "des", "au", "aux", "liste", "Liste", "wish", "list", "wishlist", "d'envie",
+        "liste d'envie", "Heat", "Alien", "é", "x", "2049", "_"
+    };
+
+    private static final int FUZZ_CASES = 5_000;
+    /** Taille des entrées hostiles (les anciennes regex y mettaient des dizaines de secondes). */
+    private static final int HUGE = 200_000;
+    private static final long BUDGET_MS = 500;
+
+    @Test
+    @DisplayName("Fuzz : mêmes résultats que les anciennes expressions régulières")
+    void givenRandomCommands_whenTokenized_thenSameAsRegexOracles() {
+        // GIVEN — Des commandes aléatoires construites à partir de fragments réalistes.
+        Random random = new Random(20261019L);
+        for (int n = 0; n < FUZZ_CASES; n++) {
+            String s = randomCommand(random);
+
+            // WHEN / THEN — Chaque découpeur rend exactement ce que rendait sa regex.
+            assertEquals(VERB_PREFIX.matcher(s).replaceFirst(""), CommandText.stripLeadingVerb(s), () -> dump(s));
+            assertEquals(LIST_TAIL.matcher(s).replaceFirst(""), CommandText.stripListTail(s), () -> dump(s));
+            assertEquals(Arrays.asList(s.split("(?i)\\s+(et|puis)\\s+|[.;]")), CommandText.splitClauses(s),
+                    () -> dump(s));
+            assertEquals(STOPWORDS.matcher(s).replaceAll(""), CommandText.removeWords(s, STOPWORD_SET),
+                    () -> dump(s));
+            assertEquals(s.replaceAll("[\"“”«»]", ""), CommandText.stripQuotes(s), () -> dump(s));
+            assertEquals(s.replaceAll("\\s+", " ").trim(), CommandText.collapseSpaces(s), () -> dump(s));
+            assertEquals(s.replaceFirst("(?i)^(marque|mets|mettre)\\s+", ""),
+                    CommandText.stripLeadingWord(s, "marque", "mets", "mettre"), () -> dump(s));
+        }
+    }
+
+    @Test
+    @DisplayName("Cas usuels : verbe, queue de liste, propositions")
+    void givenTypicalCommands_whenTokenized_thenExpectedPieces() {
+        // GIVEN / WHEN / THEN
+        assertEquals("Alien, Heat dans ma liste d'envie !",
+                CommandText.stripLeadingVerb("Peux-tu ajouter Alien, Heat dans ma liste d'envie !"));
+        assertEquals("Alien, Heat", CommandText.stripListTail("Alien, Heat dans ma liste d'envie !"));
+        assertEquals("Drive, Dune", CommandText.stripListTail("Drive, Dune to my wish list."));
+        assertEquals("Heat", CommandText.stripListTail("Heat"));
+        assertEquals(List.of("ajoute Heat", "retire Dune", " marque Alien"),
+                CommandText.splitClauses("ajoute Heat et retire Dune. marque Alien"));
+        assertEquals("Blade Runner 2049",
+                CommandText.collapseSpaces(CommandText.removeWords(
+                        CommandText.stripQuotes("« Blade  Runner 2049 » dans ma liste"), STOPWORD_SET)));
+    }
+
+    @Test
+    @DisplayName("Entrées hostiles de 200 000 caractères : temps borné")
+    void givenAdversarialHugeInputs_whenTokenized_thenLinearTime() {
+        // GIVEN — Les formes qui faisaient revenir les anciennes regex en arrière.
+        List<String> inputs = List.of(
+                "ajoute" + " ".repeat(HUGE) + "x",
+                "x" + " ".repeat(HUGE) + "dans ma",
+                " ".repeat(HUGE) + "et",
+                "a ".repeat(HUGE / 2),
+                "dans ".repeat(HUGE / 5) + "liste x",
+                "wish ".repeat(HUGE / 5) + "list",
+                "d".repeat(HUGE) + "'envie",
+                "\"".repeat(HUGE));
+        List<Function<String, Object>> tokenizers = List.of(
+                CommandText::stripLeadingVerb,
+                CommandText::stripListTail,
+                CommandText::splitClauses,
+                s -> CommandText.removeWords(s, STOPWORD_SET),
+                CommandText::collapseSpaces,
+                MultiActionTools.Parser::parse);
+
+        for (String input : inputs) {
+            for (Function<String, Object> tokenizer : tokenizers) {
+                // WHEN
+                long start = System.nanoTime();
+                tokenizer.apply(input);
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                // THEN — Bien en deçà des secondes de l’ancienne version.
+                assertTrue(elapsedMs < BUDGET_MS,
+                        "trop lent (" + elapsedMs + " ms) sur " + input.substring(0, 20).replace('\n', ' ') + "…");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sans séparateur, splitClauses rend la chaîne entière (comme String.split)")
+    void givenNoDelimiter_whenSplit_thenWholeString() {
+        assertEquals(List.of(""), CommandText.splitClauses(""));
+        assertEquals(List.of("Heat"), CommandText.splitClauses("Heat"));
+        assertEquals(List.of(), CommandText.splitClauses(".;"));
+    }
+
+    // -------- Helpers --------
+
+    private static String randomCommand(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int parts = random.nextInt(14);
+        for (int i = 0; i < parts; i++) {
+            sb.append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String dump(String s) {
+        return "entrée : [" + s.replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t") + "]";
+    }
+}
@@ -0,0 +1,146 @@
+package app.cinematch.agent.tools;
+
+import app.cinematch.agent.tools.CommandKeywords.Kind;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de KeywordMatcher (automate d’Aho–Corasick) et du vocabulaire CommandKeywords.
+ */
+class KeywordMatcherTest {
+
+    private static final String[] ALPHABET = {"a", "b", "ab", "ba", "A", "é", "É", " ", "-", "_", "’"};
+
+    @Test
+    @DisplayName("Occurrences chevauchantes, casse ignorée, positions d’origine")
+    void givenOverlappingKeywords_whenScan_thenAllOccurrencesReported() {
+        // GIVEN — Le jeu classique he / she / his / hers.
+        KeywordMatcher<String> matcher = KeywordMatcher.of(List.of(
+                new KeywordMatcher.Keyword<>("he", "he", false),
+                new KeywordMatcher.Keyword<>("she", "she", false),
+                new KeywordMatcher.Keyword<>("his", "his", false),
+                new KeywordMatcher.Keyword<>("hers", "hers", false)));
+
+        // WHEN
+        List<KeywordMatcher.Match<String>> matches = matcher.findAll("USHERS");
+
+        // THEN — she, he (fin commune), puis hers.
+        assertEquals(List.of("she@1", "he@2", "hers@2"), render(matches));
+    }
+
+    @Test
+    @DisplayName("Mots entiers : « add » ne trouve pas « Addams »")
+    void givenWholeWordKeyword_whenInsideLongerWord_thenIgnored() {
+        // GIVEN
+        KeywordMatcher<String> matcher = KeywordMatcher.of(List.of(
+                new KeywordMatcher.Keyword<>("add", "add", true),
+                new KeywordMatcher.Keyword<>("envie", "envie", true)));
+
+        // WHEN / THEN
+        assertTrue(matcher.findAll("La Famille Addams").isEmpty());
+        assertEquals(List.of("add@0"), render(matcher.findAll("ADD Heat")));
+        assertEquals(List.of("envie@8"), render(matcher.findAll("liste d'envie")));
+        assertTrue(matcher.findAll("enviée").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fuzz : mêmes occurrences qu’une recherche naïve")
+    void givenRandomKeywordsAndTexts_whenScan_thenSameAsNaiveSearch() {
+        Random random = new Random(49L);
+        for (int round = 0; round < 500; round++) {
+            // GIVEN — Des mots-clés et un texte sur un petit alphabet (beaucoup de recouvrements).
+            List<KeywordMatcher.Keyword<Integer>> keywords = new ArrayList<>();
+            int count = 1 + random.nextInt(8);
+            for (int k = 0; k < count; k++) {
+                keywords.add(new KeywordMatcher.Keyword<>(randomText(random, 1 + random.nextInt(4)), k,
+                        random.nextBoolean()));
+            }
+            String text = randomText(random, random.nextInt(40));
+
+            // WHEN
+            List<String> actual = sorted(render(KeywordMatcher.of(keywords).findAll(text)));
+
+            // THEN
+            assertEquals(sorted(naive(keywords, text)), actual, () -> keywords + " / [" + text + "]");
+        }
+    }
+
+    @Test
+    @DisplayName("Vocabulaire : verbes, statut le plus à droite, liaisons")
+    void givenCommand_whenScanVocabulary_thenKindsDetected() {
+        // GIVEN
+        CommandKeywords.Hits hits = CommandKeywords.scan("Ajoutez Heat et marque Envie de tuer comme déjà vu");
+
+        // THEN
+        assertTrue(hits.has(Kind.ADD));
+        assertTrue(hits.has(Kind.MARK));
+        assertTrue(hits.has(Kind.JOINER));
+        assertFalse(hits.has(Kind.REMOVE));
+        assertEquals("envie", hits.first(Kind.STATUS).tag().value());
+        assertEquals("deja_vu", hits.last(Kind.STATUS).tag().value());
+        assertFalse(MultiActionTools.shouldForceMulti("La Famille Addams et Matrix"));
+        assertTrue(MultiActionTools.shouldForceMulti("retirez Dune puis ajoute Heat"));
+    }
+
+    @Test
+    @DisplayName("Aucun mot-clé -> IllegalArgumentException")
+    void givenNoKeyword_whenCompile_thenRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordMatcher.of(List.<KeywordMatcher.Keyword<String>>of()));
+        assertThrows(IllegalArgumentException.class, () -> new KeywordMatcher.Keyword<>("", "x", true));
+    }
+
+    // -------- Helpers --------
+
+    private static String randomText(Random random, int parts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts; i++) {
+            sb.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return sb.length() == 0 && parts > 0 ? "a" : sb.toString();
+    }
+
+    private static <T> List<String> naive(List<KeywordMatcher.Keyword<T>> keywords, String text) {
+        List<String> out = new ArrayList<>();
+        String lower = lowerPerChar(text);
+        for (KeywordMatcher.Keyword<T> k : keywords) {
+            String needle = lowerPerChar(k.text());
+            for (int i = lower.indexOf(needle); i >= 0; i = lower.indexOf(needle, i + 1)) {
+                int end = i + needle.length();
+                boolean bounded = (i == 0 || !CommandText.isWordChar(text.charAt(i - 1)))
+                        && (end == text.length() || !CommandText.isWordChar(text.charAt(end)));
+                if (!k.wholeWord() || bounded) {
+                    out.add(k.tag() + "@" + i);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static String lowerPerChar(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            sb.append(Character.toLowerCase(s.charAt(i)));
+        }
+        return sb.toString();
+    }
+
+    private static <T> List<String> render(List<KeywordMatcher.Match<T>> matches) {
+        List<String> out = new ArrayList<>();
+        for (KeywordMatcher.Match<T> m : matches) {
+            out.add(m.tag() + "@" + m.start());
+        }
+        return out;
+    }
+
+    private static List<String> sorted(List<String> list) {
+        List<String> copy = new ArrayList<>(list);
+        copy.sort(Comparator.naturalOrder());
+        return copy;
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -162,4 +164,44 @@ class MultiActionToolsTest {
             assertEquals("Aucune action à effectuer.", out);
         }
     }
+
+    @Test
+    @DisplayName("Parser : le statut retenu est l'alias le plus à droite")
+    void givenTitleContainingStatusAlias_whenParse_thenRightmostStatus() {
+        // GIVEN — Le titre contient lui-même un alias de statut (« Envie »).
+        String instruction = "marque Envie Fatale comme déjà vu";
+
+        // WHEN — Parsing seul, sans exécution.
+        List<MultiActionTools.Action> plan = MultiActionTools.Parser.parse(instruction);
+
+        // THEN — Le statut est celui qui suit le titre.
+        assertEquals(List.of(new MultiActionTools.SetStatus("Envie Fatale", "deja_vu")), plan);
+    }
+
+    @Test
+    @DisplayName("Parser : les verbes ne sont reconnus qu'en mots entiers")
+    void givenVerbInsideTitle_whenParse_thenNotAVerb() {
+        // GIVEN — « retire » n'apparaît qu'à l'intérieur d'un mot du titre.
+        String instruction = "\"The Retirement Plan\"";
+
+        // WHEN — Parsing seul.
+        List<MultiActionTools.Action> plan = MultiActionTools.Parser.parse(instruction);
+
+        // THEN — Pas de retrait : fallback guillemets -> ajout du titre entier.
+        assertEquals(List.of(new MultiActionTools.Add("The Retirement Plan")), plan);
+    }
+
+    @Test
+    @DisplayName("Parser : les formes hors vocabulaire (« supprimes », « retires ») ne sont plus des verbes")
+    void givenUnlistedVerbForms_whenParse_thenNoAction() {
+        // GIVEN / WHEN — Formes qui n'étaient reconnues que par préfixe.
+        List<MultiActionTools.Action> supprimes = MultiActionTools.Parser.parse("supprimes Heat de ma liste");
+        List<MultiActionTools.Action> retires = MultiActionTools.Parser.parse("retires Alien");
+
+        // THEN — Aucun plan ; la forme listée, elle, reste reconnue.
+        assertEquals(List.of(), supprimes);
+        assertEquals(List.of(), retires);
+        assertEquals(List.of(new MultiActionTools.Remove("Heat")),
+                MultiActionTools.Parser.parse("supprime Heat de ma liste"));
+    }
 }
@@ -185,4 +185,45 @@ class ViewingToolsTest {
         }
     }
 
+
+    // --------------------- DESCRIBE LIST ---------------------
+
+    @Test
+    @DisplayName("describeList - délègue à generateDescriptions en un seul appel")
+    void givenWishlist_whenDescribeList_thenSingleBatchCall() {
+        // GIVEN: wishlist avec guillemets et entrée vide
+        try (MockedStatic<JsonStorage> js = Mockito.mockStatic(JsonStorage.class)) {
+            js.when(() -> JsonStorage.getByStatus("envie")).thenReturn(List.of("“Alien”", " ", "Heat"));
+            MovieRecommenderService svc = mock(MovieRecommenderService.class);
+            java.util.Map<String, String> descs = new java.util.LinkedHashMap<>();
+            descs.put("Alien", "Desc Alien");
+            descs.put("Heat", "Desc Heat");
+            when(svc.generateDescriptions(List.of("Alien", "Heat"))).thenReturn(descs);
+            ViewingTools tools = new ViewingTools(svc);
+
+            // WHEN: statut non fourni -> "envie"
+            String res = tools.describeList(null);
+
+            // THEN: un seul appel batch, réponse listant chaque film
+            assertTrue(res.startsWith("DESCRIBED:2"));
+            assertTrue(res.contains("- Alien : Desc Alien"));
+            assertTrue(res.contains("- Heat : Desc Heat"));
+            verify(svc).generateDescriptions(List.of("Alien", "Heat"));
+            verifyNoMoreInteractions(svc);
+        }
+    }
+
+    @Test
+    @DisplayName("describeList - liste vide -> DESCRIBED:EMPTY sans appel service")
+    void givenEmptyList_whenDescribeList_thenEmpty() {
+        try (MockedStatic<JsonStorage> js = Mockito.mockStatic(JsonStorage.class)) {
+            js.when(() -> JsonStorage.getByStatus("deja_vu")).thenReturn(List.of());
+            MovieRecommenderService svc = mock(MovieRecommenderService.class);
+
+            String res = new ViewingTools(svc).describeList(" DEJA_VU ");
+
+            assertEquals("DESCRIBED:EMPTY", res);
+            verifyNoInteractions(svc);
+        }
+    }
 }
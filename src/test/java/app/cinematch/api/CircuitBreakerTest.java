@@ -0,0 +1,73 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofSeconds(10), now::get);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        // Given / When: deux échecs consécutifs
+        breaker.recordFailure();
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        // Given: un échec puis un succès
+        breaker.recordFailure();
+        breaker.recordSuccess();
+
+        // When: un nouvel échec
+        breaker.recordFailure();
+
+        // Then: toujours fermé
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpen_allowsSingleTrial_thenClosesOnSuccess() {
+        // Given: disjoncteur ouvert, délai écoulé
+        breaker.recordFailure();
+        breaker.recordFailure();
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        // When / Then: un seul appel d’essai
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpen_reopensOnFailure() {
+        // Given: essai semi-ouvert
+        breaker.recordFailure();
+        breaker.recordFailure();
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        // When
+        breaker.recordFailure();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+}
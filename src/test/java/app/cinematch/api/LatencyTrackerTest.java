@@ -0,0 +1,50 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyTrackerTest {
+
+    @Test
+    void percentile_usesNearestRank() {
+        // Given: 1..100 ms
+        LatencyTracker tracker = new LatencyTracker(100);
+        for (int i = 100; i >= 1; i--) {
+            tracker.record(i);
+        }
+
+        // Then
+        assertEquals(50, tracker.percentile(50));
+        assertEquals(99, tracker.percentile(99));
+        assertEquals(100, tracker.percentile(100));
+        assertEquals(1, tracker.percentile(0));
+    }
+
+    @Test
+    void window_keepsOnlyMostRecentSamples() {
+        // Given: fenêtre de 3
+        LatencyTracker tracker = new LatencyTracker(3);
+        tracker.record(1000);
+        tracker.record(10);
+        tracker.record(20);
+
+        // When: une nouvelle mesure évince la plus ancienne
+        tracker.record(30);
+
+        // Then
+        assertEquals(3, tracker.count());
+        assertEquals(30, tracker.percentile(100));
+    }
+
+    @Test
+    void empty_returnsMinusOne_andRejectsInvalidInput() {
+        LatencyTracker tracker = new LatencyTracker();
+        assertEquals(-1, tracker.percentile(99));
+        tracker.record(-5);
+        assertEquals(0, tracker.count());
+        assertThrows(IllegalArgumentException.class, () -> tracker.percentile(101));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyTracker(0));
+    }
+}
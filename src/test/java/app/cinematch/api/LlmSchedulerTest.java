@@ -0,0 +1,194 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class LlmSchedulerTest {
+
+    private static final String MODEL = "qwen2.5:7b-instruct";
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void acquire_limitsConcurrencyPerEndpoint() throws Exception {
+        // Given: deux serveurs, un slot chacun
+        LlmScheduler scheduler = new LlmScheduler(OllamaEndpointPool.parse("http://a:1,http://b:2"), 1);
+
+        try (OllamaEndpointPool.Lease first = scheduler.acquire(LlmPriority.FOREGROUND, MODEL, Set.of());
+             OllamaEndpointPool.Lease second = scheduler.acquire(LlmPriority.FOREGROUND, MODEL, Set.of())) {
+            // Then: un serveur chacun
+            assertNotSame(first.endpoint(), second.endpoint());
+
+            // When: une troisième requête arrive
+            Future<OllamaEndpointPool.Lease> third = callers.submit(
+                    () -> scheduler.acquire(LlmPriority.FOREGROUND, MODEL, Set.of()));
+
+            // Then: elle attend...
+            awaitTrue(() -> scheduler.queueDepth() == 1);
+            assertFalse(third.isDone());
+
+            // ...jusqu’à la libération d’un slot, qu’elle reprend
+            first.close();
+            try (OllamaEndpointPool.Lease lease = third.get(2, TimeUnit.SECONDS)) {
+                assertEquals(first.endpoint(), lease.endpoint());
+            }
+        }
+        assertEquals(0, scheduler.queueDepth());
+        assertEquals(3, scheduler.stats(LlmPriority.FOREGROUND).admitted());
+    }
+
+    @Test
+    void freedSlot_goesToHighestPriority_thenFifo() throws Exception {
+        // Given: un slot occupé, puis des requêtes FOREGROUND, INTERACTIVE, FOREGROUND en file
+        LlmScheduler scheduler = new LlmScheduler(OllamaEndpointPool.single("http://a:1"), 1);
+        OllamaEndpointPool.Lease busy = scheduler.acquire(LlmPriority.FOREGROUND, MODEL, Set.of());
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> waiting = new ArrayList<>();
+        String[] names = {"fg-1", "chat", "fg-2"};
+        LlmPriority[] priorities = {LlmPriority.FOREGROUND, LlmPriority.INTERACTIVE, LlmPriority.FOREGROUND};
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            final LlmPriority priority = priorities[i];
+            waiting.add(callers.submit(() -> {
+                try (OllamaEndpointPool.Lease lease = scheduler.acquire(priority, MODEL, Set.of())) {
+                    order.add(name);
+                }
+            }));
+            final int expected = i + 1;
+            awaitTrue(() -> scheduler.queueDepth() == expected);
+        }
+        assertEquals(2, scheduler.stats(LlmPriority.FOREGROUND).queueDepth());
+
+        // When
+        busy.close();
+        for (Future<?> f : waiting) {
+            f.get(2, TimeUnit.SECONDS);
+        }
+
+        // Then: le chat passe devant, les autres dans l’ordre d’arrivée
+        assertEquals(List.of("chat", "fg-1", "fg-2"), order);
+        assertTrue(scheduler.stats(LlmPriority.FOREGROUND).waitP95Ms() >= 0);
+    }
+
+    @Test
+    void waitingHigherPriority_preemptsQueuedPrefetch() throws Exception {
+        // Given: un slot occupé et une requête de préchargement en file
+        LlmScheduler scheduler = new LlmScheduler(OllamaEndpointPool.single("http://a:1"), 1);
+        OllamaEndpointPool.Lease busy = scheduler.acquire(LlmPriority.FOREGROUND, MODEL, Set.of());
+        Future<OllamaEndpointPool.Lease> prefetch = callers.submit(
+                () -> scheduler.acquire(LlmPriority.PREFETCH, MODEL, Set.of()));
+        awaitTrue(() -> scheduler.queueDepth() == 1);
+
+        // When: une requête interactive doit attendre à son tour
+        Future<OllamaEndpointPool.Lease> chat = callers.submit(
+                () -> scheduler.acquire(LlmPriority.INTERACTIVE, MODEL, Set.of()));
+
+        // Then: le préchargement est annulé
+        ExecutionException e = assertThrows(ExecutionException.class, () -> prefetch.get(2, TimeUnit.SECONDS));
+        assertEquals(OllamaException.Kind.PREEMPTED, ((OllamaException) e.getCause()).kind());
+        assertEquals(1, scheduler.stats(LlmPriority.PREFETCH).preempted());
+
+        // et la requête interactive obtient le slot libéré
+        busy.close();
+        chat.get(2, TimeUnit.SECONDS).close();
+        assertEquals(0, scheduler.queueDepth());
+    }
+
+    @Test
+    void prefetch_isNotPreemptedWhenASlotIsFree() throws Exception {
+        // Given: deux slots, un préchargement en cours
+        LlmScheduler scheduler = new LlmScheduler(OllamaEndpointPool.single("http://a:1"), 2);
+        try (OllamaEndpointPool.Lease prefetch = scheduler.acquire(LlmPriority.PREFETCH, MODEL, Set.of());
+             OllamaEndpointPool.Lease chat = scheduler.acquire(LlmPriority.INTERACTIVE, MODEL, Set.of())) {
+            // Then: les deux passent, rien n’est annulé (le travail déjà parti n’est jamais interrompu)
+            assertEquals(2, chat.endpoint().outstanding());
+        }
+        assertEquals(0, scheduler.stats(LlmPriority.PREFETCH).preempted());
+    }
+
+    @Test
+    void client_neverExceedsSlotsOnServer_andPrefetchContextIsHonoured() throws Exception {
+        // Given: un serveur lent et un seul slot
+        try (StubOllamaServer server = new StubOllamaServer("ok", 30, MODEL)) {
+            OllamaEndpointPool pool = OllamaEndpointPool.single(server.baseUrl());
+            LlmScheduler scheduler = new LlmScheduler(pool, 1);
+            OllamaClient client = new OllamaClient(pool, MODEL, ResiliencePolicy.defaults());
+            client.setScheduler(scheduler);
+
+            // When: 6 appels concurrents, dont 3 en préchargement
+            List<Callable<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                final boolean prefetch = i % 2 == 0;
+                calls.add(() -> prefetch
+                        ? LlmPriority.PREFETCH.call(() -> chatOrPreempted(client))
+                        : client.chat("sys", "usr"));
+            }
+            List<String> results = new ArrayList<>();
+            for (Future<String> f : callers.invokeAll(calls)) {
+                results.add(f.get());
+            }
+
+            // Then: jamais plus d’une requête à la fois côté serveur
+            assertEquals(1, server.maxInFlight());
+            for (int i = 0; i < results.size(); i++) {
+                // les appels interactifs aboutissent toujours, le préchargement peut être annulé
+                assertTrue(i % 2 == 0 ? Set.of("ok", "preempted").contains(results.get(i))
+                        : "ok".equals(results.get(i)), results.toString());
+            }
+            assertEquals(scheduler.stats(LlmPriority.PREFETCH).admitted()
+                    + scheduler.stats(LlmPriority.INTERACTIVE).admitted(), server.chatRequests());
+            assertEquals(3, scheduler.stats(LlmPriority.INTERACTIVE).admitted());
+            assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+        }
+    }
+
+    @Test
+    void invalidSlots_areRejected() {
+        OllamaEndpointPool pool = OllamaEndpointPool.single("http://a:1");
+        assertThrows(IllegalArgumentException.class, () -> new LlmScheduler(pool, 0));
+    }
+
+    // -------- Helpers --------
+
+    private static String chatOrPreempted(OllamaClient client) {
+        try {
+            return client.chat("sys", "usr");
+        } catch (OllamaException e) {
+            assertEquals(OllamaException.Kind.PREEMPTED, e.kind());
+            return "preempted";
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier cond) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (System.nanoTime() < deadline) {
+            if (cond.getAsBoolean()) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Condition jamais vraie avant timeout");
+    }
+}
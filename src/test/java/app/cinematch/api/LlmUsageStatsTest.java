@@ -0,0 +1,61 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.cinematch.model.LlmMessage;
+import app.cinematch.model.LlmResponse;
+import org.junit.jupiter.api.Test;
+
+class LlmUsageStatsTest {
+
+    private final LlmUsageStats stats = new LlmUsageStats();
+
+    @Test
+    void record_aggregatesTokensPerSecond_promptTokens_andReloads() {
+        // Given: deux réponses, la première a rechargé le modèle (2 s)
+        stats.record(LlmOperation.GENERATE_DESCRIPTION, response(400, 100, 2_000_000_000L, 2_000_000_000L));
+        stats.record(LlmOperation.GENERATE_DESCRIPTION, response(600, 300, 3_000_000_000L, 1_000_000L));
+
+        // When
+        LlmUsageStats.Summary summary = stats.summary("generateDescription");
+
+        // Then: 400 tokens en 5 s = 80 tokens/s
+        assertEquals(2, summary.calls());
+        assertEquals(1000, summary.promptTokens());
+        assertEquals(400, summary.evalTokens());
+        assertEquals(80.0, summary.tokensPerSecond(), 1e-9);
+        assertEquals(400, summary.promptTokensP50(), 400 / 16.0);
+        assertEquals(600, summary.promptTokensP95(), 600 / 16.0);
+        assertEquals(1, summary.reloads());
+        assertEquals(2000, summary.loadMsMax());
+    }
+
+    @Test
+    void record_insideTool_isAlsoTaggedWithToolName() {
+        // When: un appel fait par l’outil « describeList »
+        ToolCallScope.call("describeList", () -> {
+            stats.record(LlmOperation.DESCRIBE_BATCH, response(50, 10, 100_000_000L, 0));
+            return null;
+        });
+        stats.record(LlmOperation.DESCRIBE_BATCH, response(50, 10, 100_000_000L, 0));
+
+        // Then
+        assertEquals(2, stats.summary("generateDescriptions").calls());
+        assertEquals(1, stats.summary("tool:describeList").calls());
+        assertNull(ToolCallScope.current());
+        assertTrue(stats.snapshot().keySet().containsAll(java.util.Set.of("generateDescriptions", "tool:describeList")));
+    }
+
+    @Test
+    void responseWithoutMetrics_isIgnored() {
+        stats.record(LlmOperation.CHAT, new LlmResponse(new LlmMessage("assistant", "ok")));
+        assertNull(stats.summary("chat"));
+    }
+
+    private static LlmResponse response(long prompt, long eval, long evalNanos, long loadNanos) {
+        return new LlmResponse(new LlmMessage("assistant", "ok"), prompt, 1_000_000L, eval, evalNanos,
+                loadNanos, evalNanos + loadNanos);
+    }
+}
@@ -0,0 +1,43 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.Test;
+
+class LocalHttpServersTest {
+
+    @Test
+    void create_enablesNoDelay_andStopShutsDownDaemonExecutor() throws Exception {
+        // Given / When
+        HttpServer server = LocalHttpServers.create(0, "local-test");
+        server.start();
+
+        // Then: TCP_NODELAY demandé, serveur sur la boucle locale
+        assertEquals("true", System.getProperty(LocalHttpServers.NODELAY_PROPERTY));
+        assertEquals("127.0.0.1", server.getAddress().getAddress().getHostAddress());
+        ExecutorService executor = (ExecutorService) server.getExecutor();
+
+        // When
+        LocalHttpServers.stop(server);
+
+        // Then
+        assertTrue(executor.isShutdown());
+    }
+
+    @Test
+    void pause_waitsRequestedTime_andHonoursInterrupt() throws Exception {
+        // Given / When
+        long start = System.nanoTime();
+        LocalHttpServers.pause(5_000_000);
+        LocalHttpServers.pause(-1);
+
+        // Then
+        assertTrue(System.nanoTime() - start >= 5_000_000);
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> LocalHttpServers.pause(1_000_000_000));
+    }
+}
@@ -0,0 +1,57 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ModelKeepAliveTest {
+
+    @Test
+    void start_warmsUpImmediately_thenPingsPeriodically() {
+        // Given: un client dont le préchauffage prend 42 ms
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.warmUp("30m")).thenReturn(42L);
+
+        // When
+        try (ModelKeepAlive keepAlive = new ModelKeepAlive(client, "30m", Duration.ofMillis(20))) {
+            keepAlive.start();
+
+            // Then: préchauffage puis au moins deux pings
+            verify(client, timeout(2000).atLeast(3)).warmUp(eq("30m"));
+            assertEquals(42L, keepAlive.warmUpMillis());
+        }
+    }
+
+    @Test
+    void close_stopsPings() throws Exception {
+        // Given: keep-alive démarré puis fermé
+        OllamaClient client = mock(OllamaClient.class);
+        ModelKeepAlive keepAlive = new ModelKeepAlive(client, "5m", Duration.ofMillis(10));
+        keepAlive.start();
+        verify(client, timeout(2000).atLeast(1)).warmUp("5m");
+        keepAlive.close();
+        Thread.sleep(30);
+
+        // When: on compte les appels sur une nouvelle fenêtre de temps
+        int before = org.mockito.Mockito.mockingDetails(client).getInvocations().size();
+        Thread.sleep(100);
+
+        // Then: plus aucun ping
+        assertEquals(before, org.mockito.Mockito.mockingDetails(client).getInvocations().size());
+        verify(client, atLeast(1)).warmUp("5m");
+    }
+
+    @Test
+    void invalidInterval_throws() {
+        OllamaClient client = mock(OllamaClient.class);
+        assertThrows(IllegalArgumentException.class, () -> new ModelKeepAlive(client, "5m", Duration.ZERO));
+    }
+}
@@ -0,0 +1,91 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ModelRouterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ModelRouter router = new ModelRouter("big",
+            Map.of(LlmOperation.CHAT, new ModelRoute("big", "small", Duration.ofMillis(1000)),
+                    LlmOperation.TOOL_ROUTING, new ModelRoute("small", null, Duration.ofMillis(500))),
+            4, Duration.ofSeconds(60), now::get);
+
+    @Test
+    void unroutedOperation_usesDefaultModel() {
+        assertEquals("big", router.modelFor(LlmOperation.GENERATE_DESCRIPTION));
+        assertEquals("small", router.modelFor(LlmOperation.TOOL_ROUTING));
+        assertEquals(Set.of("big", "small"), router.models());
+    }
+
+    @Test
+    void p95AboveSlo_downgradesToFallback_untilCooldownEnds() {
+        // Given: des réponses rapides ne changent rien
+        for (int i = 0; i < 10; i++) {
+            router.record(LlmOperation.CHAT, "big", 300);
+        }
+        assertEquals("big", router.modelFor(LlmOperation.CHAT));
+
+        // When: la queue de latence dépasse l’objectif
+        for (int i = 0; i < 4; i++) {
+            router.record(LlmOperation.CHAT, "big", 2500);
+        }
+
+        // Then: repli sur le petit modèle
+        assertEquals("small", router.modelFor(LlmOperation.CHAT));
+        ModelRouter.Status status = router.status(LlmOperation.CHAT);
+        assertTrue(status.downgraded());
+        assertEquals(1, status.downgrades());
+        assertEquals(1000, status.sloMs());
+
+        // When: fin du repli
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        // Then: retour au modèle nominal, avec une fenêtre vierge
+        assertEquals("big", router.modelFor(LlmOperation.CHAT));
+        assertEquals(-1, router.status(LlmOperation.CHAT).p95Ms());
+        router.record(LlmOperation.CHAT, "big", 2500);
+        assertEquals("big", router.modelFor(LlmOperation.CHAT), "pas de décision avant minSamples");
+    }
+
+    @Test
+    void samplesOfOtherModels_andRoutesWithoutFallback_areIgnored() {
+        // When: lenteur du modèle de repli, et d’une route sans repli
+        for (int i = 0; i < 10; i++) {
+            router.record(LlmOperation.CHAT, "small", 5000);
+            router.record(LlmOperation.TOOL_ROUTING, "small", 5000);
+        }
+
+        // Then
+        assertEquals("big", router.modelFor(LlmOperation.CHAT));
+        assertEquals("small", router.modelFor(LlmOperation.TOOL_ROUTING));
+        assertFalse(router.status(LlmOperation.TOOL_ROUTING).downgraded());
+    }
+
+    @Test
+    void standard_putsShortStructuredCallsOnSmallModel() {
+        ModelRouter standard = ModelRouter.standard("qwen2.5:7b", "qwen2.5:1.5b");
+        assertEquals("qwen2.5:1.5b", standard.modelFor(LlmOperation.TOOL_ROUTING));
+        assertEquals("qwen2.5:1.5b", standard.modelFor(LlmOperation.RECOMMEND_RANDOM));
+        assertEquals("qwen2.5:7b", standard.modelFor(LlmOperation.GENERATE_DESCRIPTION));
+        assertEquals("qwen2.5:1.5b", standard.route(LlmOperation.CHAT).fallbackModel());
+
+        // un seul modèle configuré : aucun repli possible
+        assertNull(ModelRouter.standard("m", "m").route(LlmOperation.CHAT).fallbackModel());
+    }
+
+    @Test
+    void invalidRoute_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ModelRoute(" ", null, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ModelRoute("m", null, Duration.ZERO));
+    }
+}
@@ -0,0 +1,96 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Démonstration de la couverture (hedging) contre un serveur local dont une
+ * requête sur 25 est lente (300 ms au lieu de 5 ms).
+ */
+class OllamaClientHedgingTest {
+
+    private static final String MODEL = "m";
+    private static final int WARM_UP = 25;
+    private static final int MEASURED = 100;
+
+    @Test
+    void hedging_cutsTailLatency_withinLoadBudget() throws Exception {
+        // Given: distribution à queue lourde (4 % de requêtes lentes)
+        AtomicInteger n = new AtomicInteger();
+        try (StubOllamaServer server = new StubOllamaServer("stub",
+                () -> n.incrementAndGet() % 25 == 0 ? 300 : 5, MODEL)) {
+
+            // When: même charge sans puis avec couverture
+            LatencyTracker plain = measure(new OllamaClient(server.baseUrl(), MODEL), null);
+            OllamaClient hedged = new OllamaClient(server.baseUrl(), MODEL);
+            HedgingPolicy policy = new HedgingPolicy(EnumSet.of(LlmOperation.RECOMMEND_RANDOM),
+                    95, Duration.ofMillis(20), 0.1, 20);
+            LatencyTracker covered = measure(hedged, policy);
+
+            // Then: la queue disparaît…
+            assertTrue(plain.percentile(99) >= 250, "sans couverture p99=" + plain.percentile(99));
+            assertTrue(covered.percentile(99) < 150, "avec couverture p99=" + covered.percentile(99));
+            // … pour un surcoût borné par le budget
+            HedgingPolicy.Stats stats = hedged.hedgingStats();
+            assertTrue(stats.hedges() > 0);
+            assertTrue(stats.extraLoad() <= 0.1, "charge en plus=" + stats.extraLoad());
+            assertTrue(stats.wins() > 0 && stats.wins() <= stats.hedges());
+        }
+    }
+
+    @Test
+    void hedging_respectsBudget_evenWhenEveryRequestIsSlow() throws Exception {
+        // Given: serveur uniformément lent, budget de 5 %
+        try (StubOllamaServer server = new StubOllamaServer("stub", 30, MODEL)) {
+            OllamaClient client = new OllamaClient(server.baseUrl(), MODEL);
+            client.setHedging(new HedgingPolicy(EnumSet.of(LlmOperation.CHAT), 50, Duration.ofMillis(1), 0.05, 5));
+
+            // When
+            for (int i = 0; i < 60; i++) {
+                client.chat("sys", "usr");
+            }
+
+            // Then: au plus 5 % de doublons…
+            HedgingPolicy.Stats stats = client.hedgingStats();
+            assertTrue(stats.hedges() > 0);
+            assertTrue(stats.extraLoad() <= 0.05, "charge en plus=" + stats.extraLoad());
+
+            // … et une opération non couverte n’est jamais doublée
+            client.chat("sys", "usr", GenerationOptions.none(LlmOperation.GENERATE_DESCRIPTION));
+            assertEquals(stats, client.hedgingStats());
+        }
+    }
+
+    @Test
+    void hedging_isOff_untilEnoughSamples() {
+        HedgingPolicy policy = HedgingPolicy.forOperations(LlmOperation.RECOMMEND_RANDOM);
+        LatencyTracker tracker = new LatencyTracker();
+        assertEquals(-1, policy.delayMillis(tracker));
+        for (int i = 0; i < 20; i++) {
+            tracker.record(10);
+        }
+        assertEquals(50, policy.delayMillis(tracker));
+        assertTrue(policy.covers(LlmOperation.RECOMMEND_RANDOM));
+    }
+
+    /** Préchauffe (remplit les latences) puis mesure côté appelant. */
+    private static LatencyTracker measure(OllamaClient client, HedgingPolicy policy) {
+        GenerationOptions options = GenerationOptions.none(LlmOperation.RECOMMEND_RANDOM);
+        for (int i = 0; i < WARM_UP; i++) {
+            client.chat("sys", "usr", options);
+        }
+        client.setHedging(policy);
+        LatencyTracker observed = new LatencyTracker(MEASURED);
+        for (int i = 0; i < MEASURED; i++) {
+            long start = System.nanoTime();
+            client.chat("sys", "usr", options);
+            observed.record((System.nanoTime() - start) / 1_000_000);
+        }
+        return observed;
+    }
+}
@@ -1,9 +1,13 @@
 package app.cinematch.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.lang.reflect.Field;
@@ -53,7 +57,7 @@ class OllamaClientTest {
     }
 
     @Test
-    void chat_returnsVide_whenMessageIsNull() throws Exception {
+    void chat_throwsEmptyResponse_whenMessageIsNull() throws Exception {
         // Given: client et réponse avec "message": null
         OllamaClient client = new OllamaClient("http://host:1234", "m");
         injectMock(client, "http", httpMock);
@@ -64,28 +68,383 @@ class OllamaClientTest {
         org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
                 .thenReturn(response);
 
+        // When / Then: erreur typée au lieu de la chaîne "[vide]"
+        OllamaException e = assertThrows(OllamaException.class, () -> client.chat("sys", "usr"));
+        assertEquals(OllamaException.Kind.EMPTY_RESPONSE, e.kind());
+    }
+
+    @Test
+    void chat_throwsUnavailable_afterRetries_whenHttpThrows() throws Exception {
+        // Given: client (3 tentatives, sans attente) et HttpClient qui jette une exception
+        OllamaClient client = new OllamaClient("http://host:8080", "m", fastPolicy(3, 10));
+        injectMock(client, "http", httpMock);
+
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenThrow(new java.io.IOException("boom"));
+
+        // When
+        OllamaException e = assertThrows(OllamaException.class, () -> client.chat("sys", "usr"));
+
+        // Then: erreur typée, message conservé, trois tentatives
+        assertEquals(OllamaException.Kind.UNAVAILABLE, e.kind());
+        assertTrue(e.getMessage().contains("boom"));
+        verify(httpMock, times(3)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    void chat_retriesTransientFailure_thenSucceeds() throws Exception {
+        // Given: un premier appel en échec réseau, puis une réponse valide
+        OllamaClient client = new OllamaClient("http://host:8080", "m", fastPolicy(3, 10));
+        injectMock(client, "http", httpMock);
+        HttpResponse<String> ok = okResponse("{\"message\":{\"content\":\"Salut\"}}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenThrow(new java.io.IOException("reset"))
+                .thenReturn(ok);
+
         // When
         String result = client.chat("sys", "usr");
 
         // Then
-        assertEquals("[vide]", result);
+        assertEquals("Salut", result);
+        verify(httpMock, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
     }
 
     @Test
-    void chat_returnsErrorPrefix_whenHttpThrows() throws Exception {
-        // Given: client et HttpClient qui jette une exception
-        OllamaClient client = new OllamaClient("http://host:8080", "m");
+    void chat_doesNotRetry_onTimeout() throws Exception {
+        // Given: 3 tentatives autorisées, premier appel en timeout
+        OllamaClient client = new OllamaClient("http://host:8080", "m", fastPolicy(3, 10));
         injectMock(client, "http", httpMock);
+        HttpResponse<String> ok = okResponse("{\"message\":{\"content\":\"Salut\"}}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenThrow(new java.net.http.HttpTimeoutException("lent"))
+                .thenReturn(ok);
+
+        // When
+        OllamaException e = assertThrows(OllamaException.class, () -> client.chat("sys", "usr"));
 
+        // Then: une seule tentative (pas de délai complet supplémentaire), échec compté
+        assertEquals(OllamaException.Kind.TIMEOUT, e.kind());
+        verify(httpMock, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    void chat_doesNotRetry_onClientError() throws Exception {
+        // Given: réponse HTTP 404 (modèle inconnu)
+        OllamaClient client = new OllamaClient("http://host:8080", "m", fastPolicy(3, 10));
+        injectMock(client, "http", httpMock);
+        HttpResponse<String> notFound = okResponse("{\"error\":\"model not found\"}");
+        org.mockito.Mockito.when(notFound.statusCode()).thenReturn(404);
         org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                .thenThrow(new java.io.IOException("boom"));
+                .thenReturn(notFound);
 
         // When
-        String result = client.chat("sys", "usr");
+        OllamaException e = assertThrows(OllamaException.class, () -> client.chat("sys", "usr"));
+
+        // Then: une seule tentative, disjoncteur toujours fermé
+        assertEquals(OllamaException.Kind.BAD_REQUEST, e.kind());
+        verify(httpMock, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    @Test
+    void chat_failsFast_whenCircuitIsOpen() throws Exception {
+        // Given: disjoncteur à 2 échecs, serveur qui renvoie des 503
+        OllamaClient client = new OllamaClient("http://host:8080", "m", fastPolicy(1, 2));
+        injectMock(client, "http", httpMock);
+        HttpResponse<String> unavailable = okResponse("");
+        org.mockito.Mockito.when(unavailable.statusCode()).thenReturn(503);
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(unavailable);
+        assertThrows(OllamaException.class, () -> client.chat("sys", "usr"));
+        assertThrows(OllamaException.class, () -> client.chat("sys", "usr"));
+
+        // When: appel suivant
+        OllamaException e = assertThrows(OllamaException.class, () -> client.chat("sys", "usr"));
+
+        // Then: refusé sans appel réseau
+        assertEquals(OllamaException.Kind.CIRCUIT_OPEN, e.kind());
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        verify(httpMock, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    void chat_usesAdaptiveTimeout_onceEnoughSamples() throws Exception {
+        // Given: politique à 1 échantillon minimum, délai entre 1 s et 60 s
+        OllamaClient client = new OllamaClient("http://host:8080", "m", fastPolicy(1, 5));
+        injectMock(client, "http", httpMock);
+        HttpResponse<String> ok = okResponse("{\"message\":{\"content\":\"x\"}}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(ok);
+
+        // JVM chaude (Jackson, traces, métriques) : sinon le premier appel mesure le chargement des classes
+        OllamaClient warm = new OllamaClient("http://host:8080", "m", fastPolicy(1, 5));
+        injectMock(warm, "http", httpMock);
+        warm.chat("sys", "usr");
+        org.mockito.Mockito.clearInvocations(httpMock);
+
+        // When: deux appels (le premier alimente les latences)
+        client.chat("sys", "usr");
+        client.chat("sys", "usr");
+
+        // Then: premier délai = max, second = borne basse (latence quasi nulle)
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpMock, times(2)).send(captor.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals(java.time.Duration.ofSeconds(60), captor.getAllValues().get(0).timeout().orElseThrow());
+        assertEquals(java.time.Duration.ofSeconds(1), captor.getAllValues().get(1).timeout().orElseThrow());
+        assertEquals(2, client.latencies(LlmOperation.CHAT).count());
+    }
+
+    @Test
+    void chat_withOptions_sendsFormatOptionsAndKeepAlive() throws Exception {
+        // Given: client et réponse valide
+        OllamaClient client = new OllamaClient("http://host:1234", "m");
+        injectMock(client, "http", httpMock);
+        @SuppressWarnings("unchecked")
+        HttpResponse<String> response = (HttpResponse<String>) mock(HttpResponse.class);
+        org.mockito.Mockito.when(response.body()).thenReturn("{\"message\":{\"content\":\"{}\"}}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(response);
+
+        // When: appel avec les options par défaut d’une recommandation + keep_alive
+        client.chat("sys", "usr",
+                GenerationOptions.defaultsFor(LlmOperation.RECOMMEND_RANDOM).withKeepAlive("30m"));
+
+        // Then: le corps JSON porte le schéma, les options et keep_alive
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpMock).send(captor.capture(), any(HttpResponse.BodyHandler.class));
+        String body = bodyOf(captor.getValue());
+        assertTrue(body.contains("\"format\":{\"type\":\"object\""));
+        assertTrue(body.contains("\"num_predict\":200"));
+        assertTrue(body.contains("\"keep_alive\":\"30m\""));
+    }
+
+    @Test
+    void chat_withoutOperationKeepAlive_sendsClientKeepAlive() throws Exception {
+        // Given: keep_alive configuré sur le client, aucun dans les options
+        OllamaClient client = new OllamaClient("http://host:1234", "m");
+        client.setKeepAlive("30m");
+        injectMock(client, "http", httpMock);
+        @SuppressWarnings("unchecked")
+        HttpResponse<String> response = (HttpResponse<String>) mock(HttpResponse.class);
+        org.mockito.Mockito.when(response.body()).thenReturn("{\"message\":{\"content\":\"ok\"}}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(response);
+
+        // When
+        client.chat("sys", "usr");
+
+        // Then: la requête réarme le délai demandé au préchauffage, pas le défaut serveur
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpMock).send(captor.capture(), any(HttpResponse.BodyHandler.class));
+        assertTrue(bodyOf(captor.getValue()).contains("\"keep_alive\":\"30m\""));
+    }
+
+    @Test
+    void warmUp_sendsEmptyMessagesWithKeepAlive() throws Exception {
+        // Given: client et réponse valide (Ollama répond sans message au préchargement)
+        OllamaClient client = new OllamaClient("http://host:1234", "m");
+        injectMock(client, "http", httpMock);
+        @SuppressWarnings("unchecked")
+        HttpResponse<String> response = (HttpResponse<String>) mock(HttpResponse.class);
+        org.mockito.Mockito.when(response.body()).thenReturn("{\"done\":true}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(response);
+
+        // When
+        long ms = client.warmUp("30m");
+
+        // Then: aucun message, keep_alive transmis, durée mesurée
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpMock).send(captor.capture(), any(HttpResponse.BodyHandler.class));
+        String body = bodyOf(captor.getValue());
+        assertTrue(body.contains("\"messages\":[]"));
+        assertTrue(body.contains("\"keep_alive\":\"30m\""));
+        assertTrue(body.contains("\"num_ctx\":" + GenerationOptions.CONTEXT_TOKENS));
+        assertTrue(ms >= 0);
+    }
+
+    @Test
+    void defaultsFor_everyOperationSharesOneContextWindow() {
+        // Given / When / Then: un num_ctx différent forcerait Ollama à recharger le modèle
+        for (LlmOperation operation : LlmOperation.values()) {
+            assertEquals(GenerationOptions.CONTEXT_TOKENS,
+                    GenerationOptions.defaultsFor(operation).numCtx(), operation.name());
+        }
+    }
+
+    @Test
+    void chat_recordsOnlySuccessfulAttemptServiceTime_inModelRouter() throws Exception {
+        // Given: une première tentative lente en échec réseau, puis une réponse immédiate
+        OllamaClient client = new OllamaClient("http://host:1234", "m", fastPolicy(3, 10));
+        injectMock(client, "http", httpMock);
+        ModelRouter router = mock(ModelRouter.class);
+        org.mockito.Mockito.when(router.modelFor(LlmOperation.CHAT)).thenReturn("m");
+        client.setModelRouter(router);
+        HttpResponse<String> ok = okResponse("{\"message\":{\"content\":\"x\"}}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenAnswer(inv -> {
+                    Thread.sleep(300);
+                    throw new java.io.IOException("reset");
+                })
+                .thenReturn(ok);
+
+        // When
+        client.chat("sys", "usr");
+
+        // Then: une seule mesure, celle de la tentative réussie (sans les 300 ms perdus)
+        verify(router, times(1)).record(org.mockito.ArgumentMatchers.eq(LlmOperation.CHAT),
+                org.mockito.ArgumentMatchers.eq("m"), org.mockito.ArgumentMatchers.longThat(ms -> ms < 300));
+    }
+
+    @Test
+    void chat_withModelRouter_sendsOperationModel_andWarmsUpEveryModel() throws Exception {
+        // Given: un routeur petit / grand modèle
+        OllamaClient client = new OllamaClient("http://host:1234", "big");
+        injectMock(client, "http", httpMock);
+        client.setModelRouter(ModelRouter.standard("big", "small"));
+        @SuppressWarnings("unchecked")
+        HttpResponse<String> response = (HttpResponse<String>) mock(HttpResponse.class);
+        org.mockito.Mockito.when(response.body()).thenReturn("{\"message\":{\"content\":\"{}\"}}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(response);
+
+        // When: une recommandation, une description, puis un préchargement
+        client.chat("sys", "usr", GenerationOptions.defaultsFor(LlmOperation.RECOMMEND_RANDOM));
+        client.chat("sys", "usr", GenerationOptions.defaultsFor(LlmOperation.GENERATE_DESCRIPTION));
+        client.warmUp("30m");
+
+        // Then: chaque opération part sur son modèle, et les deux sont préchargés
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpMock, org.mockito.Mockito.times(4)).send(captor.capture(), any(HttpResponse.BodyHandler.class));
+        assertTrue(bodyOf(captor.getAllValues().get(0)).contains("\"model\":\"small\""));
+        assertTrue(bodyOf(captor.getAllValues().get(1)).contains("\"model\":\"big\""));
+        assertTrue(bodyOf(captor.getAllValues().get(2)).contains("\"model\":\"big\""));
+        assertTrue(bodyOf(captor.getAllValues().get(3)).contains("\"model\":\"small\""));
+    }
+
+    @Test
+    void chat_recordsOllamaTokenAndTimingMetrics_perOperation() throws Exception {
+        // Given: une réponse Ollama avec ses mesures
+        OllamaClient client = new OllamaClient("http://host:1234", "m");
+        injectMock(client, "http", httpMock);
+        LlmUsageStats usage = new LlmUsageStats();
+        client.setUsageStats(usage);
+        @SuppressWarnings("unchecked")
+        HttpResponse<String> response = (HttpResponse<String>) mock(HttpResponse.class);
+        org.mockito.Mockito.when(response.body()).thenReturn("{\"message\":{\"content\":\"Heat\"},"
+                + "\"prompt_eval_count\":120,\"eval_count\":40,\"eval_duration\":500000000,"
+                + "\"load_duration\":3000000,\"total_duration\":600000000}");
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(response);
+
+        // When
+        client.chat("sys", "usr", GenerationOptions.defaultsFor(LlmOperation.RECOMMEND_RANDOM));
+
+        // Then: 40 tokens en 0,5 s
+        LlmUsageStats.Summary summary = usage.summary("recommendRandom");
+        assertEquals(1, summary.calls());
+        assertEquals(120, summary.promptTokens());
+        assertEquals(80.0, summary.tokensPerSecond(), 1e-9);
+        assertEquals(0, summary.reloads());
+        assertSame(usage, client.usageStats());
+    }
+
+    @Test
+    void chat_emitsJfrEvent_withModelOperationSizesAndTokens() throws Exception {
+        // Given
+        OllamaClient client = new OllamaClient("http://host:1234", "m");
+        injectMock(client, "http", httpMock);
+        String body = "{\"message\":{\"content\":\"Heat\"},\"prompt_eval_count\":120,\"eval_count\":40}";
+        HttpResponse<String> response = okResponse(body);
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(response);
+
+        try (app.cinematch.jfr.JfrCapture jfr = new app.cinematch.jfr.JfrCapture("app.cinematch.LlmRequest")) {
+            // When
+            client.chat("sys", "usr", GenerationOptions.defaultsFor(LlmOperation.RECOMMEND_RANDOM));
+
+            // Then
+            java.util.List<jdk.jfr.consumer.RecordedEvent> events = jfr.events("app.cinematch.LlmRequest").stream()
+                    .filter(e -> "http://host:1234".equals(e.getString("endpoint")))
+                    .toList();
+            assertEquals(1, events.size());
+            jdk.jfr.consumer.RecordedEvent event = events.get(0);
+            assertEquals("m", event.getString("model"));
+            assertEquals("recommendRandom", event.getString("operation"));
+            assertEquals(body.length(), event.getLong("responseBytes"));
+            assertTrue(event.getLong("requestBytes") > 0);
+            assertEquals(120, event.getLong("promptTokens"));
+            assertEquals(40, event.getLong("evalTokens"));
+            assertEquals("ok", event.getString("outcome"));
+        }
+    }
+
+    @Test
+    void warmUp_returnsMinusOne_onException() throws Exception {
+        // Given: HttpClient qui lève une exception
+        OllamaClient client = new OllamaClient("http://host:1234", "m");
+        injectMock(client, "http", httpMock);
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenThrow(new java.io.IOException("down"));
+
+        // When / Then
+        assertEquals(-1, client.warmUp("30m"));
+    }
+
+    @Test
+    void warmUp_keepsEndpointInRotation_whenOneModelIsRejected() throws Exception {
+        // Given: deux modèles routés, le petit n'est pas installé sur cet hôte (HTTP 400)
+        OllamaEndpointPool pool = OllamaEndpointPool.single("http://host:1234");
+        OllamaClient client = new OllamaClient(pool, "big", ResiliencePolicy.defaults());
+        injectMock(client, "http", httpMock);
+        client.setModelRouter(ModelRouter.standard("big", "small"));
+        HttpResponse<String> loaded = okResponse("{\"done\":true}");
+        HttpResponse<String> missing = okResponse("{\"error\":\"model 'small' not found\"}");
+        org.mockito.Mockito.when(missing.statusCode()).thenReturn(400);
+        org.mockito.Mockito.when(httpMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenAnswer(inv -> bodyOf(inv.getArgument(0)).contains("\"model\":\"small\"") ? missing : loaded);
+
+        // When
+        long ms = client.warmUp("30m");
+
+        // Then: le grand modèle est chargé et l'endpoint reste en rotation
+        OllamaEndpoint endpoint = pool.endpoints().get(0);
+        assertTrue(ms >= 0);
+        assertTrue(endpoint.isHealthy());
+        assertTrue(endpoint.hasLoaded("big"));
+        assertFalse(endpoint.hasLoaded("small"));
+    }
+
+    // --- politique rapide : pas d’attente entre tentatives, un seul échantillon suffit
+    private static ResiliencePolicy fastPolicy(int attempts, int failureThreshold) {
+        return new ResiliencePolicy(attempts, java.time.Duration.ZERO, java.time.Duration.ZERO,
+                java.time.Duration.ofSeconds(1), java.time.Duration.ofSeconds(60), 2.0, 1,
+                failureThreshold, java.time.Duration.ofMinutes(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> okResponse(String body) {
+        HttpResponse<String> response = (HttpResponse<String>) mock(HttpResponse.class);
+        org.mockito.Mockito.when(response.body()).thenReturn(body);
+        return response;
+    }
 
-        // Then: on renvoie le format d’erreur attendu
-        assertTrue(result.startsWith("[Erreur Ollama] "));
-        assertTrue(result.contains("boom"));
+    // --- lit le corps d’une requête construite avec BodyPublishers.ofString
+    private static String bodyOf(HttpRequest request) throws Exception {
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        java.util.concurrent.CompletableFuture<Void> done = new java.util.concurrent.CompletableFuture<>();
+        request.bodyPublisher().orElseThrow().subscribe(new java.util.concurrent.Flow.Subscriber<>() {
+            @Override public void onSubscribe(java.util.concurrent.Flow.Subscription s) { s.request(Long.MAX_VALUE); }
+            @Override public void onNext(java.nio.ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                out.write(bytes, 0, bytes.length);
+            }
+            @Override public void onError(Throwable t) { done.completeExceptionally(t); }
+            @Override public void onComplete() { done.complete(null); }
+        });
+        done.get();
+        return out.toString(java.nio.charset.StandardCharsets.UTF_8);
     }
 
     // --- utilitaire d’injection du mock dans le champ privé 'http'
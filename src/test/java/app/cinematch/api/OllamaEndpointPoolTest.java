@@ -0,0 +1,161 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class OllamaEndpointPoolTest {
+
+    private static final String MODEL = "qwen2.5:7b-instruct";
+
+    @Test
+    void acquire_prefersEndpointWithFewestOutstandingRequests() {
+        // Given: deux serveurs
+        OllamaEndpointPool pool = OllamaEndpointPool.parse("http://a:1, http://b:2/");
+
+        // When: deux réservations simultanées
+        try (OllamaEndpointPool.Lease first = pool.acquire(MODEL);
+             OllamaEndpointPool.Lease second = pool.acquire(MODEL)) {
+
+            // Then: chacune sur un serveur différent
+            assertNotSame(first.endpoint(), second.endpoint());
+            assertEquals(1, first.endpoint().outstanding());
+        }
+        // et tout est libéré
+        assertTrue(pool.endpoints().stream().allMatch(e -> e.outstanding() == 0));
+        assertEquals("http://b:2", pool.endpoints().get(1).baseUrl());
+    }
+
+    @Test
+    void acquire_weighsEndpointsWithModelLoaded() {
+        // Given: le modèle n’est chargé que sur « b »
+        OllamaEndpointPool pool = OllamaEndpointPool.parse("http://a:1,http://b:2");
+        OllamaEndpoint b = pool.endpoints().get(1);
+        b.markLoaded(MODEL);
+
+        // When: trois réservations simultanées
+        List<OllamaEndpointPool.Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            leases.add(pool.acquire(MODEL));
+        }
+
+        // Then: « b » absorbe les trois ((2+1)/4 < (0+1)/1)
+        assertEquals(3, b.outstanding());
+        leases.forEach(OllamaEndpointPool.Lease::close);
+
+        // et un autre modèle n’en bénéficie pas
+        try (OllamaEndpointPool.Lease l1 = pool.acquire("autre");
+             OllamaEndpointPool.Lease l2 = pool.acquire("autre")) {
+            assertNotSame(l1.endpoint(), l2.endpoint());
+        }
+    }
+
+    @Test
+    void acquire_skipsUnhealthyAndExcludedEndpoints_unlessNoneLeft() {
+        // Given: « a » hors service
+        OllamaEndpointPool pool = OllamaEndpointPool.parse("http://a:1 http://b:2");
+        OllamaEndpoint a = pool.endpoints().get(0);
+        OllamaEndpoint b = pool.endpoints().get(1);
+        a.markDown();
+
+        // Then: toujours « b »
+        for (int i = 0; i < 4; i++) {
+            try (OllamaEndpointPool.Lease lease = pool.acquire(MODEL)) {
+                assertSame(b, lease.endpoint());
+            }
+        }
+        // « b » exclu : on retombe sur « a » plutôt que d’échouer
+        try (OllamaEndpointPool.Lease lease = pool.acquire(MODEL, Set.of(b))) {
+            assertSame(a, lease.endpoint());
+        }
+    }
+
+    @Test
+    void checkHealth_readsLoadedModels_andMarksDeadServersDown() throws Exception {
+        // Given: un serveur vivant avec le modèle chargé, un serveur arrêté
+        try (StubOllamaServer up = new StubOllamaServer("up", 0, MODEL)) {
+            StubOllamaServer down = new StubOllamaServer("down", 0, null);
+            String downUrl = down.baseUrl();
+            down.close();
+            OllamaEndpointPool pool = new OllamaEndpointPool(List.of(up.baseUrl(), downUrl));
+
+            // When
+            pool.checkHealth();
+
+            // Then
+            OllamaEndpoint first = pool.endpoints().get(0);
+            OllamaEndpoint second = pool.endpoints().get(1);
+            assertTrue(first.isHealthy());
+            assertTrue(first.hasLoaded(MODEL));
+            assertFalse(second.isHealthy());
+        }
+    }
+
+    @Test
+    void client_spreadsLoadOverStubServers_andFavoursTheFastOne() throws Exception {
+        // Given: un serveur rapide (5 ms) et un lent (150 ms)
+        try (StubOllamaServer fast = new StubOllamaServer("fast", 5, MODEL);
+             StubOllamaServer slow = new StubOllamaServer("slow", 150, MODEL)) {
+            OllamaEndpointPool pool = new OllamaEndpointPool(List.of(fast.baseUrl(), slow.baseUrl()));
+            OllamaClient client = new OllamaClient(pool, MODEL, ResiliencePolicy.defaults());
+
+            // When: 40 requêtes, 4 en parallèle
+            ExecutorService callers = Executors.newFixedThreadPool(4);
+            try {
+                List<Callable<String>> calls = new ArrayList<>();
+                for (int i = 0; i < 40; i++) {
+                    calls.add(() -> client.chat("sys", "usr"));
+                }
+                for (Future<String> f : callers.invokeAll(calls)) {
+                    assertTrue(Set.of("fast", "slow").contains(f.get()));
+                }
+            } finally {
+                callers.shutdownNow();
+            }
+
+            // Then: les deux serveurs servent, le rapide (libéré plus vite) davantage
+            assertTrue(slow.chatRequests() > 0);
+            assertTrue(fast.chatRequests() > slow.chatRequests(),
+                    "fast=" + fast.chatRequests() + " slow=" + slow.chatRequests());
+            assertEquals(40, fast.chatRequests() + slow.chatRequests());
+        }
+    }
+
+    @Test
+    void client_failsOverToRemainingServer_whenOneDies() throws Exception {
+        // Given: deux serveurs dont l’un est arrêté
+        try (StubOllamaServer alive = new StubOllamaServer("alive", 0, MODEL)) {
+            StubOllamaServer dead = new StubOllamaServer("dead", 0, MODEL);
+            String deadUrl = dead.baseUrl();
+            dead.close();
+            OllamaEndpointPool pool = new OllamaEndpointPool(List.of(deadUrl, alive.baseUrl()));
+            OllamaClient client = new OllamaClient(pool, MODEL, new ResiliencePolicy(2, Duration.ZERO,
+                    Duration.ZERO, Duration.ofSeconds(1), Duration.ofSeconds(5), 2.0, 20, 5, Duration.ofSeconds(30)));
+
+            // When / Then: toutes les requêtes aboutissent
+            for (int i = 0; i < 5; i++) {
+                assertEquals("alive", client.chat("sys", "usr"));
+            }
+            assertFalse(pool.endpoints().get(0).isHealthy());
+        }
+    }
+
+    @Test
+    void emptyPool_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OllamaEndpointPool(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> OllamaEndpointPool.parse(" , "));
+    }
+}
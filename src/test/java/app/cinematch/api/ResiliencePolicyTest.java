@@ -0,0 +1,58 @@
+package app.cinematch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ResiliencePolicyTest {
+
+    private final ResiliencePolicy policy = ResiliencePolicy.defaults();
+
+    @Test
+    void timeout_isMaxUntilEnoughSamples_thenTracksP99() {
+        // Given: 19 mesures (< minSamples = 20)
+        LatencyTracker tracker = new LatencyTracker();
+        for (int i = 0; i < 19; i++) {
+            tracker.record(4000);
+        }
+        assertEquals(Duration.ofSeconds(60), policy.timeoutFor(tracker));
+
+        // When: 20e mesure
+        tracker.record(4000);
+
+        // Then: 2 × p99
+        assertEquals(Duration.ofSeconds(8), policy.timeoutFor(tracker));
+    }
+
+    @Test
+    void timeout_isBounded() {
+        LatencyTracker fast = new LatencyTracker();
+        LatencyTracker slow = new LatencyTracker();
+        for (int i = 0; i < 20; i++) {
+            fast.record(10);
+            slow.record(50_000);
+        }
+        assertEquals(Duration.ofSeconds(5), policy.timeoutFor(fast));
+        assertEquals(Duration.ofSeconds(60), policy.timeoutFor(slow));
+    }
+
+    @Test
+    void backoff_isJitteredWithinExponentialCap() {
+        // Then: plafond 200 ms, 400 ms puis borné à 2 s
+        assertEquals(0, policy.backoffMillis(1, 0.0));
+        assertEquals(100, policy.backoffMillis(1, 0.5));
+        assertTrue(policy.backoffMillis(2, 0.999) < 400);
+        assertTrue(policy.backoffMillis(10, 0.999) < 2000);
+    }
+
+    @Test
+    void invalidPolicy_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ResiliencePolicy(0, Duration.ZERO,
+                Duration.ZERO, Duration.ofSeconds(1), Duration.ofSeconds(2), 2.0, 1, 1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new ResiliencePolicy(1, Duration.ZERO,
+                Duration.ZERO, Duration.ofSeconds(3), Duration.ofSeconds(2), 2.0, 1, 1, Duration.ZERO));
+    }
+}
@@ -0,0 +1,93 @@
+package app.cinematch.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Serveur HTTP local minimal imitant Ollama pour les tests :
+ * {@code /api/chat} répond après une latence fixe ou tirée d’une distribution,
+ * {@code /api/ps} liste les
+ * modèles « chargés ». Compte les requêtes reçues.
+ */
+final class StubOllamaServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger chatRequests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final String name;
+    private volatile LongSupplier latencyMs;
+    private volatile String loadedModel;
+
+    StubOllamaServer(final String name, final long latencyMs, final String loadedModel) throws IOException {
+        this(name, () -> latencyMs, loadedModel);
+    }
+
+    StubOllamaServer(final String name, final LongSupplier latencyMs, final String loadedModel)
+            throws IOException {
+        this.name = name;
+        this.latencyMs = latencyMs;
+        this.loadedModel = loadedModel;
+        this.server = LocalHttpServers.create(0, "stub-ollama-" + name);
+        server.createContext("/api/chat", this::chat);
+        server.createContext("/api/ps", this::ps);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int chatRequests() {
+        return chatRequests.get();
+    }
+
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    void setLatencyMs(final long latencyMs) {
+        this.latencyMs = () -> latencyMs;
+    }
+
+    private void chat(final HttpExchange exchange) throws IOException {
+        chatRequests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            exchange.getRequestBody().readAllBytes();
+            Thread.sleep(latencyMs.getAsLong());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            // Avant l’envoi : le client peut relancer dès la réponse reçue.
+            inFlight.decrementAndGet();
+        }
+        respond(exchange, "{\"message\":{\"role\":\"assistant\",\"content\":\"" + name + "\"},\"done\":true}");
+    }
+
+    private void ps(final HttpExchange exchange) throws IOException {
+        final String models = loadedModel == null ? "" : "{\"name\":\"" + loadedModel + "\"}";
+        respond(exchange, "{\"models\":[" + models + "]}");
+    }
+
+    private static void respond(final HttpExchange exchange, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        LocalHttpServers.stop(server);
+    }
+}
@@ -0,0 +1,236 @@
+package app.cinematch.api.fake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.cinematch.MovieRecommenderService;
+import app.cinematch.api.OllamaClient;
+import app.cinematch.model.Recommendation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.JsonSchemaProperty;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.output.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FakeOllamaServerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private FakeOllamaServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void nonStreamingChat_servesTheRealClientAndService() throws Exception {
+        // Given
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant());
+        OllamaClient client = new OllamaClient(server.baseUrl(), FakeOllamaConfig.DEFAULT_MODEL);
+        MovieRecommenderService service = new MovieRecommenderService(client, (t, s) -> { });
+
+        // When
+        String description = client.chat("sys", "Décris le film 'Heat' en 2 à 3 phrases.");
+        Recommendation rec = service.recommendRandom();
+
+        // Then: description du bon film, recommandation JSON exploitée (pas le repli hors ligne)
+        assertTrue(description.startsWith("Heat "), description);
+        assertFalse(rec.title().isBlank());
+        assertFalse(rec.reason().contains("hors ligne"), rec.reason());
+        assertEquals(2, server.chatRequests());
+    }
+
+    @Test
+    void streamingChat_sendsOneChunkPerToken_atTheConfiguredRate() throws Exception {
+        // Given: 50 ms avant le premier token puis 200 tokens/s
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant()
+                .withFirstToken(LatencyDistribution.fixed(50))
+                .withTokensPerSecond(200)
+                .withCanned(List.of(CannedResponse.text("(?i)bonjour", "Bonjour ! Que veux-tu voir ce soir ?"))));
+
+        // When
+        long start = System.nanoTime();
+        List<JsonNode> chunks = ndjson(post("/api/chat",
+                "{\"model\":\"m\",\"messages\":[{\"role\":\"user\",\"content\":\"Bonjour\"}]}"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then: texte reconstitué, dernier fragment porteur des compteurs
+        StringBuilder text = new StringBuilder();
+        chunks.forEach(c -> text.append(c.path("message").path("content").asText()));
+        assertEquals("Bonjour ! Que veux-tu voir ce soir ?", text.toString());
+        JsonNode last = chunks.get(chunks.size() - 1);
+        assertTrue(last.path("done").asBoolean());
+        long tokens = last.path("eval_count").asLong();
+        assertEquals(chunks.size() - 1, tokens);
+        assertTrue(elapsedMs >= 50 + tokens * 5, "trop rapide : " + elapsedMs + " ms");
+    }
+
+    @Test
+    void cannedToolCall_isUnderstoodByLangChain4j_thenToolResultGetsAnAnswer() throws Exception {
+        // Given
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant().withCanned(List.of(
+                CannedResponse.toolCall("(?i)ajoute (.+) à ma liste", "addToWishlist", Map.of("title", "$1")))));
+        OllamaChatModel model = OllamaChatModel.builder()
+                .baseUrl(server.baseUrl()).modelName(FakeOllamaConfig.DEFAULT_MODEL).build();
+        ToolSpecification tool = ToolSpecification.builder().name("addToWishlist")
+                .addParameter("title", JsonSchemaProperty.STRING).build();
+        List<ChatMessage> messages = new ArrayList<>(List.of(UserMessage.from("Ajoute Heat à ma liste")));
+
+        // When
+        Response<AiMessage> first = model.generate(messages, List.of(tool));
+
+        // Then
+        assertTrue(first.content().hasToolExecutionRequests());
+        ToolExecutionRequest call = first.content().toolExecutionRequests().get(0);
+        assertEquals("addToWishlist", call.name());
+        assertEquals("Heat", MAPPER.readTree(call.arguments()).path("title").asText());
+        assertTrue(first.tokenUsage().outputTokenCount() > 0);
+
+        // When: résultat de l’outil renvoyé au modèle
+        messages.add(first.content());
+        messages.add(dev.langchain4j.data.message.ToolExecutionResultMessage.from(call, "ADDED:Heat"));
+        Response<AiMessage> second = model.generate(messages, List.of(tool));
+
+        // Then
+        assertEquals("C’est fait : ADDED:Heat", second.content().text());
+    }
+
+    @Test
+    void toolCallRule_isSkippedWhenTheRequestDeclaresNoTools() throws Exception {
+        // Given
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant().withCanned(List.of(
+                CannedResponse.toolCall("(?i)ajoute (.+)", "addToWishlist", Map.of("title", "$1")))));
+
+        // When
+        JsonNode body = MAPPER.readTree(post("/api/chat", "{\"stream\":false,\"messages\":"
+                + "[{\"role\":\"user\",\"content\":\"ajoute Heat\"}]}").body());
+
+        // Then: réponse texte par défaut
+        assertTrue(body.path("message").path("tool_calls").isMissingNode());
+        assertFalse(body.path("message").path("content").asText().isBlank());
+    }
+
+    @Test
+    void errorInjection_returns500_dropsConnections_andHonoursCannedStatus() throws Exception {
+        String chat = "{\"stream\":false,\"messages\":[{\"role\":\"user\",\"content\":\"panne\"}]}";
+
+        // Given/When/Then: erreurs systématiques
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant().withErrorRate(1));
+        HttpResponse<String> failed = post("/api/chat", chat);
+        assertEquals(500, failed.statusCode());
+        assertTrue(failed.body().contains("injected"));
+        server.close();
+
+        // Given/When/Then: coupures systématiques
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant().withDropRate(1));
+        assertThrows(IOException.class, () -> post("/api/chat", chat));
+        server.close();
+
+        // Given/When/Then: statut imposé par une règle
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant()
+                .withCanned(List.of(CannedResponse.error("panne", 503))));
+        assertEquals(503, post("/api/chat", chat).statusCode());
+        assertEquals(1, server.injectedErrors());
+    }
+
+    @Test
+    void embeddings_areDeterministicUnitVectors_inBothApiShapes() throws Exception {
+        // Given
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant().withEmbeddingDimensions(16));
+
+        // When
+        JsonNode a = MAPPER.readTree(post("/api/embeddings", "{\"prompt\":\"Heat\"}").body()).path("embedding");
+        JsonNode b = MAPPER.readTree(post("/api/embed", "{\"input\":[\"Heat\",\"Drive\"]}").body())
+                .path("embeddings");
+
+        // Then
+        assertEquals(16, a.size());
+        assertEquals(a, b.get(0));
+        assertNotEquals(a, b.get(1));
+        double norm = 0;
+        for (JsonNode x : a) {
+            norm += x.asDouble() * x.asDouble();
+        }
+        assertEquals(1.0, norm, 1e-4);
+        assertEquals(2, server.embeddingRequests());
+    }
+
+    @Test
+    void batchPrompts_getTheRequestedNumberOfFilms() throws Exception {
+        // Given
+        server = new FakeOllamaServer(0, FakeOllamaConfig.instant());
+        String user = "Génère 4 idées de films variés, avec ce format : {\\\"films\\\":[...]}";
+
+        // When
+        JsonNode body = MAPPER.readTree(post("/api/chat", "{\"stream\":false,\"messages\":"
+                + "[{\"role\":\"user\",\"content\":\"" + user + "\"}]}").body());
+
+        // Then
+        JsonNode films = MAPPER.readTree(body.path("message").path("content").asText()).path("films");
+        assertEquals(4, films.size());
+        assertTrue(body.path("prompt_eval_count").asInt() > 0);
+    }
+
+    @Test
+    void config_fromArgs_andCannedFile(@TempDir Path dir) throws Exception {
+        // Given
+        Path canned = dir.resolve("canned.json");
+        Files.writeString(canned, "[{\"match\":\"(?i)stats\",\"content\":\"12 films\"},"
+                + "{\"match\":\"ajoute (.+)\",\"tool\":\"addToWishlist\",\"arguments\":{\"title\":\"$1\"}}]");
+
+        // When
+        FakeOllamaConfig config = FakeOllamaConfig.fromArgs("--port=1", "--model=tiny", "--tps=25",
+                "--errors=0.1", "--latency=uniform:10-20", "--canned=" + canned);
+
+        // Then
+        assertEquals("tiny", config.model());
+        assertEquals(25, config.tokensPerSecond());
+        assertEquals(0.1, config.errorRate());
+        assertEquals(2, config.canned().size());
+        assertTrue(config.canned().get(1).isToolCall());
+        assertThrows(IllegalArgumentException.class, () -> FakeOllamaConfig.fromArgs("--nope=1"));
+        assertThrows(IllegalArgumentException.class, () -> FakeOllamaConfig.instant().withErrorRate(2));
+    }
+
+    // -------- Helpers --------
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static List<JsonNode> ndjson(HttpResponse<String> response) throws Exception {
+        List<JsonNode> out = new ArrayList<>();
+        for (String line : response.body().split("\n")) {
+            if (!line.isBlank()) {
+                out.add(MAPPER.readTree(line));
+            }
+        }
+        return out;
+    }
+}
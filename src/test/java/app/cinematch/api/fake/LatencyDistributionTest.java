@@ -0,0 +1,51 @@
+package app.cinematch.api.fake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyDistributionTest {
+
+    @Test
+    void parse_supportsEveryShape() {
+        Random random = new Random(1);
+        assertEquals(50, LatencyDistribution.parse("fixed:50").sampleMs(random));
+        assertEquals(70, LatencyDistribution.parse("70").sampleMs(random));
+        for (int i = 0; i < 100; i++) {
+            long u = LatencyDistribution.parse("uniform:10-20").sampleMs(random);
+            assertTrue(u >= 10 && u <= 20, "hors bornes : " + u);
+            assertTrue(LatencyDistribution.parse("normal:5,50").sampleMs(random) >= 0);
+        }
+    }
+
+    @Test
+    void logNormal_isCentredOnItsMedian_withALongTail() {
+        // Given
+        LatencyDistribution d = LatencyDistribution.parse("lognormal:800,0.5");
+        Random random = new Random(42);
+        long[] samples = new long[5_000];
+
+        // When
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = d.sampleMs(random);
+        }
+        Arrays.sort(samples);
+
+        // Then: médiane ≈ 800 ms, p99 bien au-delà
+        long median = samples[samples.length / 2];
+        assertTrue(Math.abs(median - 800) < 60, "médiane : " + median);
+        assertTrue(samples[samples.length * 99 / 100] > 2 * median);
+    }
+
+    @Test
+    void invalidSpecs_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("gamma:1"));
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("uniform:20-10"));
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("normal:abc"));
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.fixed(-1));
+    }
+}
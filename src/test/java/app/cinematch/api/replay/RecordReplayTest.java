@@ -0,0 +1,220 @@
+package app.cinematch.api.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.cinematch.api.OllamaClient;
+import app.cinematch.api.OllamaException;
+import app.cinematch.api.ResiliencePolicy;
+import app.cinematch.api.fake.CannedResponse;
+import app.cinematch.api.fake.FakeOllamaConfig;
+import app.cinematch.api.fake.FakeOllamaServer;
+import app.cinematch.api.fake.LatencyDistribution;
+import dev.langchain4j.agent.tool.JsonSchemaProperty;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.output.Response;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecordReplayTest {
+
+    private static final String MODEL = FakeOllamaConfig.DEFAULT_MODEL;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(LlmTraffic.PROP_RECORD);
+        System.clearProperty(LlmTraffic.PROP_REPLAY);
+        System.clearProperty(LlmTraffic.PROP_REPLAY_SCALE);
+        LlmTraffic.shutdown();
+    }
+
+    @Test
+    void recordedClientAndLangChain4jTraffic_isReplayedBitForBit_withoutTheServer() throws Exception {
+        // Given: un serveur à 80 ms de latence, enregistré via le mandataire
+        Path journal = dir.resolve("llm.ndjson");
+        String recordedChat;
+        Response<AiMessage> recordedTool;
+        try (FakeOllamaServer fake = new FakeOllamaServer(0, FakeOllamaConfig.instant()
+                .withFirstToken(LatencyDistribution.fixed(80))
+                .withCanned(List.of(CannedResponse.toolCall("(?i)ajoute (.+)", "addToWishlist",
+                        Map.of("title", "$1")))));
+             LlmJournal out = LlmJournal.append(journal);
+             RecordingProxy proxy = new RecordingProxy(fake.baseUrl(), out)) {
+            recordedChat = new OllamaClient(proxy.baseUrl(), MODEL).chat("sys", "Propose un thriller");
+            recordedTool = langChain4j(proxy.baseUrl()).generate(
+                    List.of(UserMessage.from("ajoute Heat")), List.of(wishlistTool()));
+            assertEquals(2, proxy.recorded());
+        }
+
+        // Then: deux entrées, temps observés compris
+        List<LlmJournal.Entry> entries = LlmJournal.read(journal);
+        assertEquals(2, entries.size());
+        assertEquals("/api/chat", entries.get(0).path());
+        assertEquals(MODEL, entries.get(0).request().path("model").asText());
+        assertTrue(entries.get(0).totalMicros() >= 80_000, "durée : " + entries.get(0).totalMicros());
+
+        // When: rejeu immédiat, serveur d’origine arrêté
+        try (ReplayServer replay = ReplayServer.fromJournal(journal, 0, true)) {
+            String chat = new OllamaClient(replay.baseUrl(), MODEL).chat("sys", "Propose un thriller");
+            Response<AiMessage> tool = langChain4j(replay.baseUrl()).generate(
+                    List.of(UserMessage.from("ajoute Heat")), List.of(wishlistTool()));
+
+            // Then: mêmes réponses, sans attente
+            assertEquals(recordedChat, chat);
+            assertEquals(recordedTool.content().toolExecutionRequests(), tool.content().toolExecutionRequests());
+            assertEquals(2, replay.hits());
+            assertEquals(0, replay.misses());
+        }
+    }
+
+    @Test
+    void replay_honoursRecordedOrScaledLatency() throws Exception {
+        // Given: une entrée enregistrée à 200 ms
+        List<LlmJournal.Entry> entries = List.of(entry(1, "{\"model\":\"m\",\"q\":1}", "A", 50_000, 200_000));
+
+        // When/Then: latence enregistrée
+        try (ReplayServer replay = new ReplayServer(0, entries, 1.0, true)) {
+            long ms = timeMs(() -> chatRaw(replay, "{\"q\":1,\"model\":\"m\"}"));
+            assertTrue(ms >= 200, "trop rapide : " + ms + " ms");
+        }
+        // When/Then: latence divisée par 4
+        try (ReplayServer replay = new ReplayServer(0, entries, 0.25, true)) {
+            long ms = timeMs(() -> chatRaw(replay, "{\"model\":\"m\",\"q\":1}"));
+            assertTrue(ms >= 50 && ms < 190, "latence : " + ms + " ms");
+        }
+    }
+
+    @Test
+    void identicalRequests_getSuccessiveRecordings_thenTheLastOneAgain() throws Exception {
+        // Given
+        List<LlmJournal.Entry> entries = List.of(
+                entry(1, "{\"q\":1}", "A", 0, 0), entry(2, "{\"q\":1}", "B", 0, 0));
+
+        try (ReplayServer replay = new ReplayServer(0, entries, 0, true)) {
+            // When/Then
+            assertEquals("A", chatRaw(replay, "{\"q\":1}"));
+            assertEquals("B", chatRaw(replay, "{\"q\":1}"));
+            assertEquals("B", chatRaw(replay, "{\"q\":1}"));
+        }
+    }
+
+    @Test
+    void unknownRequest_isA404InStrictMode_andTheNextUnservedEntryOtherwise() throws Exception {
+        // Given
+        List<LlmJournal.Entry> entries = List.of(entry(1, "{\"q\":1}", "A", 0, 0),
+                entry(2, "{\"q\":2}", "B", 0, 0));
+
+        // When/Then: strict -> 404, vu comme une requête invalide par le client
+        try (ReplayServer replay = new ReplayServer(0, entries, 0, true)) {
+            OllamaClient client = new OllamaClient(replay.baseUrl(), "m", ResiliencePolicy.defaults());
+            OllamaException e = assertThrows(OllamaException.class, () -> client.chat("s", "inconnu"));
+            assertEquals(OllamaException.Kind.BAD_REQUEST, e.kind());
+            assertEquals(1, replay.misses());
+        }
+        // When/Then: tolérant -> entrées suivantes du même chemin, dans l’ordre
+        try (ReplayServer replay = new ReplayServer(0, entries, 0, false)) {
+            assertEquals("B", chatRaw(replay, "{\"q\":2}"));
+            assertEquals("A", chatRaw(replay, "{\"q\":9}"));
+            assertEquals(404, java.net.http.HttpClient.newHttpClient().send(request(replay, "{\"q\":8}"),
+                    java.net.http.HttpResponse.BodyHandlers.ofString()).statusCode());
+        }
+    }
+
+    @Test
+    void unreachableServer_isRecordedAs502_andReplayedAsSuch() throws Exception {
+        // Given: aucun serveur derrière le mandataire
+        Path journal = dir.resolve("down.ndjson");
+        try (LlmJournal out = LlmJournal.append(journal);
+             RecordingProxy proxy = new RecordingProxy("http://127.0.0.1:1", out)) {
+            assertThrows(OllamaException.class, () -> new OllamaClient(proxy.baseUrl(), "m",
+                    ResiliencePolicy.defaults()).chat("s", "u"));
+        }
+
+        // Then
+        List<LlmJournal.Entry> entries = LlmJournal.read(journal);
+        assertTrue(entries.size() >= 1);
+        assertEquals(502, entries.get(0).status());
+
+        // When/Then: le rejeu reproduit la panne
+        try (ReplayServer replay = ReplayServer.fromJournal(journal, 0, true)) {
+            OllamaException e = assertThrows(OllamaException.class, () -> new OllamaClient(replay.baseUrl(),
+                    "m", ResiliencePolicy.defaults()).chat("s", "u"));
+            assertEquals(OllamaException.Kind.SERVER_ERROR, e.kind());
+        }
+    }
+
+    @Test
+    void routeFromProperties_rewritesUrlsForRecordingAndReplay() throws Exception {
+        // Given: rien de demandé
+        assertEquals("http://a:1,http://b:2", LlmTraffic.routeFromProperties("http://a:1,http://b:2"));
+
+        // When: enregistrement
+        System.setProperty(LlmTraffic.PROP_RECORD, dir.resolve("r.ndjson").toString());
+        String recording = LlmTraffic.routeFromProperties("http://a:1,http://b:2");
+
+        // Then: un mandataire local par serveur
+        String[] proxies = recording.split(",");
+        assertEquals(2, proxies.length);
+        assertNotEquals(proxies[0], proxies[1]);
+        assertTrue(proxies[0].startsWith("http://127.0.0.1:"));
+
+        // When: enregistrement et rejeu ensemble
+        System.setProperty(LlmTraffic.PROP_REPLAY, dir.resolve("r.ndjson").toString());
+        assertThrows(IllegalArgumentException.class, () -> LlmTraffic.routeFromProperties("http://a:1"));
+
+        // When: rejeu seul
+        System.clearProperty(LlmTraffic.PROP_RECORD);
+        assertTrue(LlmTraffic.routeFromProperties("http://a:1").startsWith("http://127.0.0.1:"));
+    }
+
+    // -------- Helpers --------
+
+    private static OllamaChatModel langChain4j(String baseUrl) {
+        return OllamaChatModel.builder().baseUrl(baseUrl).modelName(MODEL)
+                .timeout(Duration.ofSeconds(10)).build();
+    }
+
+    private static ToolSpecification wishlistTool() {
+        return ToolSpecification.builder().name("addToWishlist")
+                .addParameter("title", JsonSchemaProperty.STRING).build();
+    }
+
+    private static LlmJournal.Entry entry(long seq, String request, String response, long firstByte, long total) {
+        return new LlmJournal.Entry(seq, "2024-01-01T00:00:00Z", "http://x", "POST", "/api/chat",
+                LlmJournal.body(request.getBytes()), 200, "text/plain", response, firstByte, total);
+    }
+
+    private static java.net.http.HttpRequest request(ReplayServer replay, String json) {
+        return java.net.http.HttpRequest.newBuilder(java.net.URI.create(replay.baseUrl() + "/api/chat"))
+                .POST(java.net.http.HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private static String chatRaw(ReplayServer replay, String json) throws Exception {
+        return java.net.http.HttpClient.newHttpClient().send(request(replay, json),
+                java.net.http.HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static long timeMs(ThrowingRunnable work) throws Exception {
+        long start = System.nanoTime();
+        work.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,53 @@
+package app.cinematch.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Enregistrement JFR de test : active quelques événements sans seuil, puis relit
+ * ceux émis pendant le test.
+ */
+public final class JfrCapture implements AutoCloseable {
+
+    private final Recording recording = new Recording();
+
+    /**
+     * @param eventNames noms des événements à capturer
+     */
+    public JfrCapture(final String... eventNames) {
+        for (String name : eventNames) {
+            recording.enable(name).withoutThreshold();
+        }
+        recording.start();
+    }
+
+    /**
+     * Arrête l’enregistrement et relit ses événements.
+     *
+     * @param eventName nom de l’événement recherché
+     * @return événements de ce type, dans l’ordre du fichier
+     */
+    public List<RecordedEvent> events(final String eventName) throws IOException {
+        recording.stop();
+        final Path file = Files.createTempFile("cinematch-test", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(eventName))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+}
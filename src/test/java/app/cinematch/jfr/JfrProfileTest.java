@@ -0,0 +1,57 @@
+package app.cinematch.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JfrProfileTest {
+
+    @Test
+    void settings_extendJdkDefaults_withCinematchEvents() {
+        // When
+        Map<String, String> settings = JfrProfile.settings();
+
+        // Then: le profil JDK est conservé...
+        assertEquals("true", settings.get("jdk.JavaMonitorEnter#enabled"));
+        // ...et les événements de l’appli sont réglés
+        assertEquals("true", settings.get("app.cinematch.LlmRequest#enabled"));
+        assertEquals("0 ms", settings.get("app.cinematch.LlmRequest#threshold"));
+        assertEquals("true", settings.get("app.cinematch.StorageIo#stackTrace"));
+        assertTrue(settings.containsKey("app.cinematch.ToolInvocation#enabled"));
+        assertTrue(settings.containsKey("app.cinematch.ImageFetch#threshold"));
+    }
+
+    @Test
+    void startContinuous_recordsToDiskAndDumpsOnExit(@TempDir Path dir) throws Exception {
+        // Given
+        Path destination = dir.resolve("cinematch.jfr");
+
+        // When
+        try (Recording recording = JfrProfile.startContinuous(destination)) {
+            // Then
+            assertEquals(RecordingState.RUNNING, recording.getState());
+            assertEquals(JfrProfile.RECORDING_NAME, recording.getName());
+            assertEquals(JfrProfile.MAX_AGE, recording.getMaxAge());
+            assertTrue(recording.getDumpOnExit());
+            assertEquals("0 ms", recording.getSettings().get("app.cinematch.ToolInvocation#threshold"));
+
+            // l’arrêt écrit la destination
+            recording.stop();
+            assertTrue(Files.size(destination) > 0);
+        }
+    }
+
+    @Test
+    void startIfRequested_isNoOpWithoutProperty() {
+        System.clearProperty(JfrProfile.PROP_RECORDING);
+        assertNull(JfrProfile.startIfRequested());
+    }
+}
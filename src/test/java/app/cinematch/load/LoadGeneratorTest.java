@@ -0,0 +1,125 @@
+package app.cinematch.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.cinematch.api.fake.CannedResponse;
+import app.cinematch.api.fake.FakeOllamaConfig;
+import app.cinematch.api.fake.LatencyDistribution;
+import app.cinematch.util.JsonStorage;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LoadGeneratorTest {
+
+    private static final LoadConfig FAST = LoadConfig.defaults()
+            .withStub(FakeOllamaConfig.instant()).withThink(LatencyDistribution.NONE);
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("cinematch.storage", dir.resolve("storage.json").toString());
+        System.setProperty("cinematch.storage.silent", "true");
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("cinematch.storage");
+        System.clearProperty("cinematch.storage.silent");
+    }
+
+    @Test
+    void stubRun_reportsEveryTurnKindAndExecutedTool() throws Exception {
+        // Given: 3 sessions de 6 tours (un de chaque type) sur faux serveur instantané
+        LoadConfig config = FAST.withSessions(3).withTurns(6);
+
+        // When
+        LoadReport report = new LoadGenerator(config).run();
+
+        // Then: tous les tours joués, sans erreur
+        assertEquals(18, report.turns());
+        assertEquals(0, report.errors());
+        assertTrue(report.throughput() > 0);
+        Map<String, LoadReport.Stats> byTurn = index(report.byTurn());
+        assertEquals(List.of("addManyToWishlist", "generateDescription", "getStats", "markAsSeen",
+                "mixedActions", "setStatus"), List.copyOf(byTurn.keySet()));
+        byTurn.values().forEach(s -> assertEquals(3, s.calls(), s.name()));
+
+        // et les outils choisis par le « modèle » ont tourné, avec leurs arguments
+        Map<String, LoadReport.Stats> byTool = index(report.byTool());
+        for (String tool : List.of("markAsSeen", "setStatus", "generateDescription", "getStats")) {
+            assertEquals(3, byTool.get(tool).calls(), tool);
+            assertEquals(0, byTool.get(tool).errors(), tool);
+        }
+        assertFalse(JsonStorage.loadAll().isEmpty());
+        assertTrue(report.format().contains("Par outil exécuté"));
+
+        // seules les descriptions passent par le modèle : 5 tours sur 6 servis localement
+        assertEquals(15, report.localTurns());
+        assertEquals(15 / 18.0, report.localShare(), 1e-9);
+    }
+
+    @Test
+    void failingModel_countsErrorsPerTurnKind() throws Exception {
+        // Given: un faux serveur en panne (503) sur la demande de description (seul tour confié au modèle)
+        LoadConfig config = FAST.withSessions(1).withTurns(6).withStub(FakeOllamaConfig.instant()
+                .withCanned(List.of(CannedResponse.error("(?i)décris-moi", 503))));
+
+        // When
+        LoadReport report = new LoadGenerator(config).run();
+
+        // Then: seul ce type de tour échoue, et l’outil n’a jamais tourné
+        Map<String, LoadReport.Stats> byTurn = index(report.byTurn());
+        assertEquals(1.0, byTurn.get("generateDescription").errorRate());
+        assertEquals(0, byTurn.get("markAsSeen").errors());
+        assertEquals(1, report.errors());
+        assertFalse(index(report.byTool()).containsKey("generateDescription"));
+    }
+
+    @Test
+    void conversation_isDeterministicPerSeed() {
+        // Given / When
+        List<LoadScript.Turn> a = LoadScript.conversation(12, new Random(7));
+        List<LoadScript.Turn> b = LoadScript.conversation(12, new Random(7));
+
+        // Then
+        assertEquals(a, b);
+        assertEquals("getStats", a.get(5).tool());
+        assertTrue(a.get(0).prompt().endsWith("à ma liste d'envie"));
+    }
+
+    @Test
+    void fromArgs_parsesOptions() {
+        // When
+        LoadConfig c = LoadConfig.fromArgs("--sessions=16", "--turns=24", "--think=fixed:0",
+                "--stub-tps=0", "--stub-errors=0.1", "--storage=/tmp/x.json");
+
+        // Then
+        assertEquals(16, c.sessions());
+        assertEquals(24, c.turns());
+        assertNull(c.ollamaUrl());
+        assertEquals(0.1, c.stub().errorRate());
+        assertEquals("http://h:1", LoadConfig.fromArgs("--url=http://h:1").ollamaUrl());
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.fromArgs("--nope=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.fromArgs("--sessions=0"));
+    }
+
+    private static Map<String, LoadReport.Stats> index(List<LoadReport.Stats> stats) {
+        return stats.stream().collect(Collectors.toMap(LoadReport.Stats::name, Function.identity(),
+                (x, y) -> x, LinkedHashMap::new));
+    }
+}
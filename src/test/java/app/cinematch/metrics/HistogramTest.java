@@ -0,0 +1,81 @@
+package app.cinematch.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+    @Test
+    void emptyHistogram_reportsMinusOne() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.count());
+        assertEquals(-1, histogram.percentile(50));
+        assertEquals(-1, histogram.max());
+        assertEquals(-1, histogram.min());
+    }
+
+    @Test
+    void smallValues_areExact() {
+        // Given
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        // Then: valeur négative ignorée, percentiles exacts sous 32
+        assertEquals(20, histogram.count());
+        assertEquals(10, histogram.percentile(50));
+        assertEquals(19, histogram.percentile(95));
+        assertEquals(20, histogram.percentile(100));
+        assertEquals(1, histogram.min());
+        assertEquals(10.5, histogram.mean(), 1e-9);
+    }
+
+    @Test
+    void largeValues_stayWithinRelativeErrorBound() {
+        // Given: des latences de 1 ms à 10 min
+        Histogram histogram = new Histogram();
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1 + (long) Math.exp(random.nextDouble() * Math.log(600_000));
+            histogram.record(values[i]);
+        }
+        java.util.Arrays.sort(values);
+
+        // Then: erreur relative ≤ 1/16 par rapport au percentile exact
+        for (double p : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long approx = histogram.percentile(p);
+            assertTrue(approx >= exact && approx <= exact + exact / 16 + 1,
+                    "p" + p + " exact=" + exact + " approx=" + approx);
+        }
+        assertEquals(values[values.length - 1], histogram.max());
+    }
+
+    @Test
+    void buckets_areContiguousOverTheWholeRange() {
+        // Then: chaque bucket commence juste après la borne haute du précédent
+        for (int i = 1; i < 960; i++) {
+            long previousHigh = Histogram.highestEquivalent(i - 1);
+            assertEquals(i, Histogram.indexOf(previousHigh + 1), "bucket " + i);
+        }
+        assertEquals(959, Histogram.indexOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Histogram.highestEquivalent(959));
+    }
+
+    @Test
+    void reset_clearsEverything_andBadPercentileIsRejected() {
+        Histogram histogram = new Histogram();
+        histogram.record(1234);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(-1, histogram.percentile(99));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+    }
+}
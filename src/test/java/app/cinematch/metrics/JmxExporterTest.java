@@ -0,0 +1,38 @@
+package app.cinematch.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import org.junit.jupiter.api.Test;
+
+class JmxExporterTest {
+
+    @Test
+    void export_publishesExistingAndLaterMetrics() throws Exception {
+        // Given: un registre et un serveur MBean isolés
+        MetricsRegistry registry = new MetricsRegistry();
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        registry.counter("image.cache.hit").add(3);
+
+        // When: export, puis nouvelles métriques
+        JmxExporter.export(registry, server);
+        Timer timer = registry.timer("storage.load");
+        timer.histogram().record(1500);
+        long[] depth = {2};
+        registry.gauge("llm.queue.depth", () -> depth[0]);
+
+        // Then: attributs lisibles en direct
+        assertEquals(3L, server.getAttribute(JmxExporter.objectName("Counter", "image.cache.hit"), "Count"));
+        assertEquals(1L, server.getAttribute(JmxExporter.objectName("Timer", "storage.load"), "Count"));
+        long p95 = (Long) server.getAttribute(JmxExporter.objectName("Timer", "storage.load"), "P95");
+        assertTrue(p95 >= 1500 && p95 <= 1500 + 1500 / 16, "p95=" + p95);
+        depth[0] = 5;
+        assertEquals(5L, server.getAttribute(JmxExporter.objectName("Gauge", "llm.queue.depth"), "Value"));
+
+        // et une jauge redéclarée remplace l’ancienne source
+        registry.gauge("llm.queue.depth", () -> 9);
+        assertEquals(9L, server.getAttribute(JmxExporter.objectName("Gauge", "llm.queue.depth"), "Value"));
+    }
+}
@@ -0,0 +1,59 @@
+package app.cinematch.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void metrics_areCreatedOnce_andReused() {
+        // When
+        Counter counter = registry.counter("storage.load.errors");
+        counter.inc();
+        counter.add(2);
+        Timer timer = registry.timer("storage.load");
+        assertEquals("ok", timer.time(() -> "ok"));
+
+        // Then
+        assertSame(counter, registry.counter("storage.load.errors"));
+        assertEquals(3, registry.counter("storage.load.errors").count());
+        assertEquals(1, registry.timer("storage.load").histogram().count());
+        assertEquals(List.of("storage.load", "storage.load.errors"), new ArrayList<>(registry.snapshot().keySet()));
+    }
+
+    @Test
+    void nameReusedWithAnotherType_isRejected() {
+        registry.counter("x");
+        assertThrows(IllegalArgumentException.class, () -> registry.timer("x"));
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("x", () -> 1));
+        assertEquals(Counter.class, registry.snapshot().get("x").getClass());
+    }
+
+    @Test
+    void gauge_isReadOnDemand_andCanBeRedeclared() {
+        long[] source = {4};
+        Gauge gauge = registry.gauge("queue.depth", () -> source[0]);
+        source[0] = 7;
+        assertEquals(7, gauge.value());
+
+        registry.gauge("queue.depth", () -> 42);
+        assertEquals(42, ((Gauge) registry.snapshot().get("queue.depth")).value());
+    }
+
+    @Test
+    void onRegistration_seesExistingThenNewMetrics() {
+        registry.counter("a");
+        List<String> seen = new ArrayList<>();
+        registry.onRegistration((name, metric) -> seen.add(name));
+        registry.timer("b");
+        registry.timer("b");
+        assertEquals(List.of("a", "b"), seen);
+    }
+}
@@ -64,4 +64,44 @@ public class LlmRequestTest {
         assertEquals(1, req.messages().size());
         assertTrue(req.stream());
     }
+
+    @Test
+    void givenNoOptions_whenSerialize_thenOptionalFieldsAreOmitted() throws Exception {
+        // Given
+        LlmRequest req = new LlmRequest("qwen2.5", List.of(new LlmMessage("user", "Yo")));
+
+        // When
+        String json = MAPPER.writeValueAsString(req);
+
+        // Then : JSON identique au format historique
+        assertFalse(json.contains("format"));
+        assertFalse(json.contains("options"));
+        assertFalse(json.contains("keep_alive"));
+    }
+
+    @Test
+    void givenFormatOptionsAndKeepAlive_whenSerialize_thenOllamaFieldNamesAreUsed() throws Exception {
+        // Given
+        LlmRequest req = new LlmRequest("qwen2.5", List.of(new LlmMessage("user", "Yo")), false,
+                "json", new LlmOptions(200, 2048, 0.5), "30m");
+
+        // When
+        String json = MAPPER.writeValueAsString(req);
+
+        // Then
+        assertTrue(json.contains("\"format\":\"json\""));
+        assertTrue(json.contains("\"num_predict\":200"));
+        assertTrue(json.contains("\"num_ctx\":2048"));
+        assertTrue(json.contains("\"temperature\":0.5"));
+        assertTrue(json.contains("\"keep_alive\":\"30m\""));
+    }
+
+    @Test
+    void givenEmptyOptions_whenCreate_thenOptionsAreDropped() {
+        // When
+        LlmRequest req = new LlmRequest("m", List.of(), false, null, new LlmOptions(null, null, null), null);
+
+        // Then
+        assertNull(req.options());
+    }
 }
@@ -26,4 +26,28 @@ public class LlmResponseTest {
         // Then
         assertNull(response.message());
     }
+
+    @Test
+    void givenOllamaJson_whenDeserialize_thenTimingAndTokenCountsAreMapped() throws Exception {
+        // Given
+        String json = "{\"model\":\"m\",\"message\":{\"role\":\"assistant\",\"content\":\"ok\"},"
+                + "\"done\":true,\"total_duration\":5000,\"load_duration\":100,"
+                + "\"prompt_eval_count\":26,\"prompt_eval_duration\":300,"
+                + "\"eval_count\":290,\"eval_duration\":4000}";
+
+        // When
+        LlmResponse response = new com.fasterxml.jackson.databind.ObjectMapper()
+                .readValue(json, LlmResponse.class);
+
+        // Then
+        assertEquals("ok", response.message().content());
+        assertEquals(26L, response.promptEvalCount());
+        assertEquals(300L, response.promptEvalDuration());
+        assertEquals(290L, response.evalCount());
+        assertEquals(4000L, response.evalDuration());
+        assertEquals(100L, response.loadDuration());
+        assertEquals(5000L, response.totalDuration());
+        assertTrue(response.hasUsage());
+        assertFalse(new LlmResponse(null).hasUsage());
+    }
 }
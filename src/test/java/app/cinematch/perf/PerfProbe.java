@@ -0,0 +1,206 @@
+package app.cinematch.perf;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.cinematch.metrics.MetricsRegistry;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Mesure d’un scénario du palier de performance : durée, lectures et écritures
+ * du stockage (métriques {@code storage.load} / {@code storage.save}) et octets
+ * alloués dans le tas par toute la JVM (le palier tourne dans une JVM dédiée),
+ * threads terminés pendant le scénario compris.
+ *
+ * <p>Allocations = occupation du tas à la fin − au début + octets libérés par
+ * chaque GC intervenu entre les deux (notifications des
+ * {@link GarbageCollectorMXBean}).</p>
+ *
+ * <p>La propriété {@code -Dcinematch.perf.slack=2} multiplie les budgets de
+ * durée (machines lentes) ; les budgets d’E/S et d’allocation restent stricts.</p>
+ */
+final class PerfProbe {
+
+    private static final double SLACK = Double.parseDouble(System.getProperty("cinematch.perf.slack", "1"));
+
+    /**
+     * Budget d’un scénario.
+     *
+     * @param wallMs         durée maximale (ms, avant {@code slack})
+     * @param storageLoads   lectures maximales du stockage
+     * @param storageSaves   écritures maximales du stockage
+     * @param allocatedBytes octets alloués maximum
+     */
+    record Budget(long wallMs, long storageLoads, long storageSaves, long allocatedBytes) { }
+
+    /**
+     * Résultat mesuré.
+     *
+     * @param wallMs         durée (ms)
+     * @param storageLoads   lectures du stockage
+     * @param storageSaves   écritures du stockage
+     * @param allocatedBytes octets alloués
+     */
+    record Result(long wallMs, long storageLoads, long storageSaves, long allocatedBytes) {
+
+        /** Échoue si un budget est dépassé, avec toutes les mesures dans le message. */
+        void assertWithin(final String scenario, final Budget budget) {
+            final String report = scenario + " : " + this + " / budget " + budget + " (slack " + SLACK + ")";
+            assertTrue(wallMs <= budget.wallMs() * SLACK, "durée dépassée — " + report);
+            assertTrue(storageLoads <= budget.storageLoads(), "lectures du stockage en trop — " + report);
+            assertTrue(storageSaves <= budget.storageSaves(), "écritures du stockage en trop — " + report);
+            assertTrue(allocatedBytes <= budget.allocatedBytes(), "allocations dépassées — " + report);
+        }
+    }
+
+    @FunctionalInterface
+    interface Scenario {
+        void run() throws Exception;
+    }
+
+    private PerfProbe() {
+    }
+
+    static Result measure(final Scenario scenario) throws Exception {
+        final long loads = ops("storage.load");
+        final long saves = ops("storage.save");
+        final HeapAllocations allocations = new HeapAllocations();
+        final long start = System.nanoTime();
+        final long wallMs;
+        try {
+            scenario.run();
+        } finally {
+            wallMs = (System.nanoTime() - start) / 1_000_000;
+            allocations.stop();
+        }
+        return new Result(wallMs, ops("storage.load") - loads, ops("storage.save") - saves, allocations.bytes());
+    }
+
+    private static long ops(final String timer) {
+        return MetricsRegistry.global().timer(timer).histogram().count();
+    }
+
+    /** Octets alloués dans le tas entre la construction et {@link #stop()}. */
+    private static final class HeapAllocations implements NotificationListener {
+
+        private final Set<String> heapPools = new HashSet<>();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        /** Nombre de collectes par collecteur au début (les notifications antérieures sont ignorées). */
+        private final Map<String, Long> startCounts = new HashMap<>();
+        private final AtomicLong reclaimed = new AtomicLong();
+        private final AtomicLong notified = new AtomicLong();
+        private final long startUsed;
+        private long bytes;
+
+        HeapAllocations() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPools.add(pool.getName());
+                }
+            }
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(this, null, null);
+                    emitters.add(emitter);
+                }
+            }
+            long used;
+            do {
+                counts(startCounts);
+                used = heapUsed();
+            } while (!startCounts.equals(counts(new HashMap<>())));
+            this.startUsed = used;
+        }
+
+        @Override
+        public void handleNotification(final Notification notification, final Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            final GarbageCollectionNotificationInfo gc =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            final GcInfo info = gc.getGcInfo();
+            final Long before = startCounts.get(gc.getGcName());
+            if (before == null || info.getId() <= before) {
+                return;
+            }
+            reclaimed.addAndGet(heapUsed(info.getMemoryUsageBeforeGc()) - heapUsed(info.getMemoryUsageAfterGc()));
+            notified.incrementAndGet();
+        }
+
+        /** Fige la mesure, après réception des notifications des GC survenus pendant le scénario. */
+        void stop() throws InterruptedException {
+            final Map<String, Long> endCounts = new HashMap<>();
+            long used;
+            do {
+                counts(endCounts);
+                used = heapUsed();
+            } while (!endCounts.equals(counts(new HashMap<>())));
+            long expected = 0;
+            for (Map.Entry<String, Long> e : endCounts.entrySet()) {
+                expected += e.getValue() - startCounts.getOrDefault(e.getKey(), e.getValue());
+            }
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (notified.get() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException ignored) {
+                    // déjà retiré
+                }
+            }
+            bytes = used - startUsed + reclaimed.get();
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        private static Map<String, Long> counts(final Map<String, Long> out) {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                out.put(gc.getName(), gc.getCollectionCount());
+            }
+            return out;
+        }
+
+        private long heapUsed() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    used += pool.getUsage().getUsed();
+                }
+            }
+            return used;
+        }
+
+        private long heapUsed(final Map<String, MemoryUsage> byPool) {
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> e : byPool.entrySet()) {
+                if (heapPools.contains(e.getKey())) {
+                    used += e.getValue().getUsed();
+                }
+            }
+            return used;
+        }
+    }
+}
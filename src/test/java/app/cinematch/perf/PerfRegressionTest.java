@@ -0,0 +1,197 @@
+package app.cinematch.perf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import app.cinematch.MovieRecommenderService;
+import app.cinematch.RecommendationPrefetcher;
+import app.cinematch.agent.ChatAgent;
+import app.cinematch.agent.Memory;
+import app.cinematch.agent.Profile;
+import app.cinematch.agent.langchain.LangChain4jAgentBridge;
+import app.cinematch.agent.langchain.ScriptedChatModel;
+import app.cinematch.agent.tools.BulkTools;
+import app.cinematch.api.GenerationOptions;
+import app.cinematch.api.OllamaClient;
+import app.cinematch.model.HistoryEntry;
+import app.cinematch.ui.swing.HistoryPanel;
+import app.cinematch.util.JsonStorage;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Palier de non-régression de performance (exécution surefire {@code perf-tests},
+ * tag {@code perf}) : scénarios clés sur LLM simulé et stockage temporaire, à
+ * tailles fixes, avec budgets de durée, d’E/S de stockage et d’allocations.
+ *
+ * <p>Les budgets d’E/S décrivent le comportement actuel (une lecture + une
+ * écriture par titre modifié) : un {@code JsonStorage.loadAll()} de plus dans une
+ * boucle les fait échouer. Durées et allocations gardent une marge d’environ
+ * 3× sur les mesures de référence.</p>
+ */
+@Tag("perf")
+final class PerfRegressionTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("cinematch.storage", dir.resolve("storage.json").toString());
+        System.setProperty("cinematch.storage.silent", "true");
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("cinematch.storage");
+        System.clearProperty("cinematch.storage.silent");
+    }
+
+    @Test
+    @DisplayName("Swipe de 100 cartes (prefetch + marquage) sur LLM simulé")
+    void swipe100Cards() throws Exception {
+        // GIVEN : 500 titres déjà connus, un LLM qui invente des titres inédits
+        seed(500);
+        final MovieRecommenderService service = new MovieRecommenderService(stubLlm(), JsonStorage::addOrUpdate);
+        final String[] statuses = {"envie", "pas_interesse", "deja_vu"};
+
+        // WHEN
+        final PerfProbe.Result result = PerfProbe.measure(() -> {
+            try (RecommendationPrefetcher prefetcher = new RecommendationPrefetcher(service)) {
+                for (int i = 0; i < 100; i++) {
+                    final RecommendationPrefetcher.Card card = awaitCard(prefetcher);
+                    service.mark(card.recommendation().title(), statuses[i % statuses.length]);
+                }
+            }
+        });
+
+        // THEN
+        assertEquals(600, JsonStorage.loadAll().size());
+        result.assertWithin("swipe 100 cartes", new PerfProbe.Budget(6_000, 130, 100, 200 * MB));
+    }
+
+    @Test
+    @DisplayName("Ajout groupé de 500 titres")
+    void bulkAdd500Titles() throws Exception {
+        // GIVEN
+        final StringJoiner titles = new StringJoiner(", ");
+        for (int i = 0; i < 500; i++) {
+            titles.add("Film groupé " + i);
+        }
+
+        // WHEN
+        final PerfProbe.Result result = PerfProbe.measure(
+                () -> assertEquals("ADDED_MANY:500", new BulkTools().addManyToWishlist(titles.toString())));
+
+        // THEN
+        assertEquals(500, JsonStorage.getByStatus("envie").size());
+        result.assertWithin("ajout groupé 500", new PerfProbe.Budget(10_000, 500, 500, 400 * MB));
+    }
+
+    @Test
+    @DisplayName("Ouverture de l’historique avec 100 000 lignes")
+    void openHistoryWith100kRows() throws Exception {
+        // GIVEN
+        seed(100_000);
+
+        // WHEN
+        final HistoryPanel[] panel = new HistoryPanel[1];
+        final PerfProbe.Result result = PerfProbe.measure(() -> panel[0] = new HistoryPanel(null, null));
+
+        // THEN
+        assertNotNull(panel[0]);
+        result.assertWithin("historique 100k", new PerfProbe.Budget(5_000, 1, 0, 150 * MB));
+    }
+
+    @Test
+    @DisplayName("Tour de chat avec 5 appels d’outils (modèle scripté)")
+    void chatTurnWithFiveToolCalls() throws Exception {
+        // GIVEN : 1 000 titres en stockage et un modèle qui enchaîne 5 outils
+        seed(1_000);
+        final ScriptedChatModel model = new ScriptedChatModel(List.of(
+                new ScriptedChatModel.ToolCall("addToWishlist", "{\"title\":\"Heat\"}"),
+                new ScriptedChatModel.ToolCall("addToWishlist", "{\"title\":\"Drive\"}"),
+                new ScriptedChatModel.ToolCall("markAsSeen", "{\"title\":\"Alien\"}"),
+                new ScriptedChatModel.ToolCall("getListByStatus", "{\"status\":\"envie\"}"),
+                new ScriptedChatModel.ToolCall("getStats", "{\"detail\":\"court\"}")), "Voilà qui est fait !");
+        final LangChain4jAgentBridge bridge = new LangChain4jAgentBridge(model, Profile.defaultCinemaExpert(),
+                new MovieRecommenderService(stubLlm(), JsonStorage::addOrUpdate));
+        final ChatAgent agent = new ChatAgent(mock(OllamaClient.class), Profile.defaultCinemaExpert(),
+                new Memory(), bridge::ask);
+
+        // WHEN
+        final String[] answer = new String[1];
+        final PerfProbe.Result result = PerfProbe.measure(
+                () -> answer[0] = agent.ask("Range ma collection : Heat et Drive à voir, Alien vu, puis les stats"));
+
+        // THEN
+        assertEquals("Voilà qui est fait !", answer[0]);
+        assertEquals("deja_vu", JsonStorage.loadAll().stream()
+                .filter(e -> e.title().equals("Alien")).findFirst().orElseThrow().status());
+        result.assertWithin("tour de chat 5 outils", new PerfProbe.Budget(3_000, 7, 3, 80 * MB));
+    }
+
+    // -------- Helpers --------
+
+    /** Remplit le stockage avec {@code n} titres datés (statuts alternés). */
+    private static void seed(final int n) {
+        final String[] statuses = {"envie", "deja_vu", "pas_interesse"};
+        final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        final List<HistoryEntry> all = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            all.add(new HistoryEntry("Film stocké " + i, statuses[i % statuses.length],
+                    base.plusMinutes(i).toString()));
+        }
+        all.add(new HistoryEntry("Alien", "envie", base.toString()));
+        all.remove(0);
+        JsonStorage.saveAll(all);
+    }
+
+    /** Client Ollama simulé : lots de titres toujours inédits, descriptions courtes. */
+    private static OllamaClient stubLlm() {
+        final OllamaClient client = mock(OllamaClient.class);
+        final AtomicInteger n = new AtomicInteger();
+        when(client.chat(anyString(), anyString(), any(GenerationOptions.class))).thenAnswer(inv -> {
+            final String user = inv.getArgument(1);
+            if (user.startsWith("Décris")) {
+                return "Une description immersive et sans spoiler, en deux phrases.";
+            }
+            final StringJoiner films = new StringJoiner(",", "{\"films\":[", "]}");
+            for (int i = 0; i < 5; i++) {
+                films.add("{\"title\":\"Inédit " + n.incrementAndGet()
+                        + "\",\"pitch\":\"Un pitch\",\"year\":\"2020\",\"platform\":\"Netflix\"}");
+            }
+            return films.toString();
+        });
+        return client;
+    }
+
+    private static RecommendationPrefetcher.Card awaitCard(final RecommendationPrefetcher prefetcher)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        RecommendationPrefetcher.Card card = prefetcher.poll();
+        while (card == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            card = prefetcher.poll();
+        }
+        assertNotNull(card, "aucune carte prête");
+        return card;
+    }
+}
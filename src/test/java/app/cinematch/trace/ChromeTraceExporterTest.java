@@ -0,0 +1,123 @@
+package app.cinematch.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.cinematch.agent.ChatAgent;
+import app.cinematch.agent.Memory;
+import app.cinematch.agent.Profile;
+import app.cinematch.api.OllamaClient;
+import app.cinematch.util.JsonStorage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Field;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChromeTraceExporterTest {
+
+    @AfterEach
+    void tearDown() {
+        Tracer.global().setEnabled(false);
+        Tracer.global().onSlowTrace(Duration.ZERO, null);
+        Tracer.global().reset();
+        System.clearProperty("cinematch.storage");
+    }
+
+    @Test
+    void toJson_writesCompleteEventsWithThreadNamesAndIds() {
+        // Given
+        Tracer tracer = new Tracer(10);
+        tracer.setEnabled(true);
+        Span root = tracer.start("bridge.ask", "agent");
+        tracer.start("tool.addToWishlist", "tool").tag("title", "Heat").close();
+        root.close();
+
+        // When
+        JsonNode json = ChromeTraceExporter.toJson(tracer.spans(), tracer);
+
+        // Then: une métadonnée de thread puis deux événements « X »
+        JsonNode events = json.get("traceEvents");
+        assertEquals(3, events.size());
+        assertEquals("M", events.get(0).get("ph").asText());
+        assertEquals(Thread.currentThread().getName(), events.get(0).get("args").get("name").asText());
+        JsonNode tool = events.get(1);
+        assertEquals("X", tool.get("ph").asText());
+        assertEquals("tool", tool.get("cat").asText());
+        assertEquals("Heat", tool.get("args").get("title").asText());
+        assertEquals(root.spanId(), tool.get("args").get("parentId").asLong());
+        JsonNode ask = events.get(2);
+        assertTrue(ask.get("ts").asLong() <= tool.get("ts").asLong());
+        assertTrue(ask.get("dur").asLong() >= tool.get("dur").asLong());
+    }
+
+    @Test
+    void slowChatTurn_isDumpedAsOneTraceAcrossAgentLlmAndStorage(@TempDir Path dir) throws Exception {
+        // Given: stockage temporaire, client Ollama sur HttpClient mocké, traçage actif
+        System.setProperty("cinematch.storage", dir.resolve("storage.json").toString());
+        OllamaClient client = new OllamaClient("http://host:1234", "m");
+        HttpClient http = mock(HttpClient.class);
+        @SuppressWarnings("unchecked")
+        HttpResponse<String> response = (HttpResponse<String>) mock(HttpResponse.class);
+        when(response.body()).thenReturn("{\"message\":{\"content\":\"Heat\"},\"eval_count\":3}");
+        when(http.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(response);
+        setField(client, "http", http);
+        Function<String, String> delegate = prompt -> {
+            JsonStorage.addOrUpdate("Heat", "envie");
+            return client.chat("sys", prompt);
+        };
+        ChatAgent agent = new ChatAgent(client, Profile.defaultCinemaExpert(), new Memory(), delegate);
+        Tracer.global().reset();
+        Tracer.global().dumpSlowTraces(dir.resolve("traces"), Duration.ZERO);
+        Tracer.global().setEnabled(true);
+
+        // When
+        agent.ask("ajoute Heat");
+
+        // Then: un fichier, une seule trace, hiérarchie conservée
+        List<Path> files;
+        try (var listing = Files.list(dir.resolve("traces"))) {
+            files = listing.toList();
+        }
+        assertEquals(1, files.size());
+        JsonNode events = new ObjectMapper().readTree(files.get(0).toFile()).get("traceEvents");
+        List<JsonNode> spans = new ArrayList<>();
+        events.forEach(e -> {
+            if ("X".equals(e.get("ph").asText())) {
+                spans.add(e);
+            }
+        });
+        Map<String, JsonNode> byName = spans.stream()
+                .collect(Collectors.toMap(e -> e.get("name").asText(), e -> e, (a, b) -> a));
+        long rootId = byName.get("ChatAgent.ask").get("args").get("spanId").asLong();
+        assertEquals(rootId, byName.get("storage.save").get("args").get("parentId").asLong());
+        assertEquals(rootId, byName.get("llm.chat").get("args").get("parentId").asLong());
+        assertEquals(byName.get("llm.chat").get("args").get("spanId").asLong(),
+                byName.get("llm.http").get("args").get("parentId").asLong());
+        assertEquals("m", byName.get("llm.chat").get("args").get("model").asText());
+        assertEquals(3, byName.get("llm.chat").get("args").get("evalTokens").asLong());
+        assertEquals(1, spans.stream().map(e -> e.get("args").get("traceId").asLong()).distinct().count());
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field f = target.getClass().getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
@@ -0,0 +1,147 @@
+package app.cinematch.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TracerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final Tracer tracer = new Tracer(100, now::get);
+
+    @Test
+    void disabled_returnsNoopSpan_andRecordsNothing() {
+        // Given: traceur désactivé (par défaut)
+        // When
+        Span span = tracer.start("bridge.ask", "agent");
+        span.tag("k", "v").close();
+
+        // Then
+        assertSame(Span.NOOP, span);
+        assertFalse(span.isRecording());
+        assertTrue(tracer.spans().isEmpty());
+        assertSame(Span.NOOP, tracer.current());
+    }
+
+    @Test
+    void nestedSpans_shareTraceAndPointToTheirParent() {
+        // Given
+        tracer.setEnabled(true);
+
+        // When: ask > llm.chat, puis storage.save
+        Span root = tracer.start("ChatAgent.ask", "agent");
+        Span llm = tracer.start("llm.chat", "llm").tag("model", "m");
+        now.addAndGet(5_000_000);
+        llm.close();
+        Span storage = tracer.start("storage.save", "storage");
+        storage.close();
+        now.addAndGet(1_000_000);
+        root.close();
+
+        // Then
+        assertEquals(List.of("llm.chat", "storage.save", "ChatAgent.ask"), names(tracer.trace(root.traceId())));
+        assertEquals(root.spanId(), llm.parentId());
+        assertEquals(root.spanId(), storage.parentId());
+        assertEquals(0, root.parentId());
+        assertEquals(root.traceId(), storage.traceId());
+        assertEquals(5_000_000, llm.durationNanos());
+        assertEquals("m", llm.tags().get("model"));
+        assertSame(Span.NOOP, tracer.current());
+    }
+
+    @Test
+    void call_closesSpanEvenWhenWorkThrows() {
+        // Given
+        tracer.setEnabled(true);
+
+        // When
+        assertThrows(IllegalStateException.class, () -> tracer.call("bridge.ask", "agent", () -> {
+            now.addAndGet(2_000_000);
+            throw new IllegalStateException("boom");
+        }));
+
+        // Then: span terminé et retiré du thread
+        assertEquals(List.of("bridge.ask"), names(tracer.spans()));
+        assertEquals(2_000_000, tracer.spans().get(0).durationNanos());
+        assertSame(Span.NOOP, tracer.current());
+    }
+
+    @Test
+    void callWithin_attachesWorkOnAnotherThreadToCapturedParent() throws Exception {
+        // Given
+        tracer.setEnabled(true);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try (Span root = tracer.start("llm.recommendRandom", "llm")) {
+            Span parent = tracer.current();
+
+            // When: la requête couverte part sur un autre thread
+            Span child = other.submit(() -> tracer.callWithin(parent, () -> {
+                try (Span http = tracer.start("llm.http", "llm")) {
+                    return http;
+                }
+            })).get(2, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(root.spanId(), child.parentId());
+            assertEquals(root.traceId(), child.traceId());
+            assertTrue(child.threadId() != root.threadId());
+            assertSame(Span.NOOP, other.submit(tracer::current).get(2, TimeUnit.SECONDS));
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowRootTraces_areHandedToSink_fastOnesAreNot() {
+        // Given: seuil de 100 ms
+        tracer.setEnabled(true);
+        List<List<Span>> slow = new ArrayList<>();
+        tracer.onSlowTrace(Duration.ofMillis(100), slow::add);
+
+        // When: un tour de 10 ms puis un tour de 300 ms
+        tracer.call("ChatAgent.ask", "agent", () -> now.addAndGet(10_000_000));
+        tracer.call("ChatAgent.ask", "agent",
+                () -> tracer.call("tool.addToWishlist", "tool", () -> now.addAndGet(300_000_000)));
+
+        // Then: seule la trace lente, racine en dernier
+        assertEquals(1, slow.size());
+        assertEquals(List.of("tool.addToWishlist", "ChatAgent.ask"), names(slow.get(0)));
+    }
+
+    @Test
+    void buffer_keepsOnlyLatestSpans() {
+        // Given
+        Tracer small = new Tracer(2, now::get);
+        small.setEnabled(true);
+
+        // When
+        for (String name : List.of("a", "b", "c")) {
+            small.start(name, "test").close();
+        }
+
+        // Then
+        assertEquals(List.of("b", "c"), names(small.spans()));
+        small.reset();
+        assertTrue(small.spans().isEmpty());
+    }
+
+    @Test
+    void invalidCapacity_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Tracer(0));
+    }
+
+    private static List<String> names(List<Span> spans) {
+        return spans.stream().map(Span::name).toList();
+    }
+}
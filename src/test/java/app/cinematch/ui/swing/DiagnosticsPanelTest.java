@@ -0,0 +1,152 @@
+package app.cinematch.ui.swing;
+
+import app.cinematch.metrics.MetricsRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests BDD de DiagnosticsPanel : registre de métriques dédié, aucune fenêtre.
+ */
+class DiagnosticsPanelTest {
+
+    @Test
+    @DisplayName("rows(): latences par opération, file, caches, stockage, tas et EDT")
+    void rows_summariseRegistry() {
+        // GIVEN : un registre alimenté comme par l’application
+        MetricsRegistry registry = new MetricsRegistry();
+        for (int i = 1; i <= 100; i++) {
+            registry.timer("llm.chat.recommendRandom").histogram().record(i * 10_000L); // 10..1000 ms
+        }
+        registry.timer("llm.agent.toolRouting");                       // jamais appelé : pas de ligne
+        registry.gauge("llm.inflight", () -> 2);
+        registry.gauge("llm.queue.depth", () -> 5);
+        registry.counter("llm.errors.timeout").add(3);
+        registry.counter("description.cache.hit").add(3);
+        registry.counter("description.cache.miss").add(1);
+        registry.timer("storage.save").histogram().record(4_000);
+        registry.gauge("storage.entries", () -> 42);
+
+        // WHEN
+        Map<String, String> rows = asMap(DiagnosticsPanel.rows(registry));
+
+        // THEN
+        String latency = rows.get("Latence chat.recommendRandom");
+        assertNotNull(latency);
+        assertTrue(latency.contains("n=100"), latency);
+        assertFalse(rows.containsKey("Latence agent.toolRouting"));
+        assertEquals("2 / 5", rows.get("LLM en cours / en file"));
+        assertEquals("3", rows.get("Erreurs LLM"));
+        assertEquals("75 %  (3 / 4)", rows.get("Cache descriptions"));
+        assertEquals("—", rows.get("Cache affiches"));
+        assertTrue(rows.get("Stockage écriture").startsWith("p50 4.0"), rows.get("Stockage écriture"));
+        assertEquals("—", rows.get("Stockage lecture"));
+        assertEquals("42", rows.get("Entrées en stockage"));
+        assertTrue(rows.get("Tas utilisé / max").endsWith("Mo"));
+        assertEquals("—", rows.get("Blocages EDT"));
+    }
+
+    @Test
+    @DisplayName("refresh(): met à jour les valeurs ; pas de minuterie tant que la carte est cachée")
+    void refresh_updatesTable_andTimerIdleWhenHidden() throws Exception {
+        // GIVEN : un panneau hors fenêtre
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("ui.edt.stalls");
+        List<String> navigation = new ArrayList<>();
+        DiagnosticsPanel panel = onEdt(() -> new DiagnosticsPanel(registry, navigation::add));
+        JTable table = findTable(panel);
+
+        // WHEN : un blocage est compté, puis rafraîchissement
+        registry.counter("ui.edt.stalls").inc();
+        onEdt(() -> {
+            panel.refresh();
+            return null;
+        });
+
+        // THEN
+        assertEquals("1", asMap(table).get("Blocages EDT"));
+        assertFalse(panel.isRefreshing());
+
+        // AND : retour au menu
+        onEdt(() -> {
+            findBack(panel).doClick();
+            return null;
+        });
+        assertEquals(List.of("home"), navigation);
+    }
+
+    // -------- Helpers --------
+
+    private static Map<String, String> asMap(List<String[]> rows) {
+        Map<String, String> out = new LinkedHashMap<>();
+        rows.forEach(r -> out.put(r[0], r[1]));
+        return out;
+    }
+
+    private static Map<String, String> asMap(JTable table) {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (int i = 0; i < table.getRowCount(); i++) {
+            out.put((String) table.getValueAt(i, 0), (String) table.getValueAt(i, 1));
+        }
+        return out;
+    }
+
+    private static JTable findTable(java.awt.Container root) {
+        for (java.awt.Component c : root.getComponents()) {
+            if (c instanceof JTable t) {
+                return t;
+            }
+            if (c instanceof java.awt.Container child) {
+                JTable found = findTable(child);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JButton findBack(java.awt.Container root) {
+        for (java.awt.Component c : root.getComponents()) {
+            if (c instanceof JButton b && b.getText().contains("Retour")) {
+                return b;
+            }
+            if (c instanceof java.awt.Container child) {
+                JButton found = findBack(child);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface EdtTask<T> {
+        T run() throws Exception;
+    }
+
+    private static <T> T onEdt(EdtTask<T> task) throws Exception {
+        final Object[] out = new Object[1];
+        final Exception[] err = new Exception[1];
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                out[0] = task.run();
+            } catch (Exception e) {
+                err[0] = e;
+            }
+        });
+        if (err[0] != null) {
+            throw err[0];
+        }
+        @SuppressWarnings("unchecked") T t = (T) out[0];
+        return t;
+    }
+}
@@ -0,0 +1,135 @@
+package app.cinematch.ui.swing;
+
+import app.cinematch.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests BDD de EdtWatchdog : vrais événements sur l’EDT (fonctionne en headless).
+ */
+class EdtWatchdogTest {
+
+    @AfterEach
+    void tearDown() {
+        EdtWatchdog.uninstall();
+        System.clearProperty(EdtWatchdog.PROP);
+    }
+
+    @Test
+    @DisplayName("Un événement lent est compté et attribué à la méthode de l’appli qui bloque")
+    void slowEvent_isCountedAndAttributedToAppFrame() throws Exception {
+        // GIVEN : seuil de 40 ms
+        EdtWatchdog watchdog = EdtWatchdog.install(40);
+        long before = MetricsRegistry.global().counter("ui.edt.stalls").count();
+
+        // WHEN : un traitement rapide puis deux lents sur l’EDT
+        SwingUtilities.invokeAndWait(() -> { });
+        SwingUtilities.invokeAndWait(EdtWatchdogTest::blockingWork);
+        SwingUtilities.invokeAndWait(EdtWatchdogTest::blockingWork);
+        // (invokeAndWait rend la main avant la fin du dispatch : un événement de plus la garantit)
+        SwingUtilities.invokeAndWait(() -> { });
+
+        // THEN : deux blocages, agrégés sur le même cadre
+        assertEquals(before + 2, MetricsRegistry.global().counter("ui.edt.stalls").count());
+        List<EdtWatchdog.Offender> offenders = watchdog.offenders();
+        assertEquals(1, offenders.size(), offenders.toString());
+        EdtWatchdog.Offender top = offenders.get(0);
+        assertTrue(top.frame().contains("EdtWatchdogTest.blockingWork"), top.frame());
+        assertEquals(2, top.stalls());
+        assertTrue(top.maxMs() >= 120);
+        assertTrue(top.sample().get(0).startsWith("java.lang.Thread.sleep"), top.sample().toString());
+        assertTrue(watchdog.report(5).contains("EdtWatchdogTest.blockingWork"));
+    }
+
+    @Test
+    @DisplayName("Désinstallé : plus aucun blocage compté")
+    void uninstalled_stopsCounting() throws Exception {
+        // GIVEN
+        EdtWatchdog watchdog = EdtWatchdog.install(20);
+        EdtWatchdog.uninstall();
+
+        // WHEN
+        SwingUtilities.invokeAndWait(EdtWatchdogTest::blockingWork);
+        SwingUtilities.invokeAndWait(() -> { });
+
+        // THEN
+        assertTrue(watchdog.offenders().isEmpty());
+        assertNull(EdtWatchdog.installed());
+    }
+
+    @Test
+    @DisplayName("Désinstallé sous une file poussée ensuite : cette file reste en place")
+    void uninstall_neverPopsAQueuePushedAfterIt() throws Exception {
+        // GIVEN : une file tierce poussée par-dessus le détecteur
+        EdtWatchdog.install(20);
+        SwingUtilities.invokeAndWait(() -> { });
+        ForeignQueue foreign = new ForeignQueue();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(foreign);
+
+        try {
+            // WHEN
+            EdtWatchdog.uninstall();
+            SwingUtilities.invokeAndWait(() -> { });
+
+            // THEN : la file tierce est toujours au sommet
+            assertSame(foreign, Toolkit.getDefaultToolkit().getSystemEventQueue());
+        } finally {
+            foreign.remove();
+        }
+
+        // … et sans file tierce, le retrait rend la file d’avant l’installation
+        EventQueue beneath = Toolkit.getDefaultToolkit().getSystemEventQueue();
+        EdtWatchdog.install(20);
+        EdtWatchdog.uninstall();
+        SwingUtilities.invokeAndWait(() -> { });
+        assertSame(beneath, Toolkit.getDefaultToolkit().getSystemEventQueue());
+    }
+
+    @Test
+    @DisplayName("installFromProperties : off désactive, une valeur fixe le seuil")
+    void installFromProperties_honoursToggle() {
+        System.setProperty(EdtWatchdog.PROP, "off");
+        assertNull(EdtWatchdog.installFromProperties());
+
+        System.setProperty(EdtWatchdog.PROP, "75");
+        EdtWatchdog watchdog = EdtWatchdog.installFromProperties();
+        assertSame(watchdog, EdtWatchdog.installed());
+        assertTrue(watchdog.report(1).startsWith("Blocages EDT > 75 ms"));
+
+        assertThrows(IllegalArgumentException.class, () -> EdtWatchdog.install(0));
+    }
+
+    @Test
+    @DisplayName("offendingFrame : premier cadre de l’appli, sinon sommet de pile")
+    void offendingFrame_prefersApplicationFrames() {
+        StackTraceElement jdk = new StackTraceElement("java.io.FileInputStream", "readBytes", "FileInputStream.java", 1);
+        StackTraceElement app = new StackTraceElement("app.cinematch.util.JsonStorage", "loadAll", "JsonStorage.java", 90);
+
+        assertEquals(app.toString(), EdtWatchdog.offendingFrame(new StackTraceElement[]{jdk, app}));
+        assertEquals(jdk.toString(), EdtWatchdog.offendingFrame(new StackTraceElement[]{jdk}));
+        assertEquals(EdtWatchdog.UNSAMPLED, EdtWatchdog.offendingFrame(new StackTraceElement[0]));
+    }
+
+    /** File tierce, poussée puis retirée par le test. */
+    private static final class ForeignQueue extends EventQueue {
+        void remove() {
+            pop();
+        }
+    }
+
+    private static void blockingWork() {
+        try {
+            Thread.sleep(120);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
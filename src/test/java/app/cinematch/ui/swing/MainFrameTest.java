@@ -45,9 +45,9 @@ class MainFrameTest {
         try {
             // THEN
             assertTrue(frame.getContentPane().getLayout() instanceof CardLayout);
-            assertEquals(6, frame.getContentPane().getComponentCount(), "home,t1,t2,t3,chat,hist attendus");
+            assertEquals(7, frame.getContentPane().getComponentCount(), "home,t1,t2,t3,chat,hist,diag attendus");
 
-            String[] ids = {"home","t1","t2","t3","chat","hist"};
+            String[] ids = {"home","t1","t2","t3","chat","hist","diag"};
             for (String id : ids) {
                 onEDT(() -> { frame.showCard(id); return null; });
                 assertNotNull(onEDT(() -> visibleCard((Container) frame.getContentPane())),
@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -54,6 +55,22 @@ final class Tool2PanelTest {
         }
     }
 
+    @Test
+    @DisplayName("Construction: aucun appel LLM tant que le panneau n'est pas affiché")
+    void constructor_doesNotStartGenerationUntilShown() throws Exception {
+        // Given
+        final MovieRecommenderService service = mock(MovieRecommenderService.class);
+
+        // When
+        final Tool2Panel[] ref = new Tool2Panel[1];
+        SwingUtilities.invokeAndWait(() -> ref[0] = new Tool2Panel(service, mock(java.util.function.Consumer.class)));
+
+        // Then: ni prefetcher ni génération à la demande
+        assertNull(getField(ref[0], "prefetcher"));
+        verify(service, after(200).never()).recommendRandomBatch(anyInt(), any());
+        verify(service, never()).generateDescription(anyString());
+    }
+
     @Test
     @DisplayName("htmlEscape + setDescHtml: la description est correctement échappée et injectée")
     void html_isEscaped_andSetIntoPane() throws Exception {
@@ -354,6 +371,7 @@ final class Tool2PanelTest {
 
         // THEN titre commence par "Erreur" + fallback "Description indisponible"
         awaitTrue(() -> title.getText().startsWith("Erreur"), 3, TimeUnit.SECONDS);
+        SwingUtilities.invokeAndWait(() -> { }); // done() finit sur l'EDT après le titre
         assertTrue(desc.getText().contains("Description indisponible"));
     }
 
@@ -1,5 +1,7 @@
 package app.cinematch.util;
 
+import app.cinematch.jfr.JfrCapture;
+import app.cinematch.metrics.MetricsRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -9,6 +11,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URL;
+import jdk.jfr.consumer.RecordedEvent;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,11 +72,13 @@ class ImageLoaderTest {
         URL url = createTempPng(120, 80, new Color(30, 180, 90));
 
         // When — deux chargements successifs
+        long hits = MetricsRegistry.global().counter("image.cache.hit").count();
         ImageIcon first = ImageLoader.loadPoster(url.toString(), 60, 60);
         ImageIcon second = ImageLoader.loadPoster(url.toString(), 60, 60);
 
-        // Then — même instance (cache ConcurrentHashMap)
+        // Then — même instance (cache ConcurrentHashMap), comptée comme hit
         assertNotNull(first);
+        assertEquals(hits + 1, MetricsRegistry.global().counter("image.cache.hit").count());
         assertSame(first, second, "Doit renvoyer la même instance (cache)");
         // Et dimensions cohérentes : min(60/120, 60/80)=0.5 => 60x40
         assertEquals(60, first.getIconWidth());
@@ -117,4 +122,25 @@ class ImageLoaderTest {
         assertNull(ImageLoader.loadPoster(null, 100, 100));
         assertNull(ImageLoader.loadPoster("   ", 100, 100));
     }
+
+    @Test
+    @DisplayName("Given image hors cache, When loadPoster, Then événement JFR ImageFetch avec dimensions")
+    void givenUncachedImage_whenLoadPoster_thenJfrEventIsEmitted() throws Exception {
+        // Given
+        URL url = createTempPng(90, 30, Color.ORANGE);
+
+        try (JfrCapture jfr = new JfrCapture("app.cinematch.ImageFetch")) {
+            // When
+            ImageLoader.loadPoster(url.toString(), 100, 100);
+
+            // Then
+            RecordedEvent event = jfr.events("app.cinematch.ImageFetch").stream()
+                    .filter(e -> url.toString().equals(e.getString("url")))
+                    .findFirst().orElseThrow();
+            assertEquals(90, event.getInt("width"));
+            assertEquals(30, event.getInt("height"));
+            assertTrue(event.getBoolean("success"));
+            assertNotNull(event.getStackTrace(), "la pile désigne l'appelant");
+        }
+    }
 }
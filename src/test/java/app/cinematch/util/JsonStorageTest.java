@@ -6,7 +6,9 @@ import org.junit.jupiter.api.*;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -135,4 +137,76 @@ public class JsonStorageTest {
         assertNotNull(all);
         assertTrue(all.isEmpty());
     }
+
+    @Test
+    @DisplayName("loadAll / saveAll: durées et nombre d'entrées publiés dans le registre de métriques")
+    void loadAndSave_areMeasured() {
+        app.cinematch.metrics.MetricsRegistry metrics = app.cinematch.metrics.MetricsRegistry.global();
+        long loads = metrics.timer("storage.load").histogram().count();
+        long saves = metrics.timer("storage.save").histogram().count();
+
+        JsonStorage.addOrUpdate("Heat", "envie");
+        JsonStorage.addOrUpdate("Drive", "envie");
+
+        assertEquals(saves + 2, metrics.timer("storage.save").histogram().count());
+        assertTrue(metrics.timer("storage.load").histogram().count() >= loads + 1);
+        assertEquals(2L, ((app.cinematch.metrics.Gauge) metrics.snapshot().get("storage.entries")).value());
+    }
+
+    @Test
+    @DisplayName("loadAll / saveAll: événements JFR StorageIo avec entrées et taille du fichier")
+    void loadAndSave_emitJfrEvents() throws Exception {
+        try (app.cinematch.jfr.JfrCapture jfr = new app.cinematch.jfr.JfrCapture("app.cinematch.StorageIo")) {
+            // When
+            JsonStorage.addOrUpdate("Heat", "envie");
+            JsonStorage.addOrUpdate("Drive", "envie");
+
+            // Then: la dernière écriture porte 2 entrées et la taille du fichier
+            List<jdk.jfr.consumer.RecordedEvent> events = jfr.events("app.cinematch.StorageIo").stream()
+                    .filter(e -> STORAGE_PATH.toString().equals(e.getString("path")))
+                    .toList();
+            jdk.jfr.consumer.RecordedEvent lastSave = events.stream()
+                    .filter(e -> "save".equals(e.getString("action")))
+                    .reduce((a, b) -> b).orElseThrow();
+            assertEquals(2, lastSave.getInt("entries"));
+            assertEquals(Files.size(STORAGE_PATH), lastSave.getLong("bytes"));
+            assertTrue(lastSave.getBoolean("success"));
+            assertTrue(events.stream().anyMatch(e -> "load".equals(e.getString("action"))
+                    && e.getInt("entries") == 1));
+        }
+    }
+
+    @Test
+    @DisplayName("addOrUpdate concurrents : aucune entrée perdue")
+    void concurrent_addOrUpdate_keeps_every_entry() throws Exception {
+        // GIVEN : 8 sessions qui ajoutent chacune 20 titres en même temps
+        final int threads = 8;
+        final int perThread = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int session = t;
+            done.add(pool.submit(() -> {
+                go.await();
+                for (int i = 0; i < perThread; i++) {
+                    JsonStorage.addOrUpdate("Film " + session + "-" + i, "envie");
+                }
+                return null;
+            }));
+        }
+
+        // WHEN
+        go.countDown();
+        try {
+            for (Future<?> f : done) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // THEN : chaque lecture-modification-écriture a vu la précédente
+        assertEquals(threads * perThread, JsonStorage.loadAll().size());
+    }
 }